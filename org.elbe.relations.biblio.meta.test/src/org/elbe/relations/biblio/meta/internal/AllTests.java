@@ -27,6 +27,7 @@ import org.elbe.relations.biblio.meta.internal.extract.OfficeXMLExtractorTest;
 import org.elbe.relations.biblio.meta.internal.extract.PdfExtractorTest;
 import org.elbe.relations.biblio.meta.internal.extract.PowerPointExtractorTest;
 import org.elbe.relations.biblio.meta.internal.extract.WordExtractorTest;
+import org.elbe.relations.biblio.meta.internal.pdf.PDFInfoParserTest;
 import org.elbe.relations.biblio.meta.internal.unapi.UnAPIProviderTest;
 import org.elbe.relations.biblio.meta.internal.unapi.XMLFormatsParserTest;
 import org.elbe.relations.biblio.meta.internal.utility.ExtractorUtilTest;
@@ -44,7 +45,7 @@ import org.junit.runners.Suite.SuiteClasses;
         JpgExtractorTest.class, OfficeXMLExtractorTest.class,
         OOExtractorTest.class, PdfExtractorTest.class,
         PowerPointExtractorTest.class, WordExtractorTest.class,
-        UnAPIProviderTest.class, XMLFormatsParserTest.class,
+        PDFInfoParserTest.class, UnAPIProviderTest.class, XMLFormatsParserTest.class,
         ExtractorUtilTest.class, ListenerParameterObjectTest.class })
 public class AllTests {
 
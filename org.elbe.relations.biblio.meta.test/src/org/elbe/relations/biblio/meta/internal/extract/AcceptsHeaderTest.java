@@ -0,0 +1,79 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+
+package org.elbe.relations.biblio.meta.internal.extract;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.elbe.relations.services.IExtractorAdapter;
+import org.junit.Test;
+
+/**
+ * Tests that the extractors accept the same files when they are passed the
+ * header read before as when they have to open the file themselves.
+ *
+ * @author lbenno
+ */
+public class AcceptsHeaderTest {
+	private static final String[] FILE_NAMES = { "resources/dummy.txt",
+	        "resources/excelExtractorTest.xls",
+	        "resources/gifExtractorTest.gif", "resources/jpgExtractorTest.jpg",
+	        "resources/openOfficeTest.odt", "resources/pdfExtractorTest.pdf",
+	        "resources/powerpointExtractorTest.ppt",
+	        "resources/wordExtractorTest.doc",
+	        "resources/wordxExtractTest.docx" };
+
+	@Test
+	public void testAcceptsHeader() throws Exception {
+		final IExtractorAdapter[] lExtractors = { new ExcelExtractor(),
+		        new GifExtractor(), new JpgExtractor(), new OOExtractor(),
+		        new OfficeXMLExtractor(), new PdfExtractor(),
+		        new PowerPointExtractor(), new WordExtractor() };
+		for (final String lFileName : FILE_NAMES) {
+			final File lFile = new File(lFileName);
+			final byte[] lHeader = IExtractorAdapter.readHeader(lFile,
+			        IExtractorAdapter.HEADER_LENGTH);
+			boolean lAccepted = false;
+			for (final IExtractorAdapter lExtractor : lExtractors) {
+				final boolean lExpected = lExtractor.acceptsFile(lFile);
+				assertEquals(lExtractor.getClass().getSimpleName() + ": "
+				        + lFileName, lExpected,
+				        lExtractor.acceptsFile(lFile, lHeader));
+				lAccepted |= lExpected;
+			}
+			// each test file but the dummy has an extractor
+			assertEquals(lFileName, !lFileName.endsWith("dummy.txt"),
+			        lAccepted);
+		}
+	}
+
+	@Test
+	public void testReadHeader() throws IOException {
+		assertEquals(IExtractorAdapter.HEADER_LENGTH,
+		        IExtractorAdapter.readHeader(
+		                new File("resources/pdfExtractorTest.pdf"),
+		                IExtractorAdapter.HEADER_LENGTH).length);
+		assertEquals(40, IExtractorAdapter.readHeader(
+		        new File("resources/dummy.txt"), 100).length);
+	}
+
+}
@@ -28,7 +28,7 @@ import org.junit.runners.Suite.SuiteClasses;
  * @author lbenno
  */
 @RunWith(Suite.class)
-@SuiteClasses({ ExcelExtractorTest.class, GifExtractorTest.class,
+@SuiteClasses({ AcceptsHeaderTest.class, ExcelExtractorTest.class, GifExtractorTest.class,
         JpgExtractorTest.class, OfficeXMLExtractorTest.class,
         OOExtractorTest.class, PdfExtractorTest.class,
         PowerPointExtractorTest.class, WordExtractorTest.class })
@@ -0,0 +1,195 @@
+package org.elbe.relations.biblio.meta.internal.pdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author lbenno
+ */
+public class PDFInfoParserTest {
+	private static final String FILE_NAME = "resources/pdfExtractorTest.pdf";
+
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		file = new File(FILE_NAME);
+		if (!file.exists())
+			throw new FileNotFoundException(FILE_NAME);
+	}
+
+	@Test
+	public void testLoadInformation() throws Exception {
+		final PDDocument lPdf = PDDocument.loadInformation(file);
+		final PDDocument lExpected = PDDocument.load(file);
+		try {
+			assertFalse("not encrypted", lPdf.isEncrypted());
+			final PDDocumentInformation lInfo = lPdf.getDocumentInformation();
+			final PDDocumentInformation lExpectedInfo = lExpected
+			        .getDocumentInformation();
+			assertEquals("title", "Metadata Extractor Test Document",
+			        lInfo.getTitle());
+			assertEquals("same title", lExpectedInfo.getTitle(),
+			        lInfo.getTitle());
+			assertEquals("same author", lExpectedInfo.getAuthor(),
+			        lInfo.getAuthor());
+			assertEquals("same subject", lExpectedInfo.getSubject(),
+			        lInfo.getSubject());
+			assertEquals("same creation date",
+			        lExpectedInfo.getCreationDate(), lInfo.getCreationDate());
+		} finally {
+			lPdf.close();
+			lExpected.close();
+		}
+	}
+
+	@Test
+	public void testIncrementalUpdate() throws Exception {
+		final PdfBuilder lBuilder = new PdfBuilder();
+		lBuilder.append("%PDF-1.4\n");
+		final int lInfo = lBuilder.append(
+		        "1 0 obj\n<< /Title (Old Title) /Author (Tester) >>\nendobj\n");
+		final int lXref = lBuilder.append("xref\n0 2\n");
+		lBuilder.append("0000000000 65535 f\r\n");
+		lBuilder.append(String.format("%010d 00000 n\r\n", lInfo));
+		lBuilder.append("trailer\n<< /Size 2 /Info 1 0 R >>\n");
+		lBuilder.append("startxref\n" + lXref + "\n%%EOF\n");
+		// the update changes the title
+		final int lNewInfo = lBuilder.append(
+		        "1 0 obj\n<< /Title (New Title) /Author (Tester) >>\nendobj\n");
+		final int lNewXref = lBuilder.append("xref\n1 1\n");
+		lBuilder.append(String.format("%010d 00000 n\r\n", lNewInfo));
+		lBuilder.append("trailer\n<< /Size 2 /Info 1 0 R /Prev " + lXref
+		        + " >>\n");
+		lBuilder.append("startxref\n" + lNewXref + "\n%%EOF\n");
+
+		final PDDocument lPdf = parse(lBuilder);
+		try {
+			assertEquals("updated title", "New Title",
+			        lPdf.getDocumentInformation().getTitle());
+			assertEquals("author", "Tester",
+			        lPdf.getDocumentInformation().getAuthor());
+		} finally {
+			lPdf.close();
+		}
+	}
+
+	@Test
+	public void testXrefStream() throws Exception {
+		final PdfBuilder lBuilder = new PdfBuilder();
+		lBuilder.append("%PDF-1.5\n");
+		final int lCatalog = lBuilder.append(
+		        "1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+		final int lPages = lBuilder.append(
+		        "2 0 obj\n<< /Type /Pages /Kids [] /Count 0 >>\nendobj\n");
+		// the info dictionary is compressed in the object stream 3
+		final String lCompressed = "4 0 << /Title (Compressed Title) /Author (Tester) >>";
+		final int lObjectStream = lBuilder.append(
+		        "3 0 obj\n<< /Type /ObjStm /N 1 /First 4 /Length "
+		                + lCompressed.length() + " >>\nstream\n" + lCompressed
+		                + "\nendstream\nendobj\n");
+		final int lXref = lBuilder.append(
+		        "5 0 obj\n<< /Type /XRef /Size 6 /W [1 2 1] /Root 1 0 R /Info 4 0 R /Length 24 >>\nstream\n");
+		lBuilder.append(new byte[] { 0, 0, 0, 0 });
+		lBuilder.append(new byte[] { 1, high(lCatalog), low(lCatalog), 0 });
+		lBuilder.append(new byte[] { 1, high(lPages), low(lPages), 0 });
+		lBuilder.append(new byte[] { 1, high(lObjectStream),
+		        low(lObjectStream), 0 });
+		lBuilder.append(new byte[] { 2, 0, 3, 0 });
+		lBuilder.append(new byte[] { 1, high(lXref), low(lXref), 0 });
+		lBuilder.append("\nendstream\nendobj\n");
+		lBuilder.append("startxref\n" + lXref + "\n%%EOF\n");
+
+		final PDDocument lPdf = parse(lBuilder);
+		try {
+			assertEquals("compressed title", "Compressed Title",
+			        lPdf.getDocumentInformation().getTitle());
+			assertEquals("author", "Tester",
+			        lPdf.getDocumentInformation().getAuthor());
+		} finally {
+			lPdf.close();
+		}
+	}
+
+	@Test
+	public void testEncrypted() throws Exception {
+		final PdfBuilder lBuilder = new PdfBuilder();
+		lBuilder.append("%PDF-1.4\n");
+		final int lEncrypt = lBuilder.append(
+		        "1 0 obj\n<< /Filter /Standard /V 1 /R 2 >>\nendobj\n");
+		final int lXref = lBuilder.append("xref\n0 2\n");
+		lBuilder.append("0000000000 65535 f\r\n");
+		lBuilder.append(String.format("%010d 00000 n\r\n", lEncrypt));
+		lBuilder.append("trailer\n<< /Size 2 /Encrypt 1 0 R >>\n");
+		lBuilder.append("startxref\n" + lXref + "\n%%EOF\n");
+
+		final PDDocument lPdf = parse(lBuilder);
+		try {
+			assertTrue("encrypted", lPdf.isEncrypted());
+		} finally {
+			lPdf.close();
+		}
+	}
+
+	@Test
+	public void testMissingStartxref() throws Exception {
+		final PdfBuilder lBuilder = new PdfBuilder();
+		lBuilder.append("%PDF-1.4\n1 0 obj\n<< /Title (Title) >>\nendobj\n");
+		try {
+			parse(lBuilder);
+			fail("shouldn't get here");
+		} catch (final IOException exc) {
+			// expected
+		}
+	}
+
+	private PDDocument parse(final PdfBuilder inBuilder) throws IOException {
+		final PDFInfoParser lParser = new PDFInfoParser(
+		        ByteBuffer.wrap(inBuilder.toByteArray()));
+		lParser.parse();
+		return lParser.getPDDocument();
+	}
+
+	private byte high(final int inValue) {
+		return (byte) (inValue >> 8);
+	}
+
+	private byte low(final int inValue) {
+		return (byte) inValue;
+	}
+
+	// ---
+
+	private static class PdfBuilder {
+		private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		/**
+		 * @return int the offset of the appended content
+		 */
+		int append(final String inContent) throws IOException {
+			return append(inContent.getBytes("ISO-8859-1"));
+		}
+
+		int append(final byte[] inContent) throws IOException {
+			final int outOffset = out.size();
+			out.write(inContent);
+			return outOffset;
+		}
+
+		byte[] toByteArray() {
+			return out.toByteArray();
+		}
+	}
+
+}
@@ -0,0 +1,138 @@
+package org.elbe.relations.biblio.meta.internal.pdf;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark comparing the full parse ({@link PDDocument#load(File)}) with the
+ * trailer-first parse ({@link PDDocument#loadInformation(File)}) when reading
+ * the document information.
+ * <p>
+ * Pass the PDF files to read as arguments. Without arguments, a PDF with 40
+ * images of 1 MB each is generated in the temporary directory.
+ * </p>
+ * <p>
+ * Not part of the test suite, run as Java application.
+ * </p>
+ *
+ * @author lbenno
+ */
+public class PdfInfoBenchmark {
+	private static final int WARM_UP = 3;
+	private static final int ROUNDS = 10;
+	private static final int IMAGES = 40;
+	private static final int IMAGE_SIZE = 1024 * 1024;
+
+	public static void main(final String[] inArgs) throws IOException {
+		final List<File> lFiles = new ArrayList<File>();
+		for (final String lName : inArgs) {
+			lFiles.add(new File(lName));
+		}
+		if (lFiles.isEmpty()) {
+			final File lGenerated = generate();
+			lGenerated.deleteOnExit();
+			lFiles.add(lGenerated);
+		}
+		for (final File lFile : lFiles) {
+			System.out.println(String.format("%s (%.1f MB)", lFile.getName(), //$NON-NLS-1$
+			        lFile.length() / 1e6));
+			run("PDDocument.load", lFile, false); //$NON-NLS-1$
+			run("PDDocument.loadInformation", lFile, true); //$NON-NLS-1$
+		}
+	}
+
+	private static void run(final String inName, final File inFile,
+	        final boolean inInfoOnly) throws IOException {
+		for (int i = 0; i < WARM_UP; i++) {
+			read(inFile, inInfoOnly);
+		}
+		String lTitle = null;
+		final long lStart = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			lTitle = read(inFile, inInfoOnly);
+		}
+		final long lElapsed = (System.nanoTime() - lStart) / ROUNDS;
+		System.out.println(String.format("  %-30s %10.2f ms (title: %s)", //$NON-NLS-1$
+		        inName, lElapsed / 1e6, lTitle));
+	}
+
+	private static String read(final File inFile, final boolean inInfoOnly)
+	        throws IOException {
+		final PDDocument lPdf = inInfoOnly ? PDDocument.loadInformation(inFile)
+		        : PDDocument.load(inFile);
+		try {
+			return lPdf.getDocumentInformation().getTitle();
+		} finally {
+			lPdf.close();
+		}
+	}
+
+	/**
+	 * Writes a PDF with a classic cross-reference table, the info dictionary
+	 * being the last object.
+	 */
+	private static File generate() throws IOException {
+		final File outFile = File.createTempFile("benchmark", ".pdf"); //$NON-NLS-1$ //$NON-NLS-2$
+		final CountingOutputStream lOutput = new CountingOutputStream(
+		        new BufferedOutputStream(new FileOutputStream(outFile)));
+		try {
+			final Random lRandom = new Random(42);
+			final byte[] lImage = new byte[IMAGE_SIZE];
+			final long[] lOffsets = new long[IMAGES + 2];
+			lOutput.write("%PDF-1.4\n"); //$NON-NLS-1$
+			for (int i = 1; i <= IMAGES; i++) {
+				lRandom.nextBytes(lImage);
+				lOffsets[i] = lOutput.count;
+				lOutput.write(i + " 0 obj\n<< /Type /XObject /Subtype /Image /Width 1024 /Height 1024 /BitsPerComponent 8 /ColorSpace /DeviceGray /Length " //$NON-NLS-1$
+				        + IMAGE_SIZE + " >>\nstream\n"); //$NON-NLS-1$
+				lOutput.write(lImage);
+				lOutput.write("\nendstream\nendobj\n"); //$NON-NLS-1$
+			}
+			final int lInfo = IMAGES + 1;
+			lOffsets[lInfo] = lOutput.count;
+			lOutput.write(lInfo
+			        + " 0 obj\n<< /Title (Benchmark Document) /Author (Relations) >>\nendobj\n"); //$NON-NLS-1$
+			final long lXref = lOutput.count;
+			lOutput.write("xref\n0 " + (IMAGES + 2) + "\n0000000000 65535 f\r\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			for (int i = 1; i <= lInfo; i++) {
+				lOutput.write(String.format("%010d 00000 n\r\n", lOffsets[i])); //$NON-NLS-1$
+			}
+			lOutput.write("trailer\n<< /Size " + (IMAGES + 2) + " /Info " + lInfo //$NON-NLS-1$ //$NON-NLS-2$
+			        + " 0 R >>\nstartxref\n" + lXref + "\n%%EOF\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			lOutput.close();
+		}
+		return outFile;
+	}
+
+	// ---
+
+	private static class CountingOutputStream {
+		private final OutputStream output;
+		long count = 0;
+
+		CountingOutputStream(final OutputStream inOutput) {
+			output = inOutput;
+		}
+
+		void write(final String inContent) throws IOException {
+			write(inContent.getBytes("ISO-8859-1")); //$NON-NLS-1$
+		}
+
+		void write(final byte[] inContent) throws IOException {
+			output.write(inContent);
+			count += inContent.length;
+		}
+
+		void close() throws IOException {
+			output.close();
+		}
+	}
+
+}
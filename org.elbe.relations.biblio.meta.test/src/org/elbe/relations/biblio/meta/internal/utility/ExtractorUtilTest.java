@@ -27,6 +27,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 
+import org.elbe.relations.services.IExtractorAdapter;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -76,6 +77,21 @@ public class ExtractorUtilTest {
 		        FILE_NAME2), ExtractorUtil.toHexFilter("%PDF")));
 	}
 
+	@Test
+	public final void testCheckHeader() throws IOException {
+		final byte[] lHeader = IExtractorAdapter.readHeader(file, 16);
+		assertEquals(16, lHeader.length);
+		assertTrue("check for pdf 1", ExtractorUtil.checkHeader(lHeader,
+		        ExtractorUtil.toHexFilter("%PDF")));
+		assertTrue("check with wildcard",
+		        ExtractorUtil.checkHeader(lHeader, "25 xx 44 46"));
+		assertFalse("check for pdf 2", ExtractorUtil.checkHeader(
+		        IExtractorAdapter.readHeader(new File(FILE_NAME2), 16),
+		        ExtractorUtil.toHexFilter("%PDF")));
+		assertFalse("header too short", ExtractorUtil.checkHeader(
+		        new byte[] { 0x25, 0x50 }, ExtractorUtil.toHexFilter("%PDF")));
+	}
+
 	@Test
 	public final void testToHexFilter() {
 		assertEquals("value for '%pdf'", "25 70 64 66",
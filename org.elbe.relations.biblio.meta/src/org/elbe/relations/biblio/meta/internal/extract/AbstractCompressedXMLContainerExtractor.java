@@ -24,8 +24,10 @@ import java.io.IOException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -47,10 +49,12 @@ import org.xml.sax.helpers.DefaultHandler;
  */
 public abstract class AbstractCompressedXMLContainerExtractor extends AbstractExtractor {
 	private static final String ZIP_HEADER = "50 4B 03 04 14 00"; //$NON-NLS-1$
-	private static final DateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss"); //$NON-NLS-1$
+	private static final String DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss"; //$NON-NLS-1$
 
 	/**
 	 * Enumeration of listeners for the parser of the document's metadata xml.
+	 * The listeners are stateless, the content of the node is collected by the
+	 * handler of the actual parse run.
 	 */
 	enum ParserListener {
 		TITLE(new IListenerAction() {
@@ -96,29 +100,14 @@ public abstract class AbstractCompressedXMLContainerExtractor extends AbstractEx
 			}
 		});
 
-		private ParserListener parent;
 		private final IListenerAction action;
-		private StringBuilder content = new StringBuilder();
 
 		ParserListener(IListenerAction inAction) {
 			action = inAction;
 		}
 
-		void setParent(ParserListener inParent) {
-			parent = inParent;
-			content = new StringBuilder();
-		}
-
-		ParserListener getParent() {
-			return parent;
-		}
-
-		void process(ExtractedDataAdapter inExtracted) {
-			action.process(inExtracted, new String(content));
-		}
-
-		public void addContent(String inContent) {
-			content.append(inContent);
+		void process(ExtractedDataAdapter inExtracted, String inContent) {
+			action.process(inExtracted, inContent);
 		}
 	}
 
@@ -135,6 +124,30 @@ public abstract class AbstractCompressedXMLContainerExtractor extends AbstractEx
 		if (!ExtractorUtil.checkFileHeader(inFile, ZIP_HEADER)) {
 			return false;
 		}
+		return acceptsContainer(inFile);
+	}
+
+	/**
+	 * Tests whether this extractor can process the specified file, using the
+	 * file's header that has been read before.
+	 *
+	 * @param inFile
+	 *            File, the file to test.
+	 * @param inHeader
+	 *            byte[] the first bytes of the file
+	 * @return boolean <code>true</code> if the adapter is able to extract
+	 *         metadata from the file.
+	 * @see org.elbe.relations.services.IExtractorAdapter#acceptsFile(java.io.File,
+	 *      byte[])
+	 */
+	public boolean acceptsFile(File inFile, byte[] inHeader) {
+		if (!ExtractorUtil.checkHeader(inHeader, ZIP_HEADER)) {
+			return false;
+		}
+		return acceptsContainer(inFile);
+	}
+
+	private boolean acceptsContainer(File inFile) {
 		try {
 			return checkMetaEntry(inFile, getMetaEntryName());
 		} catch (final Exception exc) {
@@ -236,30 +249,29 @@ public abstract class AbstractCompressedXMLContainerExtractor extends AbstractEx
 	private class MetadataHandler extends DefaultHandler {
 
 		private final ExtractedDataAdapter extracted;
-		private ParserListener currentListener;
+		private final Deque<OpenNode> openNodes = new ArrayDeque<OpenNode>();
 
 		public MetadataHandler(ExtractedData inExtracted) {
 			extracted = new ExtractedDataAdapter(inExtracted);
-			currentListener = ParserListener.NOOP;
 		}
 
 		@Override
 		public void startElement(String inUri, String inTag, String inFullTag, Attributes inAttributes)
 				throws SAXException {
-			final ParserListener lListener = getParserListener(inFullTag);
-			lListener.setParent(currentListener);
-			currentListener = lListener;
+			openNodes.push(new OpenNode(getParserListener(inFullTag)));
 		}
 
 		@Override
 		public void endElement(String inUri, String inTag, String inFullTag) throws SAXException {
-			currentListener.process(extracted);
-			currentListener = currentListener.getParent();
+			final OpenNode lNode = openNodes.pop();
+			lNode.listener.process(extracted, new String(lNode.content));
 		}
 
 		@Override
 		public void characters(char[] inCharacters, int inStart, int inLength) throws SAXException {
-			currentListener.addContent(new String(inCharacters, inStart, inLength));
+			if (!openNodes.isEmpty()) {
+				openNodes.peek().content.append(inCharacters, inStart, inLength);
+			}
 		}
 
 		@Override
@@ -268,12 +280,25 @@ public abstract class AbstractCompressedXMLContainerExtractor extends AbstractEx
 		}
 	}
 
+	/**
+	 * The node being parsed with its listener and the content collected so far.
+	 */
+	private static class OpenNode {
+		final ParserListener listener;
+		final StringBuilder content = new StringBuilder();
+
+		OpenNode(ParserListener inListener) {
+			listener = inListener;
+		}
+	}
+
 	static interface IListenerAction {
 		void process(ExtractedDataAdapter inExtracted, String inContent);
 	}
 
 	class ExtractedDataAdapter {
 		private final ExtractedData extracted;
+		private final DateFormat dateFormat = new SimpleDateFormat(DATE_PATTERN);
 
 		private String description = ""; //$NON-NLS-1$
 		private String subject = ""; //$NON-NLS-1$
@@ -285,7 +310,7 @@ public abstract class AbstractCompressedXMLContainerExtractor extends AbstractEx
 
 		public void setCreationDate(String inContent) {
 			try {
-				extracted.setDateCreated(DATE_FORMAT.parse(inContent));
+				extracted.setDateCreated(dateFormat.parse(inContent));
 			} catch (final ParseException exc) {
 				exc.printStackTrace();
 			}
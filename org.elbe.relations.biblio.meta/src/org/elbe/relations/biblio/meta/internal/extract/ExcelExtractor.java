@@ -45,6 +45,11 @@ public class ExcelExtractor extends AbstractMSOfficeExtractor implements
 		return false;
 	}
 
+	@Override
+	public boolean acceptsFile(final File inFile, final byte[] inHeader) {
+		return isXlsFile(inFile) && ExtractorUtil.checkHeader(inHeader, OLE_HEADER);
+	}
+
 	private boolean isXlsFile(final File inFile) {
 		return inFile.getName().toLowerCase().endsWith(XLS_SUFFIX);
 	}
@@ -67,6 +67,15 @@ public class GifExtractor extends AbstractExtractor implements
 		return outGif;
 	}
 
+	@Override
+	public boolean acceptsFile(final File inFile, final byte[] inHeader) {
+		if (inHeader.length < 6) {
+			return false;
+		}
+		final String lHead = new String(inHeader, 0, 6).toLowerCase();
+		return lHead.equals("gif87a") || lHead.equals("gif89a"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -57,6 +57,12 @@ public class JpgExtractor extends AbstractExtractor implements
 		return outJpg;
 	}
 
+	@Override
+	public boolean acceptsFile(final File inFile, final byte[] inHeader) {
+		return inHeader.length >= 2 && (inHeader[0] & 0xff) == 0xff
+				&& (inHeader[1] & 0xff) == 0xd8;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -59,6 +59,14 @@ public class PdfExtractor extends AbstractExtractor implements
 						ExtractorUtil.toHexFilter("%pdf")); //$NON-NLS-1$
 	}
 
+	@Override
+	public boolean acceptsFile(final File inFile, final byte[] inHeader) {
+		return ExtractorUtil.checkHeader(inHeader,
+				ExtractorUtil.toHexFilter("%PDF")) || //$NON-NLS-1$
+				ExtractorUtil.checkHeader(inHeader,
+						ExtractorUtil.toHexFilter("%pdf")); //$NON-NLS-1$
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -70,7 +78,7 @@ public class PdfExtractor extends AbstractExtractor implements
 
 		PDDocument lPdf = null;
 		try {
-			lPdf = PDDocument.load(inFile);
+			lPdf = load(inFile);
 			if (lPdf.isEncrypted()) {
 				throw new IOException("Can't parse encrypted PDF!"); //$NON-NLS-1$
 			}
@@ -93,4 +101,17 @@ public class PdfExtractor extends AbstractExtractor implements
 		return outExtracted;
 	}
 
+	/**
+	 * Reads the trailer and the document information only. If this fails,
+	 * e.g. because of a damaged cross-reference table, the whole file is
+	 * parsed.
+	 */
+	private PDDocument load(final File inFile) throws IOException {
+		try {
+			return PDDocument.loadInformation(inFile);
+		} catch (final IOException exc) {
+			return PDDocument.load(inFile);
+		}
+	}
+
 }
@@ -56,6 +56,11 @@ public class PowerPointExtractor extends AbstractMSOfficeExtractor implements
 		return false;
 	}
 
+	@Override
+	public boolean acceptsFile(final File inFile, final byte[] inHeader) {
+		return isPptFile(inFile) && ExtractorUtil.checkHeader(inHeader, OLE_HEADER);
+	}
+
 	private boolean isPptFile(final File inFile) {
 		return inFile.getName().toLowerCase().endsWith(PPT_SUFFIX);
 	}
@@ -20,6 +20,7 @@ package org.elbe.relations.biblio.meta.internal.extract;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.elbe.relations.biblio.meta.internal.utility.ExtractorUtil;
 import org.elbe.relations.biblio.meta.internal.utility.FileDataSource;
@@ -71,6 +72,13 @@ public class WordExtractor extends AbstractMSOfficeExtractor implements
 		return false;
 	}
 
+	@Override
+	public boolean acceptsFile(final File inFile, final byte[] inHeader) {
+		return isDocFile(inFile) && inHeader.length >= 8 && ExtractorUtil
+				.getNumericalValue(Arrays.copyOf(inHeader, 8),
+						false) == OLE_TYPE_SIGNATURE;
+	}
+
 	private boolean isDocFile(final File inFile) {
 		return inFile.getName().toLowerCase().endsWith(DOC_SUFFIX);
 	}
@@ -39,11 +39,12 @@ public class DateConverter {
 	// documents
 	// will use that date, so I have added a couple other potential formats
 	// to try if the original one does not work.
-	private static final SimpleDateFormat[] POTENTIAL_FORMATS = new SimpleDateFormat[] {
-			new SimpleDateFormat("EEEE, dd MMM yyyy hh:mm:ss a"), //$NON-NLS-1$
-			new SimpleDateFormat("EEEE, MMM dd, yyyy hh:mm:ss a"), //$NON-NLS-1$
-			new SimpleDateFormat("MM/dd/yyyy hh:mm:ss"), //$NON-NLS-1$
-			new SimpleDateFormat("MM/dd/yyyy") }; //$NON-NLS-1$
+	// SimpleDateFormat is not thread safe, therefore, we keep the patterns only.
+	private static final String[] POTENTIAL_FORMATS = new String[] {
+			"EEEE, dd MMM yyyy hh:mm:ss a", //$NON-NLS-1$
+			"EEEE, MMM dd, yyyy hh:mm:ss a", //$NON-NLS-1$
+			"MM/dd/yyyy hh:mm:ss", //$NON-NLS-1$
+			"MM/dd/yyyy" }; //$NON-NLS-1$
 
 	private DateConverter() {
 	}
@@ -143,7 +144,7 @@ public class DateConverter {
 			} catch (final NumberFormatException exc) {
 				for (int i = 0; outValue == null && i < POTENTIAL_FORMATS.length; i++) {
 					try {
-						final Date lUtilDate = POTENTIAL_FORMATS[i].parse(inDate);
+						final Date lUtilDate = new SimpleDateFormat(POTENTIAL_FORMATS[i]).parse(inDate);
 						outValue = new GregorianCalendar();
 						outValue.setTime(lUtilDate);
 					} catch (final ParseException pexc) {
@@ -80,6 +80,25 @@ public class PDDocument {
 		return lParser.getPDDocument();
 	}
 
+	/**
+	 * This will load the trailer and the document information of a file
+	 * without parsing the document's content.
+	 *
+	 * @param inFile
+	 *            The file to load.
+	 * @return The document containing the trailer and the document
+	 *         information only.
+	 * @throws IOException
+	 *             If the file can't be read this way, use
+	 *             {@link #load(File)} then.
+	 * @see PDFInfoParser
+	 */
+	public static PDDocument loadInformation(File inFile) throws IOException {
+		PDFInfoParser lParser = new PDFInfoParser(inFile);
+		lParser.parse();
+		return lParser.getPDDocument();
+	}
+
     /**
      * This will get the document info dictionary.  This is guaranteed to not return null.
      *
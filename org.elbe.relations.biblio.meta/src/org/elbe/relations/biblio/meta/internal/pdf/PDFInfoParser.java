@@ -0,0 +1,429 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.biblio.meta.internal.pdf;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.elbe.relations.biblio.meta.internal.pdf.cos.COSBase;
+import org.elbe.relations.biblio.meta.internal.pdf.cos.COSDictionary;
+import org.elbe.relations.biblio.meta.internal.pdf.cos.COSDocument;
+import org.elbe.relations.biblio.meta.internal.pdf.cos.COSName;
+import org.elbe.relations.biblio.meta.internal.pdf.cos.COSNumber;
+import org.elbe.relations.biblio.meta.internal.pdf.cos.COSObject;
+import org.elbe.relations.biblio.meta.internal.pdf.cos.COSObjectKey;
+import org.elbe.relations.biblio.meta.internal.pdf.cos.COSStream;
+
+/**
+ * Parser reading the document information of a PDF without parsing the whole
+ * file.
+ * <p>
+ * The file is memory mapped. The parser locates <code>startxref</code> at the
+ * end of the file and reads the cross-reference sections (tables or streams)
+ * together with their trailers, following <code>/Prev</code> and
+ * <code>/XRefStm</code>. Then it parses the <code>/Info</code> object and the
+ * objects referenced by the <code>/Info</code> dictionary. All other objects,
+ * e.g. the page contents and images, are never read.
+ * </p>
+ * <p>
+ * Compared to the {@link PDFParser}, this parser is strict: if the
+ * cross-reference information is broken, it fails with an
+ * <code>IOException</code>, and the caller has to fall back to the full
+ * parse.
+ * </p>
+ *
+ * @author lbenno
+ */
+public class PDFInfoParser extends BaseParser {
+	private static final byte[] STARTXREF = "startxref".getBytes(); //$NON-NLS-1$
+	private static final int TAIL_LENGTH = 4096;
+	private static final int XREF_ENTRY_LENGTH = 20;
+	private static final int PUSH_BACK_SIZE = 4096;
+	private static final COSName PREV = COSName.getPDFName("Prev"); //$NON-NLS-1$
+	private static final COSName XREF_STM = COSName.getPDFName("XRefStm"); //$NON-NLS-1$
+	private static final COSName ENCRYPT = COSName.getPDFName("Encrypt"); //$NON-NLS-1$
+
+	private final ByteBuffer buffer;
+	private final List<XrefSection> sections = new ArrayList<XrefSection>();
+	private int base = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param inFile
+	 *            {@link File} the PDF file
+	 * @throws IOException
+	 */
+	public PDFInfoParser(File inFile) throws IOException {
+		this(map(inFile));
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param inBuffer
+	 *            {@link ByteBuffer} the PDF file's content
+	 * @throws IOException
+	 */
+	public PDFInfoParser(ByteBuffer inBuffer) throws IOException {
+		super(new ByteBufferInputStream(inBuffer, 0));
+		buffer = inBuffer;
+	}
+
+	private static MappedByteBuffer map(File inFile) throws IOException {
+		FileInputStream lInput = new FileInputStream(inFile);
+		try {
+			FileChannel lChannel = lInput.getChannel();
+			if (lChannel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Error: file too large to be mapped"); //$NON-NLS-1$
+			}
+			// the mapping stays valid after the channel is closed
+			return lChannel.map(FileChannel.MapMode.READ_ONLY, 0, lChannel.size());
+		}
+		finally {
+			lInput.close();
+		}
+	}
+
+	/**
+	 * Reads the cross-reference information and the document information.
+	 *
+	 * @throws IOException
+	 *             if the file can't be parsed this way
+	 */
+	public void parse() throws IOException {
+		COSDocument lDocument = new COSDocument();
+		setDocument(lDocument);
+		try {
+			COSDictionary lTrailer = new COSDictionary();
+			Set<Integer> lVisited = new HashSet<Integer>();
+			int lOffset = findStartXref();
+			while (lOffset >= 0 && lVisited.add(lOffset)) {
+				COSDictionary lSectionTrailer = parseXrefSection(lOffset);
+				COSBase lXrefStm = lSectionTrailer.getDictionaryObject(XREF_STM);
+				if (lXrefStm instanceof COSNumber && lVisited.add(((COSNumber) lXrefStm).intValue())) {
+					// hybrid file: the stream's entries come before the older sections
+					parseXrefSection(((COSNumber) lXrefStm).intValue());
+				}
+				// the entries of the newest trailer win
+				for (COSName lKey : lSectionTrailer.keyList()) {
+					if (lTrailer.getItem(lKey) == null) {
+						lTrailer.setItem(lKey, lSectionTrailer.getItem(lKey));
+					}
+				}
+				COSBase lPrev = lSectionTrailer.getDictionaryObject(PREV);
+				lOffset = lPrev instanceof COSNumber ? ((COSNumber) lPrev).intValue() : -1;
+			}
+			lDocument.setTrailer(lTrailer);
+			COSBase lEncrypt = lTrailer.getItem(ENCRYPT);
+			if (lEncrypt instanceof COSObject) {
+				resolve((COSObject) lEncrypt);
+			}
+			if (!lDocument.isEncrypted()) {
+				resolveInfo(lTrailer);
+			}
+		}
+		catch (IOException exc) {
+			lDocument.close();
+			throw exc;
+		}
+		catch (RuntimeException exc) {
+			// e.g. a ClassCastException because of an unexpected structure
+			lDocument.close();
+			throw new WrappedIOException(exc);
+		}
+	}
+
+	/**
+	 * @return {@link PDDocument} containing the trailer and the document
+	 *         information only. When you are done with this document you must
+	 *         call close() on it to release resources.
+	 */
+	public PDDocument getPDDocument() {
+		return new PDDocument(document);
+	}
+
+	private int findStartXref() throws IOException {
+		int lLimit = buffer.limit();
+		int lStart = Math.max(0, lLimit - TAIL_LENGTH);
+		for (int i = lLimit - STARTXREF.length; i >= lStart; i--) {
+			if (matches(i, STARTXREF)) {
+				seek(i + STARTXREF.length);
+				return readInt();
+			}
+		}
+		throw new IOException("Error: 'startxref' not found"); //$NON-NLS-1$
+	}
+
+	private boolean matches(int inPosition, byte[] inExpected) {
+		for (int j = 0; j < inExpected.length; j++) {
+			if (buffer.get(inPosition + j) != inExpected[j]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Parses the xref table or xref stream at the specified offset.
+	 *
+	 * @param inOffset
+	 *            int
+	 * @return {@link COSDictionary} the section's trailer
+	 * @throws IOException
+	 */
+	private COSDictionary parseXrefSection(int inOffset) throws IOException {
+		seek(inOffset);
+		skipSpaces();
+		if (pdfSource.peek() == 'x') {
+			return parseXrefTable();
+		}
+		// PDF 1.5: cross-reference stream
+		COSBase lObject = parseObjectAt(inOffset);
+		if (!(lObject instanceof COSStream)) {
+			throw new IOException("Error: no cross-reference at offset " + inOffset); //$NON-NLS-1$
+		}
+		COSStream lStream = (COSStream) lObject;
+		// the sections are read newest first, i.e. the entries read before win
+		Map<COSObjectKey, Integer> lNewer = new HashMap<COSObjectKey, Integer>(document.getXrefTable());
+		Map<COSObjectKey, Integer> lNewerCompressed = new HashMap<COSObjectKey, Integer>(
+				document.getObjectStreamXrefTable());
+		new PDFXrefStreamParser(lStream, document).parse();
+		document.getXrefTable().putAll(lNewer);
+		document.getObjectStreamXrefTable().putAll(lNewerCompressed);
+		return lStream;
+	}
+
+	/**
+	 * Reads the subsection headers only, the entries are looked up when needed
+	 * (they have a fixed length of 20 bytes).
+	 */
+	private COSDictionary parseXrefTable() throws IOException {
+		String lXref = readString();
+		if (!lXref.equals("xref")) { //$NON-NLS-1$
+			throw new IOException("expected='xref' actual='" + lXref + "'"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		skipSpaces();
+		while (pdfSource.peek() != 't') {
+			int lFirst = readInt();
+			int lCount = readInt();
+			skipSpaces();
+			int lEntries = base + pdfSource.getOffset();
+			sections.add(new XrefSection(lFirst, lCount, lEntries));
+			seek(lEntries + lCount * XREF_ENTRY_LENGTH);
+			skipSpaces();
+		}
+		String lTrailer = readString();
+		if (!lTrailer.equals("trailer")) { //$NON-NLS-1$
+			throw new IOException("expected='trailer' actual='" + lTrailer + "'"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		skipSpaces();
+		return parseCOSDictionary();
+	}
+
+	private void resolveInfo(COSDictionary inTrailer) throws IOException {
+		COSBase lInfo = inTrailer.getItem(COSName.INFO);
+		if (lInfo instanceof COSObject) {
+			resolve((COSObject) lInfo);
+			lInfo = ((COSObject) lInfo).getObject();
+		}
+		if (lInfo instanceof COSDictionary) {
+			// the entries can be indirect objects too, e.g. /Title 12 0 R
+			COSDictionary lDictionary = (COSDictionary) lInfo;
+			for (COSName lKey : lDictionary.keyList()) {
+				COSBase lValue = lDictionary.getItem(lKey);
+				if (lValue instanceof COSObject) {
+					resolve((COSObject) lValue);
+				}
+			}
+		}
+	}
+
+	private void resolve(COSObject inObject) throws IOException {
+		if (inObject.getObject() != null) {
+			return;
+		}
+		COSObjectKey lKey = new COSObjectKey(inObject);
+		int lOffset = getOffset(lKey);
+		if (lOffset >= 0) {
+			inObject.setObject(parseObjectAt(lOffset));
+			return;
+		}
+		Integer lStreamNumber = document.getObjectStreamXrefTable().get(new COSObjectKey(lKey.getNumber(), 0));
+		if (lStreamNumber != null) {
+			resolveFromObjectStream(inObject, lStreamNumber.intValue());
+		}
+	}
+
+	/**
+	 * PDF 1.5: the object is compressed in an object stream.
+	 */
+	private void resolveFromObjectStream(COSObject inObject, int inStreamNumber) throws IOException {
+		int lOffset = getOffset(new COSObjectKey(inStreamNumber, 0));
+		if (lOffset < 0) {
+			return;
+		}
+		COSBase lStream = parseObjectAt(lOffset);
+		if (!(lStream instanceof COSStream)) {
+			return;
+		}
+		PDFObjectStreamParser lParser = new PDFObjectStreamParser((COSStream) lStream, document);
+		lParser.parse();
+		long lNumber = inObject.getObjectNumber().longValue();
+		for (COSObject lCompressed : lParser.getObjects()) {
+			if (lCompressed.getObjectNumber().longValue() == lNumber) {
+				inObject.setObject(lCompressed.getObject());
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Looks up the object's offset, the newest section first.
+	 *
+	 * @param inKey
+	 *            {@link COSObjectKey}
+	 * @return int the offset or -1 if the object isn't listed
+	 */
+	private int getOffset(COSObjectKey inKey) throws IOException {
+		Integer lOffset = document.getXrefTable().get(inKey);
+		if (lOffset != null) {
+			return lOffset.intValue();
+		}
+		long lNumber = inKey.getNumber();
+		for (XrefSection lSection : sections) {
+			if (lNumber >= lSection.first && lNumber < lSection.first + lSection.count) {
+				// nnnnnnnnnn ggggg n
+				seek(lSection.entries + (int) (lNumber - lSection.first) * XREF_ENTRY_LENGTH);
+				int lObjectOffset = readInt();
+				int lGeneration = readInt();
+				String lType = readString(1);
+				if ("n".equals(lType) && lGeneration == inKey.getGeneration()) { //$NON-NLS-1$
+					return lObjectOffset;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Parses the indirect object (<code>n g obj ... endobj</code>) at the
+	 * specified offset.
+	 */
+	private COSBase parseObjectAt(int inOffset) throws IOException {
+		seek(inOffset);
+		readInt();
+		readInt();
+		String lObjectKey = readString(3);
+		if (!lObjectKey.equals("obj")) { //$NON-NLS-1$
+			throw new IOException("expected='obj' actual='" + lObjectKey + "' at offset " + inOffset); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		skipSpaces();
+		COSBase outObject = parseDirObject();
+		String lEndObjectKey = readString();
+		if (lEndObjectKey.equals("stream")) { //$NON-NLS-1$
+			pdfSource.unread(lEndObjectKey.getBytes());
+			pdfSource.unread(' ');
+			if (!(outObject instanceof COSDictionary)) {
+				throw new IOException("stream not preceded by dictionary"); //$NON-NLS-1$
+			}
+			outObject = parseCOSStream((COSDictionary) outObject, document.getScratchFile());
+		}
+		return outObject;
+	}
+
+	/**
+	 * Repositions the parser at the specified offset in the file.
+	 */
+	private void seek(int inOffset) throws IOException {
+		if (inOffset < 0 || inOffset >= buffer.limit()) {
+			throw new IOException("Error: offset " + inOffset + " out of file"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		base = inOffset;
+		pdfSource = new PushBackInputStream(new ByteBufferInputStream(buffer, inOffset), PUSH_BACK_SIZE);
+	}
+
+	// --- private classes ---
+
+	/**
+	 * A subsection of a cross-reference table.
+	 */
+	private static class XrefSection {
+		final long first;
+		final int count;
+		final int entries;
+
+		XrefSection(long inFirst, int inCount, int inEntries) {
+			first = inFirst;
+			count = inCount;
+			entries = inEntries;
+		}
+	}
+
+	/**
+	 * Input stream reading from a (memory mapped) buffer.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer inBuffer, int inPosition) {
+			buffer = inBuffer.duplicate();
+			buffer.position(inPosition);
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] inBytes, int inOffset, int inLength) {
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int lLength = Math.min(inLength, buffer.remaining());
+			buffer.get(inBytes, inOffset, lLength);
+			return lLength;
+		}
+
+		@Override
+		public long skip(long inCount) {
+			int lCount = (int) Math.min(inCount, buffer.remaining());
+			buffer.position(buffer.position() + lCount);
+			return lCount;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+
+}
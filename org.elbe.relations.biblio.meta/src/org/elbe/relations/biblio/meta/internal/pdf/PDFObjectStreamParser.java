@@ -65,6 +65,8 @@ public class PDFObjectStreamParser extends BaseParser {
             streamObjects = new ArrayList<COSObject>(numberOfObjects);
             for (int i=0; i<numberOfObjects; i++) {
                 int lObjectNumber = readInt();
+                // the header contains pairs of object number and offset
+                readInt();
                 objectNumbers.add(new Integer(lObjectNumber));
             }
             COSObject lObject = null;
@@ -128,8 +128,14 @@ public class PDFXrefStreamParser extends BaseParser {
                 case 2:
                     /*
                      * These objects are handled by the dereferenceObjects() method
-                     * since they're only pointing to object numbers
+                     * since they're only pointing to object numbers.
+                     * We remember the object stream for lookups of single objects.
                      */
+                    int lStreamNumber = 0;
+                    for (int i = 0; i < w1; i++) {
+                        lStreamNumber += (lCurrentLine[i + w0] & 0x00ff) << ((w1 - i - 1) * 8);
+                    }
+                    document.setObjectStreamXRef(new COSObjectKey(lObjID.intValue(), 0), lStreamNumber);
                     break;
                 default:
                     break;
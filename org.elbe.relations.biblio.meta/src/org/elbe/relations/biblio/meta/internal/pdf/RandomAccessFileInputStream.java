@@ -60,4 +60,12 @@ public class RandomAccessFileInputStream extends InputStream {
         }
 	}
 
+	/* (non-Javadoc)
+	 * @see java.io.InputStream#available()
+	 */
+	@Override
+	public int available() {
+		return (int) (endPosition - currentPosition);
+	}
+
 }
@@ -52,6 +52,7 @@ public class COSDocument extends COSBase {
      * Maps ObjectKeys to a COSObject. Note that references to these objects
      * are also stored in COSDictionary objects that map a name to a specific object.
      */
+	private Map<COSObjectKey, Integer> objectStreamXrefTable = new HashMap<COSObjectKey, Integer>();
 	private Map<COSObjectKey, COSObject> objectPool = new HashMap<COSObjectKey, COSObject>();
 
 	/**
@@ -113,6 +114,26 @@ public class COSDocument extends COSBase {
 		xrefTable .put(inKey, new Integer(inOffset));
 	}
 
+	/**
+	 * Adds an entry for an object compressed in an object stream (PDF 1.5).
+	 *
+	 * @param inKey COSObjectKey The objkey of the compressed object
+	 * @param inStreamNumber int The object number of the object stream
+	 */
+	public void setObjectStreamXRef(COSObjectKey inKey, int inStreamNumber) {
+		objectStreamXrefTable.put(inKey, new Integer(inStreamNumber));
+	}
+
+	/**
+	 * Returns the mapping of the compressed objects' ObjectKeys
+	 * to the object numbers of the object streams containing them.
+	 *
+	 * @return mapping of ObjectKeys to object stream numbers
+	 */
+	public Map<COSObjectKey, Integer> getObjectStreamXrefTable() {
+		return objectStreamXrefTable;
+	}
+
     /**
      * This will get an object from the pool.
      *
@@ -19,10 +19,11 @@ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
 package org.elbe.relations.biblio.meta.internal.utility;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.StringTokenizer;
 
+import org.elbe.relations.services.IExtractorAdapter;
+
 /**
  * Helper class for metadata extraction from files.
  *
@@ -124,6 +125,24 @@ public class ExtractorUtil {
 	 * 			<code>false</code> is it isn't or if there are any exceptions accessing/parsing the file.
 	 */
 	public static boolean checkFileHeader(File inFile, String inTest) {
+		try {
+			return checkHeader(IExtractorAdapter.readHeader(inFile, (inTest.length() + 1) / 3), inTest);
+		}
+		catch (IOException exc) {
+			return false;
+		}
+	}
+
+	/**
+	 * Helper method for testing a file header that has been read before, see
+	 * {@link IExtractorAdapter#readHeader(File, int)}.
+	 * 
+	 * @param inHeader byte[] the first bytes of the file
+	 * @param inTest {@link String} A space separated string of hex bytes, see
+	 *        {@link #checkFileHeader(File, String)}.
+	 * @return boolean <code>true</code> if the string is at the start of the header.
+	 */
+	public static boolean checkHeader(byte[] inHeader, String inTest) {
 		int lLength = (inTest.length() + 1) / 3;
 		int[] lValue = new int[lLength];
 		int[] lMask = new int[lLength];
@@ -150,41 +169,17 @@ public class ExtractorUtil {
 			}
 		}
 
-		// Call the method with the calculated arrays.
-		return checkFileHeader(inFile, lValue, lMask);
-	}
-
-	
-	private static boolean checkFileHeader(File inFile, int[] inTest, int[] inMask) {
-		FileInputStream lStream = null;
-
-		int lLength = inTest.length;
-		byte[] lBuffer = new byte[lLength];
-
-		try {
-			// Read the file.
-			lStream = new FileInputStream(inFile);
-			lStream.read(lBuffer);
-
-			// Loop through all the bytes.
-			for (int i = 0; i < inTest.length; i++) {
-				// Mask and test the bytes.
-				if (!((lBuffer[i] & inMask[i]) == inTest[i])) {
-					return false;
-				}
+		if (inHeader.length < lLength) {
+			return false;
+		}
+		// Loop through all the bytes.
+		for (int i = 0; i < lLength; i++) {
+			// Mask and test the bytes.
+			if (!((inHeader[i] & lMask[i]) == lValue[i])) {
+				return false;
 			}
-			return true;
-		} 
-		catch (IOException exc) {
-			//do nothing
-		} 
-		finally {
-			try {
-				lStream.close();
-			} 
-			catch (Exception exc) {}
 		}
-		return false;
+		return true;
 	}
 
 	/**
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.elbe.relations.browser.finder.internal.FinderPane.GalleryItemAdapter;
+import org.elbe.relations.data.utility.LongIntMap;
 import org.elbe.relations.data.utility.UniqueID;
 import org.elbe.relations.models.ItemAdapter;
 import org.hip.kernel.exc.VException;
@@ -39,14 +40,15 @@ public class SearchListHelper {
 
 	private final List<String> original;
 	private final List<String> lower;
-	private final List<UniqueID> ids;
+	// the packed unique IDs, mapped to their first position in the list
+	private final LongIntMap ids;
 	private long time;
 	private String search;
 
 	SearchListHelper() {
 		original = new ArrayList<String>();
 		lower = new ArrayList<String>();
-		ids = new ArrayList<UniqueID>();
+		ids = new LongIntMap();
 		time = 0;
 		search = ""; //$NON-NLS-1$
 	}
@@ -60,9 +62,9 @@ public class SearchListHelper {
 	 */
 	public void add(final ItemAdapter inItem) throws VException {
 		final String lText = inItem.getTitle();
+		ids.putIfAbsent(inItem.getUniqueID().pack(), original.size());
 		original.add(lText);
 		lower.add(lText.toLowerCase());
-		ids.add(inItem.getUniqueID());
 	}
 
 	/**
@@ -75,7 +77,7 @@ public class SearchListHelper {
 	 *         element.
 	 */
 	public int indexOf(final UniqueID inUniqueID) {
-		return ids.indexOf(inUniqueID);
+		return ids.get(inUniqueID.pack());
 	}
 
 	/**
@@ -18,13 +18,16 @@
  ***************************************************************************/
 package org.elbe.relations.cloud.azure;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
 
 import org.eclipse.e4.core.services.log.Logger;
 import org.elbe.relations.services.ICloudProvider;
+import org.elbe.relations.utility.ChunkedUpload;
 
 import com.google.gson.JsonObject;
 import com.microsoft.azure.storage.CloudStorageAccount;
@@ -51,25 +54,34 @@ public class AzureProvider implements ICloudProvider {
         }
 
         try {
-            final CloudStorageAccount storageAccount = CloudStorageAccount.parse(connectString);
-            final CloudFileClient fileClient = storageAccount.createCloudFileClient();
-            final CloudFileShare share = fileClient.getShareReference(AZ_SHARE);
-            if (share.createIfNotExists()) {
-                log.info("Created new share /" + AZ_SHARE + " on MS Azure."); //$NON-NLS-1$ //$NON-NLS-2$
-            }
-            final CloudFileDirectory rootDir = share.getRootDirectoryReference();
+            final CloudFileDirectory rootDir = getRootDir(connectString, log);
             final CloudFile cloudFile = rootDir.getFileReference(fileName);
             cloudFile.uploadFromFile(toExport.getAbsolutePath());
 
             if (isFullExport) {
-                // remove all existing increments in the cloud storage
-                final Iterable<ListFileItem> incrementalFiles = rootDir.listFilesAndDirectories("relations_delta_", //$NON-NLS-1$
-                        null, null);
-                for (final ListFileItem incrementalFile : incrementalFiles) {
-                    if (incrementalFile instanceof CloudFile) {
-                        ((CloudFile) incrementalFile).delete();
-                    }
-                }
+                deleteIncremental(rootDir);
+            }
+            return true;
+        } catch (InvalidKeyException | URISyntaxException | StorageException | IOException exc) {
+            log.error(exc, "Unable to upload data to MS Azure!"); //$NON-NLS-1$
+        }
+        return false;
+    }
+
+    @Override
+    public boolean upload(final InputStream content, final String fileName, final JsonObject configuration,
+            final boolean isFullExport, final Logger log) {
+        final String connectString = getConnectString(configuration);
+        if (connectString.isEmpty()) {
+            return false;
+        }
+
+        try {
+            final CloudFileDirectory rootDir = getRootDir(connectString, log);
+            new ChunkedUpload().upload(content, new AzureSession(rootDir.getFileReference(fileName)));
+
+            if (isFullExport) {
+                deleteIncremental(rootDir);
             }
             return true;
         } catch (InvalidKeyException | URISyntaxException | StorageException | IOException exc) {
@@ -78,6 +90,28 @@ public class AzureProvider implements ICloudProvider {
         return false;
     }
 
+    private CloudFileDirectory getRootDir(final String connectString, final Logger log)
+            throws InvalidKeyException, URISyntaxException, StorageException {
+        final CloudStorageAccount storageAccount = CloudStorageAccount.parse(connectString);
+        final CloudFileClient fileClient = storageAccount.createCloudFileClient();
+        final CloudFileShare share = fileClient.getShareReference(AZ_SHARE);
+        if (share.createIfNotExists()) {
+            log.info("Created new share /" + AZ_SHARE + " on MS Azure."); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return share.getRootDirectoryReference();
+    }
+
+    private void deleteIncremental(final CloudFileDirectory rootDir) throws StorageException, URISyntaxException {
+        // remove all existing increments in the cloud storage
+        final Iterable<ListFileItem> incrementalFiles = rootDir.listFilesAndDirectories("relations_delta_", //$NON-NLS-1$
+                null, null);
+        for (final ListFileItem incrementalFile : incrementalFiles) {
+            if (incrementalFile instanceof CloudFile) {
+                ((CloudFile) incrementalFile).delete();
+            }
+        }
+    }
+
     private String getConnectString(final JsonObject configuration) {
         if (configuration.has(AzureProviderConfig.KEY_CONNECT)) {
             return configuration.get(AzureProviderConfig.KEY_CONNECT).getAsString();
@@ -85,4 +119,56 @@ public class AzureProvider implements ICloudProvider {
         return ""; //$NON-NLS-1$
     }
 
+    // ---
+
+    /** Azure upload session: the file is created empty and grows with each range written. As range writes are
+     * idempotent, a failed chunk is simply written again. */
+    private static class AzureSession implements ChunkedUpload.IUploadSession {
+        private final CloudFile cloudFile;
+        private long size = -1;
+
+        AzureSession(final CloudFile cloudFile) {
+            this.cloudFile = cloudFile;
+        }
+
+        @Override
+        public void append(final byte[] data, final int start, final int length, final long offset)
+                throws IOException {
+            try (InputStream in = new ByteArrayInputStream(data, start, length)) {
+                ensureSize(offset + length);
+                this.cloudFile.uploadRange(in, offset, length);
+            } catch (URISyntaxException | StorageException exc) {
+                throw new IOException(exc);
+            }
+        }
+
+        @Override
+        public long resume(final long offset) throws IOException {
+            return offset;
+        }
+
+        @Override
+        public void finish(final long length) throws IOException {
+            try {
+                if (this.size < 0) {
+                    this.cloudFile.create(length);
+                } else if (this.size != length) {
+                    this.cloudFile.resize(length);
+                }
+            } catch (URISyntaxException | StorageException exc) {
+                throw new IOException(exc);
+            }
+        }
+
+        private void ensureSize(final long length) throws URISyntaxException, StorageException {
+            if (this.size < 0) {
+                this.cloudFile.create(length);
+                this.size = length;
+            } else if (this.size < length) {
+                this.cloudFile.resize(length);
+                this.size = length;
+            }
+        }
+    }
+
 }
@@ -18,6 +18,7 @@
  ***************************************************************************/
 package org.elbe.relations.cloud.dropbox;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -26,13 +27,17 @@ import java.util.Date;
 
 import org.eclipse.e4.core.services.log.Logger;
 import org.elbe.relations.services.ICloudProvider;
+import org.elbe.relations.utility.ChunkedUpload;
 
 import com.dropbox.core.DbxException;
 import com.dropbox.core.DbxRequestConfig;
 import com.dropbox.core.v2.DbxClientV2;
+import com.dropbox.core.v2.files.CommitInfo;
 import com.dropbox.core.v2.files.FileMetadata;
 import com.dropbox.core.v2.files.ListFolderResult;
 import com.dropbox.core.v2.files.Metadata;
+import com.dropbox.core.v2.files.UploadSessionCursor;
+import com.dropbox.core.v2.files.UploadSessionLookupErrorException;
 import com.dropbox.core.v2.files.WriteMode;
 import com.google.gson.JsonObject;
 
@@ -65,6 +70,28 @@ public class DropboxCloudProvider implements ICloudProvider {
         return true;
     }
 
+    @Override
+    public boolean upload(final InputStream content, final String fileName, final JsonObject configuration,
+            final boolean isFullExport, final Logger log) {
+        final String token = getToken(configuration);
+        if (token.isEmpty()) {
+            return false;
+        }
+
+        final DbxRequestConfig config = new DbxRequestConfig(DROP_BOX_CLIENT_IT);
+        final DbxClientV2 client = new DbxClientV2(config, token);
+        try {
+            new ChunkedUpload().upload(content, new DropboxSession(client, String.format(DROP_BOX_PATH, fileName), log));
+        } catch (final IOException exc) {
+            log.error(exc, "Error encountered during export to Dropbox cloud!"); //$NON-NLS-1$
+            return false;
+        }
+        if (isFullExport) {
+            deleteIncremental(client, log);
+        }
+        return true;
+    }
+
     private void deleteIncremental(final DbxClientV2 client, final Logger log) {
         try {
             ListFolderResult files = client.files().listFolder(DROP_BOX_ROOT);
@@ -103,4 +130,76 @@ public class DropboxCloudProvider implements ICloudProvider {
         return ""; //$NON-NLS-1$
     }
 
+    // ---
+
+    /** Dropbox upload session: the chunks are appended to the session, the file is committed when the upload is
+     * finished. */
+    private static class DropboxSession implements ChunkedUpload.IUploadSession {
+        private static final byte[] EMPTY = new byte[0];
+
+        private final DbxClientV2 client;
+        private final String dropboxPath;
+        private final Logger log;
+        private String sessionId;
+
+        DropboxSession(final DbxClientV2 client, final String dropboxPath, final Logger log) {
+            this.client = client;
+            this.dropboxPath = dropboxPath;
+            this.log = log;
+        }
+
+        @Override
+        public void append(final byte[] data, final int start, final int length, final long offset)
+                throws IOException {
+            try (InputStream in = new ByteArrayInputStream(data, start, length)) {
+                if (this.sessionId == null) {
+                    this.sessionId = this.client.files().uploadSessionStart().uploadAndFinish(in).getSessionId();
+                } else {
+                    this.client.files().uploadSessionAppendV2(new UploadSessionCursor(this.sessionId, offset))
+                    .uploadAndFinish(in);
+                }
+            } catch (final DbxException exc) {
+                throw new IOException(exc);
+            }
+        }
+
+        @Override
+        public long resume(final long offset) throws IOException {
+            if (this.sessionId == null) {
+                // the session has not been started yet
+                return 0;
+            }
+            // Dropbox returns the offset it expects if we append at a wrong offset
+            try (InputStream in = new ByteArrayInputStream(EMPTY)) {
+                this.client.files().uploadSessionAppendV2(new UploadSessionCursor(this.sessionId, offset))
+                .uploadAndFinish(in);
+                return offset;
+            } catch (final UploadSessionLookupErrorException exc) {
+                if (exc.errorValue.isIncorrectOffset()) {
+                    return exc.errorValue.getIncorrectOffsetValue().getCorrectOffset();
+                }
+                throw new IOException(exc);
+            } catch (final DbxException exc) {
+                throw new IOException(exc);
+            }
+        }
+
+        @Override
+        public void finish(final long length) throws IOException {
+            try (InputStream in = new ByteArrayInputStream(EMPTY)) {
+                if (this.sessionId == null) {
+                    // empty content
+                    this.sessionId = this.client.files().uploadSessionStart().uploadAndFinish(in).getSessionId();
+                }
+                final FileMetadata metadata = this.client.files()
+                        .uploadSessionFinish(new UploadSessionCursor(this.sessionId, length),
+                                CommitInfo.newBuilder(this.dropboxPath).withMode(WriteMode.OVERWRITE).build())
+                        .uploadAndFinish(in);
+                this.log.trace(metadata.toStringMultiline());
+            } catch (final DbxException exc) {
+                throw new IOException(exc);
+            }
+        }
+    }
+
 }
@@ -29,6 +29,7 @@ import java.util.List;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.e4.core.services.log.Logger;
 import org.elbe.relations.services.ICloudProvider;
+import org.elbe.relations.utility.ChunkedUpload;
 
 import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInstalledApp;
@@ -36,7 +37,9 @@ import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.AbstractInputStreamContent;
 import com.google.api.client.http.FileContent;
+import com.google.api.client.http.InputStreamContent;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.jackson2.JacksonFactory;
@@ -67,6 +70,19 @@ public class GoogleDriveProvider implements ICloudProvider {
     @Override
     public boolean upload(final java.io.File toExport, final String fileName, final JsonObject configuration,
             final boolean isFullExport, final Logger log) {
+        return upload(new FileContent(MIME_TYPE_FILE, toExport), fileName, isFullExport, log);
+    }
+
+    /** Uploads the stream with Google's resumable upload protocol: the content is sent in chunks while it is produced
+     * and the uploader resumes a failed chunk from the last byte Google Drive has received. */
+    @Override
+    public boolean upload(final InputStream content, final String fileName, final JsonObject configuration,
+            final boolean isFullExport, final Logger log) {
+        return upload(new InputStreamContent(MIME_TYPE_FILE, content), fileName, isFullExport, log);
+    }
+
+    private boolean upload(final AbstractInputStreamContent mediaContent, final String fileName,
+            final boolean isFullExport, final Logger log) {
         try {
             // Build a new authorized API client service.
             final NetHttpTransport HTTP_TRANSPORT = GoogleNetHttpTransport.newTrustedTransport();
@@ -82,8 +98,9 @@ public class GoogleDriveProvider implements ICloudProvider {
             fileMetadata.setName(fileName);
             fileMetadata.setParents(Collections.singletonList(folderId));
 
-            final FileContent mediaContent = new FileContent(MIME_TYPE_FILE, toExport);
-            drive.files().create(fileMetadata, mediaContent).setFields("id, parents").execute(); //$NON-NLS-1$
+            final Drive.Files.Create create = drive.files().create(fileMetadata, mediaContent);
+            create.getMediaHttpUploader().setDirectUploadEnabled(false).setChunkSize(ChunkedUpload.DFT_CHUNK_SIZE);
+            create.setFields("id, parents").execute(); //$NON-NLS-1$
 
             if (isFullExport) {
                 removeIncremental(drive, folderId);
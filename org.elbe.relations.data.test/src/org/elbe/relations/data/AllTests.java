@@ -19,6 +19,7 @@
 package org.elbe.relations.data;
 
 import org.elbe.relations.data.search.RelationsIndexerTest;
+import org.elbe.relations.data.search.StyledTextReaderTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
@@ -31,7 +32,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({ org.elbe.relations.data.bom.AllTests.class,
         org.elbe.relations.data.internal.bom.AllTests.class,
-        RelationsIndexerTest.class,
+        RelationsIndexerTest.class, StyledTextReaderTest.class,
         org.elbe.relations.data.utility.AllTests.class })
 public class AllTests {
 
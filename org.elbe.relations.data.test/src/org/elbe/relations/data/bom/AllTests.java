@@ -27,7 +27,8 @@ import org.junit.runners.Suite.SuiteClasses;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ PersonHomeTest.class, PersonTest.class, RelationHomeTest.class,
-        TermHomeTest.class, TermTest.class, TextHomeTest.class, TextTest.class })
+        TermHomeTest.class, TermTest.class, TextHomeTest.class, TextTest.class,
+        UnitOfWorkTest.class, EventStoreWriterTest.class })
 public class AllTests {
 
 }
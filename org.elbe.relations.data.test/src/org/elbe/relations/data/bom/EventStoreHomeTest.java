@@ -19,16 +19,20 @@
 package org.elbe.relations.data.bom;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 
 import java.sql.Timestamp;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.elbe.relations.data.bom.EventStoreHome.Durability;
 import org.elbe.relations.data.bom.EventStoreHome.StoreType;
 import org.elbe.relations.data.test.DataHouseKeeper;
 import org.elbe.relations.data.utility.UniqueID;
 import org.hip.kernel.bom.DomainObject;
 import org.hip.kernel.bom.KeyObject;
+import org.hip.kernel.bom.QueryResult;
 import org.hip.kernel.bom.impl.KeyObjectImpl;
 import org.hip.kernel.exc.VException;
 import org.junit.After;
@@ -50,6 +54,7 @@ public class EventStoreHomeTest {
 
     @After
     public void tearDown() throws Exception {
+        data.getEventStoreHome().setDurability(Durability.SYNC);
         data.deleteAllInAll();
     }
 
@@ -71,6 +76,103 @@ public class EventStoreHomeTest {
         assertEquals("Delete(1:22)", eventObj.get(EventStoreHome.KEY_EVENT));
     }
 
+    @Test
+    public void testSaveEntryAsync() throws Exception {
+        final EventStoreHome home = data.getEventStoreHome();
+        home.setDurability(Durability.ASYNC);
+        for (int i = 0; i < 250; i++) {
+            assertNull(home.saveEntry(new UniqueID(IItem.TERM, i)));
+        }
+        home.flush();
+        assertEquals(250, home.getCount());
+        // the order of the entries is retained
+        final QueryResult entries = home.selectAfter(0);
+        int i = 0;
+        while (entries.hasMoreElements()) {
+            assertEquals("1:" + i++, entries.nextAsDomainObject().get(EventStoreHome.KEY_UNIQUE_ID));
+        }
+
+        home.saveEntry(new UniqueID(IItem.TEXT, 7));
+        // switching back to sync writes the pending entries
+        home.setDurability(Durability.SYNC);
+        assertEquals(251, home.getCount());
+    }
+
+    @Test
+    public void testSaveEntryGroup() throws Exception {
+        final EventStoreHome home = data.getEventStoreHome();
+        home.setDurability(Durability.GROUP);
+        assertNull(home.saveEntry(new UniqueID(IItem.PERSON, 5)));
+        // the entry is committed when the call returns
+        assertEquals(1, home.getCount());
+    }
+
+    @Test
+    public void testSelectAfterWatermark() throws Exception {
+        final EventStoreHome home = data.getEventStoreHome();
+        home.saveEntry(new UniqueID(IItem.TERM, 1));
+        home.saveEntry(new UniqueID(IItem.TERM, 2));
+        final long watermarkID = home.getLastEventID();
+
+        home.saveEntry(new UniqueID(IItem.TERM, 3));
+        home.saveEntry(new UniqueID(IItem.TERM, 4));
+        final long lastEventID = home.getLastEventID();
+        // created after the export started
+        home.saveEntry(new UniqueID(IItem.TERM, 5));
+
+        assertEquals(4, home.getCountAfter(0, lastEventID));
+        assertEquals(2, home.getCountAfter(watermarkID, lastEventID));
+        final QueryResult entries = home.selectAfter(watermarkID, lastEventID);
+        assertEquals("1:3", entries.nextAsDomainObject().get(EventStoreHome.KEY_UNIQUE_ID));
+        assertEquals("1:4", entries.nextAsDomainObject().get(EventStoreHome.KEY_UNIQUE_ID));
+        assertFalse(entries.hasMoreElements());
+    }
+
+    @Test
+    public void testSelectAfterWatermarkOlderEntry() throws Exception {
+        final EventStoreHome home = data.getEventStoreHome();
+        home.saveEntry(new UniqueID(IItem.TERM, 1));
+        final long watermarkID = home.getLastEventID();
+
+        // an entry with a newer ID but an older creation date, e.g. written by the background writer
+        home.saveEntry(new UniqueID(IItem.TERM, 2));
+        final long lastEventID = home.getLastEventID();
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            unit.execute("UPDATE tblEventStore SET dtCreation = ? WHERE EventStoreID = ?", new Timestamp(0),
+                    lastEventID);
+            unit.commit();
+        }
+
+        assertEquals(1, home.getCountAfter(watermarkID, lastEventID));
+        final QueryResult entries = home.selectAfter(watermarkID, lastEventID);
+        assertEquals("1:2", entries.nextAsDomainObject().get(EventStoreHome.KEY_UNIQUE_ID));
+        assertFalse(entries.hasMoreElements());
+    }
+
+    @Test
+    public void testDeleteUpTo() throws Exception {
+        final EventStoreHome home = data.getEventStoreHome();
+        home.saveEntry(new UniqueID(IItem.TERM, 1));
+        home.saveEntry(new UniqueID(IItem.TERM, 2));
+        final long watermarkID = home.getLastEventID();
+        home.saveEntry(new UniqueID(IItem.TERM, 3));
+
+        assertEquals(2, home.deleteUpTo(watermarkID));
+        assertEquals(1, home.getCount());
+        assertEquals(watermarkID + 1, home.getLastEventID());
+        final QueryResult entries = home.selectAfter(0);
+        assertEquals("1:3", entries.nextAsDomainObject().get(EventStoreHome.KEY_UNIQUE_ID));
+        assertFalse(entries.hasMoreElements());
+    }
+
+    @Test
+    public void testDurabilityParse() throws Exception {
+        assertEquals(Durability.ASYNC, Durability.parse("async"));
+        assertEquals(Durability.GROUP, Durability.parse("GROUP"));
+        assertEquals(Durability.SYNC, Durability.parse(null));
+        assertEquals(Durability.SYNC, Durability.parse("unknown"));
+    }
+
     private KeyObject createKey(final long id) throws VException {
         final KeyObject key = new KeyObjectImpl();
         key.setValue(EventStoreHome.KEY_ID, new Long(id));
@@ -0,0 +1,130 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.bom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.elbe.relations.data.bom.EventStoreWriter.Entry;
+import org.hip.kernel.bom.BOMException;
+import org.junit.Test;
+
+/**
+ * @author lbenno
+ */
+public class EventStoreWriterTest {
+    private static final Timestamp CREATED = new Timestamp(0);
+
+    @Test
+    public void testFailureKeepsWorker() throws Exception {
+        final TestInserter inserter = new TestInserter();
+        final EventStoreWriter writer = new EventStoreWriter(inserter);
+
+        inserter.fail = new IllegalStateException("failed");
+        writer.append(1, "1:1", "event 1", CREATED, false);
+        try {
+            writer.flush(5000);
+            fail("shouldn't get here");
+        } catch (final BOMException exc) {
+            assertTrue(exc.getMessage().contains("failed"));
+        }
+        // the failure is reported once
+        writer.flush(5000);
+
+        // the worker is still alive and writes the subsequent entries
+        inserter.fail = null;
+        writer.append(1, "1:2", "event 2", CREATED, false);
+        writer.flush(5000);
+        assertEquals(1, inserter.written.size());
+        assertEquals("1:2", inserter.written.get(0));
+    }
+
+    @Test
+    public void testFailureReportedToWaiting() throws Exception {
+        final TestInserter inserter = new TestInserter();
+        final EventStoreWriter writer = new EventStoreWriter(inserter);
+
+        inserter.fail = new SQLException("failed");
+        try {
+            writer.append(1, "1:1", "event 1", CREATED, true);
+            fail("shouldn't get here");
+        } catch (final BOMException exc) {
+            assertTrue(exc.getMessage().contains("failed"));
+        }
+        // the failure has been reported to the waiting caller already
+        writer.flush(5000);
+    }
+
+    @Test
+    public void testFlushTimeout() throws Exception {
+        final TestInserter inserter = new TestInserter();
+        inserter.block = new CountDownLatch(1);
+        final EventStoreWriter writer = new EventStoreWriter(inserter);
+
+        writer.append(1, "1:1", "event 1", CREATED, false);
+        try {
+            writer.flush(100);
+            fail("shouldn't get here");
+        } catch (final BOMException exc) {
+            // expected
+        }
+        inserter.block.countDown();
+        writer.flush(5000);
+        assertEquals(1, inserter.written.size());
+    }
+
+    // ---
+
+    private static class TestInserter implements EventStoreWriter.Inserter {
+        final List<String> written = new ArrayList<>();
+        volatile Throwable fail;
+        volatile CountDownLatch block;
+
+        @Override
+        public void insert(final List<Entry> entries) throws SQLException {
+            if (this.block != null) {
+                try {
+                    this.block.await();
+                } catch (final InterruptedException exc) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            final Throwable failure = this.fail;
+            if (failure instanceof SQLException) {
+                throw (SQLException) failure;
+            }
+            if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+            synchronized (this.written) {
+                for (final Entry entry : entries) {
+                    this.written.add(entry.uniqueID);
+                }
+            }
+        }
+    }
+
+}
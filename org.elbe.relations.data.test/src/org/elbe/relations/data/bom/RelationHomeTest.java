@@ -22,8 +22,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.elbe.relations.data.internal.bom.Relation;
 import org.elbe.relations.data.test.DataHouseKeeper;
+import org.elbe.relations.data.utility.RelationGraph;
+import org.elbe.relations.data.utility.UniqueID;
 import org.hip.kernel.bom.QueryResult;
 import org.junit.After;
 import org.junit.Before;
@@ -56,6 +61,7 @@ public class RelationHomeTest {
 
     @After
     public void tearDown() throws Exception {
+        RelationGraph.INSTANCE.clear();
         data.deleteAllInAll();
     }
 
@@ -92,6 +98,52 @@ public class RelationHomeTest {
         assertEquals(6, storeHome.getCount());
     }
 
+    @Test
+    public void testNewRelations() throws Exception {
+        final RelationHome home = data.getRelationHome();
+        final EventStoreHome storeHome = data.getEventStoreHome();
+        home.newRelation(this.term2, this.person);
+        assertEquals(4, storeHome.getCount());
+
+        final List<Relation> relations = home.newRelations(this.person, Arrays.asList(
+                new UniqueID(IItem.TERM, this.term1.getID()), new UniqueID(IItem.TERM, this.term2.getID())));
+        assertEquals(2, relations.size());
+        assertEquals(3, home.getCount());
+        assertEquals(6, storeHome.getCount());
+
+        // the ids of the new relations are set
+        for (final Relation relation : relations) {
+            final Relation retrieved = home.getRelation(relation.getID());
+            assertEquals(IItem.PERSON, retrieved.getItemType1());
+            assertEquals(this.person.getID(), retrieved.getItemId1());
+            assertEquals(relation.getItemId2(), retrieved.getItemId2());
+        }
+        assertEquals(this.term1.getID(), relations.get(0).getItemId2());
+        assertEquals(this.term2.getID(), relations.get(1).getItemId2());
+        assertTrue(relations.get(0).getID() != relations.get(1).getID());
+    }
+
+    @Test
+    public void testNewRelationsDuplicate() throws Exception {
+        final RelationHome home = data.getRelationHome();
+        final EventStoreHome storeHome = data.getEventStoreHome();
+        final int events = storeHome.getCount();
+
+        final UniqueID term1 = new UniqueID(IItem.TERM, this.term1.getID());
+        final List<Relation> relations = home.newRelations(this.person,
+                Arrays.asList(term1, new UniqueID(IItem.TERM, this.term2.getID()), term1));
+        // the item specified twice is related once
+        assertEquals(2, relations.size());
+        assertEquals(2, home.getCount());
+        assertEquals(events + 2, storeHome.getCount());
+
+        assertEquals(this.term1.getID(), relations.get(0).getItemId2());
+        assertEquals(this.term2.getID(), relations.get(1).getItemId2());
+        for (final Relation relation : relations) {
+            assertEquals(relation.getItemId2(), home.getRelation(relation.getID()).getItemId2());
+        }
+    }
+
     @Test
     public void testGetRelation() throws Exception {
         final RelationHome lHome = data.getRelationHome();
@@ -162,4 +214,25 @@ public class RelationHomeTest {
         assertEquals(16, storeHome.getCount());
     }
 
+    @Test
+    public void testDeleteWithGraph() throws Exception {
+        final RelationHome home = data.getRelationHome();
+        home.newRelation(this.term1, this.person);
+        final EventStoreHome storeHome = data.getEventStoreHome();
+        assertEquals(4, storeHome.getCount());
+
+        final RelationGraph graph = RelationGraph.INSTANCE;
+        graph.load();
+        home.deleteRelations(this.term2);
+        assertEquals(1, home.getCount());
+        assertEquals(4, storeHome.getCount());
+        assertEquals(1, graph.getNeighbours(new UniqueID(IItem.TERM, this.term1.getID())).size());
+
+        home.deleteRelation(IItem.PERSON, this.person.getID(), IItem.TERM, this.term1.getID());
+        assertEquals(0, home.getCount());
+        assertEquals(5, storeHome.getCount());
+        assertTrue(graph.getNeighbours(new UniqueID(IItem.TERM, this.term1.getID())).isEmpty());
+        assertTrue(graph.getNeighbours(new UniqueID(IItem.PERSON, this.person.getID())).isEmpty());
+    }
+
 }
@@ -20,9 +20,13 @@ package org.elbe.relations.data.bom;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.elbe.relations.data.test.DataHouseKeeper;
 import org.hip.kernel.exc.VException;
@@ -71,6 +75,37 @@ public class TermHomeTest {
         assertEquals(2, storeHome.getCount());
     }
 
+    @Test
+    public void testNewTerms() throws Exception {
+        final TermHome home = data.getTermHome();
+        final EventStoreHome storeHome = data.getEventStoreHome();
+
+        assertTrue(home.newTerms(Collections.<String> emptyList(), Collections.<String> emptyList()).isEmpty());
+        assertEquals(0, home.getCount());
+
+        final List<AbstractTerm> terms = home.newTerms(Arrays.asList("Title 1", "Title 2", "Title 3"),
+                Arrays.asList("Text 1", "Text 2", "Text 3"));
+        assertEquals(3, terms.size());
+        assertEquals(3, home.getCount());
+        assertEquals(3, storeHome.getCount());
+        for (int i = 0; i < terms.size(); i++) {
+            final AbstractTerm retrieved = home.getTerm(terms.get(i).getID());
+            assertEquals("Title " + (i + 1), retrieved.getTitle());
+            assertEquals("Text " + (i + 1), retrieved.get(TermHome.KEY_TEXT).toString());
+        }
+
+        // a title too long: the whole batch is rolled back
+        final char[] tooLong = new char[1000];
+        Arrays.fill(tooLong, 'x');
+        try {
+            home.newTerms(Arrays.asList("Title 4", new String(tooLong)), Arrays.asList("Text 4", "Text 5"));
+            fail("BOMTruncationException expected");
+        } catch (final BOMTruncationException exc) {
+            // expected
+        }
+        assertEquals(3, home.getCount());
+    }
+
     @Test
     public void testGetTerm() throws VException, SQLException, BOMException {
         final String title = "ThisTitle";
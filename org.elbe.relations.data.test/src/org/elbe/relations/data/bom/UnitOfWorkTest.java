@@ -0,0 +1,145 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.bom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.elbe.relations.data.test.DataHouseKeeper;
+import org.elbe.relations.data.utility.UniqueID;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author lbenno
+ */
+public class UnitOfWorkTest {
+    private static final String SQL_INSERT = "INSERT INTO tblTerm (STITLE, STEXT, DTCREATION, DTMUTATION) VALUES (?, ?, ?, ?)";
+    private static DataHouseKeeper data;
+
+    @BeforeClass
+    public static void init() {
+        data = DataHouseKeeper.INSTANCE;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        data.deleteAllInAll();
+    }
+
+    @Test
+    public void testCommit() throws Exception {
+        final AtomicBoolean committed = new AtomicBoolean(false);
+        final AtomicBoolean indexed = new AtomicBoolean(false);
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            final Timestamp created = new Timestamp(System.currentTimeMillis());
+            final long id = unit.insert(SQL_INSERT, "Title", "Text", created, created);
+            data.getEventStoreHome().saveEntry(unit, new UniqueID(IItem.TERM, id));
+            unit.afterCommit(new Runnable() {
+                @Override
+                public void run() {
+                    committed.set(true);
+                }
+            });
+            unit.index(new UnitOfWork.IndexTask() {
+                @Override
+                public void run() throws Exception {
+                    indexed.set(true);
+                }
+            });
+            assertFalse(committed.get());
+            unit.commit();
+        }
+        assertTrue(committed.get());
+        UnitOfWork.awaitIndexed();
+        assertTrue(indexed.get());
+        assertEquals(1, data.getTermHome().getCount());
+        assertEquals(1, data.getEventStoreHome().getCount());
+    }
+
+    @Test
+    public void testRollback() throws Exception {
+        final AtomicBoolean indexed = new AtomicBoolean(false);
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            final Timestamp created = new Timestamp(System.currentTimeMillis());
+            final long id = unit.insert(SQL_INSERT, "Title", "Text", created, created);
+            data.getEventStoreHome().saveEntry(unit, new UniqueID(IItem.TERM, id));
+            unit.index(new UnitOfWork.IndexTask() {
+                @Override
+                public void run() throws Exception {
+                    indexed.set(true);
+                }
+            });
+            // closed without commit
+        }
+        UnitOfWork.awaitIndexed();
+        assertFalse(indexed.get());
+        assertEquals(0, data.getTermHome().getCount());
+        assertEquals(0, data.getEventStoreHome().getCount());
+    }
+
+    @Test
+    public void testDeleteTextWithRelations() throws Exception {
+        final AbstractText text = data.createText("Text", "Author");
+        data.createRelation(text, data.createTerm("Term 1"));
+        data.createRelation(data.createTerm("Term 2"), text);
+        assertEquals(2, data.getRelationHome().getCount());
+        assertEquals(5, data.getEventStoreHome().getCount());
+
+        data.getTextHome().deleteItem(text.getID());
+        assertEquals(0, data.getTextHome().getCount());
+        assertEquals(0, data.getRelationHome().getCount());
+        // one delete event for the text and each relation
+        assertEquals(8, data.getEventStoreHome().getCount());
+    }
+
+    @Test
+    public void testDeleteTermWithRelations() throws Exception {
+        final AbstractTerm term = data.createTerm("Term");
+        data.createRelation(term, data.createTerm("Term 1"));
+        data.createRelation(data.createPerson("Name", "First"), term);
+        assertEquals(2, data.getRelationHome().getCount());
+        assertEquals(5, data.getEventStoreHome().getCount());
+
+        data.getTermHome().deleteItem(term.getID());
+        assertEquals(1, data.getTermHome().getCount());
+        assertEquals(0, data.getRelationHome().getCount());
+        assertEquals(8, data.getEventStoreHome().getCount());
+    }
+
+    @Test
+    public void testDeletePersonWithRelations() throws Exception {
+        final AbstractPerson person = data.createPerson("Name", "First");
+        data.createRelation(person, data.createTerm("Term 1"));
+        data.createRelation(data.createText("Text", "Author"), person);
+        assertEquals(2, data.getRelationHome().getCount());
+        assertEquals(5, data.getEventStoreHome().getCount());
+
+        data.getPersonHome().deleteItem(person.getID());
+        assertEquals(0, data.getPersonHome().getCount());
+        assertEquals(0, data.getRelationHome().getCount());
+        assertEquals(8, data.getEventStoreHome().getCount());
+    }
+
+}
@@ -22,14 +22,20 @@ package org.elbe.relations.data.search;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.elbe.relations.data.bom.BOMHelper;
+import org.elbe.relations.data.bom.Term;
 import org.elbe.relations.data.internal.search.IndexerRegistration;
 import org.elbe.relations.data.test.DataHouseKeeper;
 import org.hip.kernel.exc.VException;
@@ -38,6 +44,7 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -108,6 +115,71 @@ public class RelationsIndexerTest {
 				eq(indexer.getLanguage()));
 	}
 
+	@Test
+	public void testRefreshIndexParallel() throws IOException, VException, Exception {
+		final IIndexer lIndexer = mock(IIndexer.class);
+		IndexerRegistration.INSTANCE.register(lIndexer);
+
+		data.createTerm("term for indexing");
+		data.createPerson("Doe", "Jane");
+		data.createText("text for indexing", "Doe, Jane");
+		final int lIndexed = indexer.refreshIndexParallel(monitor);
+		assertEquals(3, lIndexed);
+		verify(lIndexer).initializeIndex(indexer.getIndexDir(), indexer.getLanguage());
+		verify(lIndexer, atLeastOnce()).processIndexer(any(IndexerHelper.class), eq(indexer.getIndexDir()),
+				eq(indexer.getLanguage()));
+		verify(lIndexer).commit(indexer.getIndexDir());
+	}
+
+	@Test
+	public void testAddToIndexBatch() throws Exception {
+		final Term lTerm1 = (Term) data.createTerm("first batched");
+		final Term lTerm2 = (Term) data.createTerm("second batched");
+		final IIndexer lIndexer = mock(IIndexer.class);
+		IndexerRegistration.INSTANCE.register(lIndexer);
+		TitleSuggester.INSTANCE.clear();
+
+		indexer.addToIndex(Arrays.asList(lTerm1, lTerm2));
+		final ArgumentCaptor<IndexerHelper> lHelper = ArgumentCaptor.forClass(IndexerHelper.class);
+		// the batch is processed in one pass
+		verify(lIndexer).processIndexer(lHelper.capture(), eq(indexer.getIndexDir()), eq(indexer.getLanguage()));
+		assertEquals(2, lHelper.getValue().getDocuments().size());
+
+		final List<TitleSuggester.Suggestion> lSuggestions = TitleSuggester.INSTANCE.suggest("batched", 5);
+		assertEquals(2, lSuggestions.size());
+	}
+
+	@Test
+	public void testCatchUp() throws Exception {
+		final IIndexer lIndexer = mock(IIndexer.class);
+		IndexerRegistration.INSTANCE.register(lIndexer);
+		final long lWatermark = BOMHelper.getEventStoreHome().getLastEventID();
+		when(lIndexer.getEventWatermark(indexer.getIndexDir())).thenReturn(lWatermark);
+
+		data.createTerm("term for indexing");
+		data.createPerson("Doe", "Jane");
+		final long lLastEventID = BOMHelper.getEventStoreHome().getLastEventID();
+
+		assertEquals(2, indexer.catchUp(monitor));
+		verify(lIndexer, times(2)).deleteItemInIndex(any(String.class), eq(AbstractSearching.UNIQUE_ID),
+				eq(indexer.getIndexDir()), eq(indexer.getLanguage()));
+		verify(lIndexer, times(2)).processIndexer(any(IndexerHelper.class), eq(indexer.getIndexDir()),
+				eq(indexer.getLanguage()));
+		verify(lIndexer).setEventWatermark(indexer.getIndexDir(), lLastEventID);
+	}
+
+	@Test
+	public void testCatchUpWithoutWatermark() throws Exception {
+		final IIndexer lIndexer = mock(IIndexer.class);
+		IndexerRegistration.INSTANCE.register(lIndexer);
+		when(lIndexer.getEventWatermark(indexer.getIndexDir())).thenReturn(-1L);
+
+		data.createTerm("term for indexing");
+		assertEquals(0, indexer.catchUp(monitor));
+		verify(lIndexer).setEventWatermark(indexer.getIndexDir(),
+				BOMHelper.getEventStoreHome().getLastEventID());
+	}
+
 	// ---
 
 	private static class TestIndexer extends RelationsIndexer {
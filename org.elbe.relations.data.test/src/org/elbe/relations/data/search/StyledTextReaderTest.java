@@ -0,0 +1,103 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.search;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+/**
+ * @author lbenno
+ */
+public class StyledTextReaderTest {
+
+    @Test
+    public void testInline() throws Exception {
+        assertEquals("no markup", "plain text", strip("plain text"));
+        assertEquals("inline tags", "bold, italic and underlined",
+                strip("<b>bold</b>, <i>italic</i> and <u>under</u>lined"));
+        assertEquals("nested tags", "bold italic", strip("<b><i>bold</i> italic</b>"));
+    }
+
+    @Test
+    public void testLists() throws Exception {
+        assertEquals("list", "Items: first second third end",
+                strip("Items:<ul indent=\"0\"><li>first</li><li>second</li><li>third</li></ul>end"));
+        assertEquals("numbered list", " one two ",
+                strip("<ol_number indent=\"1\"><li>one</li><li>two</li></ol_number>"));
+    }
+
+    @Test
+    public void testEntities() throws Exception {
+        assertEquals("lower than", "a < b", strip("a &lt; b"));
+        assertEquals("ampersand", "Smith & Wesson", strip("Smith & Wesson"));
+        assertEquals("incomplete entity", "&l &lx &&lt", strip("&l &lx &&lt"));
+        assertEquals("ampersand at end", "rock &", strip("rock &"));
+        assertEquals("entity in tag", "<b>", strip("<b>&lt;b></b>"));
+    }
+
+    @Test
+    public void testInvalid() throws Exception {
+        assertEquals("invalid characters", "ab\tc", strip("a\u0001b\tc\uFFFF"));
+        assertEquals("unclosed tag", "text ", strip("text <b"));
+    }
+
+    @Test
+    public void testBuffer() throws Exception {
+        // the markup spans the reader's buffer boundaries
+        final StringBuilder styled = new StringBuilder();
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            styled.append("<b>word</b> &lt;").append(i).append("&gt ");
+            expected.append("word <").append(i).append("&gt ");
+        }
+        assertEquals("long text", expected.toString(), strip(styled.toString()));
+
+        final Reader reader = new StyledTextReader(new StringReader("<i>a</i>&lt;"));
+        assertEquals("first char", 'a', reader.read());
+        assertEquals("second char", '<', reader.read());
+        assertEquals("end", -1, reader.read());
+        reader.close();
+    }
+
+    @Test
+    public void testFullTextHelper() throws Exception {
+        final FullTextHelper helper = new FullTextHelper();
+        helper.add("Title");
+        helper.addStyled("<b>Styled</b> text");
+        assertEquals("full text", "Title Styled text ", helper.getFullText());
+    }
+
+    private String strip(final String styled) throws IOException {
+        final StringBuilder out = new StringBuilder();
+        final char[] buffer = new char[7];
+        try (Reader reader = new StyledTextReader(new StringReader(styled))) {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                out.append(buffer, 0, read);
+            }
+        }
+        return out.toString();
+    }
+
+}
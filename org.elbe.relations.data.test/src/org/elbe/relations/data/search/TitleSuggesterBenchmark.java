@@ -0,0 +1,116 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.search;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.elbe.relations.data.utility.UniqueID;
+
+/**
+ * Micro benchmark measuring the suggestions for typed prefixes (with and without a typo) on an index of 100'000
+ * titles, each consisting of four words out of a vocabulary of 20'000 generated words.
+ * <p>
+ * Not part of the test suite, run as Java application.
+ * </p>
+ *
+ * @author lbenno */
+public class TitleSuggesterBenchmark {
+    private static final int ITEMS = 100000;
+    private static final int VOCABULARY = 20000;
+    private static final int WORDS = 4;
+    private static final int QUERIES = 5000;
+    private static final int WARM_UP = 10;
+    private static final int MAX_SUGGESTIONS = 10;
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz"; //$NON-NLS-1$
+
+    public static void main(final String[] args) {
+        final Random random = new Random(42);
+        final String[] vocabulary = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            vocabulary[i] = word(random);
+        }
+        final String[] titles = new String[ITEMS];
+        final long[] ids = new long[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            final StringBuilder title = new StringBuilder();
+            for (int j = 0; j < WORDS; j++) {
+                title.append(j == 0 ? "" : " ").append(vocabulary[random.nextInt(VOCABULARY)]); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            titles[i] = title.toString();
+            ids[i] = UniqueID.pack(1 + i % 3, i);
+        }
+        final long start = System.nanoTime();
+        TitleSuggester.INSTANCE.put(ids, titles);
+        System.out.println(String.format("%-20s %8.2f ms for %s titles", "load", //$NON-NLS-1$ //$NON-NLS-2$
+                (System.nanoTime() - start) / 1e6, ITEMS));
+
+        final String[] prefixes = new String[QUERIES];
+        final String[] typos = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            final String word = vocabulary[random.nextInt(VOCABULARY)];
+            prefixes[i] = word.substring(0, Math.min(word.length(), 3 + random.nextInt(6)));
+            typos[i] = typo(prefixes[i], random);
+        }
+        for (int i = 0; i < WARM_UP; i++) {
+            measure(prefixes);
+            measure(typos);
+        }
+        print("prefix", measure(prefixes)); //$NON-NLS-1$
+        print("prefix with typo", measure(typos)); //$NON-NLS-1$
+    }
+
+    private static long[] measure(final String[] queries) {
+        final long[] out = new long[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            final long start = System.nanoTime();
+            TitleSuggester.INSTANCE.suggest(queries[i], MAX_SUGGESTIONS);
+            out[i] = System.nanoTime() - start;
+        }
+        return out;
+    }
+
+    private static void print(final String name, final long[] elapsed) {
+        long total = 0;
+        for (final long time : elapsed) {
+            total += time;
+        }
+        Arrays.sort(elapsed);
+        System.out.println(String.format("%-20s %8.3f ms per query (median %.3f ms, 99th percentile %.3f ms)", name, //$NON-NLS-1$
+                total / 1e6 / elapsed.length, elapsed[elapsed.length / 2] / 1e6,
+                elapsed[elapsed.length * 99 / 100] / 1e6));
+    }
+
+    private static String word(final Random random) {
+        final StringBuilder out = new StringBuilder();
+        final int length = 3 + random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            final char letter = LETTERS.charAt(random.nextInt(LETTERS.length()));
+            out.append(i == 0 ? Character.toUpperCase(letter) : letter);
+        }
+        return out.toString();
+    }
+
+    private static String typo(final String text, final Random random) {
+        final int position = 1 + random.nextInt(text.length() - 1);
+        return text.substring(0, position) + LETTERS.charAt(random.nextInt(LETTERS.length()))
+                + text.substring(position + 1);
+    }
+
+}
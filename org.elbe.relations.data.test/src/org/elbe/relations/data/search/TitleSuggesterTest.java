@@ -0,0 +1,166 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.search.TitleSuggester.Suggestion;
+import org.elbe.relations.data.utility.ItemCatalog;
+import org.elbe.relations.data.utility.UniqueID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author lbenno
+ */
+public class TitleSuggesterTest {
+    private static final TitleSuggester SUGGESTER = TitleSuggester.INSTANCE;
+
+    @Before
+    public void setUp() {
+        final ItemCatalog catalog = new ItemCatalog();
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        catalog.add(IItem.TERM, 1, "Relations", now, now);
+        catalog.add(IItem.TERM, 2, "Relational Database", now, now);
+        catalog.add(IItem.TEXT, 3, "Theory of Relativity", now, now);
+        catalog.add(IItem.PERSON, 4, "Einstein, Albert", now, now);
+        catalog.add(IItem.TERM, 5, "\u00c9coles normales", now, now);
+        catalog.add(IItem.TEXT, 6, "The Data Base Book", now, now);
+        SUGGESTER.load(catalog);
+    }
+
+    @After
+    public void tearDown() {
+        SUGGESTER.clear();
+    }
+
+    @Test
+    public void testPrefix() {
+        assertEquals(6, SUGGESTER.size());
+        assertEquals("[Relations, Relational Database, Theory of Relativity]", titles("rel"));
+        // longer queries allow two typos: "relati[v]" is close enough to "relati[on]"
+        assertEquals("[Relations, Relational Database, Theory of Relativity]", titles("RELATION"));
+        assertEquals("[Relational Database]", titles("relational  d"));
+        assertEquals("[\u00c9coles normales]", titles("eco"));
+        assertEquals("[Einstein, Albert]", titles("albe"));
+        assertEquals("[]", titles(""));
+        assertEquals("[Relations]", titles("rel", 1));
+    }
+
+    @Test
+    public void testFuzzy() {
+        // one typo in short queries, matching the title's or a word's start
+        assertEquals("[Relations, Relational Database, Theory of Relativity]", titles("rle"));
+        assertEquals("[Einstein, Albert]", titles("einst1en"));
+        assertEquals("[The Data Base Book, Relational Database]", titles("datta"));
+        // too many typos
+        assertEquals("[]", titles("xyz"));
+        assertEquals("[]", titles("ainzztein"));
+    }
+
+    @Test
+    public void testRanking() {
+        // exact prefix before word start before fuzzy match
+        final List<String> suggested = new ArrayList<>();
+        for (final Suggestion suggestion : SUGGESTER.suggest("the", 10)) {
+            suggested.add(suggestion.title);
+        }
+        assertEquals("[The Data Base Book, Theory of Relativity]", suggested.subList(0, 2).toString());
+        final Suggestion first = SUGGESTER.suggest("the data", 1).get(0);
+        assertEquals(new UniqueID(IItem.TEXT, 6), first.id);
+    }
+
+    @Test
+    public void testPutRemove() {
+        SUGGESTER.put(new long[] { UniqueID.pack(IItem.TERM, 7), UniqueID.pack(IItem.TERM, 1) },
+                new String[] { "Relevance", "Relationship" });
+        assertEquals(7, SUGGESTER.size());
+        assertEquals("[Relevance, Relationship, Relational Database, Theory of Relativity]", titles("rele"));
+
+        SUGGESTER.remove(new UniqueID(IItem.TERM, 7));
+        SUGGESTER.remove(new UniqueID(IItem.TEXT, 3));
+        assertEquals(5, SUGGESTER.size());
+        assertEquals("[Relationship, Relational Database]", titles("rel"));
+
+        SUGGESTER.clear();
+        assertEquals(0, SUGGESTER.size());
+        assertEquals("[]", titles("rel"));
+    }
+
+    @Test
+    public void testChangesDuringLoad() {
+        SUGGESTER.beginLoad();
+        // the catalog is read from the database
+        final ItemCatalog catalog = new ItemCatalog();
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        catalog.add(IItem.TERM, 1, "Relations", now, now);
+        catalog.add(IItem.TERM, 2, "Relational Database", now, now);
+
+        // changes while the catalog is loading, one of them contained in the catalog
+        SUGGESTER.put(new long[] { UniqueID.pack(IItem.TERM, 7) }, new String[] { "Relevance" });
+        SUGGESTER.put(new long[] { UniqueID.pack(IItem.TERM, 2) }, new String[] { "Relational Database" });
+        SUGGESTER.remove(new UniqueID(IItem.TERM, 1));
+
+        SUGGESTER.load(catalog);
+        assertEquals(2, SUGGESTER.size());
+        assertEquals("[Relevance, Relational Database]", titles("rel"));
+
+        // after loading, the changes aren't recorded anymore
+        SUGGESTER.put(new long[] { UniqueID.pack(IItem.TERM, 8) }, new String[] { "Reliance" });
+        SUGGESTER.load(catalog);
+        assertEquals(2, SUGGESTER.size());
+    }
+
+    @Test
+    public void testMergeOverlay() {
+        final int count = TitleSuggester.MAX_OVERLAY + 10;
+        for (int i = 0; i < count; i++) {
+            SUGGESTER.put(new long[] { UniqueID.pack(IItem.TERM, 100 + i) }, new String[] { "Item " + i });
+            assertTrue(SUGGESTER.pending() <= TitleSuggester.MAX_OVERLAY);
+        }
+        // the overlay has been merged into the main index
+        assertTrue(SUGGESTER.pending() < count);
+        assertEquals(6 + count, SUGGESTER.size());
+        assertEquals("[Item 7]", titles("item 7", 1));
+
+        // changes of items in the main index are hidden until the next merge
+        SUGGESTER.put(new long[] { UniqueID.pack(IItem.TERM, 100) }, new String[] { "Changed Item" });
+        SUGGESTER.remove(new UniqueID(IItem.TERM, 2));
+        assertEquals(5 + count, SUGGESTER.size());
+        assertEquals("[Relations, Theory of Relativity]", titles("rel"));
+        assertEquals("[Changed Item]", titles("chang"));
+        assertEquals("[Item 1, Item 10]", titles("item 1", 2));
+    }
+
+    private String titles(final String text) {
+        return titles(text, 10);
+    }
+
+    private String titles(final String text, final int max) {
+        return SUGGESTER.suggest(text, max).toString();
+    }
+
+}
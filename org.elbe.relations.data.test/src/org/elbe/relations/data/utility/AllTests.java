@@ -28,7 +28,8 @@ import org.junit.runners.Suite.SuiteClasses;
  * @author lbenno
  */
 @RunWith(Suite.class)
-@SuiteClasses({ ItemCollatorTest.class, RelationsSerializerTest.class, UniqueIDTest.class })
+@SuiteClasses({ ItemCatalogTest.class, ItemCollatorTest.class, LongIntMapTest.class, LongSetTest.class,
+        RelatedItemLoaderTest.class, RelationGraphTest.class, RelationsSerializerTest.class, UniqueIDTest.class })
 public class AllTests {
 
 }
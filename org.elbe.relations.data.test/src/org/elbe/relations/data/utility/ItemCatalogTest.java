@@ -0,0 +1,129 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.elbe.relations.data.bom.AbstractPerson;
+import org.elbe.relations.data.bom.AbstractTerm;
+import org.elbe.relations.data.bom.AbstractText;
+import org.elbe.relations.data.bom.BOMHelper;
+import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.bom.LightWeightTerm;
+import org.elbe.relations.data.bom.LightWeightText;
+import org.elbe.relations.data.test.DataHouseKeeper;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author lbenno
+ */
+public class ItemCatalogTest {
+    private static DataHouseKeeper data;
+
+    @BeforeClass
+    public static void init() {
+        data = DataHouseKeeper.INSTANCE;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ItemDetailsCache.INSTANCE.clear();
+        data.deleteAllInAll();
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        final AbstractTerm term = data.createTerm("Term 1", "The term's text");
+        final AbstractText text = data.createText("The Book", "Smith");
+        final AbstractPerson person = data.createPerson("Pan", "Peter");
+
+        final ItemCatalog catalog = ItemCatalog.load();
+        assertEquals(3, catalog.size());
+
+        assertEquals(IItem.TERM, catalog.getItemType(0));
+        assertEquals(term.getID(), catalog.getID(0));
+        assertEquals("Term 1", catalog.getTitle(0));
+        assertEquals(IItem.TEXT, catalog.getItemType(1));
+        assertEquals(text.getID(), catalog.getID(1));
+        assertEquals("The Book", catalog.getTitle(1));
+        assertEquals(IItem.PERSON, catalog.getItemType(2));
+        assertEquals(person.getID(), catalog.getID(2));
+        assertEquals("Pan, Peter", catalog.getTitle(2));
+
+        final LightWeightTerm lightWeight = (LightWeightTerm) term.getLightWeight();
+        assertEquals(lightWeight.created.getTime(), catalog.getCreated(0).getTime());
+        assertEquals(lightWeight.modified.getTime(), catalog.getModified(0).getTime());
+    }
+
+    @Test
+    public void testAdd() throws Exception {
+        final ItemCatalog catalog = new ItemCatalog();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, catalog.add(IItem.TERM, i + 1, "Term " + i, null, null));
+        }
+        assertEquals(1000, catalog.size());
+        assertEquals(500, catalog.getID(499));
+        assertEquals("Term 999", catalog.getTitle(999));
+        assertNull(catalog.getCreated(999));
+    }
+
+    @Test
+    public void testDetails() throws Exception {
+        final AbstractTerm term = data.createTerm("Term 1", "The term's text");
+        final AbstractText text = data.createText("The Book", "Smith");
+
+        final ItemDetailsCache cache = ItemDetailsCache.INSTANCE;
+        final LightWeightTerm details = (LightWeightTerm) cache.get(new UniqueID(IItem.TERM, term.getID()));
+        assertEquals("The term's text", details.text);
+        assertSame(details, cache.get(new UniqueID(IItem.TERM, term.getID())));
+        assertEquals("Smith",
+                ((LightWeightText) cache.get(new UniqueID(IItem.TEXT, text.getID()))).author);
+        assertEquals(2, cache.size());
+
+        cache.remove(new UniqueID(IItem.TERM, term.getID()));
+        assertEquals(1, cache.size());
+        assertNotSame(details, cache.get(new UniqueID(IItem.TERM, term.getID())));
+    }
+
+    @Test
+    public void testDetailsEvicted() throws Exception {
+        final AbstractTerm term = data.createTerm("Term 1", "The term's text");
+        final AbstractText text = data.createText("The Book", "Smith");
+        final UniqueID termID = new UniqueID(IItem.TERM, term.getID());
+        final ItemDetailsCache cache = ItemDetailsCache.INSTANCE;
+        cache.get(termID);
+        cache.get(new UniqueID(IItem.TEXT, text.getID()));
+        assertEquals(2, cache.size());
+
+        // the update evicts the changed item
+        term.saveTitleText("Term 1", "The changed text");
+        assertEquals(1, cache.size());
+        assertEquals("The changed text", ((LightWeightTerm) cache.get(termID)).text);
+
+        // the delete evicts the deleted item
+        BOMHelper.getTextHome().deleteItem(text.getID());
+        assertEquals(1, cache.size());
+    }
+
+}
@@ -0,0 +1,72 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author lbenno
+ */
+public class LongIntMapTest {
+
+    @Test
+    public void testPutGet() {
+        final LongIntMap map = new LongIntMap();
+        assertEquals(LongIntMap.NOT_FOUND, map.get(UniqueID.pack(1, 7)));
+
+        map.put(UniqueID.pack(1, 7), 3);
+        map.put(0, 4);
+        assertEquals(3, map.get(UniqueID.pack(1, 7)));
+        assertEquals(4, map.get(0));
+        assertTrue(map.containsKey(UniqueID.pack(1, 7)));
+        assertFalse(map.containsKey(UniqueID.pack(2, 7)));
+        assertEquals(2, map.size());
+
+        map.put(UniqueID.pack(1, 7), 5);
+        assertEquals(5, map.get(UniqueID.pack(1, 7)));
+        assertEquals(5, map.putIfAbsent(UniqueID.pack(1, 7), 6));
+        assertEquals(5, map.get(UniqueID.pack(1, 7)));
+        assertEquals(LongIntMap.NOT_FOUND, map.putIfAbsent(UniqueID.pack(3, 7), 6));
+        assertEquals(6, map.get(UniqueID.pack(3, 7)));
+        assertEquals(3, map.size());
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(LongIntMap.NOT_FOUND, map.get(UniqueID.pack(1, 7)));
+        assertEquals(LongIntMap.NOT_FOUND, map.get(0));
+    }
+
+    @Test
+    public void testGrow() {
+        final LongIntMap map = new LongIntMap();
+        for (int i = 0; i < 100000; i++) {
+            map.put(UniqueID.pack(1 + i % 3, i), i);
+        }
+        assertEquals(100000, map.size());
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(i, map.get(UniqueID.pack(1 + i % 3, i)));
+        }
+        assertEquals(LongIntMap.NOT_FOUND, map.get(UniqueID.pack(1, 100001)));
+    }
+
+}
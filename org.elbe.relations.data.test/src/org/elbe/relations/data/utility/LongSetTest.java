@@ -0,0 +1,90 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.utility;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * @author lbenno
+ */
+public class LongSetTest {
+
+    @Test
+    public void testAddRemove() {
+        final LongSet set = new LongSet();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(UniqueID.pack(1, 5)));
+        assertFalse(set.add(UniqueID.pack(1, 5)));
+        assertTrue(set.add(UniqueID.pack(2, 5)));
+        assertTrue(set.add(0));
+        assertEquals(3, set.size());
+
+        assertTrue(set.contains(UniqueID.pack(1, 5)));
+        assertTrue(set.contains(UniqueID.pack(2, 5)));
+        assertTrue(set.contains(0));
+        assertFalse(set.contains(UniqueID.pack(3, 5)));
+
+        final long[] values = set.toArray();
+        Arrays.sort(values);
+        assertArrayEquals(new long[] { 0, UniqueID.pack(1, 5), UniqueID.pack(2, 5) }, values);
+
+        assertTrue(set.remove(UniqueID.pack(1, 5)));
+        assertFalse(set.remove(UniqueID.pack(1, 5)));
+        assertTrue(set.remove(0));
+        assertEquals(1, set.size());
+        assertFalse(set.contains(UniqueID.pack(1, 5)));
+        assertTrue(set.contains(UniqueID.pack(2, 5)));
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(UniqueID.pack(2, 5)));
+    }
+
+    @Test
+    public void testCompareWithHashSet() {
+        // random operations on many (colliding) values, the removal must keep the probe sequences intact
+        final Random random = new Random(42);
+        final LongSet set = new LongSet();
+        final Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 100000; i++) {
+            final long value = UniqueID.pack(1 + random.nextInt(3), random.nextInt(5000));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (final Long value : expected) {
+            assertTrue(set.contains(value));
+        }
+        assertEquals(expected.size(), set.toArray().length);
+    }
+
+}
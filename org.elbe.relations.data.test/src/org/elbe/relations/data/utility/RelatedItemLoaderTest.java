@@ -0,0 +1,86 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.utility;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.elbe.relations.data.bom.AbstractItem;
+import org.elbe.relations.data.bom.AbstractPerson;
+import org.elbe.relations.data.bom.AbstractTerm;
+import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.bom.LightWeightRelated;
+import org.elbe.relations.data.bom.RelationHome;
+import org.elbe.relations.data.test.DataHouseKeeper;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author lbenno
+ */
+public class RelatedItemLoaderTest {
+    private static DataHouseKeeper data;
+
+    @BeforeClass
+    public static void init() {
+        data = DataHouseKeeper.INSTANCE;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        data.deleteAllInAll();
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        final AbstractTerm term1 = data.createTerm("Term 1");
+        final AbstractTerm term2 = data.createTerm("Term 2");
+        final AbstractTerm term3 = data.createTerm("Term 3");
+        final AbstractPerson person = data.createPerson("Pan", "Peter");
+        final AbstractItem text = data.createText("The Book", "Smith");
+
+        final RelationHome home = data.getRelationHome();
+        home.newRelation(term1, term2);
+        home.newRelation(term3, term1);
+        final long relationID = home.newRelation(person, term1).getID();
+        home.newRelation(term1, text);
+        home.newRelation(term2, text);
+
+        final List<LightWeightRelated> related = new RelatedItemLoader().load(term1);
+        assertEquals(4, related.size());
+        // grouped by type
+        assertEquals(IItem.TERM, related.get(0).getItemType());
+        assertEquals(IItem.TERM, related.get(1).getItemType());
+        assertEquals(IItem.TEXT, related.get(2).getItemType());
+        assertEquals("The Book", related.get(2).title);
+        assertEquals(text.getID(), related.get(2).getID());
+        final LightWeightRelated relatedPerson = related.get(3);
+        assertEquals(IItem.PERSON, relatedPerson.getItemType());
+        assertEquals("Pan, Peter", relatedPerson.title);
+        assertEquals(relationID, relatedPerson.getRelationID());
+
+        assertEquals(2, new RelatedItemLoader().load(term1, IItem.TERM).size());
+        assertEquals(1, new RelatedItemLoader().load(person, IItem.TERM).size());
+        assertEquals(0, new RelatedItemLoader().load(person, IItem.TEXT).size());
+        assertEquals(2, new RelatedItemLoader().load(text).size());
+    }
+
+}
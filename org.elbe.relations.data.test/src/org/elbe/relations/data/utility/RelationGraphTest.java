@@ -0,0 +1,164 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.elbe.relations.data.bom.AbstractItem;
+import org.elbe.relations.data.bom.AbstractPerson;
+import org.elbe.relations.data.bom.AbstractTerm;
+import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.bom.RelationHome;
+import org.elbe.relations.data.test.DataHouseKeeper;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author lbenno
+ */
+public class RelationGraphTest {
+    private static DataHouseKeeper data;
+
+    @BeforeClass
+    public static void init() {
+        data = DataHouseKeeper.INSTANCE;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        RelationGraph.INSTANCE.clear();
+        data.deleteAllInAll();
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        final AbstractTerm term1 = data.createTerm("Term 1");
+        final AbstractTerm term2 = data.createTerm("Term 2");
+        final AbstractPerson person = data.createPerson("Pan", "Peter");
+        final AbstractItem text = data.createText("The Book", "Smith");
+
+        final RelationHome home = data.getRelationHome();
+        home.newRelation(term1, term2);
+        final long relationID = home.newRelation(person, term1).getID();
+        home.newRelation(term2, text);
+
+        final RelationGraph graph = RelationGraph.INSTANCE;
+        assertFalse(graph.isLoaded());
+        assertEquals(0, degree(id(term1)));
+        assertTrue(graph.getNeighbours(id(term1)).isEmpty());
+
+        graph.load();
+        assertTrue(graph.isLoaded());
+        assertEquals(2, degree(id(term1)));
+        assertEquals(2, degree(id(term2)));
+        assertEquals(1, degree(id(person)));
+        assertEquals(1, degree(id(text)));
+        assertTrue(isRelated(id(term1), id(person)));
+        assertTrue(isRelated(id(person), id(term1)));
+        assertFalse(isRelated(id(term1), id(text)));
+
+        final List<RelationGraph.Neighbour> neighbours = graph.getNeighbours(id(person));
+        assertEquals(1, neighbours.size());
+        assertEquals(id(term1), neighbours.get(0).item);
+        assertEquals(relationID, neighbours.get(0).relationID);
+    }
+
+    @Test
+    public void testKeepCurrent() throws Exception {
+        final AbstractTerm term1 = data.createTerm("Term 1");
+        final AbstractTerm term2 = data.createTerm("Term 2");
+        final AbstractTerm term3 = data.createTerm("Term 3");
+        final AbstractItem text = data.createText("The Book", "Smith");
+
+        final RelationGraph graph = RelationGraph.INSTANCE;
+        graph.load();
+        assertEquals(0, degree(id(term1)));
+
+        final RelationHome home = data.getRelationHome();
+        final long relationID = home.newRelation(term1, term2).getID();
+        home.newRelation(term1, term3);
+        home.newRelation(term1, text);
+        home.newRelation(term2, text);
+        assertEquals(3, degree(id(term1)));
+        assertTrue(isRelated(id(term2), id(term1)));
+
+        home.deleteRelation(relationID);
+        assertEquals(2, degree(id(term1)));
+        assertEquals(1, degree(id(term2)));
+        assertFalse(isRelated(id(term2), id(term1)));
+
+        home.deleteRelation(IItem.TEXT, text.getID(), IItem.TERM, term1.getID());
+        assertEquals(1, degree(id(term1)));
+        assertEquals(1, degree(id(text)));
+
+        home.deleteRelations(text);
+        assertEquals(0, degree(id(text)));
+        assertEquals(0, degree(id(term2)));
+        assertTrue(isRelated(id(term1), id(term3)));
+    }
+
+    @Test
+    public void testRemoveOneOfTwoRelations() throws Exception {
+        final AbstractTerm term = data.createTerm("Term");
+        final AbstractPerson person = data.createPerson("Pan", "Peter");
+
+        final RelationGraph graph = RelationGraph.INSTANCE;
+        graph.load();
+        final RelationHome home = data.getRelationHome();
+        final long relationID1 = home.newRelation(term, person).getID();
+        final long relationID2 = home.newRelation(person, term).getID();
+        assertEquals(2, degree(id(term)));
+
+        // only the deleted relation is removed from the graph
+        home.deleteRelation(relationID1);
+        assertEquals(1, home.getCount());
+        final List<RelationGraph.Neighbour> neighbours = graph.getNeighbours(id(term));
+        assertEquals(1, neighbours.size());
+        assertEquals(relationID2, neighbours.get(0).relationID);
+        assertTrue(isRelated(id(person), id(term)));
+
+        // changes are replayed idempotently, e.g. if made while loading
+        graph.addRelation(relationID2, IItem.PERSON, person.getID(), IItem.TERM, term.getID());
+        assertEquals(1, degree(id(term)));
+        assertEquals(1, degree(id(person)));
+    }
+
+    private int degree(final UniqueID item) {
+        return RelationGraph.INSTANCE.getNeighbours(item).size();
+    }
+
+    private boolean isRelated(final UniqueID item1, final UniqueID item2) {
+        for (final RelationGraph.Neighbour neighbour : RelationGraph.INSTANCE.getNeighbours(item1)) {
+            if (neighbour.item.equals(item2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private UniqueID id(final IItem item) throws Exception {
+        return new UniqueID(item.getItemType(), item.getID());
+    }
+
+}
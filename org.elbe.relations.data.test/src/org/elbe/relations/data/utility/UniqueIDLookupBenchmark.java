@@ -0,0 +1,135 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.utility;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Micro benchmark comparing lookups of 100'000 items: <code>HashSet</code> of <code>UniqueID</code>s (with the former
+ * <code>String.format()</code> hash and with the packed hash) versus the primitive {@link LongSet}.
+ * <p>
+ * Not part of the test suite, run as Java application.
+ * </p>
+ *
+ * @author lbenno */
+public class UniqueIDLookupBenchmark {
+    private static final int ITEMS = 100000;
+    private static final int WARM_UP = 5;
+    private static final int ROUNDS = 10;
+
+    public static void main(final String[] args) {
+        run("HashSet<UniqueID>, String hash", new LegacyLookup());
+        run("HashSet<UniqueID>, packed hash", new ObjectLookup());
+        run("LongSet, packed", new PrimitiveLookup());
+    }
+
+    private static void run(final String name, final Lookup lookup) {
+        for (int i = 0; i < WARM_UP; i++) {
+            lookup.fillAndLookup();
+        }
+        long found = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            found += lookup.fillAndLookup();
+        }
+        final long elapsed = (System.nanoTime() - start) / ROUNDS;
+        System.out.println(String.format("%-32s %8.2f ms per %s inserts and lookups (%s found)", name, //$NON-NLS-1$
+                elapsed / 1e6, ITEMS, found / ROUNDS));
+    }
+
+    private static int type(final int i) {
+        return 1 + i % 3;
+    }
+
+    /** Every second lookup hits. */
+    private static int probe(final int i) {
+        return i % 2 == 0 ? type(i) : type(i + 1);
+    }
+
+    // ---
+
+    private interface Lookup {
+        int fillAndLookup();
+    }
+
+    private static class LegacyLookup implements Lookup {
+        @Override
+        public int fillAndLookup() {
+            final Set<UniqueID> ids = new HashSet<>();
+            for (int i = 0; i < ITEMS; i++) {
+                ids.add(new LegacyID(type(i), i));
+            }
+            int out = 0;
+            for (int i = 0; i < ITEMS; i++) {
+                if (ids.contains(new LegacyID(probe(i), i))) {
+                    out++;
+                }
+            }
+            return out;
+        }
+    }
+
+    private static class ObjectLookup implements Lookup {
+        @Override
+        public int fillAndLookup() {
+            final Set<UniqueID> ids = new HashSet<>();
+            for (int i = 0; i < ITEMS; i++) {
+                ids.add(new UniqueID(type(i), i));
+            }
+            int out = 0;
+            for (int i = 0; i < ITEMS; i++) {
+                if (ids.contains(new UniqueID(probe(i), i))) {
+                    out++;
+                }
+            }
+            return out;
+        }
+    }
+
+    private static class PrimitiveLookup implements Lookup {
+        @Override
+        public int fillAndLookup() {
+            final LongSet ids = new LongSet();
+            for (int i = 0; i < ITEMS; i++) {
+                ids.add(UniqueID.pack(type(i), i));
+            }
+            int out = 0;
+            for (int i = 0; i < ITEMS; i++) {
+                if (ids.contains(UniqueID.pack(probe(i), i))) {
+                    out++;
+                }
+            }
+            return out;
+        }
+    }
+
+    /** The unique ID with the hash as implemented formerly. */
+    private static class LegacyID extends UniqueID {
+        LegacyID(final int itemType, final long id) {
+            super(itemType, id);
+        }
+
+        @Override
+        public int hashCode() {
+            return String.format("%s:%s", this.itemType, this.itemID).hashCode(); //$NON-NLS-1$
+        }
+    }
+
+}
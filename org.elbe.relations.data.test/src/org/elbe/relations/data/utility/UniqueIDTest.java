@@ -31,4 +31,20 @@ public class UniqueIDTest {
 		assertFalse("not equal 2", lID1.equals(lID4));
 	}
 
+	@Test
+	public void testPack() {
+		final long lItemID = 5000000000L;
+		final UniqueID lID = new UniqueID("3:5000000000");
+		assertEquals("long id", lItemID, lID.itemID);
+		assertEquals("type", 3, lID.itemType);
+
+		final long lPacked = lID.pack();
+		assertEquals("packed", UniqueID.pack(3, lItemID), lPacked);
+		assertEquals("unpacked", lID, UniqueID.unpack(lPacked));
+		assertEquals("hash", new UniqueID(3, lItemID).hashCode(),
+		        lID.hashCode());
+		assertFalse("packed types differ",
+		        UniqueID.pack(1, 7) == UniqueID.pack(2, 7));
+	}
+
 }
@@ -18,11 +18,13 @@
  ***************************************************************************/
 package org.elbe.relations.data.bom;
 
-import org.elbe.relations.data.bom.EventStoreHome.StoreType;
+import java.sql.SQLException;
+
+import org.elbe.relations.data.search.IIndexable;
 import org.elbe.relations.data.search.NoOpIndexer;
 import org.elbe.relations.data.search.RelationsIndexer;
+import org.elbe.relations.data.utility.ItemDetailsCache;
 import org.elbe.relations.data.utility.UniqueID;
-import org.hip.kernel.bom.DomainObject;
 import org.hip.kernel.bom.impl.DomainObjectHomeImpl;
 
 /**
@@ -54,35 +56,51 @@ public abstract class AbstractHome extends DomainObjectHomeImpl {
         this.indexer = inIndexer;
     }
 
-    /** Sets the specified item to the event store.
+    /** Registers the indexing of the specified new item with the unit of work. The item is added to the search index
+     * after the unit has been committed.
      *
-     * @param item {@link IItem}
-     * @param model {@link DomainObject}
-     * @param type {@link StoreType}
-     * @throws org.hip.kernel.bom.BOMException */
-    protected void setToEventStore(final IItem item, final DomainObject model, final EventStoreHome.StoreType type)
-            throws org.hip.kernel.bom.BOMException {
-        BOMHelper.getEventStoreHome().saveEntry(UniqueID.createUniqueID(item), model, type);
+     * @param unit {@link UnitOfWork}
+     * @param item {@link IIndexable} */
+    protected void addToIndex(final UnitOfWork unit, final IIndexable item) {
+        final RelationsIndexer indexer = getIndexer();
+        unit.index(new UnitOfWork.IndexTask() {
+            @Override
+            public void run() throws Exception {
+                indexer.addToIndex(item);
+            }
+        });
     }
 
-    /** Sets the specified item to the event store.
+    /** Deletes the item with the specified id. The item's row, its relations and the delete event are written in one
+     * unit of work, the item is removed from the search index and from the details cache after the commit.
      *
-     * @param id {@link UniqueID}
-     * @param model {@link DomainObject}
-     * @param type {@link StoreType}
-     * @throws org.hip.kernel.bom.BOMException */
-    protected void setToEventStore(final UniqueID id, final DomainObject model, final EventStoreHome.StoreType type)
-            throws org.hip.kernel.bom.BOMException {
-        BOMHelper.getEventStoreHome().saveEntry(id, model, type);
-    }
+     * @param sqlDelete String the statement deleting the item's row
+     * @param type int the item's type
+     * @param itemID long the item's id
+     * @throws BOMException */
+    protected void deleteItem(final String sqlDelete, final int type, final long itemID) throws BOMException {
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            unit.execute(sqlDelete, itemID);
+            BOMHelper.getEventStoreHome().saveEntry(unit, new UniqueID(type, itemID));
+            BOMHelper.getRelationHome().deleteRelations(unit, type, itemID);
 
-    /** Create delete event for the specified id.
-     *
-     * @param id {@link UniqueID}
-     * @throws org.hip.kernel.bom.BOMException */
-    protected void setToEventStore(final UniqueID id)
-            throws org.hip.kernel.bom.BOMException {
-        BOMHelper.getEventStoreHome().saveEntry(id);
+            final RelationsIndexer indexer = getIndexer();
+            unit.index(new UnitOfWork.IndexTask() {
+                @Override
+                public void run() throws Exception {
+                    indexer.deleteItemInIndex(UniqueID.getStringOf(type, itemID));
+                }
+            });
+            unit.afterCommit(new Runnable() {
+                @Override
+                public void run() {
+                    ItemDetailsCache.INSTANCE.remove(new UniqueID(type, itemID));
+                }
+            });
+            unit.commit();
+        } catch (final SQLException exc) {
+            throw new BOMException(exc.getMessage());
+        }
     }
 
 }
@@ -18,7 +18,7 @@
  ***************************************************************************/
 package org.elbe.relations.data.bom;
 
-import java.io.IOException;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.Locale;
 
@@ -30,6 +30,7 @@ import org.elbe.relations.data.search.IndexerDocument;
 import org.elbe.relations.data.search.IndexerField;
 import org.elbe.relations.data.search.NoOpIndexer;
 import org.elbe.relations.data.search.RelationsIndexer;
+import org.elbe.relations.data.utility.ItemDetailsCache;
 import org.elbe.relations.data.utility.UniqueID;
 import org.hip.kernel.bom.impl.DomainObjectImpl;
 import org.hip.kernel.exc.VException;
@@ -74,6 +75,14 @@ public abstract class AbstractItem extends DomainObjectImpl implements IItem {
 
     abstract protected Timestamp[] getCreatedModified() throws VException;
 
+    /**
+     * @return {@link Timestamp} the item's modification date
+     * @throws VException
+     */
+    public Timestamp getModified() throws VException {
+        return getCreatedModified()[1];
+    }
+
     /**
      * @param inKey
      *            String Key of value to be retrieved.
@@ -85,26 +94,37 @@ public abstract class AbstractItem extends DomainObjectImpl implements IItem {
         return lValue == null ? "" : lValue.toString().trim(); //$NON-NLS-1$
     }
 
-    /**
-     * Deletes the item's search term in the search index.
+    /** Writes the item's row and, if the item has been changed, its update event in one unit of work. The item's
+     * search term is refreshed and its cached details are evicted after the commit.
      *
-     * @throws IOException
-     * @throws VException
-     */
-    protected void deleteItemInIndex() throws IOException, VException {
-        final String lUniqueID = UniqueID.getStringOf(getItemType(), getID());
-        getIndexer().deleteItemInIndex(lUniqueID);
-    }
+     * @param sql String the update statement
+     * @param parameters Object[] the statement's parameters
+     * @throws SQLException
+     * @throws VException */
+    protected void updateInUnit(final String sql, final Object... parameters) throws SQLException, VException {
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            unit.execute(sql, parameters);
+            final UniqueID id = UniqueID.createUniqueID(this);
+            if (isChanged()) {
+                BOMHelper.getEventStoreHome().saveEntry(unit, id, this, StoreType.UPDATE);
+            }
 
-    /**
-     * Refreshes the item's search term in the search index.
-     *
-     * @throws IOException
-     * @throws BOMException
-     * @throws VException
-     */
-    protected void refreshItemInIndex() throws IOException, BOMException, VException {
-        getIndexer().refreshItemInIndex(this);
+            final RelationsIndexer indexer = getIndexer();
+            final IItem item = this;
+            unit.index(new UnitOfWork.IndexTask() {
+                @Override
+                public void run() throws Exception {
+                    indexer.refreshItemInIndex(item);
+                }
+            });
+            unit.afterCommit(new Runnable() {
+                @Override
+                public void run() {
+                    ItemDetailsCache.INSTANCE.remove(id);
+                }
+            });
+            unit.commit();
+        }
     }
 
     /**
@@ -170,16 +190,6 @@ public abstract class AbstractItem extends DomainObjectImpl implements IItem {
         inDocument.addField(lDate);
     }
 
-    /** Sets this item to the event store.
-     *
-     * @param type {@link StoreType}
-     * @throws org.hip.kernel.bom.BOMException */
-    protected void setToEventStore(final EventStoreHome.StoreType type) throws org.hip.kernel.bom.BOMException {
-        if (isChanged()) {
-            BOMHelper.getEventStoreHome().saveEntry(UniqueID.createUniqueID(this), this, type);
-        }
-    }
-
     @Override
     public int hashCode() {
         final int lPrime = 31;
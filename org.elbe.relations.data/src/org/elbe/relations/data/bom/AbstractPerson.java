@@ -18,7 +18,6 @@
  ***************************************************************************/
 package org.elbe.relations.data.bom;
 
-import java.io.IOException;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 
@@ -110,8 +109,7 @@ public abstract class AbstractPerson extends AbstractItem implements IItem {
     public void saveTitleText(final String inTitle, final String inText) throws BOMException {
         try {
             setModel(inTitle, inText);
-            setToEventStore(EventStoreHome.StoreType.UPDATE);
-            update(true);
+            updateRow();
         } catch (VException | SQLException exc) {
             throw new BOMException(exc.getMessage());
         }
@@ -134,10 +132,8 @@ public abstract class AbstractPerson extends AbstractItem implements IItem {
             throws BOMException {
         try {
             setModel(name, firstName, text, from, to);
-            setToEventStore(EventStoreHome.StoreType.UPDATE);
-            update(true);
-            refreshItemInIndex();
-        } catch (final VException | IOException exc) {
+            updateRow();
+        } catch (final VException exc) {
             throw new BOMException(exc.getMessage());
         } catch (final SQLException exc) {
             if (TRUNCATION_STATE.equals(exc.getSQLState())) {
@@ -157,4 +153,10 @@ public abstract class AbstractPerson extends AbstractItem implements IItem {
         set(PersonHome.KEY_MODIFIED, new Timestamp(System.currentTimeMillis()));
     }
 
+    private void updateRow() throws SQLException, VException {
+        updateInUnit(PersonHome.SQL_UPDATE, get(PersonHome.KEY_NAME), get(PersonHome.KEY_FIRSTNAME),
+                get(PersonHome.KEY_TEXT), get(PersonHome.KEY_FROM), get(PersonHome.KEY_TO),
+                get(PersonHome.KEY_MODIFIED), getID());
+    }
+
 }
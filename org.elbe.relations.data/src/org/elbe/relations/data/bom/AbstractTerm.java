@@ -18,7 +18,6 @@
  ***************************************************************************/
 package org.elbe.relations.data.bom;
 
-import java.io.IOException;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 
@@ -110,11 +109,10 @@ public abstract class AbstractTerm extends AbstractItem {
     public void save(final String title, final String text) throws BOMException {
         try {
             setModel(title, text);
-            setToEventStore(EventStoreHome.StoreType.UPDATE);
-            update(true);
-            refreshItemInIndex();
+            updateInUnit(TermHome.SQL_UPDATE, get(TermHome.KEY_TITLE), get(TermHome.KEY_TEXT),
+                    get(TermHome.KEY_MODIFIED), getID());
         }
-        catch (final VException | IOException exc) {
+        catch (final VException exc) {
             throw new BOMException(exc.getMessage());
         }
         catch (final SQLException exc) {
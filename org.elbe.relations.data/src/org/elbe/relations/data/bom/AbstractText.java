@@ -152,8 +152,7 @@ public abstract class AbstractText extends AbstractItem implements IItem {
     public void saveTitleText(final String inTitle, final String inText) throws BOMException {
         try {
             setModel(inTitle, inText);
-            setToEventStore(EventStoreHome.StoreType.UPDATE);
-            update(true);
+            updateRow();
         } catch (VException | SQLException exc) {
             throw new BOMException(exc.getMessage());
         }
@@ -166,7 +165,9 @@ public abstract class AbstractText extends AbstractItem implements IItem {
     }
 
     /**
-     * Save changes of an edit dialog of all fields.
+     * Save changes of an edit dialog of all fields. The row and the event are
+     * written in one transaction, the search index is refreshed after the
+     * commit.
      *
      * @param inTitle
      *            String
@@ -203,10 +204,8 @@ public abstract class AbstractText extends AbstractItem implements IItem {
         try {
             setModel(inTitle, inText, inType, inAuthor, inCoAuthor, inSubTitle, inPublisher, inYear, inJournal, inPages,
                     inArticleVolume, inArticleNumber, inLocation);
-            setToEventStore(EventStoreHome.StoreType.UPDATE);
-            update(true);
-            refreshItemInIndex();
-        } catch (final VException | IOException exc) {
+            updateRow();
+        } catch (final VException exc) {
             throw new BOMException(exc.getMessage());
         } catch (final SQLException exc) {
             if (TRUNCATION_STATE.equals(exc.getSQLState())) {
@@ -216,6 +215,14 @@ public abstract class AbstractText extends AbstractItem implements IItem {
         }
     }
 
+    private void updateRow() throws SQLException, VException {
+        updateInUnit(TextHome.SQL_UPDATE, get(TextHome.KEY_TITLE), get(TextHome.KEY_TEXT), get(TextHome.KEY_AUTHOR),
+                get(TextHome.KEY_COAUTHORS), get(TextHome.KEY_SUBTITLE), get(TextHome.KEY_YEAR),
+                get(TextHome.KEY_PUBLICATION), get(TextHome.KEY_PAGES), get(TextHome.KEY_VOLUME),
+                get(TextHome.KEY_NUMBER), get(TextHome.KEY_PUBLISHER), get(TextHome.KEY_PLACE),
+                get(TextHome.KEY_TYPE), get(TextHome.KEY_MODIFIED), getID());
+    }
+
     protected void setModel(final String inTitle, final String inText, final Integer inType, final String inAuthor,
             final String inCoAuthor, final String inSubTitle, final String inPublisher, final String inYear,
             final String inJournal, final String inPages, final Integer inArticleVolume, final Integer inArticleNumber,
@@ -18,14 +18,21 @@
  ***************************************************************************/
 package org.elbe.relations.data.bom;
 
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.Map;
 
 import org.elbe.relations.data.utility.RelationsSerializer;
 import org.elbe.relations.data.utility.UniqueID;
 import org.hip.kernel.bom.AbstractSerializer;
 import org.hip.kernel.bom.BOMException;
 import org.hip.kernel.bom.DomainObject;
+import org.hip.kernel.bom.KeyObject;
+import org.hip.kernel.bom.OrderObject;
+import org.hip.kernel.bom.QueryResult;
+import org.hip.kernel.bom.impl.KeyObjectImpl;
+import org.hip.kernel.bom.impl.OrderObjectImpl;
 import org.hip.kernel.exc.VException;
 
 /** Home of the EventStore item domain models.
@@ -44,6 +51,31 @@ public class EventStoreHome extends AbstractHome implements ICreatableHome {
         }
     }
 
+    /** The durability of the event store entries. */
+    public enum Durability {
+        /** The entry is inserted on the caller's thread. */
+        SYNC,
+        /** The entry is inserted in a batch on a background thread, the caller waits until the batch is committed. */
+        GROUP,
+        /** The entry is inserted in a batch on a background thread, the caller doesn't wait. Entries still queued
+         * (up to 1000) are lost if the application crashes, therefore, this durability has to be chosen explicitly. */
+        ASYNC;
+
+        /** @param name String the durability's name, e.g. <code>async</code>
+         * @return {@link Durability} <code>SYNC</code> if the name is unknown */
+        public static Durability parse(final String name) {
+            for (final Durability durability : values()) {
+                if (durability.name().equalsIgnoreCase(name)) {
+                    return durability;
+                }
+            }
+            return SYNC;
+        }
+    }
+
+    private static final EventStoreWriter WRITER = new EventStoreWriter();
+    private static volatile Durability durability = Durability.SYNC;
+
     private final static String OBJECT_CLASS_NAME = "org.elbe.relations.data.bom.EventStore";
     public final static String KEY_ID = "ID";
     public final static String KEY_TYPE = "Type";
@@ -51,6 +83,8 @@ public class EventStoreHome extends AbstractHome implements ICreatableHome {
     public final static String KEY_EVENT = "Event";
     public final static String KEY_CREATED = "Created";
 
+    private static final String SQL_DELETE_UP_TO = "DELETE FROM tblEventStore WHERE EVENTSTOREID <= ?"; //$NON-NLS-1$
+
     private final static String XML_OBJECT_DEF = "<?xml version='1.0' encoding='ISO-8859-1'?>   "
             + "<objectDef objectName='EventStore' parent='org.hip.kernel.bom.DomainObject' version='1.0'>   "
             + " <keyDefs>   " + "       <keyDef>    " + "           <keyItemDef seq='0' keyPropertyName='" + KEY_ID
@@ -95,12 +129,35 @@ public class EventStoreHome extends AbstractHome implements ICreatableHome {
         return new String[] { sql1 };
     }
 
+    /** Sets the durability of the entries stored in the event store. Entries pending in the queue are written before
+     * the durability is changed.
+     *
+     * @param durability {@link Durability}
+     * @throws BOMException if the pending entries couldn't be written */
+    public void setDurability(final Durability durability) throws BOMException {
+        try {
+            WRITER.flush();
+        }
+        finally {
+            EventStoreHome.durability = durability;
+        }
+    }
+
+    /** Blocks until all pending entries are written to the event store. Call this method e.g. before the event store is
+     * exported or before the application shuts down. The wait is bounded.
+     *
+     * @throws BOMException if the pending entries couldn't be written in time or if entries written in the background
+     *             have been lost since the last flush */
+    public void flush() throws BOMException {
+        WRITER.flush();
+    }
+
     /** Store create or update item event
      *
      * @param id {@link UniqueID} the item's id
      * @param model {@link DomainObject} the item/model
      * @param type {@link StoreType}
-     * @return Long the created entry's id
+     * @return Long the created entry's id, <code>null</code> if the entry is written by the background writer
      * @throws BOMException */
     public Long saveEntry(final UniqueID id, final DomainObject model, final StoreType type) throws BOMException {
         return saveEntry(id, getEvent(model), type);
@@ -109,25 +166,172 @@ public class EventStoreHome extends AbstractHome implements ICreatableHome {
     /** Store delete item event.
      *
      * @param id {@link UniqueID}
-     * @return Long the created entry's id
+     * @return Long the created entry's id, <code>null</code> if the entry is written by the background writer
      * @throws BOMException */
     public Long saveEntry(final UniqueID id) throws BOMException {
         return saveEntry(id, String.format("Delete(%s)", id.toString()), StoreType.DELETE);
     }
 
+    /** Store create or update item event as part of the specified unit of work. The entry is written with the unit's
+     * connection, independent of the durability set.
+     *
+     * @param unit {@link UnitOfWork}
+     * @param id {@link UniqueID} the item's id
+     * @param model {@link DomainObject} the item/model
+     * @param type {@link StoreType}
+     * @throws SQLException */
+    public void saveEntry(final UnitOfWork unit, final UniqueID id, final DomainObject model, final StoreType type)
+            throws SQLException {
+        saveEntry(unit, id, getEvent(model), type);
+    }
+
+    /** Store create or update events of several items/models with one batched statement as part of the specified unit
+     * of work.
+     *
+     * @param unit {@link UnitOfWork}
+     * @param models Map&lt;UniqueID, ? extends DomainObject> the items/models keyed by the item's id, the entries are
+     *            written in the map's order
+     * @param type {@link StoreType}
+     * @throws SQLException */
+    public void saveEntries(final UnitOfWork unit, final Map<UniqueID, ? extends DomainObject> models,
+            final StoreType type) throws SQLException {
+        final Timestamp created = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement statement = unit.connection().prepareStatement(EventStoreWriter.SQL_INSERT)) {
+            for (final Map.Entry<UniqueID, ? extends DomainObject> model : models.entrySet()) {
+                statement.setInt(1, type.id);
+                statement.setString(2, model.getKey().toString());
+                statement.setString(3, getEvent(model.getValue()));
+                statement.setTimestamp(4, created);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /** Store delete item event as part of the specified unit of work.
+     *
+     * @param unit {@link UnitOfWork}
+     * @param id {@link UniqueID}
+     * @throws SQLException */
+    public void saveEntry(final UnitOfWork unit, final UniqueID id) throws SQLException {
+        saveEntry(unit, id, String.format("Delete(%s)", id.toString()), StoreType.DELETE);
+    }
+
+    /** Returns the ID of the latest entry in the event store.
+     *
+     * @return long the highest <code>EventStoreID</code>, <code>0</code> if the event store is empty
+     * @throws BOMException */
+    public long getLastEventID() throws BOMException {
+        flush();
+        try {
+            final Number max = getMax(KEY_ID);
+            return max == null ? 0 : max.longValue();
+        } catch (final SQLException | VException exc) {
+            throw new BOMException(exc.getMessage());
+        }
+    }
+
+    /** Selects all entries created after the entry with the specified ID, ordered by their ID.
+     *
+     * @param eventID long the ID of the last entry already processed
+     * @return {@link QueryResult}
+     * @throws BOMException */
+    public QueryResult selectAfter(final long eventID) throws BOMException {
+        flush();
+        try {
+            final KeyObject key = new KeyObjectImpl();
+            key.setValue(KEY_ID, new Long(eventID), ">"); //$NON-NLS-1$
+            final OrderObject order = new OrderObjectImpl();
+            order.setValue(KEY_ID, 0);
+            return select(key, order);
+        } catch (final SQLException | VException exc) {
+            throw new BOMException(exc.getMessage());
+        }
+    }
+
+    /** Selects the entries after the specified watermark up to the specified entry, ordered by their ID. Take the
+     * upper bound with {@link #getLastEventID()} before the selected entries are processed.
+     *
+     * @param eventID long the ID of the last entry already processed
+     * @param lastEventID long the ID of the last entry to select
+     * @return {@link QueryResult}
+     * @throws BOMException */
+    public QueryResult selectAfter(final long eventID, final long lastEventID) throws BOMException {
+        flush();
+        try {
+            final OrderObject order = new OrderObjectImpl();
+            order.setValue(KEY_ID, 0);
+            return select(createKey(eventID, lastEventID), order);
+        } catch (final SQLException | VException exc) {
+            throw new BOMException(exc.getMessage());
+        }
+    }
+
+    /** Returns the number of entries after the specified watermark up to the specified entry.
+     *
+     * @param eventID long the ID of the last entry already processed
+     * @param lastEventID long the ID of the last entry to count
+     * @return int
+     * @throws BOMException */
+    public int getCountAfter(final long eventID, final long lastEventID) throws BOMException {
+        flush();
+        try {
+            return getCount(createKey(eventID, lastEventID));
+        } catch (final SQLException | VException exc) {
+            throw new BOMException(exc.getMessage());
+        }
+    }
+
+    private KeyObject createKey(final long eventID, final long lastEventID) throws VException {
+        final KeyObject outKey = new KeyObjectImpl();
+        outKey.setValue(KEY_ID, new Long(eventID), ">"); //$NON-NLS-1$
+        final KeyObject upTo = new KeyObjectImpl();
+        upTo.setValue(KEY_ID, new Long(lastEventID), "<="); //$NON-NLS-1$
+        outKey.setValue(upTo, KeyObject.BinaryBooleanOperator.AND);
+        return outKey;
+    }
+
+    /** Deletes the entries up to the specified entry. Call this method with the lowest watermark of all consumers of
+     * the event store, i.e. the entries every consumer has processed.
+     *
+     * @param eventID long the ID of the last entry to delete
+     * @return int the number of entries deleted
+     * @throws BOMException */
+    public int deleteUpTo(final long eventID) throws BOMException {
+        flush();
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            final int outDeleted = unit.execute(SQL_DELETE_UP_TO, eventID);
+            unit.commit();
+            return outDeleted;
+        } catch (final SQLException exc) {
+            throw new BOMException(exc.getMessage());
+        }
+    }
+
     private Long saveEntry(final UniqueID id, final String event, final StoreType type) throws BOMException {
+        final Timestamp created = new Timestamp(System.currentTimeMillis());
+        if (durability != Durability.SYNC) {
+            WRITER.append(type.id, id.toString(), event, created, durability == Durability.GROUP);
+            return null;
+        }
         final EventStore entry = (EventStore) create();
         try {
             entry.set(KEY_TYPE, type.id);
             entry.set(KEY_UNIQUE_ID, id.toString());
             entry.set(KEY_EVENT, event);
-            entry.set(KEY_CREATED, new Timestamp(System.currentTimeMillis()));
+            entry.set(KEY_CREATED, created);
             return entry.insert();
         } catch (final SQLException | VException exc) {
             throw new BOMException(exc.getMessage());
         }
     }
 
+    private void saveEntry(final UnitOfWork unit, final UniqueID id, final String event, final StoreType type)
+            throws SQLException {
+        unit.execute(EventStoreWriter.SQL_INSERT, type.id, id.toString(), event,
+                new Timestamp(System.currentTimeMillis()));
+    }
+
     private String getEvent(final DomainObject model) {
         final AbstractSerializer visitor = new RelationsSerializer();
         model.accept(visitor);
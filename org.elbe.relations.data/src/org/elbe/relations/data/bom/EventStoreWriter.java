@@ -0,0 +1,282 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.bom;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hip.kernel.bom.BOMException;
+import org.hip.kernel.bom.impl.AbstractQueryStatement;
+import org.hip.kernel.exc.VException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Write-behind appender for the event store.
+ * <p>
+ * The entries are put into a bounded queue. A background thread takes them from the queue and inserts them with
+ * batched statements, one transaction per batch. If the queue is full, the caller is blocked until the background
+ * thread has caught up.
+ * </p>
+ * <p>
+ * A batch that can't be written doesn't stop the background thread. The failure is reported to the caller of the
+ * next {@link #flush()}.
+ * </p>
+ *
+ * @author lbenno
+ * @see EventStoreHome.Durability */
+class EventStoreWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(EventStoreWriter.class);
+
+    static final String SQL_INSERT = "INSERT INTO tblEventStore (NTYPE, SUNIQUEID, SEVENT, DTCREATION) VALUES (?, ?, ?, ?)"; //$NON-NLS-1$
+    private static final int CAPACITY = 1000;
+    private static final int BATCH_SIZE = 200;
+    private static final long FLUSH_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private final Inserter inserter;
+    // guards the order of the entries in the queue
+    private final Object appendLock = new Object();
+    // guards the number of entries written
+    private final Object writtenLock = new Object();
+    private long appended = 0;
+    private long written = 0;
+    // the failure and the number of entries not written since the last flush, guarded by writtenLock
+    private Throwable failure;
+    private int failed = 0;
+    private Thread worker;
+
+    EventStoreWriter() {
+        this(new Inserter() {
+            @Override
+            public void insert(final List<Entry> entries) throws SQLException {
+                new BatchInsert().insert(entries);
+            }
+        });
+    }
+
+    EventStoreWriter(final Inserter inserter) {
+        this.inserter = inserter;
+    }
+
+    /** Puts the specified entry into the queue.
+     *
+     * @param type int the event's type
+     * @param uniqueID String the item's id
+     * @param event String the serialized event
+     * @param created {@link Timestamp}
+     * @param wait boolean if <code>true</code>, the method returns after the entry has been committed
+     * @throws BOMException if <code>wait</code> is set and the entry couldn't be written */
+    void append(final int type, final String uniqueID, final String event, final Timestamp created,
+            final boolean wait) throws BOMException {
+        final Entry entry = new Entry(type, uniqueID, event, created, wait);
+        try {
+            synchronized (this.appendLock) {
+                startChecked();
+                this.queue.put(entry);
+                this.appended++;
+            }
+            if (wait) {
+                entry.await();
+                if (entry.error != null) {
+                    throw new BOMException(entry.error.getMessage());
+                }
+            }
+        }
+        catch (final InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new BOMException(exc.getMessage());
+        }
+    }
+
+    /** Blocks until all entries appended so far are written to the database, but at most 30 seconds.
+     *
+     * @throws BOMException if the entries couldn't be written in time or if entries have been lost since the last
+     *             flush */
+    void flush() throws BOMException {
+        flush(FLUSH_TIMEOUT);
+    }
+
+    /** Blocks until all entries appended so far are written to the database, but at most the specified time.
+     *
+     * @param timeout long the maximal time to wait in milliseconds
+     * @throws BOMException if the entries couldn't be written in time or if entries have been lost since the last
+     *             flush */
+    void flush(final long timeout) throws BOMException {
+        final long target;
+        synchronized (this.appendLock) {
+            target = this.appended;
+            if (target > 0) {
+                startChecked();
+            }
+        }
+        final long deadline = System.currentTimeMillis() + timeout;
+        synchronized (this.writtenLock) {
+            try {
+                while (this.written < target) {
+                    final long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new BOMException(String.format("%s event store entries not written after %s ms!", //$NON-NLS-1$
+                                target - this.written, timeout));
+                    }
+                    this.writtenLock.wait(remaining);
+                }
+            }
+            catch (final InterruptedException exc) {
+                Thread.currentThread().interrupt();
+                throw new BOMException(exc.getMessage());
+            }
+            if (this.failure != null) {
+                final String message = String.format("Unable to write %s entries to the event store: %s", //$NON-NLS-1$
+                        this.failed, this.failure.getMessage());
+                this.failure = null;
+                this.failed = 0;
+                throw new BOMException(message);
+            }
+        }
+    }
+
+    private void startChecked() {
+        // restart the worker if it has been terminated
+        if (this.worker == null || !this.worker.isAlive()) {
+            this.worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    process();
+                }
+            }, "EventStoreWriter"); //$NON-NLS-1$
+            this.worker.setDaemon(true);
+            this.worker.start();
+        }
+    }
+
+    private void process() {
+        final List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(this.queue.take());
+            }
+            catch (final InterruptedException exc) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            this.queue.drainTo(batch, BATCH_SIZE - 1);
+            Throwable error = null;
+            try {
+                this.inserter.insert(batch);
+            }
+            catch (final Throwable exc) {
+                // the worker has to survive any failure, else flush() would wait in vain
+                LOG.error("Unable to write {} entries to the event store!", batch.size(), exc); //$NON-NLS-1$
+                error = exc;
+            }
+            int unreported = 0;
+            for (final Entry entry : batch) {
+                if (!entry.done(error)) {
+                    unreported++;
+                }
+            }
+            synchronized (this.writtenLock) {
+                this.written += batch.size();
+                if (error != null && unreported > 0) {
+                    this.failure = error;
+                    this.failed += unreported;
+                }
+                this.writtenLock.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    // --- inner classes ---
+
+    /** Writes a batch of entries to the database. */
+    interface Inserter {
+        void insert(List<Entry> entries) throws SQLException;
+    }
+
+    static class Entry {
+        final int type;
+        final String uniqueID;
+        final String event;
+        final Timestamp created;
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private final boolean awaited;
+        private volatile Throwable error;
+
+        Entry(final int type, final String uniqueID, final String event, final Timestamp created,
+                final boolean awaited) {
+            this.type = type;
+            this.uniqueID = uniqueID;
+            this.event = event;
+            this.created = created;
+            this.awaited = awaited;
+        }
+
+        /** @return boolean <code>true</code> if a caller waits for the entry, i.e. an error is reported to it */
+        boolean done(final Throwable error) {
+            this.error = error;
+            this.latch.countDown();
+            return this.awaited;
+        }
+
+        void await() throws InterruptedException {
+            this.latch.await();
+        }
+    }
+
+    private static class BatchInsert extends AbstractQueryStatement {
+        private static final long serialVersionUID = 1L;
+
+        protected void insert(final List<Entry> entries) throws SQLException {
+            try (Connection connection = getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement statement = connection.prepareStatement(SQL_INSERT)) {
+                    for (final Entry entry : entries) {
+                        statement.setInt(1, entry.type);
+                        statement.setString(2, entry.uniqueID);
+                        statement.setString(3, entry.event);
+                        statement.setTimestamp(4, entry.created);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    connection.commit();
+                }
+                catch (final SQLException exc) {
+                    connection.rollback();
+                    throw exc;
+                }
+                finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+            catch (final VException exc) {
+                throw new SQLException(exc);
+            }
+        }
+    }
+
+}
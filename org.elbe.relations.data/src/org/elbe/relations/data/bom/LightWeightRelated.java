@@ -0,0 +1,79 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.bom;
+
+import java.sql.Timestamp;
+
+import org.hip.kernel.exc.VException;
+
+/**
+ * A lightweight version of an item related to an other item. This model
+ * contains the fields needed to display the related item, i.e. the item's text
+ * is not loaded.
+ *
+ * @author lbenno
+ * @see org.elbe.relations.data.utility.RelatedItemLoader
+ */
+public class LightWeightRelated extends AbstractLightWeight implements
+        IRelated {
+	public final long id;
+	public final int itemType;
+	public final String title;
+	public final long relationID;
+	public final Timestamp created;
+	public final Timestamp modified;
+
+	public LightWeightRelated(final long inID, final int inItemType,
+	        final String inTitle, final long inRelationID,
+	        final Timestamp inCreated, final Timestamp inModified) {
+		super();
+		id = inID;
+		itemType = inItemType;
+		title = inTitle;
+		relationID = inRelationID;
+		created = inCreated;
+		modified = inModified;
+	}
+
+	@Override
+	public String toString() {
+		return title;
+	}
+
+	@Override
+	public long getID() {
+		return id;
+	}
+
+	@Override
+	public int getItemType() {
+		return itemType;
+	}
+
+	@Override
+	public long getRelationID() {
+		return relationID;
+	}
+
+	@Override
+	protected Object[] getCreatedModified() throws VException {
+		return new Object[] { created, modified };
+	}
+
+}
@@ -66,7 +66,7 @@ public class Person extends AbstractPerson implements IIndexable {
 		                + get(PersonHome.KEY_NAME).toString())));
 		addCreatedModified(lDocument);
 
-		lFullText.add(getChecked(PersonHome.KEY_TEXT));
+		lFullText.addStyled(getChecked(PersonHome.KEY_TEXT));
 		lFullText.add(getChecked(PersonHome.KEY_FROM));
 		lFullText.add(getChecked(PersonHome.KEY_TO));
 		lDocument.addField(getFieldText(lFullText.getFullText()));
@@ -18,7 +18,6 @@
  ***************************************************************************/
 package org.elbe.relations.data.bom;
 
-import java.io.IOException;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 
@@ -46,6 +45,10 @@ public class PersonHome extends AbstractHome implements IItemFactory, ICreatable
     public final static String KEY_CREATED = "Created";
     public final static String KEY_MODIFIED = "Modified";
 
+    private final static String SQL_INSERT = "INSERT INTO tblPerson (SNAME, SFIRSTNAME, STEXT, SFROM, STO, DTCREATION, DTMUTATION) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    final static String SQL_UPDATE = "UPDATE tblPerson SET SNAME = ?, SFIRSTNAME = ?, STEXT = ?, SFROM = ?, STO = ?, DTMUTATION = ? WHERE PERSONID = ?";
+    private final static String SQL_DELETE = "DELETE FROM tblPerson WHERE PERSONID = ?";
+
     private final static String XML_OBJECT_DEF = "<?xml version='1.0' encoding='ISO-8859-1'?>	"
             + "<objectDef objectName='Person' parent='org.hip.kernel.bom.DomainObject' version='1.0'>	"
             + "	<keyDefs>	" + "		<keyDef>	" + "			<keyItemDef seq='0' keyPropertyName='" + KEY_ID
@@ -97,6 +100,8 @@ public class PersonHome extends AbstractHome implements IItemFactory, ICreatable
 
     /**
      * Create a new person entry in the database and returns the new item.
+     * The row and the event are written in one transaction, the person is
+     * indexed after the commit.
      *
      * @param inName
      *            String
@@ -124,14 +129,16 @@ public class PersonHome extends AbstractHome implements IItemFactory, ICreatable
             outPerson.set(KEY_CREATED, lCreated);
             outPerson.set(KEY_MODIFIED, lCreated);
 
-            final Long id = outPerson.insert(true);
-            setToEventStore(new UniqueID(IItem.PERSON, id), outPerson, StoreType.CREATE);
-
-            // index person
-            getIndexer().addToIndex(outPerson);
-
+            try (UnitOfWork unit = UnitOfWork.begin()) {
+                final long id = unit.insert(SQL_INSERT, inName, inFirstname, inText, inFrom, inTo, lCreated, lCreated);
+                outPerson.set(KEY_ID, id);
+                BOMHelper.getEventStoreHome().saveEntry(unit, new UniqueID(IItem.PERSON, id), outPerson,
+                        StoreType.CREATE);
+                addToIndex(unit, outPerson);
+                unit.commit();
+            }
             return outPerson;
-        } catch (final VException | IOException exc) {
+        } catch (final VException exc) {
             throw new BOMException(exc.getMessage());
         } catch (final SQLException exc) {
             if (AbstractItem.TRUNCATION_STATE.equals(exc.getSQLState())) {
@@ -141,16 +148,14 @@ public class PersonHome extends AbstractHome implements IItemFactory, ICreatable
         }
     }
 
+    /** Delete the item with the specified ID. The item's row, the item's relations and the delete event are written
+     * in one transaction, the item is removed from the search index after the commit.
+     *
+     * @param itemID long
+     * @throws BOMException */
     @Override
     public void deleteItem(final long itemID) throws BOMException {
-        try {
-            final KeyObject key = new KeyObjectImpl();
-            key.setValue(KEY_ID, new Long(itemID));
-            delete(key, true);
-            setToEventStore(new UniqueID(IItem.PERSON, itemID));
-        } catch (VException | SQLException exc) {
-            throw new BOMException(exc.getMessage());
-        }
+        deleteItem(SQL_DELETE, IItem.PERSON, itemID);
     }
 
     public AbstractPerson getPerson(final long inItemID) throws BOMException {
@@ -18,10 +18,22 @@
  ***************************************************************************/
 package org.elbe.relations.data.bom;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 import org.elbe.relations.data.bom.EventStoreHome.StoreType;
 import org.elbe.relations.data.internal.bom.Relation;
+import org.elbe.relations.data.utility.RelationGraph;
 import org.elbe.relations.data.utility.UniqueID;
 import org.hip.kernel.bom.DomainObject;
 import org.hip.kernel.bom.KeyObject;
@@ -46,6 +58,10 @@ ICreatableHome {
     public final static String KEY_TYPE2 = "Type2";
     public final static String KEY_ITEM2 = "Item2";
     private final static String OBJECT_CLASS_NAME = "org.elbe.relations.data.internal.bom.Relation";
+    private final static String SQL_INSERT = "INSERT INTO tblRelation (NTYPE1, NITEM1, NTYPE2, NITEM2) VALUES (?, ?, ?, ?)";
+    private final static String SQL_SELECT_INSERTED = "SELECT RELATIONID, NTYPE2, NITEM2 FROM tblRelation WHERE NTYPE1 = ? AND NITEM1 = ? ORDER BY RELATIONID";
+    private final static String SQL_SELECT_RELATIONS = "SELECT RELATIONID FROM tblRelation WHERE (NTYPE1 = ? AND NITEM1 = ?) OR (NTYPE2 = ? AND NITEM2 = ?)";
+    private final static String SQL_DELETE_RELATIONS = "DELETE FROM tblRelation WHERE (NTYPE1 = ? AND NITEM1 = ?) OR (NTYPE2 = ? AND NITEM2 = ?)";
 
     private final static String XML_OBJECT_DEF = "<?xml version='1.0' encoding='ISO-8859-1'?>	"
             + "<objectDef objectName='Relation' parent='org.hip.kernel.bom.DomainObject' version='1.0'>	"
@@ -123,11 +139,11 @@ ICreatableHome {
             outRelation.set(KEY_ITEM1, new Long(item1.getID()));
             outRelation.set(KEY_TYPE2, new Integer(item2.getItemType()));
             outRelation.set(KEY_ITEM2, new Long(item2.getID()));
-            outRelation.insert(true);
-
-            final long id = getMax(KEY_ID).longValue();
+            final long id = outRelation.insert(true).longValue();
             outRelation.set(KEY_ID, id);
             BOMHelper.getEventStoreHome().saveEntry(new UniqueID(IItem.RELATION, id), outRelation, StoreType.CREATE);
+            RelationGraph.INSTANCE.addRelation(id, item1.getItemType(), item1.getID(), item2.getItemType(),
+                    item2.getID());
             return (Relation) outRelation;
         }
         catch (VException | SQLException exc) {
@@ -135,6 +151,55 @@ ICreatableHome {
         }
     }
 
+    /** Creates the relations between the specified item and the items with the specified IDs. The relations and their
+     * event store entries are inserted with batched statements in one unit of work. An item specified more than once
+     * is related only once.
+     *
+     * @param item IItem
+     * @param related Collection&lt;UniqueID> the items to relate with the specified item
+     * @return List&lt;Relation> the created relations
+     * @throws BOMException */
+    public List<Relation> newRelations(final IItem item, final Collection<UniqueID> related) throws BOMException {
+        final Collection<UniqueID> others = new LinkedHashSet<>(related);
+        final List<Relation> out = new ArrayList<>(others.size());
+        if (others.isEmpty()) {
+            return out;
+        }
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            final int type = item.getItemType();
+            final long itemID = item.getID();
+            final long[] ids = insert(unit.connection(), type, itemID, others);
+            final Map<UniqueID, DomainObject> relations = new LinkedHashMap<>();
+            int i = 0;
+            for (final UniqueID other : others) {
+                final DomainObject relation = create();
+                relation.set(KEY_ID, ids[i]);
+                relation.set(KEY_TYPE1, new Integer(type));
+                relation.set(KEY_ITEM1, new Long(itemID));
+                relation.set(KEY_TYPE2, new Integer(other.itemType));
+                relation.set(KEY_ITEM2, new Long(other.itemID));
+                relations.put(new UniqueID(IItem.RELATION, ids[i]), relation);
+                out.add((Relation) relation);
+                i++;
+            }
+            BOMHelper.getEventStoreHome().saveEntries(unit, relations, StoreType.CREATE);
+            unit.afterCommit(new Runnable() {
+                @Override
+                public void run() {
+                    int index = 0;
+                    for (final UniqueID other : others) {
+                        RelationGraph.INSTANCE.addRelation(ids[index++], type, itemID, other.itemType, other.itemID);
+                    }
+                }
+            });
+            unit.commit();
+            return out;
+        }
+        catch (VException | SQLException exc) {
+            throw new BOMException(exc);
+        }
+    }
+
     /** Delete the relation with the specified ID.
      *
      * @param relationID
@@ -143,8 +208,17 @@ ICreatableHome {
         try {
             final KeyObject key = new KeyObjectImpl();
             key.setValue(KEY_ID, new Long(relationID));
+            // the graph is updated also while it's loaded, thus, we always need the relation's items
+            final List<DomainObject> relations = new ArrayList<>(1);
+            final QueryResult relation = select(key);
+            while (relation.hasMoreElements()) {
+                relations.add(relation.nextAsDomainObject());
+            }
             delete(key, true);
             BOMHelper.getEventStoreHome().saveEntry(new UniqueID(IItem.RELATION, relationID));
+            for (final DomainObject removed : relations) {
+                removeFromGraph(removed);
+            }
         }
         catch (VException | SQLException exc) {
             throw new BOMException(exc.getMessage());
@@ -161,14 +235,23 @@ ICreatableHome {
     public void deleteRelation(final int type1, final long id1, final int type2, final long id2) throws BOMException {
         try {
             final DomainObject relation = findByKey(createKey(type1, id1, type2, id2));
-            BOMHelper.getEventStoreHome().saveEntry(new UniqueID(IItem.RELATION, (Long) relation.get(KEY_ID)));
+            final Long relationID = (Long) relation.get(KEY_ID);
+            BOMHelper.getEventStoreHome().saveEntry(new UniqueID(IItem.RELATION, relationID));
             relation.delete(true);
+            RelationGraph.INSTANCE.removeRelation(relationID, type1, id1, type2, id2);
         }
         catch (SQLException | VException exc) {
             throw new BOMException(exc.getMessage());
         }
     }
 
+    private void removeFromGraph(final DomainObject relation) throws VException {
+        RelationGraph.INSTANCE.removeRelation(((Number) relation.get(KEY_ID)).longValue(),
+                ((Number) relation.get(KEY_TYPE1)).intValue(),
+                ((Number) relation.get(KEY_ITEM1)).longValue(), ((Number) relation.get(KEY_TYPE2)).intValue(),
+                ((Number) relation.get(KEY_ITEM2)).longValue());
+    }
+
     /** Finds the relation item with the specified ID.
      *
      * @param relationID long
@@ -264,12 +347,93 @@ ICreatableHome {
             }
             // delete relations
             delete(key1, true);
+            RelationGraph.INSTANCE.removeItem(new UniqueID(item.getItemType(), item.getID()));
         }
         catch (VException | SQLException exc) {
             throw new BOMException(exc.getMessage());
         }
     }
 
+    /** Deletes all relations to the specified item as part of the specified unit of work. The relation graph is
+     * updated after the unit has been committed.
+     *
+     * @param unit {@link UnitOfWork}
+     * @param type int the item's type
+     * @param itemID long the item's id
+     * @throws SQLException */
+    public void deleteRelations(final UnitOfWork unit, final int type, final long itemID) throws SQLException {
+        final EventStoreHome eventStoreHome = BOMHelper.getEventStoreHome();
+        for (final Long id : unit.selectIDs(SQL_SELECT_RELATIONS, type, itemID, type, itemID)) {
+            eventStoreHome.saveEntry(unit, new UniqueID(IItem.RELATION, id));
+        }
+        unit.execute(SQL_DELETE_RELATIONS, type, itemID, type, itemID);
+        unit.afterCommit(new Runnable() {
+            @Override
+            public void run() {
+                RelationGraph.INSTANCE.removeItem(new UniqueID(type, itemID));
+            }
+        });
+    }
+
+    /** Inserts the relations of one item with a batched statement. The ids of the new relations are taken from the
+     * statement's generated keys. If the JDBC driver doesn't return the keys for a batch (e.g. Derby), they are
+     * retrieved with one query in the same transaction. */
+    private static long[] insert(final Connection connection, final int type, final long itemID,
+            final Collection<UniqueID> related) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            for (final UniqueID other : related) {
+                statement.setInt(1, type);
+                statement.setLong(2, itemID);
+                statement.setInt(3, other.itemType);
+                statement.setLong(4, other.itemID);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            final long[] out = getGeneratedKeys(statement, related.size());
+            return out == null ? selectInserted(connection, type, itemID, related) : out;
+        }
+    }
+
+    private static long[] getGeneratedKeys(final Statement statement, final int count) throws SQLException {
+        final long[] out = new long[count];
+        int i = 0;
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            while (keys != null && keys.next() && i < count) {
+                out[i++] = keys.getLong(1);
+            }
+        }
+        catch (final SQLException exc) {
+            // the driver doesn't support generated keys for batches
+            return null;
+        }
+        return i == count ? out : null;
+    }
+
+    /** The related items are distinct, thus, the highest id of each related item is the relation just inserted. */
+    private static long[] selectInserted(final Connection connection, final int type, final long itemID,
+            final Collection<UniqueID> related) throws SQLException {
+        final Map<UniqueID, Long> ids = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(SQL_SELECT_INSERTED)) {
+            statement.setInt(1, type);
+            statement.setLong(2, itemID);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    ids.put(new UniqueID(result.getInt(2), result.getLong(3)), result.getLong(1));
+                }
+            }
+        }
+        final long[] out = new long[related.size()];
+        int i = 0;
+        for (final UniqueID other : related) {
+            final Long id = ids.get(other);
+            if (id == null) {
+                throw new SQLException("Inserted relation not found: " + other); //$NON-NLS-1$
+            }
+            out[i++] = id;
+        }
+        return out;
+    }
+
     /**
      * @return String[]
      * @see ICreatableHome#getSQLCreate()
@@ -58,7 +58,7 @@ public class Term extends AbstractTerm implements IIndexable {
         document.addField(getFieldTitle(fullText.add(get(TermHome.KEY_TITLE)
                 .toString())));
         addCreatedModified(document);
-        fullText.add(getChecked(TermHome.KEY_TEXT));
+        fullText.addStyled(getChecked(TermHome.KEY_TEXT));
         document.addField(getFieldText(fullText.getFullText()));
         inexer.addDocument(document);
     }
@@ -18,11 +18,17 @@
  ***************************************************************************/
 package org.elbe.relations.data.bom;
 
-import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.elbe.relations.data.bom.EventStoreHome.StoreType;
+import org.elbe.relations.data.search.RelationsIndexer;
 import org.elbe.relations.data.utility.UniqueID;
 import org.hip.kernel.bom.KeyObject;
 import org.hip.kernel.bom.impl.KeyObjectImpl;
@@ -43,6 +49,12 @@ public class TermHome extends AbstractHome implements IItemFactory, ICreatableHo
     public final static String KEY_CREATED = "Created";
     public final static String KEY_MODIFIED = "Modified";
 
+    private final static String SQL_INSERT = "INSERT INTO tblTerm (STITLE, STEXT, DTCREATION, DTMUTATION) VALUES (?, ?, ?, ?)";
+    final static String SQL_UPDATE = "UPDATE tblTerm SET STITLE = ?, STEXT = ?, DTMUTATION = ? WHERE TERMID = ?";
+    private final static String SQL_DELETE = "DELETE FROM tblTerm WHERE TERMID = ?";
+    private final static String SQL_SELECT_MAX = "SELECT MAX(TERMID) FROM tblTerm";
+    private final static String SQL_SELECT_INSERTED = "SELECT TERMID FROM tblTerm WHERE TERMID > ? AND DTCREATION = ? ORDER BY TERMID";
+
     private final static String XML_OBJECT_DEF = "<?xml version='1.0' encoding='ISO-8859-1'?>	"
             + "<objectDef objectName='Term' parent='org.hip.kernel.bom.DomainObject' version='1.0'>	"
             + "	<keyDefs>	" + "		<keyDef>	" + "			<keyItemDef seq='0' keyPropertyName='" + KEY_ID
@@ -86,7 +98,8 @@ public class TermHome extends AbstractHome implements IItemFactory, ICreatableHo
         return XML_OBJECT_DEF;
     }
 
-    /** Create a new term entry in the database and returns the new item.
+    /** Create a new term entry in the database and returns the new item. The row and the event are written in one
+     * transaction, the term is indexed after the commit.
      *
      * @param title String
      * @param text String
@@ -101,14 +114,64 @@ public class TermHome extends AbstractHome implements IItemFactory, ICreatableHo
             outTerm.set(KEY_CREATED, created);
             outTerm.set(KEY_MODIFIED, created);
 
-            final Long id = outTerm.insert(true);
-            setToEventStore(new UniqueID(IItem.TERM, id), outTerm, StoreType.CREATE);
+            try (UnitOfWork unit = UnitOfWork.begin()) {
+                final long id = unit.insert(SQL_INSERT, title, text, created, created);
+                outTerm.set(KEY_ID, id);
+                BOMHelper.getEventStoreHome().saveEntry(unit, new UniqueID(IItem.TERM, id), outTerm, StoreType.CREATE);
+                addToIndex(unit, outTerm);
+                unit.commit();
+            }
+            return outTerm;
+        } catch (final VException exc) {
+            throw new BOMException(exc.getMessage());
+        } catch (final SQLException exc) {
+            if (AbstractItem.TRUNCATION_STATE.equals(exc.getSQLState())) {
+                throw new BOMTruncationException(AbstractItem.TRUNCATION_MSG);
+            }
+            throw new BOMException(exc.getMessage());
+        }
+    }
 
-            // index term
-            getIndexer().addToIndex(outTerm);
+    /** Creates new term entries in the database and returns the new items. The terms are inserted with one batched
+     * statement in the same transaction as their events and are added to the search index in one pass after the
+     * commit.
+     *
+     * @param titles List&lt;String> the terms' titles
+     * @param texts List&lt;String> the terms' texts, in the same order as the titles
+     * @return List&lt;AbstractTerm> the created terms
+     * @throws BOMException */
+    public List<AbstractTerm> newTerms(final List<String> titles, final List<String> texts) throws BOMException {
+        final List<AbstractTerm> out = new ArrayList<>(titles.size());
+        final List<Term> indexables = new ArrayList<>(titles.size());
+        if (titles.isEmpty()) {
+            return out;
+        }
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            final Timestamp created = new Timestamp(System.currentTimeMillis());
+            final long[] ids = BatchInsert.insert(unit.connection(), titles, texts, created);
+            for (int i = 0; i < ids.length; i++) {
+                final Term term = (Term) create();
+                term.set(KEY_ID, ids[i]);
+                term.set(KEY_TITLE, titles.get(i));
+                term.set(KEY_TEXT, texts.get(i));
+                term.set(KEY_CREATED, created);
+                term.set(KEY_MODIFIED, created);
+                BOMHelper.getEventStoreHome().saveEntry(unit, new UniqueID(IItem.TERM, ids[i]), term,
+                        StoreType.CREATE);
+                out.add(term);
+                indexables.add(term);
+            }
 
-            return outTerm;
-        } catch (final VException | IOException exc) {
+            final RelationsIndexer indexer = getIndexer();
+            unit.index(new UnitOfWork.IndexTask() {
+                @Override
+                public void run() throws Exception {
+                    indexer.addToIndex(indexables);
+                }
+            });
+            unit.commit();
+            return out;
+        } catch (final VException exc) {
             throw new BOMException(exc.getMessage());
         } catch (final SQLException exc) {
             if (AbstractItem.TRUNCATION_STATE.equals(exc.getSQLState())) {
@@ -118,20 +181,14 @@ public class TermHome extends AbstractHome implements IItemFactory, ICreatableHo
         }
     }
 
-    /** Delete the item with the specified ID.
+    /** Delete the item with the specified ID. The item's row, the item's relations and the delete event are written
+     * in one transaction, the item is removed from the search index after the commit.
      *
      * @param itemID long
      * @throws BOMException */
     @Override
     public void deleteItem(final long itemID) throws BOMException {
-        try {
-            final KeyObject key = new KeyObjectImpl();
-            key.setValue(KEY_ID, new Long(itemID));
-            delete(key, true);
-            setToEventStore(new UniqueID(IItem.TERM, itemID));
-        } catch (VException | SQLException exc) {
-            throw new BOMException(exc.getMessage());
-        }
+        deleteItem(SQL_DELETE, IItem.TERM, itemID);
     }
 
     /** Finds the term item with the specified ID.
@@ -176,4 +233,70 @@ public class TermHome extends AbstractHome implements IItemFactory, ICreatableHo
         return new String[] { sql };
     }
 
+    // --- private classes ---
+
+    /** Helper class to insert a batch of terms on the connection of a unit of work. */
+    private static class BatchInsert {
+
+        static long[] insert(final Connection connection, final List<String> titles, final List<String> texts,
+                final Timestamp created) throws SQLException {
+            final long lastID = selectMax(connection);
+            try (PreparedStatement statement = connection.prepareStatement(SQL_INSERT,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < titles.size(); i++) {
+                    statement.setString(1, titles.get(i));
+                    statement.setString(2, texts.get(i));
+                    statement.setTimestamp(3, created);
+                    statement.setTimestamp(4, created);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                final long[] out = getGeneratedKeys(statement, titles.size());
+                return out == null ? selectInserted(connection, lastID, created, titles.size()) : out;
+            }
+        }
+
+        private static long selectMax(final Connection connection) throws SQLException {
+            try (Statement statement = connection.createStatement();
+                    ResultSet result = statement.executeQuery(SQL_SELECT_MAX)) {
+                return result.next() ? result.getLong(1) : 0;
+            }
+        }
+
+        private static long[] getGeneratedKeys(final Statement statement, final int count) throws SQLException {
+            final long[] out = new long[count];
+            int i = 0;
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                while (keys != null && keys.next() && i < count) {
+                    out[i++] = keys.getLong(1);
+                }
+            }
+            catch (final SQLException exc) {
+                // the driver doesn't support generated keys for batches
+                return null;
+            }
+            return i == count ? out : null;
+        }
+
+        private static long[] selectInserted(final Connection connection, final long lastID, final Timestamp created,
+                final int count) throws SQLException {
+            // the identity column is ascending, i.e. the rows inserted in this transaction follow the last id
+            final long[] out = new long[count];
+            int i = 0;
+            try (PreparedStatement statement = connection.prepareStatement(SQL_SELECT_INSERTED)) {
+                statement.setLong(1, lastID);
+                statement.setTimestamp(2, created);
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next() && i < count) {
+                        out[i++] = result.getLong(1);
+                    }
+                }
+            }
+            if (i < count) {
+                throw new SQLException("Unable to retrieve the ids of the inserted terms.");
+            }
+            return out;
+        }
+    }
+
 }
@@ -90,7 +90,7 @@ public class Text extends AbstractText implements IIndexable {
 		lFullText.add(getChecked(TextHome.KEY_SUBTITLE));
 		lFullText.add(getChecked(TextHome.KEY_VOLUME));
 		lFullText.add(getChecked(TextHome.KEY_YEAR));
-		lFullText.add(getChecked(TextHome.KEY_TEXT));
+		lFullText.addStyled(getChecked(TextHome.KEY_TEXT));
 		lDocument.addField(getFieldText(lFullText.getFullText()));
 		inIndexer.addDocument(lDocument);
 	}
@@ -18,7 +18,6 @@
  ***************************************************************************/
 package org.elbe.relations.data.bom;
 
-import java.io.IOException;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 
@@ -54,6 +53,10 @@ public class TextHome extends AbstractHome implements IItemFactory, ICreatableHo
     public final static String KEY_CREATED = "Created";
     public final static String KEY_MODIFIED = "Modified";
 
+    private final static String SQL_INSERT = "INSERT INTO tblText (STITLE, STEXT, SAUTHOR, SCOAUTHORS, SSUBTITLE, SYEAR, SPUBLICATION, SPAGES, NVOLUME, NNUMBER, SPUBLISHER, SPLACE, NTYPE, DTCREATION, DTMUTATION) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    final static String SQL_UPDATE = "UPDATE tblText SET STITLE = ?, STEXT = ?, SAUTHOR = ?, SCOAUTHORS = ?, SSUBTITLE = ?, SYEAR = ?, SPUBLICATION = ?, SPAGES = ?, NVOLUME = ?, NNUMBER = ?, SPUBLISHER = ?, SPLACE = ?, NTYPE = ?, DTMUTATION = ? WHERE TEXTID = ?";
+    private final static String SQL_DELETE = "DELETE FROM tblText WHERE TEXTID = ?";
+
     private final static String XML_OBJECT_DEF = "<?xml version='1.0' encoding='ISO-8859-1'?>	"
             + "<objectDef objectName='Text' parent='org.hip.kernel.bom.DomainObject' version='1.0'>	"
             + "	<keyDefs>	" + "		<keyDef>	" + "			<keyItemDef seq='0' keyPropertyName='" + KEY_ID
@@ -174,14 +177,18 @@ public class TextHome extends AbstractHome implements IItemFactory, ICreatableHo
             outText.set(KEY_CREATED, lCreated);
             outText.set(KEY_MODIFIED, lCreated);
 
-            final Long id = outText.insert(true);
-            setToEventStore(new UniqueID(IItem.TEXT, id), outText, StoreType.CREATE);
-
-            // index text
-            getIndexer().addToIndex(outText);
-
+            // the row and the event are committed together, the text is indexed after the commit
+            try (UnitOfWork unit = UnitOfWork.begin()) {
+                final long id = unit.insert(SQL_INSERT, inTitle, inText, inAuthor, inCoAuthor, inSubTitle, inYear,
+                        inPublication, inPages, inVolume, inNumber, inPublisher, inPlace, inType, lCreated, lCreated);
+                outText.set(KEY_ID, id);
+                BOMHelper.getEventStoreHome().saveEntry(unit, new UniqueID(IItem.TEXT, id), outText,
+                        StoreType.CREATE);
+                addToIndex(unit, outText);
+                unit.commit();
+            }
             return outText;
-        } catch (final VException | IOException exc) {
+        } catch (final VException exc) {
             throw new BOMException(exc.getMessage());
         } catch (final SQLException exc) {
             if (AbstractItem.TRUNCATION_STATE.equals(exc.getSQLState())) {
@@ -192,7 +199,8 @@ public class TextHome extends AbstractHome implements IItemFactory, ICreatableHo
     }
 
     /**
-     * Delete the item with the specified ID.
+     * Delete the item with the specified ID. The item's row, the item's
+     * relations and the corresponding events are deleted in one transaction.
      *
      * @param inItemID
      *            long
@@ -200,14 +208,7 @@ public class TextHome extends AbstractHome implements IItemFactory, ICreatableHo
      */
     @Override
     public void deleteItem(final long inItemID) throws BOMException {
-        try {
-            final KeyObject lKey = new KeyObjectImpl();
-            lKey.setValue(KEY_ID, new Long(inItemID));
-            delete(lKey, true);
-            setToEventStore(new UniqueID(IItem.TEXT, inItemID));
-        } catch (VException | SQLException exc) {
-            throw new BOMException(exc.getMessage());
-        }
+        deleteItem(SQL_DELETE, IItem.TEXT, inItemID);
     }
 
     /**
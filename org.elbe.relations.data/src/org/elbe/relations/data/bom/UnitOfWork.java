@@ -0,0 +1,242 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.bom;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.hip.kernel.bom.impl.AbstractQueryStatement;
+import org.hip.kernel.exc.VException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Groups the writes of one edit into one JDBC transaction.
+ * <p>
+ * The item's row, the writes of related rows (e.g. the item's relations) and the event store entries are written with
+ * the unit's connection and are committed together. The maintenance of the search index is registered with
+ * {@link #index(IndexTask)} and is enqueued after the commit, i.e. the index is never changed for a rolled back edit and
+ * the caller doesn't wait for the index writer. The queue's thread is a daemon, therefore the pending index changes
+ * are drained with {@link #awaitIndexed()} before the index is committed or released (e.g. at shutdown). Changes of in-memory structures (e.g. the <code>RelationGraph</code>)
+ * are registered with {@link #afterCommit(Runnable)}.
+ * </p>
+ * Usage:
+ *
+ * <pre>
+ * try (UnitOfWork unit = UnitOfWork.begin()) {
+ *     final long id = unit.insert(SQL_INSERT, title, text);
+ *     BOMHelper.getEventStoreHome().saveEntry(unit, new UniqueID(IItem.TERM, id), model, StoreType.CREATE);
+ *     unit.index(task);
+ *     unit.commit();
+ * }
+ * </pre>
+ *
+ * A unit that is closed without being committed is rolled back.
+ *
+ * @author lbenno */
+public class UnitOfWork implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(UnitOfWork.class);
+
+    // one thread keeps the index changes in the order of the commits
+    private static final ExecutorService INDEX_QUEUE = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread out = new Thread(runnable, "UnitOfWorkIndexer"); //$NON-NLS-1$
+            out.setDaemon(true);
+            return out;
+        }
+    });
+
+    private final Connection connection;
+    private final List<Runnable> commitTasks = new ArrayList<>();
+    private final List<IndexTask> indexTasks = new ArrayList<>();
+    private boolean committed = false;
+
+    private UnitOfWork(final Connection connection) throws SQLException {
+        this.connection = connection;
+        this.connection.setAutoCommit(false);
+    }
+
+    /** Starts a new unit of work.
+     *
+     * @return {@link UnitOfWork}
+     * @throws SQLException */
+    public static UnitOfWork begin() throws SQLException {
+        try {
+            return new UnitOfWork(new ConnectionSource().open());
+        } catch (final VException exc) {
+            throw new SQLException(exc);
+        }
+    }
+
+    /** Executes the specified insert statement.
+     *
+     * @param sql String the prepared statement
+     * @param parameters Object[] the statement's parameters
+     * @return long the generated key of the inserted row
+     * @throws SQLException */
+    public long insert(final String sql, final Object... parameters) throws SQLException {
+        try (PreparedStatement statement = this.connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            setParameters(statement, parameters);
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                if (keys == null || !keys.next()) {
+                    throw new SQLException("No key generated: " + sql); //$NON-NLS-1$
+                }
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    /** Executes the specified update or delete statement.
+     *
+     * @param sql String the prepared statement
+     * @param parameters Object[] the statement's parameters
+     * @return int the number of rows changed
+     * @throws SQLException */
+    public int execute(final String sql, final Object... parameters) throws SQLException {
+        try (PreparedStatement statement = this.connection.prepareStatement(sql)) {
+            setParameters(statement, parameters);
+            return statement.executeUpdate();
+        }
+    }
+
+    /** Executes the specified query and returns the values of the first column.
+     *
+     * @param sql String the prepared statement
+     * @param parameters Object[] the statement's parameters
+     * @return List&lt;Long>
+     * @throws SQLException */
+    public List<Long> selectIDs(final String sql, final Object... parameters) throws SQLException {
+        final List<Long> out = new ArrayList<>();
+        try (PreparedStatement statement = this.connection.prepareStatement(sql)) {
+            setParameters(statement, parameters);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    out.add(result.getLong(1));
+                }
+            }
+        }
+        return out;
+    }
+
+    /** @return {@link Connection} the unit's connection, for statements the unit doesn't provide, e.g. batches */
+    Connection connection() {
+        return this.connection;
+    }
+
+    /** Registers a task to run on the caller's thread after the unit has been committed.
+     *
+     * @param task {@link Runnable} */
+    public void afterCommit(final Runnable task) {
+        this.commitTasks.add(task);
+    }
+
+    /** Registers a change of the search index. The task is enqueued after the unit has been committed.
+     *
+     * @param task {@link IndexTask} */
+    public void index(final IndexTask task) {
+        this.indexTasks.add(task);
+    }
+
+    /** Commits the unit's writes, then runs the registered tasks.
+     *
+     * @throws SQLException */
+    public void commit() throws SQLException {
+        this.connection.commit();
+        this.committed = true;
+        for (final Runnable task : this.commitTasks) {
+            task.run();
+        }
+        for (final IndexTask task : this.indexTasks) {
+            INDEX_QUEUE.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run();
+                    } catch (final Exception exc) {
+                        LOG.error("Unable to update the search index!", exc); //$NON-NLS-1$
+                    }
+                }
+            });
+        }
+    }
+
+    /** Rolls back the unit if it hasn't been committed and releases the connection. */
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (!this.committed) {
+                this.connection.rollback();
+            }
+        } finally {
+            try {
+                this.connection.setAutoCommit(true);
+            } finally {
+                this.connection.close();
+            }
+        }
+    }
+
+    /** Blocks until the index changes of all units committed so far are processed. */
+    public static void awaitIndexed() {
+        try {
+            INDEX_QUEUE.submit(new Runnable() {
+                @Override
+                public void run() {
+                    // marks the position in the queue
+                }
+            }).get(1, TimeUnit.MINUTES);
+        } catch (final Exception exc) {
+            LOG.error("Waiting for the search index failed!", exc); //$NON-NLS-1$
+        }
+    }
+
+    private static void setParameters(final PreparedStatement statement, final Object[] parameters)
+            throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+    }
+
+    // --- inner classes ---
+
+    /** A change of the search index. */
+    public interface IndexTask {
+        void run() throws Exception;
+    }
+
+    /** Helper class to open a connection to the actual database. */
+    private static class ConnectionSource extends AbstractQueryStatement {
+        private static final long serialVersionUID = 1L;
+
+        protected Connection open() throws SQLException, VException {
+            return getConnection();
+        }
+    }
+
+}
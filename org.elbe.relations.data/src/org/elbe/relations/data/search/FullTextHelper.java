@@ -18,6 +18,10 @@
  ***************************************************************************/
 package org.elbe.relations.data.search;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
 /**
  * Helper class to create a full text search field gathering the content of
  * various fields.
@@ -36,6 +40,31 @@ public class FullTextHelper {
 		return inSearch;
 	}
 
+	/**
+	 * Adds the specified styled text with the style markup removed (see
+	 * {@link StyledTextReader}).
+	 *
+	 * @param inStyled
+	 *            String the item's text containing style tags
+	 * @return String the specified text
+	 */
+	public String addStyled(final String inStyled) {
+		final char[] lBuffer = new char[Math.min(
+				Math.max(inStyled.length(), 1), 1024)];
+		try (Reader lReader = new StyledTextReader(
+				new StringReader(inStyled))) {
+			int lRead;
+			while ((lRead = lReader.read(lBuffer)) != -1) {
+				fullText.append(lBuffer, 0, lRead);
+			}
+		}
+		catch (final IOException exc) {
+			// can't happen when reading a string
+		}
+		fullText.append(" "); //$NON-NLS-1$
+		return inStyled;
+	}
+
 	public String getFullText() {
 		return new String(fullText);
 	}
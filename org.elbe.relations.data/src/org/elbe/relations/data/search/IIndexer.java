@@ -64,6 +64,17 @@ public interface IIndexer {
 	void processIndexer(IndexerHelper inIndexer, File inIndexDir, String inLanguage, boolean inCreate)
 			throws IOException;
 
+	/**
+	 * Switches the multilingual mode, i.e. whether the documents are indexed
+	 * in fields specific to the language they are analyzed with. The mode is
+	 * off by default. Indexes created in one mode have to be rebuilt after the
+	 * mode is switched.
+	 *
+	 * @param inMultilingual
+	 *            boolean
+	 */
+	void setMultilingual(boolean inMultilingual);
+
 	/**
 	 * Returns the number of documents actually indexed.
 	 *
@@ -113,6 +124,88 @@ public interface IIndexer {
 	 */
 	void initializeIndex(File inIndexDir, String inLanguage) throws IOException;
 
+	/**
+	 * Commits the pending changes of the specified index to the disk.
+	 *
+	 * @param inIndexDir
+	 *            File the directory where the search index is stored.
+	 * @throws IOException
+	 */
+	void commit(File inIndexDir) throws IOException;
+
+	/**
+	 * Commits the pending changes of the specified index and releases all
+	 * resources held for it. This method has to be called before the index
+	 * directory is deleted or the application switches to a different
+	 * catalog.
+	 *
+	 * @param inIndexDir
+	 *            File the directory where the search index is stored.
+	 * @throws IOException
+	 */
+	void release(File inIndexDir) throws IOException;
+
+	/**
+	 * Commits the pending changes of the specified index and protects the
+	 * files of this commit from being deleted by subsequent changes, e.g. for
+	 * that the files can be copied while the index stays usable. The snapshot
+	 * has to be released after use.
+	 *
+	 * @param inIndexDir
+	 *            File the directory where the search index is stored.
+	 * @return Collection&lt;String> the names of the files belonging to the
+	 *         snapshot, relative to the index directory
+	 * @throws IOException
+	 * @see #releaseSnapshot(File)
+	 */
+	Collection<String> snapshot(File inIndexDir) throws IOException;
+
+	/**
+	 * Releases the oldest snapshot taken with {@link #snapshot(File)}, the
+	 * files not needed anymore are deleted.
+	 *
+	 * @param inIndexDir
+	 *            File the directory where the search index is stored.
+	 * @throws IOException
+	 */
+	void releaseSnapshot(File inIndexDir) throws IOException;
+
+	/**
+	 * Returns the ID of the last event store entry reflected in the specified
+	 * index.
+	 *
+	 * @param inIndexDir
+	 *            File the directory where the search index is stored.
+	 * @return long the <code>EventStoreID</code>, <code>-1</code> if the index
+	 *         does not know the event store's state
+	 * @throws IOException
+	 */
+	long getEventWatermark(File inIndexDir) throws IOException;
+
+	/**
+	 * Stores the ID of the last event store entry reflected in the specified
+	 * index and commits the index.
+	 *
+	 * @param inIndexDir
+	 *            File the directory where the search index is stored.
+	 * @param inEventID
+	 *            long the <code>EventStoreID</code>
+	 * @throws IOException
+	 */
+	void setEventWatermark(File inIndexDir, long inEventID) throws IOException;
+
+	/**
+	 * Returns the generation of the specified index. The generation changes
+	 * with every modification of the index, i.e. search results retrieved
+	 * with the same generation are still valid.
+	 *
+	 * @param inIndexDir
+	 *            File the directory where the search index is stored.
+	 * @return long the index generation
+	 * @throws IOException
+	 */
+	long getGeneration(File inIndexDir) throws IOException;
+
 	/**
 	 * Searches the indexed items using the specified search query.
 	 *
@@ -29,6 +29,7 @@ import java.util.Collection;
  */
 public class IndexerDocument {
 	private final Collection<IndexerField> fields = new ArrayList<IndexerField>();
+	private String language = null;
 
 	/**
 	 * @param inField
@@ -47,4 +48,24 @@ public class IndexerDocument {
 		return fields;
 	}
 
+	/**
+	 * Sets the language the document's content is written in.
+	 *
+	 * @param inLanguage
+	 *            String ISO language code, <code>null</code> for the
+	 *            indexer's language
+	 */
+	public void setLanguage(String inLanguage) {
+		language = inLanguage;
+	}
+
+	/**
+	 * @return String the ISO language code of the document's content,
+	 *         <code>null</code> if the document has to be analyzed with the
+	 *         indexer's language
+	 */
+	public String getLanguage() {
+		return language;
+	}
+
 }
@@ -56,4 +56,14 @@ public class NoOpIndexer extends RelationsIndexer {
 		// intentionally do nothing
 	}
 
+	@Override
+	public void commit() throws IOException {
+		// intentionally do nothing
+	}
+
+	@Override
+	public void release() throws IOException {
+		// intentionally do nothing
+	}
+
 }
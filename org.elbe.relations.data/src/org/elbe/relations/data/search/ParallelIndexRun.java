@@ -0,0 +1,253 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2016, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.hip.kernel.bom.DomainObject;
+import org.hip.kernel.bom.GeneralDomainObjectHome;
+import org.hip.kernel.bom.QueryResult;
+import org.hip.kernel.exc.VException;
+
+/**
+ * Producer/consumer pipeline to (re)index the items of the actual database.
+ * <p>
+ * For each item table, a producer walks the table's selection and puts the
+ * items into a bounded queue. A pool of workers takes the items from the
+ * queue, creates the index documents and passes them in chunks to the
+ * <code>IIndexer</code>, which adds them to the same index writer. The changes
+ * are committed once, at the end of the run.
+ * </p>
+ * <p>
+ * Progress and cancellation are handled on the calling thread.
+ * </p>
+ *
+ * @author lbenno
+ */
+class ParallelIndexRun {
+	private static final int CHUNK_SIZE = 50;
+	private static final int QUEUE_CAPACITY = 1000;
+	private static final long POLL_INTERVAL = 200; // milliseconds
+	private static final Object END_OF_INPUT = new Object();
+
+	private final IIndexer indexer;
+	private final File indexDir;
+	private final String language;
+	private final int numberOfWorkers;
+
+	private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	private final AtomicInteger indexed = new AtomicInteger();
+	private final AtomicBoolean cancelled = new AtomicBoolean();
+	private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+	/**
+	 * ParallelIndexRun constructor.
+	 *
+	 * @param inIndexer
+	 *            {@link IIndexer}
+	 * @param inIndexDir
+	 *            File the directory where the search index is stored
+	 * @param inLanguage
+	 *            String ISO Language Code defined in ISO-639
+	 * @param inNumberOfWorkers
+	 *            int the number of threads creating index documents
+	 */
+	ParallelIndexRun(final IIndexer inIndexer, final File inIndexDir, final String inLanguage,
+			final int inNumberOfWorkers) {
+		this.indexer = inIndexer;
+		this.indexDir = inIndexDir;
+		this.language = inLanguage;
+		this.numberOfWorkers = Math.max(1, inNumberOfWorkers);
+	}
+
+	/**
+	 * Indexes all items provided by the specified homes.
+	 *
+	 * @param inMonitor
+	 *            {@link IProgressMonitor}
+	 * @param inHomes
+	 *            {@link GeneralDomainObjectHome}[] the homes of the item
+	 *            tables to index
+	 * @return int the number of indexed items
+	 * @throws VException
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	int run(final IProgressMonitor inMonitor, final GeneralDomainObjectHome... inHomes)
+			throws VException, SQLException, IOException {
+		int lTotal = 0;
+		for (final GeneralDomainObjectHome lHome : inHomes) {
+			lTotal += lHome.getCount();
+		}
+		final SubMonitor lProgress = SubMonitor.convert(inMonitor, lTotal);
+
+		this.indexer.initializeIndex(this.indexDir, this.language);
+		final ExecutorService lExecutor = Executors.newFixedThreadPool(inHomes.length + this.numberOfWorkers);
+		final CountDownLatch lProducersDone = new CountDownLatch(inHomes.length);
+		final CountDownLatch lWorkersDone = new CountDownLatch(this.numberOfWorkers);
+		try {
+			for (final GeneralDomainObjectHome lHome : inHomes) {
+				lExecutor.execute(new Producer(lHome, lProducersDone));
+			}
+			for (int i = 0; i < this.numberOfWorkers; i++) {
+				lExecutor.execute(new Worker(lWorkersDone));
+			}
+
+			int lReported = 0;
+			boolean lEndSignaled = false;
+			while (!lWorkersDone.await(POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+				final int lIndexed = this.indexed.get();
+				lProgress.worked(lIndexed - lReported);
+				lReported = lIndexed;
+				if (inMonitor.isCanceled() || this.failure.get() != null) {
+					this.cancelled.set(true);
+				}
+				if (!lEndSignaled && lProducersDone.getCount() == 0) {
+					signalEnd();
+					lEndSignaled = true;
+				}
+			}
+			lProgress.worked(this.indexed.get() - lReported);
+		} catch (final InterruptedException exc) {
+			this.cancelled.set(true);
+			Thread.currentThread().interrupt();
+		} finally {
+			lExecutor.shutdownNow();
+		}
+		rethrowFailure();
+		this.indexer.commit(this.indexDir);
+		return this.indexed.get();
+	}
+
+	private void signalEnd() throws InterruptedException {
+		for (int i = 0; i < this.numberOfWorkers; i++) {
+			this.queue.put(END_OF_INPUT);
+		}
+	}
+
+	private void fail(final Exception inExc) {
+		this.failure.compareAndSet(null, inExc);
+		this.cancelled.set(true);
+	}
+
+	private void rethrowFailure() throws VException, SQLException, IOException {
+		final Exception lFailure = this.failure.get();
+		if (lFailure == null) {
+			return;
+		}
+		if (lFailure instanceof VException) {
+			throw (VException) lFailure;
+		}
+		if (lFailure instanceof SQLException) {
+			throw (SQLException) lFailure;
+		}
+		if (lFailure instanceof IOException) {
+			throw (IOException) lFailure;
+		}
+		throw new IllegalStateException(lFailure);
+	}
+
+	// --- inner classes ---
+
+	private class Producer implements Runnable {
+		private final GeneralDomainObjectHome home;
+		private final CountDownLatch done;
+
+		Producer(final GeneralDomainObjectHome inHome, final CountDownLatch inDone) {
+			this.home = inHome;
+			this.done = inDone;
+		}
+
+		@Override
+		public void run() {
+			try {
+				final QueryResult lResult = this.home.select();
+				while (lResult.hasMoreElements() && !ParallelIndexRun.this.cancelled.get()) {
+					ParallelIndexRun.this.queue.put(lResult.nextAsDomainObject());
+				}
+			} catch (final InterruptedException exc) {
+				Thread.currentThread().interrupt();
+			} catch (VException | SQLException exc) {
+				fail(exc);
+			} finally {
+				this.done.countDown();
+			}
+		}
+	}
+
+	private class Worker implements Runnable {
+		private final CountDownLatch done;
+		private final IndexerHelper helper = new IndexerHelper();
+
+		Worker(final CountDownLatch inDone) {
+			this.done = inDone;
+		}
+
+		@Override
+		public void run() {
+			try {
+				Object lItem = ParallelIndexRun.this.queue.take();
+				while (lItem != END_OF_INPUT) {
+					if (!ParallelIndexRun.this.cancelled.get()) {
+						index((IIndexable) lItem);
+					}
+					lItem = ParallelIndexRun.this.queue.take();
+				}
+				if (!ParallelIndexRun.this.cancelled.get()) {
+					process();
+				}
+			} catch (final InterruptedException exc) {
+				Thread.currentThread().interrupt();
+			} catch (VException | IOException exc) {
+				fail(exc);
+			} finally {
+				this.done.countDown();
+			}
+		}
+
+		private void index(final IIndexable inIndexable) throws VException, IOException {
+			inIndexable.indexContent(this.helper);
+			((DomainObject) inIndexable).release();
+			ParallelIndexRun.this.indexed.incrementAndGet();
+			if (this.helper.getDocuments().size() >= CHUNK_SIZE) {
+				process();
+			}
+		}
+
+		private void process() throws IOException {
+			ParallelIndexRun.this.indexer.processIndexer(this.helper, ParallelIndexRun.this.indexDir,
+					ParallelIndexRun.this.language);
+			this.helper.reset();
+		}
+	}
+
+}
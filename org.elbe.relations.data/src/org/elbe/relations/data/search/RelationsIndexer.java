@@ -22,13 +22,19 @@ package org.elbe.relations.data.search;
 import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
 import org.elbe.relations.data.Messages;
 import org.elbe.relations.data.bom.BOMException;
 import org.elbe.relations.data.bom.BOMHelper;
+import org.elbe.relations.data.bom.EventStoreHome;
 import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.bom.UnitOfWork;
 import org.elbe.relations.data.utility.UniqueID;
 import org.hip.kernel.bom.DomainObject;
 import org.hip.kernel.bom.GeneralDomainObjectHome;
@@ -66,7 +72,135 @@ public abstract class RelationsIndexer extends AbstractSearching {
 	 * @throws SQLException
 	 */
 	public int refreshIndex(final IProgressMonitor inMonitor) throws IOException, VException, SQLException {
-		return doIndex(new IndexerHelper(), inMonitor, getIndexer());
+		final long lLastEventID = BOMHelper.getEventStoreHome().getLastEventID();
+		final int outIndexed = doIndex(new IndexerHelper(), inMonitor, getIndexer());
+		markIndexed(inMonitor, lLastEventID);
+		return outIndexed;
+	}
+
+	/**
+	 * Refreshes the search index for the current database using a pool of
+	 * worker threads. The item tables are read concurrently and the prepared
+	 * documents are added to the index in parallel; the changes are committed
+	 * once at the end.
+	 *
+	 * @param inMonitor
+	 *            IProgressMonitor
+	 * @return int number of indexed items
+	 * @throws IOException
+	 * @throws VException
+	 * @throws SQLException
+	 */
+	public int refreshIndexParallel(final IProgressMonitor inMonitor) throws IOException, VException, SQLException {
+		final long lLastEventID = BOMHelper.getEventStoreHome().getLastEventID();
+		final ParallelIndexRun lRun = new ParallelIndexRun(getIndexer(), getIndexDir(), getLanguage(),
+				Runtime.getRuntime().availableProcessors());
+		final int outIndexed = lRun.run(inMonitor, BOMHelper.getTermHome(), BOMHelper.getTextHome(),
+				BOMHelper.getPersonHome());
+		markIndexed(inMonitor, lLastEventID);
+		return outIndexed;
+	}
+
+	private void markIndexed(final IProgressMonitor inMonitor, final long inLastEventID) throws IOException {
+		if (!inMonitor.isCanceled()) {
+			getIndexer().setEventWatermark(getIndexDir(), inLastEventID);
+		}
+	}
+
+	/**
+	 * Brings the search index up to date with the database by replaying the
+	 * event store entries created after the index's event watermark. Every
+	 * item changed by these events is deleted from the index and, if it still
+	 * exists, indexed anew. Relation events are ignored.
+	 * <p>
+	 * If the index does not have a watermark yet, the actual state of the
+	 * event store is taken as starting point.
+	 * </p>
+	 *
+	 * @param inMonitor
+	 *            IProgressMonitor
+	 * @return int number of items processed
+	 * @throws IOException
+	 * @throws VException
+	 * @throws SQLException
+	 * @throws BOMException
+	 */
+	public int catchUp(final IProgressMonitor inMonitor)
+			throws IOException, VException, SQLException, BOMException {
+		final IIndexer lIndexer = getIndexer();
+		final EventStoreHome lHome = BOMHelper.getEventStoreHome();
+		final long lWatermark = lIndexer.getEventWatermark(getIndexDir());
+		if (lWatermark < 0) {
+			lIndexer.setEventWatermark(getIndexDir(), lHome.getLastEventID());
+			return 0;
+		}
+
+		long lLastEventID = lWatermark;
+		final Set<String> lChanged = new LinkedHashSet<String>();
+		final QueryResult lEvents = lHome.selectAfter(lWatermark);
+		while (lEvents.hasMoreElements()) {
+			final DomainObject lEvent = lEvents.nextAsDomainObject();
+			lLastEventID = ((Number) lEvent.get(EventStoreHome.KEY_ID)).longValue();
+			final Object lUniqueID = lEvent.get(EventStoreHome.KEY_UNIQUE_ID);
+			if (lUniqueID != null && !lUniqueID.toString().isEmpty()) {
+				lChanged.add(lUniqueID.toString());
+			}
+		}
+		if (lLastEventID == lWatermark) {
+			return 0;
+		}
+
+		final SubMonitor lProgress = SubMonitor.convert(inMonitor, lChanged.size());
+		int outProcessed = 0;
+		for (final String lUniqueID : lChanged) {
+			if (lProgress.isCanceled()) {
+				// don't move the watermark, the next run has to start again
+				lIndexer.commit(getIndexDir());
+				return outProcessed;
+			}
+			final UniqueID lID = new UniqueID(lUniqueID);
+			if (lID.itemType != IItem.RELATION) {
+				deleteItemInIndex(lUniqueID);
+				final IItem lItem = retrieveItem(lID);
+				if (lItem instanceof IIndexable) {
+					addToIndex((IIndexable) lItem);
+				}
+				outProcessed++;
+			}
+			lProgress.worked(1);
+		}
+		lIndexer.setEventWatermark(getIndexDir(), lLastEventID);
+		return outProcessed;
+	}
+
+	/**
+	 * Returns the ID of the last event store entry applied to the search
+	 * index.
+	 *
+	 * @return long the index's event watermark, <code>-1</code> if the index
+	 *         has no watermark yet
+	 * @throws IOException
+	 */
+	public long getEventWatermark() throws IOException {
+		return getIndexer().getEventWatermark(getIndexDir());
+	}
+
+	private IItem retrieveItem(final UniqueID inID) {
+		try {
+			switch (inID.itemType) {
+			case IItem.TERM:
+				return BOMHelper.getTermHome().getItem(inID.itemID);
+			case IItem.TEXT:
+				return BOMHelper.getTextHome().getItem(inID.itemID);
+			case IItem.PERSON:
+				return BOMHelper.getPersonHome().getItem(inID.itemID);
+			default:
+				return null;
+			}
+		} catch (final BOMException exc) {
+			// the item has been deleted
+			return null;
+		}
 	}
 
 	protected int doIndex(final IndexerHelper inIndexHelper, final IProgressMonitor inMonitor, final IIndexer inIndexer)
@@ -89,6 +223,7 @@ public abstract class RelationsIndexer extends AbstractSearching {
 
 		inMonitor.subTask(Messages.getString("RelationsIndexer.task.person")); //$NON-NLS-1$
 		outIndexed += indexPersons(inIndexHelper, lProgress.newChild(33), inIndexer);
+		inIndexer.commit(getIndexDir());
 		return outIndexed;
 	}
 
@@ -154,11 +289,60 @@ public abstract class RelationsIndexer extends AbstractSearching {
 		try {
 			inIndexable.indexContent(lIndexer);
 			getIndexer().processIndexer(lIndexer, getIndexDir(), getLanguage());
+			updateSuggester(lIndexer);
+		} catch (final VException exc) {
+			throw new BOMException(exc);
+		}
+	}
+
+	/**
+	 * Adds the specified <code>Indexable</code>s to this search index in one
+	 * pass, e.g. after a batch of items has been stored in the database.
+	 *
+	 * @param inIndexables
+	 *            Collection&lt;? extends IIndexable>
+	 * @throws BOMException
+	 * @throws IOException
+	 */
+	public void addToIndex(final Collection<? extends IIndexable> inIndexables) throws BOMException, IOException {
+		final IndexerHelper lIndexer = new IndexerHelper();
+		try {
+			for (final IIndexable lIndexable : inIndexables) {
+				lIndexable.indexContent(lIndexer);
+			}
+			getIndexer().processIndexer(lIndexer, getIndexDir(), getLanguage());
+			updateSuggester(lIndexer);
 		} catch (final VException exc) {
 			throw new BOMException(exc);
 		}
 	}
 
+	/**
+	 * Passes the titles of the indexed items to the {@link TitleSuggester}.
+	 */
+	private void updateSuggester(final IndexerHelper inIndexer) {
+		final Collection<IndexerDocument> lDocuments = inIndexer.getDocuments();
+		final long[] lIDs = new long[lDocuments.size()];
+		final String[] lTitles = new String[lDocuments.size()];
+		int lCount = 0;
+		for (final IndexerDocument lDocument : lDocuments) {
+			String lUniqueID = null;
+			String lTitle = null;
+			for (final IndexerField lField : lDocument.getFields()) {
+				if (UNIQUE_ID.equals(lField.getFieldName())) {
+					lUniqueID = lField.getValue();
+				} else if (TITLE.equals(lField.getFieldName())) {
+					lTitle = lField.getValue();
+				}
+			}
+			if (lUniqueID != null && lTitle != null) {
+				lIDs[lCount] = new UniqueID(lUniqueID).pack();
+				lTitles[lCount++] = lTitle;
+			}
+		}
+		TitleSuggester.INSTANCE.put(Arrays.copyOf(lIDs, lCount), Arrays.copyOf(lTitles, lCount));
+	}
+
 	/**
 	 * Deletes the item with the specified unique ID from this search index.
 	 *
@@ -168,6 +352,7 @@ public abstract class RelationsIndexer extends AbstractSearching {
 	 */
 	public void deleteItemInIndex(final String inUniqueID) throws IOException {
 		getIndexer().deleteItemInIndex(inUniqueID, AbstractSearching.UNIQUE_ID, getIndexDir(), getLanguage());
+		TitleSuggester.INSTANCE.remove(new UniqueID(inUniqueID));
 	}
 
 	/**
@@ -195,6 +380,50 @@ public abstract class RelationsIndexer extends AbstractSearching {
 		getIndexer().initializeIndex(getIndexDir(), getLanguage());
 	}
 
+	/**
+	 * Commits the pending changes of this search index to the disk, including
+	 * the index changes of the units of work committed so far.
+	 *
+	 * @throws IOException
+	 */
+	public void commit() throws IOException {
+		UnitOfWork.awaitIndexed();
+		getIndexer().commit(getIndexDir());
+	}
+
+	/**
+	 * Commits the pending changes and releases the resources held for this
+	 * search index, e.g. before switching to a different catalog. The index
+	 * changes of the units of work committed so far are processed first.
+	 *
+	 * @throws IOException
+	 */
+	public void release() throws IOException {
+		UnitOfWork.awaitIndexed();
+		getIndexer().release(getIndexDir());
+	}
+
+	/**
+	 * Commits the pending changes and protects the files of this commit from
+	 * being deleted until {@link #releaseSnapshot()} is called.
+	 *
+	 * @return Collection&lt;String> the names of the snapshot's files,
+	 *         relative to the index directory
+	 * @throws IOException
+	 */
+	public Collection<String> snapshot() throws IOException {
+		return getIndexer().snapshot(getIndexDir());
+	}
+
+	/**
+	 * Releases the snapshot taken with {@link #snapshot()}.
+	 *
+	 * @throws IOException
+	 */
+	public void releaseSnapshot() throws IOException {
+		getIndexer().releaseSnapshot(getIndexDir());
+	}
+
 	/**
 	 * Convenience method: checks whether there's yet an index with the
 	 * specified indexDir.
@@ -0,0 +1,231 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.search;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader removing the style markup from an item's text while reading it.
+ * <p>
+ * The text field of the items contains the tags of the styled text (e.g.
+ * <code>&lt;b></code>, <code>&lt;ul indent="0"></code>, <code>&lt;li></code>)
+ * and the entity <code>&amp;lt;</code> for a literal <code>&lt;</code>. This
+ * reader passes the plain text only, thus, the markup doesn't end up in the
+ * search index. Inline tags are dropped, all other tags (lists and list
+ * elements) are replaced by a space to separate the words, consecutive tags
+ * by one space only. Characters not
+ * valid in XML are dropped too.
+ * </p>
+ * <p>
+ * In contrast to <code>IStyleParser.getUntaggedText()</code>, the markup is
+ * stripped in one pass without parsing the text as XML document. Instances
+ * are cheap and independent of each other, therefore, indexing threads can
+ * strip texts concurrently.
+ * </p>
+ *
+ * @author lbenno
+ */
+public class StyledTextReader extends FilterReader {
+	private static final int BUFFER_SIZE = 1024;
+	private static final int TAG_NAME_MAX = 16;
+	private static final String[] INLINE_TAGS = { "b", "i", "u" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	private static final String ENTITY_LT = "lt;"; //$NON-NLS-1$
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position = 0;
+	private int limit = 0;
+
+	private boolean inTag = false;
+	// true if the last character passed is the space replacing a tag
+	private boolean separated = false;
+	private boolean tagNameDone = false;
+	private final StringBuilder tagName = new StringBuilder(TAG_NAME_MAX);
+	// number of characters of "lt;" read after an ampersand, -1 if none
+	private int entity = -1;
+	// the characters of an incomplete entity to pass
+	private final StringBuilder pending = new StringBuilder(4);
+	private int pendingPosition = 0;
+
+	/**
+	 * @param in
+	 *            {@link Reader} the styled text
+	 */
+	public StyledTextReader(final Reader in) {
+		super(in);
+	}
+
+	@Override
+	public int read() throws IOException {
+		final char[] out = new char[1];
+		return read(out, 0, 1) == -1 ? -1 : out[0];
+	}
+
+	@Override
+	public int read(final char[] cbuf, final int off, final int len)
+			throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		int count = 0;
+		while (count < len) {
+			if (this.pendingPosition < this.pending.length()) {
+				cbuf[off + count++] = this.pending.charAt(this.pendingPosition++);
+				this.separated = false;
+				continue;
+			}
+			if (this.position == this.limit) {
+				if (count > 0) {
+					break;
+				}
+				if (!fill() && this.pendingPosition == this.pending.length()) {
+					return -1;
+				}
+				continue;
+			}
+			final char c = this.buffer[this.position++];
+			if (this.inTag) {
+				handleTag(c);
+				if (!this.inTag && !this.separated && !isInline()) {
+					cbuf[off + count++] = ' ';
+					this.separated = true;
+				}
+				continue;
+			}
+			if (this.entity >= 0) {
+				if (c == ENTITY_LT.charAt(this.entity)) {
+					if (++this.entity == ENTITY_LT.length()) {
+						this.entity = -1;
+						cbuf[off + count++] = '<';
+						this.separated = false;
+					}
+					continue;
+				}
+				// no entity: pass the characters read so far before c
+				setPending(this.entity);
+				this.entity = -1;
+				this.position--;
+				continue;
+			}
+			if (c == '<') {
+				this.inTag = true;
+				this.tagNameDone = false;
+				this.tagName.setLength(0);
+			} else if (c == '&') {
+				this.entity = 0;
+			} else if (isValid(c)) {
+				cbuf[off + count++] = c;
+				this.separated = false;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return boolean <code>false</code> if the end of the stream is reached
+	 */
+	private boolean fill() throws IOException {
+		final int read = this.in.read(this.buffer, 0, BUFFER_SIZE);
+		if (read == -1) {
+			// an incomplete entity at the end is passed, an unclosed tag not
+			if (this.entity >= 0) {
+				setPending(this.entity);
+				this.entity = -1;
+			}
+			return false;
+		}
+		this.position = 0;
+		this.limit = read;
+		return true;
+	}
+
+	private void setPending(final int entityLength) {
+		this.pending.setLength(0);
+		this.pending.append('&').append(ENTITY_LT, 0, entityLength);
+		this.pendingPosition = 0;
+	}
+
+	private void handleTag(final char c) {
+		if (c == '>') {
+			this.inTag = false;
+		} else if (!this.tagNameDone) {
+			if (c == '/' && this.tagName.length() == 0) {
+				return;
+			}
+			if (Character.isWhitespace(c)
+					|| this.tagName.length() == TAG_NAME_MAX) {
+				this.tagNameDone = true;
+			} else {
+				this.tagName.append(c);
+			}
+		}
+	}
+
+	private boolean isInline() {
+		for (final String tag : INLINE_TAGS) {
+			if (tag.contentEquals(this.tagName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isValid(final char c) {
+		return c == 0x9 || c == 0xA || c == 0xD || c >= 0x20 && c <= 0xD7FF
+				|| c >= 0xE000 && c <= 0xFFFD;
+	}
+
+	@Override
+	public long skip(final long n) throws IOException {
+		final char[] skipped = new char[(int) Math.min(n, BUFFER_SIZE)];
+		long out = 0;
+		while (out < n) {
+			final int read = read(skipped, 0,
+					(int) Math.min(n - out, skipped.length));
+			if (read == -1) {
+				break;
+			}
+			out += read;
+		}
+		return out;
+	}
+
+	@Override
+	public boolean ready() throws IOException {
+		return this.pendingPosition < this.pending.length()
+				|| this.position < this.limit || this.in.ready();
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public void mark(final int readAheadLimit) throws IOException {
+		throw new IOException("mark() not supported!"); //$NON-NLS-1$
+	}
+
+	@Override
+	public void reset() throws IOException {
+		throw new IOException("reset() not supported!"); //$NON-NLS-1$
+	}
+
+}
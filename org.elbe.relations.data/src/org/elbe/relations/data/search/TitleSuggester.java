@@ -0,0 +1,648 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.elbe.relations.data.utility.ItemCatalog;
+import org.elbe.relations.data.utility.LongIntMap;
+import org.elbe.relations.data.utility.LongSet;
+import org.elbe.relations.data.utility.UniqueID;
+
+/** In-memory suggestion index for search-as-you-type on the items' titles.
+ * <p>
+ * The index is a sorted array of the word starts in the normalized (i.e. lower cased, without accents) titles: each
+ * entry points to a title and to the offset of a word in this title. Thus, the text typed by the user matches the
+ * beginning of a title as well as the beginning of each word. Prefix lookups are binary searches. Fuzzy lookups walk
+ * the sorted entries like a trie: the rows of the edit distance are computed once per common prefix, and all entries
+ * with a prefix that can't match anymore are skipped.
+ * </p>
+ * <p>
+ * The index is loaded together with the data (see {@link #load(ItemCatalog)}) and is kept current by the
+ * {@link RelationsIndexer}. The index data is immutable, changes replace it as a whole, thus, lookups don't lock.
+ * Rebuilding the whole index is linear in the number of items, therefore, changes are first collected in a small
+ * overlay index, the items removed or replaced are hidden in the main index. Lookups search both indexes. The overlay
+ * is merged into the main index when it exceeds {@link #MAX_OVERLAY} changes.
+ * </p>
+ * <p>
+ * The changes made while the index is loading are recorded (see {@link #beginLoad()}) and replayed on the loaded index,
+ * thus, they are not lost.
+ * </p>
+ *
+ * @author lbenno */
+public enum TitleSuggester {
+    INSTANCE;
+
+    private static final int MAX_WORDS = 16;
+    private static final int HEAD_CHARS = 4;
+    private static final int MAX_CANDIDATES = 256;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int LONG_QUERY = 6;
+    private static final char MAX_CHAR = '\uffff';
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+"); //$NON-NLS-1$
+    private static final Pattern WHITE_SPACE = Pattern.compile("\\s+"); //$NON-NLS-1$
+    // the number of changes (added, replaced or removed items) that are kept in the overlay before merging
+    static final int MAX_OVERLAY = 512;
+
+    private volatile State state = State.EMPTY;
+    // the changes to replay on the index loading, guarded by this
+    private List<Runnable> pending;
+
+    /** Starts recording the changes to replay on the index loaded next. Call this method before the catalog passed to
+     * {@link #load(ItemCatalog)} is read from the database. */
+    public synchronized void beginLoad() {
+        this.pending = new ArrayList<Runnable>();
+    }
+
+    /** Loads the titles of all items in the specified catalog, replacing any previously loaded data. The changes
+     * recorded since {@link #beginLoad()} are applied to the loaded index.
+     *
+     * @param catalog {@link ItemCatalog} */
+    public void load(final ItemCatalog catalog) {
+        final int size = catalog.size();
+        final long[] ids = new long[size];
+        final String[] titles = new String[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = UniqueID.pack(catalog.getItemType(i), catalog.getID(i));
+            titles[i] = catalog.getTitle(i);
+        }
+        final Index index = Index.EMPTY.update(new LongSet(), ids, titles);
+        synchronized (this) {
+            this.state = new State(index, Index.EMPTY, new LongSet());
+            if (this.pending != null) {
+                final List<Runnable> changes = this.pending;
+                this.pending = null;
+                for (final Runnable change : changes) {
+                    change.run();
+                }
+            }
+        }
+    }
+
+    /** Discards the index, e.g. if the application switches to a different database. */
+    public synchronized void clear() {
+        this.state = State.EMPTY;
+        this.pending = null;
+    }
+
+    /** Adds the specified items to the index. If an item is contained already, its title is replaced.
+     *
+     * @param ids long[] the packed unique IDs (see {@link UniqueID#pack()})
+     * @param titles String[] the items' titles */
+    public synchronized void put(final long[] ids, final String[] titles) {
+        if (this.pending != null) {
+            final long[] recordedIDs = ids.clone();
+            final String[] recordedTitles = titles.clone();
+            this.pending.add(new Runnable() {
+                @Override
+                public void run() {
+                    put(recordedIDs, recordedTitles);
+                }
+            });
+        }
+        final State actual = this.state;
+        final LongSet replaced = new LongSet(ids.length);
+        for (final long id : ids) {
+            replaced.add(id);
+        }
+        if (ids.length > MAX_OVERLAY) {
+            // too many for the overlay: we merge all changes into the main index at once
+            this.state = new State(merge(actual).update(replaced, ids, titles), Index.EMPTY, new LongSet());
+            return;
+        }
+        final LongSet hidden = copy(actual.hidden, ids.length);
+        for (final long id : ids) {
+            if (actual.main.members.contains(id)) {
+                hidden.add(id);
+            }
+        }
+        apply(new State(actual.main, actual.overlay.update(replaced, ids, titles), hidden));
+    }
+
+    /** Removes the specified item from the index.
+     *
+     * @param id {@link UniqueID} */
+    public synchronized void remove(final UniqueID id) {
+        if (this.pending != null) {
+            this.pending.add(new Runnable() {
+                @Override
+                public void run() {
+                    remove(id);
+                }
+            });
+        }
+        final State actual = this.state;
+        final long packed = id.pack();
+        final LongSet hidden = copy(actual.hidden, 1);
+        if (actual.main.members.contains(packed)) {
+            hidden.add(packed);
+        }
+        Index overlay = actual.overlay;
+        if (overlay.members.contains(packed)) {
+            final LongSet removed = new LongSet(1);
+            removed.add(packed);
+            overlay = overlay.update(removed, new long[0], new String[0]);
+        }
+        apply(new State(actual.main, overlay, hidden));
+    }
+
+    /** Sets the new state, merges the overlay if it has grown too large. */
+    private void apply(final State changed) {
+        if (changed.overlay.ids.length + changed.hidden.size() > MAX_OVERLAY) {
+            this.state = new State(merge(changed), Index.EMPTY, new LongSet());
+        } else {
+            this.state = changed;
+        }
+    }
+
+    /** @return Index the main index with the overlay's changes */
+    private static Index merge(final State state) {
+        if (state.overlay.ids.length == 0 && state.hidden.isEmpty()) {
+            return state.main;
+        }
+        return state.main.update(state.hidden, state.overlay.ids, state.overlay.titles);
+    }
+
+    private static LongSet copy(final LongSet set, final int additional) {
+        final LongSet out = new LongSet(set.size() + additional);
+        for (final long value : set.toArray()) {
+            out.add(value);
+        }
+        return out;
+    }
+
+    /** @return int the number of items in the index */
+    public int size() {
+        final State actual = this.state;
+        return actual.main.ids.length - actual.hidden.size() + actual.overlay.ids.length;
+    }
+
+    /** @return int the number of changes in the overlay, i.e. not merged into the main index yet */
+    int pending() {
+        final State actual = this.state;
+        return actual.overlay.ids.length + actual.hidden.size();
+    }
+
+    /** Returns the titles completing the specified text.
+     * <p>
+     * The suggestions are ranked: titles starting with the text come first, then titles containing a word starting
+     * with the text. If there are not enough such titles, titles with a small edit distance to the text are added
+     * (at most one edit for short texts, two for longer ones, the first character has to match). Within the same
+     * rank, shorter titles come first.
+     * </p>
+     *
+     * @param text String the text typed by the user
+     * @param maxSuggestions int
+     * @return List&lt;Suggestion> */
+    public List<Suggestion> suggest(final String text, final int maxSuggestions) {
+        final String query = normalize(text);
+        if (query.isEmpty() || maxSuggestions <= 0) {
+            return Collections.emptyList();
+        }
+        final State actual = this.state;
+        final Candidates candidates = new Candidates(actual);
+        actual.main.collectPrefixed(query, candidates.use(false));
+        actual.overlay.collectPrefixed(query, candidates.use(true));
+        if (query.length() >= MIN_FUZZY_LENGTH) {
+            // the walk gets expensive with each edit allowed, thus, we widen the distance only if needed
+            final int maxDistance = query.length() < LONG_QUERY ? 1 : 2;
+            for (int distance = 1; distance <= maxDistance && candidates.size() < maxSuggestions; distance++) {
+                actual.main.collectSimilar(query, distance, candidates.use(false));
+                actual.overlay.collectSimilar(query, distance, candidates.use(true));
+            }
+        }
+        return candidates.getBest(maxSuggestions);
+    }
+
+    /** @param text String
+     * @return String the text lower cased, without accents and with collapsed white spaces */
+    static String normalize(final String text) {
+        final String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return WHITE_SPACE.matcher(MARKS.matcher(decomposed).replaceAll("")).replaceAll(" ").trim(); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    // --- inner classes ---
+
+    /** Parameter object for a suggested item. */
+    public static class Suggestion {
+        public final UniqueID id;
+        public final String title;
+
+        Suggestion(final UniqueID id, final String title) {
+            this.id = id;
+            this.title = title;
+        }
+
+        @Override
+        public String toString() {
+            return this.title;
+        }
+    }
+
+    /** The suggestion data: the main index, the overlay with the recent changes and the IDs of the items in the main
+     * index that have been removed or replaced since the last merge. */
+    private static class State {
+        static final State EMPTY = new State(Index.EMPTY, Index.EMPTY, new LongSet());
+
+        final Index main;
+        final Index overlay;
+        final LongSet hidden;
+
+        State(final Index main, final Index overlay, final LongSet hidden) {
+            this.main = main;
+            this.overlay = overlay;
+            this.hidden = hidden;
+        }
+    }
+
+    /** The immutable index data. An entry is a packed pair of the title's position and the word's offset. For each
+     * entry, the first characters are copied to the <code>heads</code>: walking the entries, most comparisons can be
+     * done on this array instead of looking up the title for each entry. */
+    private static class Index {
+        static final Index EMPTY = new Index(new long[0], new String[0], new String[0], new long[0], new long[0]);
+
+        final long[] ids;
+        final String[] titles;
+        final String[] keys;
+        final long[] entries;
+        final long[] heads;
+        final LongSet members;
+
+        Index(final long[] ids, final String[] titles, final String[] keys, final long[] entries, final long[] heads) {
+            this.ids = ids;
+            this.titles = titles;
+            this.keys = keys;
+            this.entries = entries;
+            this.heads = heads;
+            this.members = new LongSet(ids.length);
+            for (final long id : ids) {
+                this.members.add(id);
+            }
+        }
+
+        /** @return Index a new index without the removed items and with the added ones */
+        Index update(final LongSet removed, final long[] addedIDs, final String[] addedTitles) {
+            // remove
+            final int[] positions = new int[this.ids.length];
+            int kept = 0;
+            for (int i = 0; i < this.ids.length; i++) {
+                positions[i] = removed.contains(this.ids[i]) ? -1 : kept++;
+            }
+            final int size = kept + addedIDs.length;
+            final long[] newIDs = new long[size];
+            final String[] newTitles = new String[size];
+            final String[] newKeys = new String[size];
+            for (int i = 0; i < this.ids.length; i++) {
+                if (positions[i] >= 0) {
+                    newIDs[positions[i]] = this.ids[i];
+                    newTitles[positions[i]] = this.titles[i];
+                    newKeys[positions[i]] = this.keys[i];
+                }
+            }
+            final long[] oldEntries = new long[this.entries.length];
+            final long[] oldHeads = new long[this.entries.length];
+            int count = 0;
+            for (int i = 0; i < this.entries.length; i++) {
+                final int position = positions[position(this.entries[i])];
+                if (position >= 0) {
+                    oldHeads[count] = this.heads[i];
+                    oldEntries[count++] = entry(position, offset(this.entries[i]));
+                }
+            }
+
+            // add
+            final List<Suffix> added = new ArrayList<>();
+            for (int i = 0; i < addedIDs.length; i++) {
+                final int position = kept + i;
+                newIDs[position] = addedIDs[i];
+                newTitles[position] = addedTitles[i];
+                newKeys[position] = normalize(addedTitles[i]);
+                for (final int offset : wordStarts(newKeys[position])) {
+                    added.add(new Suffix(newKeys[position].substring(offset), entry(position, offset)));
+                }
+            }
+            Collections.sort(added);
+
+            // merge
+            final long[] entries = new long[count + added.size()];
+            final long[] heads = new long[entries.length];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < entries.length; k++) {
+                if (j == added.size() || i < count && compare(oldHeads[i], oldEntries[i], newKeys, added.get(j)) <= 0) {
+                    heads[k] = oldHeads[i];
+                    entries[k] = oldEntries[i++];
+                } else {
+                    heads[k] = added.get(j).head;
+                    entries[k] = added.get(j++).entry;
+                }
+            }
+            return new Index(newIDs, newTitles, newKeys, entries, heads);
+        }
+
+        private static int compare(final long head, final long entry, final String[] keys, final Suffix suffix) {
+            final int out = Long.compareUnsigned(head, suffix.head);
+            return out != 0 ? out : compare(keys[position(entry)], offset(entry), suffix.text);
+        }
+
+        private static List<Integer> wordStarts(final String key) {
+            final List<Integer> out = new ArrayList<>();
+            out.add(0);
+            for (int i = 1; i < key.length() && out.size() < MAX_WORDS; i++) {
+                if (Character.isLetterOrDigit(key.charAt(i)) && !Character.isLetterOrDigit(key.charAt(i - 1))) {
+                    out.add(i);
+                }
+            }
+            return out;
+        }
+
+        /** Collects the entries starting with the specified query. */
+        void collectPrefixed(final String query, final Candidates candidates) {
+            final int end = lowerBound(query + MAX_CHAR);
+            for (int i = lowerBound(query); i < end && !candidates.isFull(); i++) {
+                candidates.add(this.entries[i], 0);
+            }
+        }
+
+        /** Collects the entries with a prefix within the specified edit distance to the query. As usual for
+         * suggestions, the first character has to match, i.e. only the entries starting with it are walked. */
+        void collectSimilar(final String query, final int maxDistance, final Candidates candidates) {
+            final int length = query.length();
+            final int maxDepth = length + maxDistance;
+            // rows[d][j]: edit distance between the entry's first d characters and the query's first j characters
+            final int[][] rows = new int[maxDepth + 1][length + 1];
+            // best[d]: the smallest distance between the query and a prefix of the entry's first d characters
+            final int[] best = new int[maxDepth + 1];
+            for (int j = 0; j <= length; j++) {
+                rows[0][j] = j;
+            }
+            best[0] = length;
+
+            final String first = query.substring(0, 1);
+            final int last = lowerBound(first + MAX_CHAR);
+            long previous = -1;
+            int computed = 0;
+            int i = lowerBound(first);
+            while (i < last && !candidates.isFull()) {
+                final long entry = this.entries[i];
+                final int entryLength = length(entry);
+                int depth = previous < 0 ? 0 : commonPrefix(previous, entry, computed);
+                boolean exhausted = false;
+                while (depth < Math.min(entryLength, maxDepth)) {
+                    depth++;
+                    final char character = charAt(entry, depth - 1);
+                    final int[] above = rows[depth - 1];
+                    final int[] row = rows[depth];
+                    row[0] = depth;
+                    int min = row[0];
+                    for (int j = 1; j <= length; j++) {
+                        final int cost = query.charAt(j - 1) == character ? 0 : 1;
+                        row[j] = Math.min(Math.min(above[j] + 1, row[j - 1] + 1), above[j - 1] + cost);
+                        min = Math.min(min, row[j]);
+                    }
+                    best[depth] = Math.min(best[depth - 1], row[length]);
+                    if (min > maxDistance) {
+                        // longer prefixes can't match better
+                        exhausted = true;
+                        break;
+                    }
+                }
+                previous = entry;
+                computed = depth;
+                final int distance = best[depth];
+                if (exhausted || depth == maxDepth) {
+                    // all entries sharing the first 'depth' characters have the same distance
+                    final int end = skip(i, last, depth);
+                    for (int k = i; k < end && distance <= maxDistance && !candidates.isFull(); k++) {
+                        candidates.add(this.entries[k], distance);
+                    }
+                    i = Math.max(end, i + 1);
+                } else {
+                    if (distance <= maxDistance) {
+                        candidates.add(entry, distance);
+                    }
+                    i++;
+                }
+            }
+        }
+
+        /** @return int the position of the first entry after <code>from</code> not sharing the first
+         *         <code>depth</code> characters with the entry at <code>from</code> */
+        private int skip(final int from, final int to, final int depth) {
+            // the subtrees are small, thus, we gallop before searching binary
+            int low = from + 1;
+            int high = low;
+            int step = 1;
+            while (high < to && isSharing(from, high, depth)) {
+                low = high + 1;
+                high = from + (step <<= 1);
+            }
+            high = Math.min(high, to);
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (isSharing(from, middle, depth)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private boolean isSharing(final int position1, final int position2, final int depth) {
+            if (depth <= HEAD_CHARS) {
+                final long mask = -1L << 16 * (HEAD_CHARS - depth);
+                return (this.heads[position1] & mask) == (this.heads[position2] & mask);
+            }
+            return commonPrefix(this.entries[position1], this.entries[position2], depth) == depth;
+        }
+
+        private int commonPrefix(final long entry1, final long entry2, final int limit) {
+            final int max = Math.min(limit, Math.min(length(entry1), length(entry2)));
+            int out = 0;
+            while (out < max && charAt(entry1, out) == charAt(entry2, out)) {
+                out++;
+            }
+            return out;
+        }
+
+        /** @return int the position of the first entry not less than the specified text */
+        private int lowerBound(final String text) {
+            int low = 0;
+            int high = this.entries.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (compare(this.entries[middle], text) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int compare(final long entry, final String text) {
+            return compare(this.keys[position(entry)], offset(entry), text);
+        }
+
+        /** Compares the key starting at the specified offset with the text. */
+        private static int compare(final String key, final int offset, final String text) {
+            final int length = key.length() - offset;
+            final int max = Math.min(length, text.length());
+            for (int i = 0; i < max; i++) {
+                final int diff = key.charAt(offset + i) - text.charAt(i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return length - text.length();
+        }
+
+        private char charAt(final long entry, final int index) {
+            return this.keys[position(entry)].charAt(offset(entry) + index);
+        }
+
+        private int length(final long entry) {
+            return this.keys[position(entry)].length() - offset(entry);
+        }
+
+        static long entry(final int position, final int offset) {
+            return (long) position << 32 | offset;
+        }
+
+        static int position(final long entry) {
+            return (int) (entry >>> 32);
+        }
+
+        static int offset(final long entry) {
+            return (int) entry;
+        }
+    }
+
+    /** A new entry together with the text starting at the word, used for sorting. */
+    private static class Suffix implements Comparable<Suffix> {
+        final String text;
+        final long entry;
+        final long head;
+
+        Suffix(final String text, final long entry) {
+            this.text = text;
+            this.entry = entry;
+            long head = 0;
+            for (int i = 0; i < HEAD_CHARS; i++) {
+                head = head << 16 | (i < text.length() ? text.charAt(i) : 0);
+            }
+            this.head = head;
+        }
+
+        @Override
+        public int compareTo(final Suffix other) {
+            return this.text.compareTo(other.text);
+        }
+    }
+
+    /** The items found, each with its best rank: matches at the title's start rank before matches at a word's start,
+     * fewer edits rank before more edits. */
+    private static class Candidates {
+        private final State state;
+        // the position of the title mapped to the candidate's index, the overlay's positions follow the main index's
+        private final LongIntMap found = new LongIntMap(MAX_CANDIDATES);
+        private final int[] positions = new int[MAX_CANDIDATES];
+        private final int[] ranks = new int[MAX_CANDIDATES];
+        private int count = 0;
+        private boolean inOverlay = false;
+
+        Candidates(final State state) {
+            this.state = state;
+        }
+
+        /** @param overlay boolean <code>true</code> if the following entries are from the overlay index
+         * @return Candidates this */
+        Candidates use(final boolean overlay) {
+            this.inOverlay = overlay;
+            return this;
+        }
+
+        void add(final long entry, final int distance) {
+            final int rank = 2 * distance + (Index.offset(entry) == 0 ? 0 : 1);
+            int position = Index.position(entry);
+            if (this.inOverlay) {
+                position += this.state.main.ids.length;
+            } else if (this.state.hidden.contains(this.state.main.ids[position])) {
+                return;
+            }
+            final int candidate = this.found.get(position);
+            if (candidate == LongIntMap.NOT_FOUND) {
+                if (!isFull()) {
+                    this.found.put(position, this.count);
+                    this.positions[this.count] = position;
+                    this.ranks[this.count++] = rank;
+                }
+            } else if (rank < this.ranks[candidate]) {
+                this.ranks[candidate] = rank;
+            }
+        }
+
+        int size() {
+            return this.count;
+        }
+
+        boolean isFull() {
+            return this.count == MAX_CANDIDATES;
+        }
+
+        List<Suggestion> getBest(final int max) {
+            // ordered by rank, then by the title's length
+            final long[] sorted = new long[this.count];
+            for (int i = 0; i < this.count; i++) {
+                final int length = Math.min(key(this.positions[i]).length(), 0xffff);
+                sorted[i] = (long) this.ranks[i] << 48 | (long) length << 32 | this.positions[i];
+            }
+            Arrays.sort(sorted);
+            final List<Suggestion> out = new ArrayList<>(Math.min(max, sorted.length));
+            for (int i = 0; i < sorted.length && out.size() < max; i++) {
+                final int position = (int) sorted[i];
+                final Index index = indexOf(position);
+                final int local = localOf(position);
+                out.add(new Suggestion(UniqueID.unpack(index.ids[local]), index.titles[local]));
+            }
+            return out;
+        }
+
+        private String key(final int position) {
+            return indexOf(position).keys[localOf(position)];
+        }
+
+        private Index indexOf(final int position) {
+            return position < this.state.main.ids.length ? this.state.main : this.state.overlay;
+        }
+
+        private int localOf(final int position) {
+            final int mainSize = this.state.main.ids.length;
+            return position < mainSize ? position : position - mainSize;
+        }
+    }
+
+}
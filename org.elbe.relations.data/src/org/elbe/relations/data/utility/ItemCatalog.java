@@ -0,0 +1,169 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.utility;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import org.elbe.relations.data.bom.IItem;
+import org.hip.kernel.bom.impl.AbstractQueryStatement;
+import org.hip.kernel.exc.VException;
+
+/** Column oriented catalog of all items, containing the fields needed to list the items only: id, type, title and
+ * timestamps.
+ * <p>
+ * The catalog is loaded with one projection query per item table, i.e. the items' text (CLOB) and the bibliographical
+ * fields are not loaded. Each field is stored in a primitive array (or in an array of <code>String</code>s), thus, the
+ * catalog doesn't need an object per item. Clients address the items by their row in the catalog and fetch the
+ * remaining fields on demand (see {@link ItemDetailsCache}).
+ * </p>
+ *
+ * @author lbenno */
+public class ItemCatalog {
+    private static final String SQL_TERM = "SELECT TERMID, STITLE, '', DTCREATION, DTMUTATION FROM tblTerm"; //$NON-NLS-1$
+    private static final String SQL_TEXT = "SELECT TEXTID, STITLE, '', DTCREATION, DTMUTATION FROM tblText"; //$NON-NLS-1$
+    private static final String SQL_PERSON = "SELECT PERSONID, SNAME, SFIRSTNAME, DTCREATION, DTMUTATION FROM tblPerson"; //$NON-NLS-1$
+    private static final int INITIAL_CAPACITY = 256;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private long[] created = new long[INITIAL_CAPACITY];
+    private long[] modified = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /** Loads the catalog of all items in the actual database. The rows are grouped by item type: terms, texts,
+     * persons.
+     *
+     * @return {@link ItemCatalog}
+     * @throws SQLException */
+    public static ItemCatalog load() throws SQLException {
+        final ItemCatalog out = new ItemCatalog();
+        new CatalogQuery().read(out);
+        return out;
+    }
+
+    /** Adds an item to the catalog.
+     *
+     * @param itemType int
+     * @param id long
+     * @param title String the item's title, for persons the name and the first name
+     * @param created {@link Timestamp}
+     * @param modified {@link Timestamp}
+     * @return int the row of the added item */
+    public synchronized int add(final int itemType, final long id, final String title, final Timestamp created,
+            final Timestamp modified) {
+        if (this.size == this.ids.length) {
+            final int capacity = this.size * 2;
+            this.ids = Arrays.copyOf(this.ids, capacity);
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.titles = Arrays.copyOf(this.titles, capacity);
+            this.created = Arrays.copyOf(this.created, capacity);
+            this.modified = Arrays.copyOf(this.modified, capacity);
+        }
+        final int out = this.size++;
+        this.ids[out] = id;
+        this.types[out] = (byte) itemType;
+        this.titles[out] = title;
+        this.created[out] = created == null ? NO_TIME : created.getTime();
+        this.modified[out] = modified == null ? NO_TIME : modified.getTime();
+        return out;
+    }
+
+    /** @return int the number of rows in the catalog */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /** @param row int
+     * @return long the id of the item in the specified row */
+    public synchronized long getID(final int row) {
+        return this.ids[row];
+    }
+
+    /** @param row int
+     * @return int the type of the item in the specified row */
+    public synchronized int getItemType(final int row) {
+        return this.types[row];
+    }
+
+    /** @param row int
+     * @return String the title of the item in the specified row */
+    public synchronized String getTitle(final int row) {
+        return this.titles[row];
+    }
+
+    /** @param row int
+     * @return {@link Timestamp} the creation date of the item in the specified row */
+    public synchronized Timestamp getCreated(final int row) {
+        return toTimestamp(this.created[row]);
+    }
+
+    /** @param row int
+     * @return {@link Timestamp} the date the item in the specified row has been modified last */
+    public synchronized Timestamp getModified(final int row) {
+        return toTimestamp(this.modified[row]);
+    }
+
+    private static Timestamp toTimestamp(final long time) {
+        return time == NO_TIME ? null : new Timestamp(time);
+    }
+
+    /** Same as <code>LightWeightPerson.toString()</code>. */
+    private static String createTitle(final String title, final String firstname) {
+        if (firstname != null && firstname.length() > 0) {
+            return String.format("%s, %s", title, firstname); //$NON-NLS-1$
+        }
+        return title;
+    }
+
+    // --- inner classes ---
+
+    /** Helper class to read the catalog's fields from the item tables. */
+    private static class CatalogQuery extends AbstractQueryStatement {
+        private static final long serialVersionUID = 1L;
+
+        protected void read(final ItemCatalog catalog) throws SQLException {
+            try (Connection connection = getConnection();
+                    Statement statement = connection.createStatement()) {
+                read(statement, SQL_TERM, IItem.TERM, catalog);
+                read(statement, SQL_TEXT, IItem.TEXT, catalog);
+                read(statement, SQL_PERSON, IItem.PERSON, catalog);
+            } catch (final VException exc) {
+                throw new SQLException(exc);
+            }
+        }
+
+        private void read(final Statement statement, final String sql, final int itemType,
+                final ItemCatalog catalog) throws SQLException {
+            try (ResultSet result = statement.executeQuery(sql)) {
+                while (result.next()) {
+                    catalog.add(itemType, result.getLong(1), createTitle(result.getString(2), result.getString(3)),
+                            result.getTimestamp(4), result.getTimestamp(5));
+                }
+            }
+        }
+    }
+
+}
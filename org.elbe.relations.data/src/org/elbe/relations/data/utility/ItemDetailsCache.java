@@ -0,0 +1,110 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.utility;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.elbe.relations.data.bom.BOMException;
+import org.elbe.relations.data.bom.BOMHelper;
+import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.bom.IItemFactory;
+import org.elbe.relations.data.bom.ILightWeightItem;
+
+/** Bounded cache for the fields not contained in the {@link ItemCatalog}, i.e. the items' text and bibliographical
+ * fields.
+ * <p>
+ * The fields are fetched from the database when an item is opened or inspected and are returned as the item's
+ * lightweight version, e.g. <code>LightWeightText</code>. The cache keeps the items used last, the least recently used
+ * item is evicted when the cache is full. An item's entry is evicted after the commit of the item's update or delete.
+ * </p>
+ *
+ * @author lbenno */
+public enum ItemDetailsCache {
+    INSTANCE;
+
+    private static final int CAPACITY = 200;
+
+    private final Map<UniqueID, ILightWeightItem> cache = new LinkedHashMap<UniqueID, ILightWeightItem>(64, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<UniqueID, ILightWeightItem> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    /** Returns the lightweight version of the specified item, containing all fields.
+     *
+     * @param id {@link UniqueID}
+     * @return {@link ILightWeightItem}
+     * @throws BOMException */
+    public ILightWeightItem get(final UniqueID id) throws BOMException {
+        synchronized (this.cache) {
+            final ILightWeightItem out = this.cache.get(id);
+            if (out != null) {
+                return out;
+            }
+        }
+        // fetch outside the lock, the worst case is that two threads load the same item
+        final ILightWeightItem out = getFactory(id.itemType).getItem(id.itemID).getLightWeight();
+        synchronized (this.cache) {
+            this.cache.put(id, out);
+        }
+        return out;
+    }
+
+    /** Removes the specified item from the cache, e.g. after the item has been changed or deleted.
+     *
+     * @param id {@link UniqueID} */
+    public void remove(final UniqueID id) {
+        synchronized (this.cache) {
+            this.cache.remove(id);
+        }
+    }
+
+    /** Empties the cache, e.g. if the application switches to a different database. */
+    public void clear() {
+        synchronized (this.cache) {
+            this.cache.clear();
+        }
+    }
+
+    /** @return int the number of cached items */
+    public int size() {
+        synchronized (this.cache) {
+            return this.cache.size();
+        }
+    }
+
+    private IItemFactory getFactory(final int itemType) {
+        switch (itemType) {
+            case IItem.TERM:
+                return BOMHelper.getTermHome();
+            case IItem.TEXT:
+                return BOMHelper.getTextHome();
+            case IItem.PERSON:
+                return BOMHelper.getPersonHome();
+            default:
+                throw new IllegalArgumentException("Unknown item type " + itemType); //$NON-NLS-1$
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.utility;
+
+import java.util.Arrays;
+
+/** Hash map with primitive <code>long</code> keys, e.g. packed {@link UniqueID}s, and <code>int</code> values, e.g.
+ * positions in a list.
+ * <p>
+ * Open addressing with linear probing, see {@link LongSet}. The map is intended for non negative values:
+ * {@link #get(long)} returns {@link #NOT_FOUND} for keys not in the map. This class is not thread safe.
+ * </p>
+ *
+ * @author lbenno */
+public class LongIntMap {
+    /** The value returned for keys not in the map. */
+    public static final int NOT_FOUND = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size = 0;
+    private boolean hasZero = false;
+    private int zeroValue;
+
+    /** LongIntMap constructor. */
+    public LongIntMap() {
+        this(0);
+    }
+
+    /** LongIntMap constructor.
+     *
+     * @param expected int the expected number of entries */
+    public LongIntMap(final int expected) {
+        final int capacity = LongSet.capacityFor(expected);
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+    }
+
+    /** @param key long
+     * @return int the value mapped to the specified key or {@link #NOT_FOUND} */
+    public int get(final long key) {
+        if (key == 0) {
+            return this.hasZero ? this.zeroValue : NOT_FOUND;
+        }
+        int slot = LongSet.slot(key, this.keys.length);
+        while (this.keys[slot] != 0) {
+            if (this.keys[slot] == key) {
+                return this.values[slot];
+            }
+            slot = next(slot);
+        }
+        return NOT_FOUND;
+    }
+
+    /** @param key long
+     * @return boolean <code>true</code> if the map contains the specified key */
+    public boolean containsKey(final long key) {
+        return get(key) != NOT_FOUND;
+    }
+
+    /** Maps the specified value to the specified key, replacing the actual value.
+     *
+     * @param key long
+     * @param value int */
+    public void put(final long key, final int value) {
+        put(key, value, true);
+    }
+
+    /** Maps the specified value to the specified key if the map doesn't contain the key yet.
+     *
+     * @param key long
+     * @param value int
+     * @return int the actual value or {@link #NOT_FOUND} if the value has been added */
+    public int putIfAbsent(final long key, final int value) {
+        return put(key, value, false);
+    }
+
+    private int put(final long key, final int value, final boolean replace) {
+        if (key == 0) {
+            final int out = this.hasZero ? this.zeroValue : NOT_FOUND;
+            if (!this.hasZero) {
+                this.size++;
+            }
+            if (!this.hasZero || replace) {
+                this.zeroValue = value;
+            }
+            this.hasZero = true;
+            return out;
+        }
+        int slot = LongSet.slot(key, this.keys.length);
+        while (this.keys[slot] != 0) {
+            if (this.keys[slot] == key) {
+                final int out = this.values[slot];
+                if (replace) {
+                    this.values[slot] = value;
+                }
+                return out;
+            }
+            slot = next(slot);
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        if (++this.size * 4 > this.keys.length * 3) {
+            rehash(this.keys.length * 2);
+        }
+        return NOT_FOUND;
+    }
+
+    /** @return int the number of entries in the map */
+    public int size() {
+        return this.size;
+    }
+
+    /** Removes all entries from the map. */
+    public void clear() {
+        Arrays.fill(this.keys, 0);
+        this.hasZero = false;
+        this.size = 0;
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = this.keys;
+        final int[] oldValues = this.values;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = LongSet.slot(oldKeys[i], capacity);
+                while (this.keys[slot] != 0) {
+                    slot = next(slot);
+                }
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private int next(final int slot) {
+        return slot + 1 & this.keys.length - 1;
+    }
+
+}
@@ -0,0 +1,194 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.utility;
+
+import java.util.Arrays;
+
+/** Hash set of primitive <code>long</code> values, e.g. packed {@link UniqueID}s (see {@link UniqueID#pack(int, long)}).
+ * <p>
+ * Open addressing with linear probing: neither the values nor the entries are boxed, thus, adding and looking up a
+ * value doesn't allocate any object. The value <code>0</code> marks empty slots and is stored separately. This class
+ * is not thread safe.
+ * </p>
+ *
+ * @author lbenno */
+public class LongSet {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] values;
+    private int size = 0;
+    private boolean hasZero = false;
+
+    /** LongSet constructor. */
+    public LongSet() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /** LongSet constructor.
+     *
+     * @param expected int the expected number of values */
+    public LongSet(final int expected) {
+        this.values = new long[capacityFor(expected)];
+    }
+
+    /** @param value long
+     * @return boolean <code>true</code> if the value has been added, <code>false</code> if the set contains the value
+     *         already */
+    public boolean add(final long value) {
+        if (value == 0) {
+            if (this.hasZero) {
+                return false;
+            }
+            this.hasZero = true;
+            this.size++;
+            return true;
+        }
+        int slot = slot(value, this.values.length);
+        while (this.values[slot] != 0) {
+            if (this.values[slot] == value) {
+                return false;
+            }
+            slot = next(slot);
+        }
+        this.values[slot] = value;
+        if (++this.size * 4 > this.values.length * 3) {
+            rehash(this.values.length * 2);
+        }
+        return true;
+    }
+
+    /** @param value long
+     * @return boolean <code>true</code> if the set contains the specified value */
+    public boolean contains(final long value) {
+        if (value == 0) {
+            return this.hasZero;
+        }
+        int slot = slot(value, this.values.length);
+        while (this.values[slot] != 0) {
+            if (this.values[slot] == value) {
+                return true;
+            }
+            slot = next(slot);
+        }
+        return false;
+    }
+
+    /** @param value long
+     * @return boolean <code>true</code> if the value has been removed, <code>false</code> if the set didn't contain the
+     *         value */
+    public boolean remove(final long value) {
+        if (value == 0) {
+            if (!this.hasZero) {
+                return false;
+            }
+            this.hasZero = false;
+            this.size--;
+            return true;
+        }
+        int slot = slot(value, this.values.length);
+        while (this.values[slot] != 0) {
+            if (this.values[slot] == value) {
+                shiftBack(slot);
+                this.size--;
+                return true;
+            }
+            slot = next(slot);
+        }
+        return false;
+    }
+
+    /** @return int the number of values in the set */
+    public int size() {
+        return this.size;
+    }
+
+    /** @return boolean <code>true</code> if the set is empty */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /** Removes all values from the set. */
+    public void clear() {
+        Arrays.fill(this.values, 0);
+        this.hasZero = false;
+        this.size = 0;
+    }
+
+    /** @return long[] the values in the set, in no particular order */
+    public long[] toArray() {
+        final long[] out = new long[this.size];
+        int i = 0;
+        if (this.hasZero) {
+            out[i++] = 0;
+        }
+        for (final long value : this.values) {
+            if (value != 0) {
+                out[i++] = value;
+            }
+        }
+        return out;
+    }
+
+    /** Closes the gap after a removal: moves the following entries of the probe sequence back if their home slot
+     * isn't between the gap and their actual slot. */
+    private void shiftBack(final int removed) {
+        int gap = removed;
+        int slot = next(gap);
+        while (this.values[slot] != 0) {
+            final int home = slot(this.values[slot], this.values.length);
+            if (gap <= slot ? gap >= home || home > slot : gap >= home && home > slot) {
+                this.values[gap] = this.values[slot];
+                gap = slot;
+            }
+            slot = next(slot);
+        }
+        this.values[gap] = 0;
+    }
+
+    private void rehash(final int capacity) {
+        final long[] old = this.values;
+        this.values = new long[capacity];
+        for (final long value : old) {
+            if (value != 0) {
+                int slot = slot(value, capacity);
+                while (this.values[slot] != 0) {
+                    slot = next(slot);
+                }
+                this.values[slot] = value;
+            }
+        }
+    }
+
+    private int next(final int slot) {
+        return slot + 1 & this.values.length - 1;
+    }
+
+    static int slot(final long value, final int capacity) {
+        return UniqueID.hash(value) & capacity - 1;
+    }
+
+    static int capacityFor(final int expected) {
+        int out = INITIAL_CAPACITY;
+        while (out * 3 < expected * 4) {
+            out <<= 1;
+        }
+        return out;
+    }
+
+}
@@ -0,0 +1,127 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.utility;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.bom.LightWeightRelated;
+import org.hip.kernel.bom.impl.AbstractQueryStatement;
+import org.hip.kernel.exc.VException;
+
+/** Loads the items related to an item with one <code>UNION ALL</code> statement.
+ * <p>
+ * Each part of the statement joins the relation table with one item table, once for each side of the relation. The
+ * statement retrieves the fields needed to display the related items only, i.e. the items' text (CLOB) is not loaded.
+ * </p>
+ *
+ * @author lbenno */
+public class RelatedItemLoader extends AbstractQueryStatement {
+    private static final long serialVersionUID = 1L;
+
+    private static final int[] ALL_TYPES = { IItem.TERM, IItem.TEXT, IItem.PERSON };
+
+    private static final String SQL_TERM = "SELECT t.TERMID, %s, t.STITLE, '', r.RELATIONID, t.DTCREATION, t.DTMUTATION FROM tblRelation r INNER JOIN tblTerm t ON r.NITEM%s = t.TERMID WHERE r.NITEM%s = ? AND r.NTYPE%s = ? AND r.NTYPE%s = %s"; //$NON-NLS-1$
+    private static final String SQL_TEXT = "SELECT t.TEXTID, %s, t.STITLE, '', r.RELATIONID, t.DTCREATION, t.DTMUTATION FROM tblRelation r INNER JOIN tblText t ON r.NITEM%s = t.TEXTID WHERE r.NITEM%s = ? AND r.NTYPE%s = ? AND r.NTYPE%s = %s"; //$NON-NLS-1$
+    private static final String SQL_PERSON = "SELECT t.PERSONID, %s, t.SNAME, t.SFIRSTNAME, r.RELATIONID, t.DTCREATION, t.DTMUTATION FROM tblRelation r INNER JOIN tblPerson t ON r.NITEM%s = t.PERSONID WHERE r.NITEM%s = ? AND r.NTYPE%s = ? AND r.NTYPE%s = %s"; //$NON-NLS-1$
+    private static final String UNION = " UNION ALL "; //$NON-NLS-1$
+
+    /** Loads all items related to the specified item.
+     *
+     * @param item {@link IItem}
+     * @return List&lt;LightWeightRelated> the related items, grouped by item type (terms, texts, persons)
+     * @throws VException
+     * @throws SQLException */
+    public List<LightWeightRelated> load(final IItem item) throws VException, SQLException {
+        return load(item, ALL_TYPES);
+    }
+
+    /** Loads the items of the specified types related to the specified item.
+     *
+     * @param item {@link IItem}
+     * @param types int[] the types of the related items to load, e.g. <code>IItem.TERM</code>
+     * @return List&lt;LightWeightRelated> the related items, grouped by item type in the order of the specified types
+     * @throws VException
+     * @throws SQLException */
+    public List<LightWeightRelated> load(final IItem item, final int... types) throws VException, SQLException {
+        final List<LightWeightRelated> out = new ArrayList<>();
+        if (types.length == 0) {
+            return out;
+        }
+        final long id = item.getID();
+        final int type = item.getItemType();
+        try (Connection connection = getConnection();
+                PreparedStatement statement = connection.prepareStatement(createSQL(types))) {
+            int index = 1;
+            for (int i = 0; i < types.length * 2; i++) {
+                statement.setLong(index++, id);
+                statement.setInt(index++, type);
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    out.add(new LightWeightRelated(result.getLong(1), result.getInt(2),
+                            createTitle(result.getString(3), result.getString(4)), result.getLong(5),
+                            result.getTimestamp(6), result.getTimestamp(7)));
+                }
+            }
+        }
+        return out;
+    }
+
+    private String createSQL(final int[] types) {
+        final StringBuilder out = new StringBuilder();
+        for (final int type : types) {
+            final String sql = getSQL(type);
+            if (out.length() > 0) {
+                out.append(UNION);
+            }
+            // the related item on side 1, the item on side 2 and vice versa
+            out.append(String.format(sql, type, 1, 2, 2, 1, type)).append(UNION)
+            .append(String.format(sql, type, 2, 1, 1, 2, type));
+        }
+        return new String(out);
+    }
+
+    private String getSQL(final int type) {
+        switch (type) {
+        case IItem.TERM:
+            return SQL_TERM;
+        case IItem.TEXT:
+            return SQL_TEXT;
+        case IItem.PERSON:
+            return SQL_PERSON;
+        default:
+            throw new IllegalArgumentException("Unknown item type " + type); //$NON-NLS-1$
+        }
+    }
+
+    /** Same as <code>AbstractPerson.getTitle()</code>. */
+    private String createTitle(final String title, final String firstname) {
+        if (firstname != null && firstname.length() > 0) {
+            return String.format("%s, %s", title, firstname); //$NON-NLS-1$
+        }
+        return title;
+    }
+
+}
@@ -0,0 +1,337 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.data.utility;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hip.kernel.bom.impl.AbstractQueryStatement;
+import org.hip.kernel.exc.VException;
+
+/** In-memory adjacency index of the relations table.
+ * <p>
+ * The graph is loaded once when the database is opened (see {@link #load()}) and is kept current by the
+ * <code>RelationHome</code>. Each item is identified by its packed unique ID (see {@link UniqueID#pack()}). For each
+ * item, the graph stores the related items and the relation ids in primitive <code>long</code> arrays.
+ * </p>
+ * <p>
+ * As long as the graph is not loaded, all queries return empty results, i.e. clients have to check
+ * {@link #isLoaded()} and retrieve the relations from the database else.
+ * </p>
+ * <p>
+ * The relations table is read without holding the graph's lock. The changes made while the table is read are
+ * recorded and replayed on the loaded graph before it is published, thus, no concurrent change gets lost.
+ * </p>
+ *
+ * @author lbenno */
+public enum RelationGraph {
+    INSTANCE;
+
+    private static final String SQL_SELECT = "SELECT RELATIONID, NTYPE1, NITEM1, NTYPE2, NITEM2 FROM tblRelation"; //$NON-NLS-1$
+    private static final int INITIAL_DEGREE = 4;
+
+    private final Object loadLock = new Object();
+    private Adjacency adjacency;
+    // the changes made while the relations table is read, null if no load is running
+    private List<Change> pending;
+    // incremented on clear(), a load started before is discarded
+    private int generation = 0;
+
+    /** Loads the graph from the actual database, replacing any previously loaded data.
+     *
+     * @throws SQLException */
+    public void load() throws SQLException {
+        synchronized (this.loadLock) {
+            final int started;
+            synchronized (this) {
+                this.pending = new ArrayList<>();
+                started = this.generation;
+            }
+            Adjacency loaded = null;
+            try {
+                loaded = new RelationsQuery().read();
+            } finally {
+                synchronized (this) {
+                    if (loaded != null && started == this.generation) {
+                        for (final Change change : this.pending) {
+                            change.applyTo(loaded);
+                        }
+                        this.adjacency = loaded;
+                    }
+                    this.pending = null;
+                }
+            }
+        }
+    }
+
+    /** Discards the graph, e.g. if the application switches to a different database. */
+    public synchronized void clear() {
+        this.adjacency = null;
+        this.generation++;
+        if (this.pending != null) {
+            this.pending.clear();
+        }
+    }
+
+    /** @return boolean <code>true</code> if the graph is loaded and can be queried */
+    public synchronized boolean isLoaded() {
+        return this.adjacency != null;
+    }
+
+    /** Adds the specified relation to the graph.
+     *
+     * @param relationID long
+     * @param type1 int
+     * @param id1 long
+     * @param type2 int
+     * @param id2 long */
+    public synchronized void addRelation(final long relationID, final int type1, final long id1, final int type2,
+            final long id2) {
+        apply(new Change(Change.ADD, relationID, UniqueID.pack(type1, id1), UniqueID.pack(type2, id2)));
+    }
+
+    /** Removes the relation with the specified id from the graph. Other relations between the same items are kept.
+     *
+     * @param relationID long
+     * @param type1 int
+     * @param id1 long
+     * @param type2 int
+     * @param id2 long */
+    public synchronized void removeRelation(final long relationID, final int type1, final long id1, final int type2,
+            final long id2) {
+        apply(new Change(Change.REMOVE, relationID, UniqueID.pack(type1, id1), UniqueID.pack(type2, id2)));
+    }
+
+    /** Removes all relations of the specified item from the graph.
+     *
+     * @param item {@link UniqueID} */
+    public synchronized void removeItem(final UniqueID item) {
+        apply(new Change(Change.REMOVE_ITEM, 0, item.pack(), 0));
+    }
+
+    private void apply(final Change change) {
+        if (this.adjacency != null) {
+            change.applyTo(this.adjacency);
+        }
+        if (this.pending != null) {
+            this.pending.add(change);
+        }
+    }
+
+    /** Returns the items related to the specified item.
+     *
+     * @param item {@link UniqueID}
+     * @return List&lt;Neighbour> the related items together with the ids of the connecting relations */
+    public synchronized List<Neighbour> getNeighbours(final UniqueID item) {
+        if (this.adjacency == null) {
+            return Collections.emptyList();
+        }
+        final int node = this.adjacency.nodes.get(item.pack());
+        if (node < 0) {
+            return Collections.emptyList();
+        }
+        final int degree = this.adjacency.degrees[node];
+        final long[] related = this.adjacency.related[node];
+        final long[] relations = this.adjacency.relations[node];
+        final List<Neighbour> out = new ArrayList<>(degree);
+        for (int i = 0; i < degree; i++) {
+            out.add(new Neighbour(UniqueID.unpack(related[i]), relations[i]));
+        }
+        return out;
+    }
+
+    // --- inner classes ---
+
+    /** Parameter object for an item related to an other item. */
+    public static class Neighbour {
+        public final UniqueID item;
+        public final long relationID;
+
+        Neighbour(final UniqueID item, final long relationID) {
+            this.item = item;
+            this.relationID = relationID;
+        }
+    }
+
+    /** A change of the graph. The changes are idempotent, i.e. they can be replayed on a graph that contains them
+     * already. */
+    private static class Change {
+        static final int ADD = 0;
+        static final int REMOVE = 1;
+        static final int REMOVE_ITEM = 2;
+
+        private final int kind;
+        private final long relationID;
+        private final long item1;
+        private final long item2;
+
+        Change(final int kind, final long relationID, final long item1, final long item2) {
+            this.kind = kind;
+            this.relationID = relationID;
+            this.item1 = item1;
+            this.item2 = item2;
+        }
+
+        void applyTo(final Adjacency adjacency) {
+            switch (this.kind) {
+            case ADD:
+                adjacency.add(this.relationID, this.item1, this.item2);
+                break;
+            case REMOVE:
+                adjacency.remove(this.relationID, this.item1, this.item2);
+                break;
+            default:
+                adjacency.removeAll(this.item1);
+            }
+        }
+    }
+
+    /** The adjacency lists: for each node, the packed ids of the related items and the ids of the relations. */
+    private static class Adjacency {
+        private final LongIntMap nodes = new LongIntMap();
+        private long[][] related = new long[64][];
+        private long[][] relations = new long[64][];
+        private int[] degrees = new int[64];
+        private int size = 0;
+
+        void add(final long relationID, final long item1, final long item2) {
+            final int node1 = node(item1);
+            if (indexOfRelation(node1, relationID) >= 0) {
+                return;
+            }
+            append(node1, item2, relationID);
+            append(node(item2), item1, relationID);
+        }
+
+        void remove(final long relationID, final long item1, final long item2) {
+            removeRelation(item1, relationID);
+            removeRelation(item2, relationID);
+        }
+
+        void removeAll(final long item) {
+            final int node = this.nodes.get(item);
+            if (node < 0) {
+                return;
+            }
+            final long[] neighbours = Arrays.copyOf(this.related[node], this.degrees[node]);
+            for (final long neighbour : neighbours) {
+                removeEdge(neighbour, item);
+            }
+            this.degrees[node] = 0;
+        }
+
+        private int indexOf(final long[] values, final int node, final long value) {
+            for (int i = 0; i < this.degrees[node]; i++) {
+                if (values[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int indexOfRelation(final int node, final long relationID) {
+            return indexOf(this.relations[node], node, relationID);
+        }
+
+        private void removeEdge(final long from, final long to) {
+            final int node = this.nodes.get(from);
+            if (node < 0) {
+                return;
+            }
+            int index = indexOf(this.related[node], node, to);
+            while (index >= 0) {
+                removeAt(node, index);
+                index = indexOf(this.related[node], node, to);
+            }
+        }
+
+        private void removeRelation(final long from, final long relationID) {
+            final int node = this.nodes.get(from);
+            if (node < 0) {
+                return;
+            }
+            final int index = indexOfRelation(node, relationID);
+            if (index >= 0) {
+                removeAt(node, index);
+            }
+        }
+
+        private void removeAt(final int node, final int index) {
+            // swap with last
+            final int last = --this.degrees[node];
+            this.related[node][index] = this.related[node][last];
+            this.relations[node][index] = this.relations[node][last];
+        }
+
+        private int node(final long item) {
+            int out = this.nodes.get(item);
+            if (out < 0) {
+                if (this.size == this.degrees.length) {
+                    final int capacity = this.size * 2;
+                    this.related = Arrays.copyOf(this.related, capacity);
+                    this.relations = Arrays.copyOf(this.relations, capacity);
+                    this.degrees = Arrays.copyOf(this.degrees, capacity);
+                }
+                out = this.size++;
+                this.related[out] = new long[INITIAL_DEGREE];
+                this.relations[out] = new long[INITIAL_DEGREE];
+                this.nodes.put(item, out);
+            }
+            return out;
+        }
+
+        private void append(final int node, final long item, final long relationID) {
+            final int degree = this.degrees[node];
+            if (degree == this.related[node].length) {
+                this.related[node] = Arrays.copyOf(this.related[node], degree * 2);
+                this.relations[node] = Arrays.copyOf(this.relations[node], degree * 2);
+            }
+            this.related[node][degree] = item;
+            this.relations[node][degree] = relationID;
+            this.degrees[node] = degree + 1;
+        }
+    }
+
+    /** Helper class to read all entries of the relations table. */
+    private static class RelationsQuery extends AbstractQueryStatement {
+        private static final long serialVersionUID = 1L;
+
+        protected Adjacency read() throws SQLException {
+            final Adjacency out = new Adjacency();
+            try (Connection connection = getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet result = statement.executeQuery(SQL_SELECT)) {
+                while (result.next()) {
+                    out.add(result.getLong(1), UniqueID.pack(result.getInt(2), result.getLong(3)),
+                            UniqueID.pack(result.getInt(4), result.getLong(5)));
+                }
+            } catch (final VException exc) {
+                throw new SQLException(exc);
+            }
+            return out;
+        }
+    }
+
+}
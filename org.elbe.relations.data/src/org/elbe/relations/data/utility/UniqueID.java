@@ -23,11 +23,19 @@ import org.hip.kernel.exc.VException;
 
 /**
  * Utility class for an item's unique ID that consists of item type and item ID.
+ * <p>
+ * The unique ID can be packed into a <code>long</code>, the type in the high
+ * bits, the item's id in the low bits (see {@link #pack(int, long)}). Use the
+ * packed version together with {@link LongSet} or {@link LongIntMap} to
+ * collect many items without allocating objects.
+ * </p>
  *
  * @author Benno Luthiger Created on 09.05.2006
  */
 public class UniqueID {
-    private static final String TEMPLATE = "%s:%s"; //$NON-NLS-1$
+    private static final char SEPARATOR = ':';
+    private static final int TYPE_SHIFT = 56;
+    private static final long ID_MASK = (1L << TYPE_SHIFT) - 1;
 
     public int itemType;
     public long itemID;
@@ -47,9 +55,14 @@ public class UniqueID {
      * @param uniqueID String of form <code>itemType:itemID</code> */
     public UniqueID(final String uniqueID) {
         super();
-        final int index = uniqueID.indexOf(":"); //$NON-NLS-1$
+        final int index = uniqueID.indexOf(SEPARATOR);
         this.itemType = Integer.parseInt(uniqueID.substring(0, index));
-        this.itemID = Integer.parseInt(uniqueID.substring(index + 1));
+        this.itemID = Long.parseLong(uniqueID.substring(index + 1));
+    }
+
+    /** @return long this unique ID packed into a <code>long</code> */
+    public long pack() {
+        return pack(this.itemType, this.itemID);
     }
 
     @Override
@@ -59,7 +72,7 @@ public class UniqueID {
 
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return hash(pack());
     }
 
     /**
@@ -84,7 +97,34 @@ public class UniqueID {
      * @param id long
      * @return String */
     public static String getStringOf(final int itemType, final long id) {
-        return String.format(TEMPLATE, itemType, id);
+        return new StringBuilder(24).append(itemType).append(SEPARATOR).append(id).toString();
+    }
+
+    /** Packs the specified unique ID into a <code>long</code>: the item type in the high byte, the item's id in the
+     * remaining 56 bits.
+     *
+     * @param itemType int
+     * @param id long
+     * @return long */
+    public static long pack(final int itemType, final long id) {
+        return (long) itemType << TYPE_SHIFT | id & ID_MASK;
+    }
+
+    /** Creates the unique ID from the packed version.
+     *
+     * @param packed long see {@link #pack(int, long)}
+     * @return {@link UniqueID} */
+    public static UniqueID unpack(final long packed) {
+        return new UniqueID((int) (packed >>> TYPE_SHIFT), packed & ID_MASK);
+    }
+
+    /** Hash function for packed unique IDs, spreading the bits of the ids (which are often sequential).
+     *
+     * @param packed long
+     * @return int */
+    public static int hash(final long packed) {
+        final long hash = packed * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32);
     }
 
     /** Factory method: creates a <code>UniqueID</code> from the specified <code>IItem</code>.
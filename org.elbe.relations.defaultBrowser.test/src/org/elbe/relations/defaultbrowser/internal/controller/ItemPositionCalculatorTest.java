@@ -76,4 +76,16 @@ public class ItemPositionCalculatorTest {
 		}
 	}
 
+	@Test
+	public void testGetCapacity() {
+		assertEquals("one ring", 16,
+		        ItemPositionCalculator.getCapacity(WIDTH, HEIGHT, RADIUS, 1));
+		assertEquals("two rings", 38,
+		        ItemPositionCalculator.getCapacity(WIDTH, HEIGHT, RADIUS, 2));
+		assertEquals("three rings", 64,
+		        ItemPositionCalculator.getCapacity(WIDTH, HEIGHT, RADIUS, 3));
+		assertEquals("no ring", 0,
+		        ItemPositionCalculator.getCapacity(WIDTH, HEIGHT, RADIUS, 0));
+	}
+
 }
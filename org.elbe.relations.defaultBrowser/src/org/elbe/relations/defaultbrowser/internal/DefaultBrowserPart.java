@@ -18,6 +18,8 @@
  ***************************************************************************/
 package org.elbe.relations.defaultbrowser.internal;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.util.List;
 import java.util.Map;
 
@@ -56,10 +58,8 @@ import org.eclipse.swt.dnd.URLTransfer;
 import org.eclipse.swt.events.MouseAdapter;
 import org.eclipse.swt.events.MouseEvent;
 import org.eclipse.swt.graphics.Font;
-import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
-import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 import org.elbe.relations.RelationsConstants;
@@ -76,7 +76,6 @@ import org.elbe.relations.defaultbrowser.internal.views.GraphicalViewerCreator;
 import org.elbe.relations.defaultbrowser.internal.views.ItemFigure;
 import org.elbe.relations.dnd.ItemTransfer;
 import org.elbe.relations.models.CentralAssociationsModel;
-import org.elbe.relations.models.IItemModel;
 import org.elbe.relations.models.ItemAdapter;
 import org.elbe.relations.services.IBrowserManager;
 import org.elbe.relations.services.IRelationsBrowser;
@@ -88,6 +87,11 @@ import org.hip.kernel.exc.VException;
  * View to display the relations between the items for that they can be browsed.
  * The related items are placed in circles around the focus item. Every item
  * displayed can be selected and, thus, be activated.
+ * <p>
+ * Only the rings intersecting the browser window are populated initially, the
+ * remaining related items are collapsed into a node that displays the next
+ * ring when clicked.
+ * </p>
  *
  * @author Luthiger
  */
@@ -169,6 +173,14 @@ public class DefaultBrowserPart implements IRelationsBrowser {
 		editDomain.addViewer(viewer);
 
 		viewer.addSelectionChangedListener(new PartSelectionChangedListener());
+		viewer.addPropertyChangeListener(new PropertyChangeListener() {
+			@Override
+			public void propertyChange(final PropertyChangeEvent inEvent) {
+				if (RelationsEditPart.PROP_RINGS.equals(inEvent.getPropertyName())) {
+					refreshRings();
+				}
+			}
+		});
 
 		final Control lControl = viewer.getControl();
 		lControl.addMouseListener(new MouseAdapter() {
@@ -197,6 +209,11 @@ public class DefaultBrowserPart implements IRelationsBrowser {
 					recenter(new PrecisionPoint((lNewSize.x - oldSize.x) / 2, (lNewSize.y - oldSize.y) / 2));
 				}
 				oldSize = lNewSize;
+				final Object lRings = viewer.getProperty(RelationsEditPart.PROP_RINGS);
+				final int lVisible = getVisibleRings();
+				if (lRings != null && lVisible > (Integer) lRings) {
+					viewer.setProperty(RelationsEditPart.PROP_RINGS, lVisible);
+				}
 			}
 		});
 
@@ -245,6 +262,9 @@ public class DefaultBrowserPart implements IRelationsBrowser {
 		sync.syncExec(new Runnable() {
 			@Override
 			public void run() {
+				// set before the contents for that the edit parts are created
+				// for the visible items only
+				viewer.setProperty(RelationsEditPart.PROP_RINGS, getVisibleRings());
 				viewer.setContents(model);
 			}
 		});
@@ -351,19 +371,12 @@ public class DefaultBrowserPart implements IRelationsBrowser {
 	public void trackFontSize(
 			@UIEventTopic("org_elbe_relations_defaultbrowser_internal_DefaultBrowserPart") final int inFontSize) {
 		if (inFontSize != 0) {
-			Font lFont = null;
-			final Map<IItemModel, GraphicalEditPart> lRegistry = viewer.getEditPartRegistry();
+			final Font lFont = ItemFigure.getItemFont(inFontSize);
+			final Map<Object, GraphicalEditPart> lRegistry = viewer.getEditPartRegistry();
 			for (final GraphicalEditPart lPart : lRegistry.values()) {
 				final IFigure lFigure = lPart.getFigure();
 				if (lFigure instanceof ItemFigure) {
-					final ItemFigure lItemFigure = (ItemFigure) lFigure;
-					if (lFont == null) {
-						lFont = lItemFigure.getFont();
-						final FontData lData = lFont.getFontData()[0];
-						lData.setHeight(inFontSize);
-						lFont = new Font(Display.getCurrent(), lData);
-					}
-					lItemFigure.setFont(lFont);
+					((ItemFigure) lFigure).setFont(lFont);
 				}
 			}
 		}
@@ -378,13 +391,13 @@ public class DefaultBrowserPart implements IRelationsBrowser {
 	 */
 	@SuppressWarnings("unchecked")
 	private void setAroundCenter() {
-		final Map<IItemModel, GraphicalEditPart> lRegistry = viewer.getEditPartRegistry();
+		final Map<Object, GraphicalEditPart> lRegistry = viewer.getEditPartRegistry();
 		final org.eclipse.swt.graphics.Point lSize = getSize();
 		final PrecisionPoint lTranslate = new PrecisionPoint(lSize.x / 2 - (RelationsConstants.ITEM_WIDTH / 2),
 				(lSize.y / 2) - RelationsConstants.ITEM_HEIGHT);
 		moveFigure(lRegistry, model.getCenter(), new PrecisionPoint(0, 0), lTranslate);
 
-		final List<ItemAdapter> lRelated = model.getRelatedItems();
+		final List<Object> lRelated = ((RelationsEditPart) viewer.getContents()).getDisplayed();
 		int lNumber = lRelated.size();
 		int lCount = 0;
 		int lOffset = 0;
@@ -411,12 +424,41 @@ public class DefaultBrowserPart implements IRelationsBrowser {
 		return outSize;
 	}
 
+	/**
+	 * @return int the number of rings intersecting the browser window
+	 */
+	private int getVisibleRings() {
+		final org.eclipse.swt.graphics.Point lSize = getSize();
+		final double lMaxRadius = Math.hypot(lSize.x / 2.0, lSize.y / 2.0);
+		return Math.max(1, (int) (lMaxRadius / RelationsConstants.RADIUS));
+	}
+
+	/**
+	 * Creates the edit parts for the items on the rings added and arranges
+	 * them.
+	 */
+	@SuppressWarnings("unchecked")
+	private void refreshRings() {
+		final EditPart lContents = viewer.getContents();
+		if (model == null || lContents == null || lContents.getModel() != model) {
+			return;
+		}
+		lContents.refresh();
+		// the center's connections to the added items
+		final Map<Object, GraphicalEditPart> lRegistry = viewer.getEditPartRegistry();
+		final EditPart lCenter = lRegistry.get(model.getCenter());
+		if (lCenter != null) {
+			lCenter.refresh();
+		}
+		setAroundCenter();
+	}
+
 	private int getRadius(final int inCount) {
 		return RelationsConstants.RADIUS * inCount;
 	}
 
-	private int setPositions(final Map<IItemModel, GraphicalEditPart> inRegistry,
-			final List<PrecisionPoint> inPositions, final int inOffset, final List<ItemAdapter> inRelated,
+	private int setPositions(final Map<Object, GraphicalEditPart> inRegistry,
+			final List<PrecisionPoint> inPositions, final int inOffset, final List<Object> inRelated,
 			final PrecisionPoint inTranslate) {
 		int outOffset = inOffset;
 		for (final PrecisionPoint lPoint : inPositions) {
@@ -426,7 +468,7 @@ public class DefaultBrowserPart implements IRelationsBrowser {
 		return outOffset;
 	}
 
-	private void moveFigure(final Map<IItemModel, GraphicalEditPart> inRegistry, final ItemAdapter inModel,
+	private void moveFigure(final Map<Object, GraphicalEditPart> inRegistry, final Object inModel,
 			final PrecisionPoint inFrom, final PrecisionPoint inTranslate) {
 		final GraphicalEditPart lEditPart = inRegistry.get(inModel);
 		if (lEditPart != null) {
@@ -439,7 +481,7 @@ public class DefaultBrowserPart implements IRelationsBrowser {
 	 */
 	@SuppressWarnings("unchecked")
 	private void recenter(final PrecisionPoint inTranslate) {
-		final Map<IItemModel, GraphicalEditPart> lRegistry = viewer.getEditPartRegistry();
+		final Map<Object, GraphicalEditPart> lRegistry = viewer.getEditPartRegistry();
 		for (final GraphicalEditPart lEditPart : lRegistry.values()) {
 			final Point lFrom = lEditPart.getFigure().getBounds().getLocation();
 			lEditPart.getFigure().setLocation(lFrom.getTranslated(inTranslate));
@@ -18,6 +18,7 @@
  ***************************************************************************/
 package org.elbe.relations.defaultbrowser.internal.controller;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -211,7 +212,15 @@ public class ItemEditPart extends AbstractGraphicalEditPart implements
 
 	@Override
 	protected List<IRelation> getModelSourceConnections() {
-		return model.getSources();
+		// relations to items collapsed into a MoreItems node are not displayed
+		final RelationsEditPart lParent = (RelationsEditPart) getParent();
+		final List<IRelation> outRelations = new ArrayList<IRelation>();
+		for (final IRelation lRelation : model.getSources()) {
+			if (lParent.isDisplayed(lRelation)) {
+				outRelations.add(lRelation);
+			}
+		}
+		return outRelations;
 	}
 
 	@Override
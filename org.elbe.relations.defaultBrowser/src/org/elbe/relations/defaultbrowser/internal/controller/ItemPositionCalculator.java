@@ -58,6 +58,31 @@ public class ItemPositionCalculator {
 		init(radius, inRemaining);
 	}
 
+	/**
+	 * Returns the number of items that can be placed on the specified number
+	 * of rings, the radius of the rings growing by <code>inRadius</code>.
+	 *
+	 * @param inWidth
+	 *            long Width of item
+	 * @param inHeight
+	 *            long Height of item
+	 * @param inRadius
+	 *            long Radius of the first circle
+	 * @param inRings
+	 *            int Number of rings
+	 * @return int the number of items fitting on the rings
+	 */
+	public static int getCapacity(final long inWidth, final long inHeight, final long inRadius, final int inRings) {
+		long outCapacity = 0;
+		final ItemPositionCalculator lCalculator = new ItemPositionCalculator(inWidth, inHeight, inRadius,
+				Long.MAX_VALUE);
+		for (int i = 1; i <= inRings; i++) {
+			lCalculator.recalculate(inRadius * i, Long.MAX_VALUE);
+			outCapacity += lCalculator.getCount();
+		}
+		return (int) Math.min(outCapacity, Integer.MAX_VALUE);
+	}
+
 	/**
 	 * Recalculates with new values for the remaining items.
 	 *
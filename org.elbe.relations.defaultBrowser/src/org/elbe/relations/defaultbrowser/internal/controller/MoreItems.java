@@ -0,0 +1,75 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.defaultbrowser.internal.controller;
+
+/**
+ * Model for the node standing for the related items that are not displayed
+ * in the browser because they don't fit on the displayed rings.
+ *
+ * @author lbenno
+ */
+public class MoreItems {
+	private final int count;
+	private final int rings;
+
+	/**
+	 * MoreItems constructor.
+	 *
+	 * @param inCount
+	 *            int the number of hidden items
+	 * @param inRings
+	 *            int the number of rings displayed
+	 */
+	public MoreItems(final int inCount, final int inRings) {
+		count = inCount;
+		rings = inRings;
+	}
+
+	/**
+	 * @return int the number of hidden items
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * @return int the number of rings displayed
+	 */
+	public int getRings() {
+		return rings;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * count + rings;
+	}
+
+	@Override
+	public boolean equals(final Object inObj) {
+		if (this == inObj) {
+			return true;
+		}
+		if (!(inObj instanceof MoreItems)) {
+			return false;
+		}
+		final MoreItems lOther = (MoreItems) inObj;
+		return count == lOther.count && rings == lOther.rings;
+	}
+
+}
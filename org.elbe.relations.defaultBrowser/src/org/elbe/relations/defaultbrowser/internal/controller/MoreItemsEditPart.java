@@ -0,0 +1,72 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.defaultbrowser.internal.controller;
+
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.MouseEvent;
+import org.eclipse.draw2d.MouseListener;
+import org.eclipse.gef.editparts.AbstractGraphicalEditPart;
+import org.elbe.relations.defaultbrowser.internal.views.MoreItemsFigure;
+
+/**
+ * Controller for the node standing for the hidden related items. Clicking the
+ * node displays the next ring of related items.
+ *
+ * @author lbenno
+ */
+public class MoreItemsEditPart extends AbstractGraphicalEditPart {
+	private final MoreItems model;
+
+	public MoreItemsEditPart(final MoreItems inModel) {
+		super();
+		model = inModel;
+	}
+
+	@Override
+	public Object getModel() {
+		return model;
+	}
+
+	@Override
+	protected IFigure createFigure() {
+		final IFigure outFigure = new MoreItemsFigure(model.getCount());
+		outFigure.addMouseListener(new MouseListener.Stub() {
+			@Override
+			public void mousePressed(final MouseEvent inMouseEvent) {
+				if (inMouseEvent.button == 1) {
+					// the viewer's listener refreshes and arranges the children
+					getViewer().setProperty(RelationsEditPart.PROP_RINGS, model.getRings() + 1);
+					inMouseEvent.consume();
+				}
+			}
+		});
+		return outFigure;
+	}
+
+	@Override
+	public boolean isSelectable() {
+		return false;
+	}
+
+	@Override
+	protected void createEditPolicies() {
+		// Nothing to do.
+	}
+
+}
@@ -18,7 +18,11 @@
  ***************************************************************************/
 package org.elbe.relations.defaultbrowser.internal.controller;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import javax.inject.Inject;
 
@@ -26,22 +30,37 @@ import org.eclipse.draw2d.IFigure;
 import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.gef.editparts.AbstractEditPart;
 import org.eclipse.gef.editparts.AbstractGraphicalEditPart;
+import org.elbe.relations.RelationsConstants;
 import org.elbe.relations.data.utility.UniqueID;
 import org.elbe.relations.defaultbrowser.internal.views.RelationsFigure;
 import org.elbe.relations.models.CentralAssociationsModel;
 import org.elbe.relations.models.IBrowserPart;
+import org.elbe.relations.models.IRelation;
 import org.elbe.relations.models.ItemAdapter;
 import org.hip.kernel.exc.VException;
 
 /**
  * Controller for the display of the set of related items.
+ * <p>
+ * If the viewer's property {@link #PROP_RINGS} is set, only the related items
+ * fitting on the specified number of rings are displayed. The remaining items
+ * are collapsed into a {@link MoreItems} node.
+ * </p>
  * 
  * @author Benno Luthiger Created on 16.12.2005
  */
 @SuppressWarnings("restriction")
 public class RelationsEditPart extends AbstractGraphicalEditPart implements
 		IBrowserPart {
+	/**
+	 * Viewer property: <code>Integer</code>, the number of rings to display
+	 * the related items on.
+	 */
+	public static final String PROP_RINGS = "relations.browser.rings"; //$NON-NLS-1$
+
 	private final CentralAssociationsModel model;
+	private List<Object> displayed = Collections.emptyList();
+	private Set<IRelation> displayedRelations = null;
 
 	@Inject
 	private Logger log;
@@ -83,8 +102,62 @@ public class RelationsEditPart extends AbstractGraphicalEditPart implements
 	 * @see AbstractEditPart#getModelChildren()
 	 */
 	@Override
-	protected List<ItemAdapter> getModelChildren() {
-		return model.getAllItems();
+	protected List<Object> getModelChildren() {
+		final List<Object> outChildren = new ArrayList<Object>();
+		outChildren.add(model.getCenter());
+		outChildren.addAll(computeDisplayed());
+		return outChildren;
+	}
+
+	private List<Object> computeDisplayed() {
+		final List<ItemAdapter> lRelated = model.getRelatedItems();
+		final Object lRings = getViewer() == null ? null : getViewer()
+				.getProperty(PROP_RINGS);
+		final int lCapacity = lRings == null ? Integer.MAX_VALUE
+				: ItemPositionCalculator.getCapacity(
+						RelationsConstants.ITEM_WIDTH,
+						RelationsConstants.ITEM_HEIGHT,
+						RelationsConstants.RADIUS, (Integer) lRings);
+		if (lRelated.size() <= lCapacity) {
+			displayed = new ArrayList<Object>(lRelated);
+			displayedRelations = null;
+			return displayed;
+		}
+
+		// the last place is taken by the node standing for the hidden items
+		displayed = new ArrayList<Object>(lRelated.subList(0, lCapacity - 1));
+		displayedRelations = Collections
+				.newSetFromMap(new IdentityHashMap<IRelation, Boolean>());
+		for (final Object lItem : displayed) {
+			displayedRelations.addAll(((ItemAdapter) lItem).getTargets());
+		}
+		displayed.add(new MoreItems(lRelated.size() - displayed.size(),
+				(Integer) lRings));
+		return displayed;
+	}
+
+	/**
+	 * Returns the related items displayed actually, i.e. the items fitting on
+	 * the number of rings set with {@link #PROP_RINGS}. If there are more
+	 * related items, the last element of the list is a {@link MoreItems} node.
+	 * 
+	 * @return List&lt;Object> of <code>ItemAdapter</code> and
+	 *         <code>MoreItems</code>
+	 */
+	public List<Object> getDisplayed() {
+		return displayed;
+	}
+
+	/**
+	 * Checks whether the specified relation connects displayed items.
+	 * 
+	 * @param inRelation
+	 *            {@link IRelation}
+	 * @return boolean <code>true</code> if the relation's items are displayed
+	 */
+	public boolean isDisplayed(final IRelation inRelation) {
+		return displayedRelations == null
+				|| displayedRelations.contains(inRelation);
 	}
 
 	/**
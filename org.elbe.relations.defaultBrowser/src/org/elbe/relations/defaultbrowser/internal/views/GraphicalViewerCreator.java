@@ -35,6 +35,8 @@ import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
 import org.elbe.relations.defaultbrowser.internal.controller.ItemEditPart;
+import org.elbe.relations.defaultbrowser.internal.controller.MoreItems;
+import org.elbe.relations.defaultbrowser.internal.controller.MoreItemsEditPart;
 import org.elbe.relations.defaultbrowser.internal.controller.RelationEditPart;
 import org.elbe.relations.defaultbrowser.internal.controller.RelationsEditPart;
 import org.elbe.relations.defaultbrowser.internal.controller.RelationsRootEditPart;
@@ -100,6 +102,8 @@ public class GraphicalViewerCreator {
 					return ItemEditPart.createItemEditPart((ItemAdapter) inModel, context);
 				} else if (inModel instanceof IRelation) {
 					return new RelationEditPart((IRelation) inModel);
+				} else if (inModel instanceof MoreItems) {
+					return new MoreItemsEditPart((MoreItems) inModel);
 				}
 				return null;
 			}
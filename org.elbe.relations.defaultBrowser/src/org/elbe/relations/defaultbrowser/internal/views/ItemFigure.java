@@ -31,6 +31,7 @@ import org.eclipse.draw2d.RectangleFigure;
 import org.eclipse.draw2d.XYLayout;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.jface.preference.JFacePreferences;
+import org.eclipse.jface.resource.FontRegistry;
 import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
@@ -50,6 +51,7 @@ import org.elbe.relations.defaultbrowser.internal.DefaultBrowserPart;
 public class ItemFigure extends Figure {
 	private final static int ICON_WIDTH = 16;
 	private final static int LABEL_WIDTH = RelationsConstants.ITEM_WIDTH - ICON_WIDTH;
+	private final static String FONT_KEY = "org.elbe.relations.defaultbrowser.item.font."; //$NON-NLS-1$
 	private final static Color ACTIVE_COLOR = JFaceResources.getColorRegistry()
 			.get(JFacePreferences.ACTIVE_HYPERLINK_COLOR);
 
@@ -96,16 +98,35 @@ public class ItemFigure extends Figure {
 		return outLabel;
 	}
 
-	private Font getPreferenceFont() {
-		final Font lFont = JFaceResources.getFontRegistry().get(JFaceResources.DEFAULT_FONT);
-		final FontData lData = lFont.getFontData()[0];
-
+	/**
+	 * Returns the font for the figures displayed in the browser, using the
+	 * font size set in the preferences.
+	 *
+	 * @return {@link Font}
+	 */
+	public static Font getPreferenceFont() {
 		final IEclipsePreferences lStore = InstanceScope.INSTANCE.getNode(RelationsConstants.PREFERENCE_NODE);
-		final int lSize = lStore.getInt(DefaultBrowserPart.class.getName(), RelationsConstants.DFT_TEXT_FONT_SIZE);
-		lData.setHeight(lSize);
+		return getItemFont(lStore.getInt(DefaultBrowserPart.class.getName(), RelationsConstants.DFT_TEXT_FONT_SIZE));
+	}
 
-		final Font outFont = new Font(Display.getCurrent(), lData);
-		return outFont;
+	/**
+	 * Returns the font for the figures displayed in the browser. The font is
+	 * shared by all figures and disposed by the font registry together with
+	 * the display.
+	 *
+	 * @param inHeight
+	 *            int the font's height
+	 * @return {@link Font}
+	 */
+	public static Font getItemFont(final int inHeight) {
+		final FontRegistry lRegistry = JFaceResources.getFontRegistry();
+		final String lKey = FONT_KEY + inHeight;
+		if (!lRegistry.hasValueFor(lKey)) {
+			final FontData lData = lRegistry.get(JFaceResources.DEFAULT_FONT).getFontData()[0];
+			lData.setHeight(inHeight);
+			lRegistry.put(lKey, new FontData[] { lData });
+		}
+		return lRegistry.get(lKey);
 	}
 
 	private RectangleFigure createUnderline() {
@@ -0,0 +1,56 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.defaultbrowser.internal.views;
+
+import org.eclipse.draw2d.ColorConstants;
+import org.eclipse.draw2d.Cursors;
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.Label;
+import org.eclipse.draw2d.LineBorder;
+import org.eclipse.draw2d.StackLayout;
+import org.eclipse.swt.SWT;
+import org.elbe.relations.RelationsConstants;
+
+/**
+ * Figure to display the node standing for the hidden related items.
+ *
+ * @author lbenno
+ */
+public class MoreItemsFigure extends Figure {
+	private static final String LABEL = "+%s ..."; //$NON-NLS-1$
+
+	/**
+	 * @param inCount
+	 *            int the number of hidden items
+	 */
+	public MoreItemsFigure(final int inCount) {
+		super();
+		setOpaque(true);
+		setLayoutManager(new StackLayout());
+		setBorder(new LineBorder(ColorConstants.black, 1, SWT.LINE_DASH));
+		setBackgroundColor(GraphicalViewerCreator.BG_COLOR);
+		setSize(RelationsConstants.ITEM_WIDTH, RelationsConstants.ITEM_HEIGHT);
+		setCursor(Cursors.HAND);
+
+		final Label lLabel = new Label(String.format(LABEL, inCount));
+		lLabel.setFont(ItemFigure.getPreferenceFont());
+		add(lLabel);
+	}
+
+}
@@ -46,6 +46,7 @@ public class IndexHouseKeeper {
 
 	public void tearDown() throws IOException {
 		// IndexerRegistration.getInstance().unregister(index);
+		index.release(getDirectory());
 		index = null;
 		deleteContent(getDirectory());
 	}
@@ -20,6 +20,7 @@
 package org.elbe.relations.indexer.lucene;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -27,12 +28,14 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import org.elbe.relations.data.search.AbstractSearching;
 import org.elbe.relations.data.search.IIndexer;
 import org.elbe.relations.data.search.IndexerDocument;
 import org.elbe.relations.data.search.IndexerField;
 import org.elbe.relations.data.search.IndexerHelper;
+import org.elbe.relations.data.search.RetrievedItem;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -125,4 +128,135 @@ public class LuceneIndexerTest {
 		assertEquals("one document in index", 1, lIndexer.numberOfIndexed(luceneDir));
 	}
 
+	@Test
+	public void testEventWatermark() throws Exception {
+		final File luceneDir = IndexHouseKeeper.getDirectory();
+		final IIndexer lIndexer = new LuceneIndexer();
+		assertEquals(-1, lIndexer.getEventWatermark(luceneDir));
+
+		lIndexer.setEventWatermark(luceneDir, 42);
+		assertEquals(42, lIndexer.getEventWatermark(luceneDir));
+
+		// the watermark is persisted with the index
+		lIndexer.release(luceneDir);
+		assertEquals(42, lIndexer.getEventWatermark(luceneDir));
+
+		// initializing the index discards the watermark
+		lIndexer.initializeIndex(luceneDir, IndexHouseKeeper.LANGUAGE);
+		assertEquals(-1, lIndexer.getEventWatermark(luceneDir));
+	}
+
+	@Test
+	public void testSnapshot() throws Exception {
+		final File luceneDir = IndexHouseKeeper.getDirectory();
+		final IIndexer lIndexer = new LuceneIndexer();
+		lIndexer.processIndexer(getDocIndexer(), luceneDir, IndexHouseKeeper.LANGUAGE);
+		final Collection<String> lFiles = lIndexer.snapshot(luceneDir);
+		String lSegments = null;
+		for (final String lFile : lFiles) {
+			if (lFile.startsWith("segments")) {
+				lSegments = lFile;
+			}
+		}
+		assertNotNull("the snapshot contains the commit", lSegments);
+
+		// the snapshot's files are kept though the index changes
+		lIndexer.initializeIndex(luceneDir, IndexHouseKeeper.LANGUAGE);
+		for (final String lFile : lFiles) {
+			assertTrue(lFile, new File(luceneDir, lFile).exists());
+		}
+
+		lIndexer.releaseSnapshot(luceneDir);
+		assertFalse("released", new File(luceneDir, lSegments).exists());
+		assertEquals(0, lIndexer.numberOfIndexed(luceneDir));
+	}
+
+	@Test
+	public void testGeneration() throws Exception {
+		final File luceneDir = IndexHouseKeeper.getDirectory();
+		final IIndexer lIndexer = new LuceneIndexer();
+		lIndexer.initializeIndex(luceneDir, IndexHouseKeeper.LANGUAGE);
+		final long lGeneration = lIndexer.getGeneration(luceneDir);
+		assertEquals("unchanged", lGeneration, lIndexer.getGeneration(luceneDir));
+
+		lIndexer.processIndexer(getDocIndexer(), luceneDir, IndexHouseKeeper.LANGUAGE);
+		final long lAdded = lIndexer.getGeneration(luceneDir);
+		assertTrue("changed after adding", lAdded > lGeneration);
+
+		lIndexer.deleteItemInIndex("1:77", AbstractSearching.UNIQUE_ID, luceneDir, IndexHouseKeeper.LANGUAGE);
+		assertTrue("changed after deleting", lIndexer.getGeneration(luceneDir) > lAdded);
+
+		// a reopened index doesn't repeat a generation
+		final long lDeleted = lIndexer.getGeneration(luceneDir);
+		lIndexer.release(luceneDir);
+		assertTrue("changed after reopening", lIndexer.getGeneration(luceneDir) > lDeleted);
+	}
+
+	@Test
+	public void testSearchUncommitted() throws Exception {
+		final File luceneDir = IndexHouseKeeper.getDirectory();
+		final IndexerHelper lDocIndexer = new IndexerHelper();
+		final IndexerDocument lDocument = new IndexerDocument();
+		lDocument.addField(new IndexerField(AbstractSearching.UNIQUE_ID, "1:77", IndexerField.Store.YES,
+				IndexerField.Type.ID, 1.0f));
+		lDocument.addField(new IndexerField(AbstractSearching.TITLE, "Title", IndexerField.Store.YES,
+				IndexerField.Type.FULL_TEXT, 1.0f));
+		lDocument.addField(new IndexerField(AbstractSearching.CONTENT_FULL, "searchable content",
+				IndexerField.Store.NO, IndexerField.Type.FULL_TEXT, 1.0f));
+		lDocIndexer.addDocument(lDocument);
+
+		final IIndexer lIndexer = new LuceneIndexer();
+		lIndexer.processIndexer(lDocIndexer, luceneDir, IndexHouseKeeper.LANGUAGE);
+		// the document is found before the changes are committed
+		List<RetrievedItem> lFound = lIndexer.search("searchable", luceneDir, IndexHouseKeeper.LANGUAGE, 10);
+		assertEquals(1, lFound.size());
+		assertEquals("Title", lFound.get(0).toString());
+
+		// after releasing, the committed document is still there
+		lIndexer.release(luceneDir);
+		lFound = lIndexer.search("searchable", luceneDir, IndexHouseKeeper.LANGUAGE, 10);
+		assertEquals(1, lFound.size());
+
+		lIndexer.deleteItemInIndex("1:77", AbstractSearching.UNIQUE_ID, luceneDir, IndexHouseKeeper.LANGUAGE);
+		assertEquals(0, lIndexer.search("searchable", luceneDir, IndexHouseKeeper.LANGUAGE, 10).size());
+	}
+
+	@Test
+	public void testSearchMultilingual() throws Exception {
+		final File luceneDir = IndexHouseKeeper.getDirectory();
+		final LuceneIndexer lIndexer = new LuceneIndexer();
+		lIndexer.setMultilingual(true);
+
+		lIndexer.processIndexer(getDocIndexer("1:1", "Hunde", "de"), luceneDir, "de");
+		// the content language changed, the german document is not indexed anew
+		lIndexer.processIndexer(getDocIndexer("1:2", "dogs", null), luceneDir, "en");
+		assertEquals(2, lIndexer.numberOfIndexed(luceneDir));
+
+		// the german document is analyzed with the german analyzer
+		List<RetrievedItem> lFound = lIndexer.search("Hund", luceneDir, "en", 10);
+		assertEquals(1, lFound.size());
+		assertEquals("Hunde", lFound.get(0).toString());
+
+		lFound = lIndexer.search("dogs", luceneDir, "de", 10);
+		assertEquals(1, lFound.size());
+		assertEquals("dogs", lFound.get(0).toString());
+
+		lFound = lIndexer.search("itemTitle:hund*", luceneDir, "en", 10);
+		assertEquals(1, lFound.size());
+	}
+
+	private IndexerHelper getDocIndexer(final String inUniqueID, final String inTitle, final String inLanguage) {
+		final IndexerHelper outIndexer = new IndexerHelper();
+		final IndexerDocument lDocument = new IndexerDocument();
+		lDocument.setLanguage(inLanguage);
+		lDocument.addField(new IndexerField(AbstractSearching.UNIQUE_ID, inUniqueID, IndexerField.Store.YES,
+				IndexerField.Type.ID, 1.0f));
+		lDocument.addField(new IndexerField(AbstractSearching.TITLE, inTitle, IndexerField.Store.YES,
+				IndexerField.Type.FULL_TEXT, 1.0f));
+		lDocument.addField(new IndexerField(AbstractSearching.CONTENT_FULL, inTitle, IndexerField.Store.NO,
+				IndexerField.Type.FULL_TEXT, 1.0f));
+		outIndexer.addDocument(lDocument);
+		return outIndexer;
+	}
+
 }
@@ -22,7 +22,14 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.ar.ArabicAnalyzer;
@@ -58,17 +65,21 @@ import org.apache.lucene.document.DateTools;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.CorruptIndexException;
-import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.MultiFields;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
@@ -87,79 +98,161 @@ import org.elbe.relations.data.search.RetrievedItem;
 import org.elbe.relations.data.utility.RException;
 import org.elbe.relations.data.utility.UniqueID;
 import org.elbe.relations.lucene.internal.DirectoryFactory;
+import org.elbe.relations.lucene.internal.IndexHandle;
+import org.elbe.relations.lucene.internal.IndexHandleRegistry;
 import org.elbe.relations.search.RetrievedItemWithIcon;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The Lucene implementation of the <code>IIndexer</code> interface.
+ * <p>
+ * The indexer keeps one <code>IndexWriter</code> per index directory open and
+ * serves searches from a near real time reader opened on this writer. Changes
+ * are committed periodically, when enough changes are pending or on an
+ * explicit call of <code>commit()</code> or <code>release()</code>.
+ * </p>
  *
  * @author Luthiger
  */
 public class LuceneIndexer implements IIndexer {
     private static final Logger LOG = LoggerFactory.getLogger(LuceneIndexer.class);
     public static final Version LUCENE_VERSION = Version.LUCENE_4_10_1;
+    private static final String LANGUAGE_DFT = "en"; //$NON-NLS-1$
+    private static final String KEY_EVENT_WATERMARK = "relations.eventWatermark"; //$NON-NLS-1$
+    private static final String PROPERTY_MULTILINGUAL = "multilingual"; //$NON-NLS-1$
+    private static final char LANGUAGE_SEPARATOR = '@';
 
     private final DirectoryFactory directoryFactory = new FileSystemDirectoryFactory();
 
     // enum for language analyzers (see lucene-analyzers-common-4.10.1.jar)
     private enum LanguageAnalyzer {
-        AR("ar", new ArabicAnalyzer()),
-        BG("bg", new BulgarianAnalyzer()),
-        BR("br", new BrazilianAnalyzer()),
-        CA("ca", new CatalanAnalyzer()),
-        CN("cn", new StandardAnalyzer()),
-        CZ("cz", new CzechAnalyzer()),
-        DA("da", new DanishAnalyzer()),
-        DE("de", new GermanAnalyzer()),
-        EL("el", new GreekAnalyzer()),
-        EN("en", new StandardAnalyzer()),
-        ES("es", new SpanishAnalyzer()),
-        EU("eu", new BasqueAnalyzer()),
-        FA("fa", new PersianAnalyzer()),
-        FI("fi", new FinnishAnalyzer()),
-        FR("fr", new FrenchAnalyzer()),
-        GL("gl", new GalicianAnalyzer()),
-        HI("hi", new HindiAnalyzer()),
-        HU("hu", new HungarianAnalyzer()),
-        HY("hy", new ArmenianAnalyzer()),
-        ID("id", new IndonesianAnalyzer()),
-        IT("it", new ItalianAnalyzer()),
-        LV("lv", new LatvianAnalyzer()),
-        NL("nl", new DutchAnalyzer()),
-        NO("no", new NorwegianAnalyzer()),
-        PT("pt", new PortugueseAnalyzer()),
-        RO("ro", new RomanianAnalyzer()),
-        RU("ru", new RussianAnalyzer()),
-        SV("sv", new SwedishAnalyzer()),
-        TH("th", new ThaiAnalyzer()),
-        TR("tr", new TurkishAnalyzer());
+        AR("ar", ArabicAnalyzer.class),
+        BG("bg", BulgarianAnalyzer.class),
+        BR("br", BrazilianAnalyzer.class),
+        CA("ca", CatalanAnalyzer.class),
+        CN("cn", StandardAnalyzer.class),
+        CZ("cz", CzechAnalyzer.class),
+        DA("da", DanishAnalyzer.class),
+        DE("de", GermanAnalyzer.class),
+        EL("el", GreekAnalyzer.class),
+        EN("en", StandardAnalyzer.class),
+        ES("es", SpanishAnalyzer.class),
+        EU("eu", BasqueAnalyzer.class),
+        FA("fa", PersianAnalyzer.class),
+        FI("fi", FinnishAnalyzer.class),
+        FR("fr", FrenchAnalyzer.class),
+        GL("gl", GalicianAnalyzer.class),
+        HI("hi", HindiAnalyzer.class),
+        HU("hu", HungarianAnalyzer.class),
+        HY("hy", ArmenianAnalyzer.class),
+        ID("id", IndonesianAnalyzer.class),
+        IT("it", ItalianAnalyzer.class),
+        LV("lv", LatvianAnalyzer.class),
+        NL("nl", DutchAnalyzer.class),
+        NO("no", NorwegianAnalyzer.class),
+        PT("pt", PortugueseAnalyzer.class),
+        RO("ro", RomanianAnalyzer.class),
+        RU("ru", RussianAnalyzer.class),
+        SV("sv", SwedishAnalyzer.class),
+        TH("th", ThaiAnalyzer.class),
+        TR("tr", TurkishAnalyzer.class);
 
         public final String isoLanguage;
-        public final Analyzer analyzer;
+        private final Class<? extends Analyzer> analyzerClass;
 
-        LanguageAnalyzer(final String inISOLanguage, final Analyzer inAnalyzer) {
+        LanguageAnalyzer(final String inISOLanguage, final Class<? extends Analyzer> inAnalyzerClass) {
             this.isoLanguage = inISOLanguage;
-            this.analyzer = inAnalyzer;
-            this.analyzer.setVersion(LUCENE_VERSION);
+            this.analyzerClass = inAnalyzerClass;
         }
+
+        Analyzer createAnalyzer() {
+            try {
+                final Analyzer outAnalyzer = this.analyzerClass.newInstance();
+                outAnalyzer.setVersion(LUCENE_VERSION);
+                return outAnalyzer;
+            } catch (InstantiationException | IllegalAccessException exc) {
+                throw new IllegalStateException(exc);
+            }
+        }
+    }
+
+    private static final Map<String, LanguageAnalyzer> LANGUAGES = new HashMap<>();
+    static {
+        for (final LanguageAnalyzer lAnalyzer : LanguageAnalyzer.values()) {
+            LANGUAGES.put(lAnalyzer.isoLanguage, lAnalyzer);
+        }
+    }
+    // the analyzers are created when needed, most catalogs use one language only
+    private static final ConcurrentMap<String, Analyzer> ANALYZERS = new ConcurrentHashMap<>();
+
+    private boolean multilingual = false;
+
+    /**
+     * OSGi DS: configures the indexer with the component's properties.
+     *
+     * @param inProperties
+     *            Map&lt;String, Object>
+     */
+    public void activate(final Map<String, Object> inProperties) {
+        setMultilingual(Boolean.parseBoolean(String.valueOf(inProperties.get(PROPERTY_MULTILINGUAL))));
+    }
+
+    /**
+     * Switches the multilingual mode.
+     * <p>
+     * In multilingual mode, the text fields of a document are indexed in
+     * fields specific to the language the document has been analyzed with
+     * (see {@link IndexerDocument#getLanguage()}), the stored values are kept
+     * in the original fields. Searches query the fields of all languages found
+     * in the index, each with the language's analyzer. Thus, the index can
+     * contain documents in different languages and the content language can be
+     * changed without indexing all items anew.
+     * </p>
+     * <p>
+     * The mode is off by default: each search has to collect the language
+     * fields of the index, thus, the users opt in with a preference.
+     * </p>
+     *
+     * @param inMultilingual
+     *            boolean
+     */
+    @Override
+    public void setMultilingual(final boolean inMultilingual) {
+        this.multilingual = inMultilingual;
     }
 
     @Override
     public void processIndexer(final IndexerHelper inIndexer, final File inIndexDir, final String inLanguage,
             final boolean inCreate) throws IOException {
-        try (IndexWriter lWriter = new IndexWriter(this.directoryFactory.getDirectory(inIndexDir),
-                createConfiguration(inLanguage, inCreate))) {
+        try {
+            final IndexHandle lHandle = getHandle(inIndexDir, inLanguage);
+            final IndexWriter lWriter = lHandle.getWriter();
+            if (inCreate) {
+                lWriter.deleteAll();
+            }
+            int lCount = 0;
             for (final IndexerDocument lDoc : inIndexer.getDocuments()) {
-                final Document lDocument = transformDoc(lDoc);
-                lWriter.addDocument(lDocument);
+                final String lLanguage = lDoc.getLanguage() == null ? inLanguage : lDoc.getLanguage();
+                lWriter.addDocument(transformDoc(lDoc, lLanguage), getAnalyzer(lLanguage));
+                lCount++;
             }
-            lWriter.commit();
+            lHandle.changed(lCount);
         } catch (final IOException exc) {
             LOG.error("Error with Lucene index encountered!", exc);
         }
     }
 
+    private IndexHandle getHandle(final File inIndexDir, final String inLanguage) throws IOException {
+        return IndexHandleRegistry.INSTANCE.getHandle(inIndexDir, this.directoryFactory,
+                createConfiguration(inLanguage, false), true);
+    }
+
+    private IndexHandle getExistingHandle(final File inIndexDir) throws IOException {
+        return IndexHandleRegistry.INSTANCE.getHandle(inIndexDir, this.directoryFactory,
+                createConfiguration(LANGUAGE_DFT, false), false);
+    }
+
     private IndexWriterConfig createConfiguration(final String inLanguage, final boolean inCreateNew) {
         final IndexWriterConfig out = new IndexWriterConfig(LUCENE_VERSION, getAnalyzer(inLanguage));
         out.setOpenMode(inCreateNew ? OpenMode.CREATE : OpenMode.CREATE_OR_APPEND);
@@ -172,25 +265,46 @@ public class LuceneIndexer implements IIndexer {
         processIndexer(inIndexer, inIndexDir, inLanguage, false);
     }
 
-    private Analyzer getAnalyzer(final String inLanguage) {
-        for (final LanguageAnalyzer lAnalyzer : LanguageAnalyzer.values()) {
-            if (inLanguage.equals(lAnalyzer.isoLanguage)) {
-                return lAnalyzer.analyzer;
+    /**
+     * Returns the analyzer for the specified language, the analyzer for the
+     * default language if there's no analyzer for the language. The analyzers
+     * are created on first use and cached.
+     */
+    private static Analyzer getAnalyzer(final String inLanguage) {
+        final LanguageAnalyzer lLanguage = LANGUAGES.get(inLanguage);
+        final String lKey = lLanguage == null ? LANGUAGE_DFT : inLanguage;
+        Analyzer outAnalyzer = ANALYZERS.get(lKey);
+        if (outAnalyzer == null) {
+            final Analyzer lCreated = (lLanguage == null ? LANGUAGES.get(LANGUAGE_DFT) : lLanguage).createAnalyzer();
+            outAnalyzer = ANALYZERS.putIfAbsent(lKey, lCreated);
+            if (outAnalyzer == null) {
+                outAnalyzer = lCreated;
             }
         }
-        return new StandardAnalyzer();
+        return outAnalyzer;
     }
 
-    private Document transformDoc(final IndexerDocument inDoc) {
+    private Document transformDoc(final IndexerDocument inDoc, final String inLanguage) {
         final Document outDocument = new Document();
         for (final IndexerField lField : inDoc.getFields()) {
-            outDocument.add(createField(lField));
+            if (this.multilingual && lField.getFieldType() != IndexerField.Type.ID) {
+                if (lField.getStoreValue() == IndexerField.Store.YES) {
+                    outDocument.add(new StoredField(lField.getFieldName(), lField.getValue()));
+                }
+                outDocument.add(createField(lField, getFieldName(lField.getFieldName(), inLanguage), Field.Store.NO));
+            } else {
+                outDocument.add(createField(lField, lField.getFieldName(),
+                        lField.getStoreValue() == IndexerField.Store.YES ? Field.Store.YES : Field.Store.NO));
+            }
         }
         return outDocument;
     }
 
-    private Field createField(final IndexerField field) {
-        final Field.Store store = field.getStoreValue() == IndexerField.Store.YES ? Field.Store.YES : Field.Store.NO;
+    private static String getFieldName(final String inFieldName, final String inLanguage) {
+        return inFieldName + LANGUAGE_SEPARATOR + inLanguage;
+    }
+
+    private Field createField(final IndexerField field, final String name, final Field.Store store) {
         final IFieldFactory factory = field.getFieldType() == IndexerField.Type.ID ? new StringFieldFactory()
                 : new TextFieldFactory();
 
@@ -199,7 +313,7 @@ public class LuceneIndexer implements IIndexer {
             value = DateTools.timeToString(((IndexerDateField) field).getTime(),
                     getResolution(((IndexerDateField) field).getResolution()));
         }
-        final Field out = factory.createField(field.getFieldName(), value, store);
+        final Field out = factory.createField(name, value, store);
         if (out.fieldType().indexed()) {
             out.setBoost(field.getBoost());
         }
@@ -226,11 +340,13 @@ public class LuceneIndexer implements IIndexer {
 
     @Override
     public int numberOfIndexed(final File inIndexDir) throws IOException {
-        int outNumber = 0;
-        try (IndexReader lReader = DirectoryReader.open(this.directoryFactory.getDirectory(inIndexDir))) {
-            outNumber = lReader.numDocs();
+        final IndexHandle lHandle = getExistingHandle(inIndexDir);
+        final IndexSearcher lSearcher = lHandle.acquire();
+        try {
+            return lSearcher.getIndexReader().numDocs();
+        } finally {
+            lHandle.release(lSearcher);
         }
-        return outNumber;
     }
 
     @Override
@@ -245,10 +361,10 @@ public class LuceneIndexer implements IIndexer {
     @Override
     public void deleteItemInIndex(final String inUniqueID, final String inFieldName, final File inIndexDir,
             final String inLanguage) throws IOException {
-        try (IndexWriter lWriter = new IndexWriter(this.directoryFactory.getDirectory(inIndexDir),
-                createConfiguration(inLanguage, false))) {
-            lWriter.deleteDocuments(new Term(inFieldName, inUniqueID));
-            lWriter.commit();
+        try {
+            final IndexHandle lHandle = getHandle(inIndexDir, inLanguage);
+            lHandle.getWriter().deleteDocuments(new Term(inFieldName, inUniqueID));
+            lHandle.changed(1);
         } catch (final IOException exc) {
             LOG.error("Error with Lucene index encountered!", exc);
         }
@@ -256,22 +372,73 @@ public class LuceneIndexer implements IIndexer {
 
     @Override
     public void initializeIndex(final File inIndexDir, final String inLanguage) throws IOException {
-        final Directory directory = this.directoryFactory.getDirectory(inIndexDir);
-        final IndexWriter lNew = new IndexWriter(directory, createConfiguration(inLanguage, true));
-        lNew.commit();
-        lNew.close();
+        final IndexHandle lHandle = getHandle(inIndexDir, inLanguage);
+        lHandle.getWriter().deleteAll();
+        lHandle.changed(0);
+        lHandle.commit(Collections.<String, String> emptyMap());
+    }
+
+    @Override
+    public void commit(final File inIndexDir) throws IOException {
+        IndexHandleRegistry.INSTANCE.commit(inIndexDir);
+    }
+
+    @Override
+    public void release(final File inIndexDir) throws IOException {
+        IndexHandleRegistry.INSTANCE.release(inIndexDir);
+    }
+
+    @Override
+    public Collection<String> snapshot(final File inIndexDir) throws IOException {
+        return getExistingHandle(inIndexDir).snapshot();
+    }
+
+    @Override
+    public void releaseSnapshot(final File inIndexDir) throws IOException {
+        getExistingHandle(inIndexDir).releaseSnapshot();
+    }
+
+    @Override
+    public long getEventWatermark(final File inIndexDir) throws IOException {
+        final String lWatermark = getExistingHandle(inIndexDir).getCommitData().get(KEY_EVENT_WATERMARK);
+        return lWatermark == null ? -1 : Long.parseLong(lWatermark);
+    }
+
+    @Override
+    public void setEventWatermark(final File inIndexDir, final long inEventID) throws IOException {
+        final IndexHandle lHandle = getExistingHandle(inIndexDir);
+        final Map<String, String> lCommitData = new HashMap<>(lHandle.getCommitData());
+        lCommitData.put(KEY_EVENT_WATERMARK, String.valueOf(inEventID));
+        lHandle.commit(lCommitData);
+    }
+
+    @Override
+    public long getGeneration(final File inIndexDir) throws IOException {
+        return getExistingHandle(inIndexDir).getGeneration();
+    }
+
+    /**
+     * OSGi DS: commits the pending changes and closes all open index writers
+     * when the component is deactivated, e.g. on application shutdown.
+     */
+    public void deactivate() {
+        IndexHandleRegistry.INSTANCE.releaseAll();
     }
 
     @Override
     public List<RetrievedItem> search(final String inQueryTerm, final File inIndexDir, final String inLanguage,
             final int inMaxHits) throws IOException, RException {
-        try (IndexReader lReader = DirectoryReader.open(this.directoryFactory.getDirectory(inIndexDir))) {
-            final IndexSearcher lSearcher = new IndexSearcher(lReader);
-            final TopDocs lDocs = lSearcher.search(parseQuery(inQueryTerm, inLanguage), inMaxHits);
+        final IndexHandle lHandle = getExistingHandle(inIndexDir);
+        final IndexSearcher lSearcher = lHandle.acquire();
+        try {
+            final TopDocs lDocs = lSearcher.search(parseQuery(inQueryTerm, inLanguage, lSearcher.getIndexReader()),
+                    inMaxHits);
             return createResults(lDocs, lSearcher);
 
         } catch (final ParseException exc) {
             throw new RException(exc.getMessage());
+        } finally {
+            lHandle.release(lSearcher);
         }
     }
 
@@ -288,9 +455,43 @@ public class LuceneIndexer implements IIndexer {
         return out;
     }
 
-    private Query parseQuery(final String inQueryTerm, final String inLanguage) throws ParseException {
-        final QueryParser outParser = new QueryParser(AbstractSearching.CONTENT_FULL, getAnalyzer(inLanguage));
-        return outParser.parse(inQueryTerm);
+    private Query parseQuery(final String inQueryTerm, final String inLanguage, final IndexReader inReader)
+            throws ParseException {
+        final Query lQuery = new QueryParser(AbstractSearching.CONTENT_FULL, getAnalyzer(inLanguage))
+                .parse(inQueryTerm);
+        if (!this.multilingual) {
+            return lQuery;
+        }
+        // the documents indexed in single language mode and the documents of each language
+        final BooleanQuery outQuery = new BooleanQuery();
+        outQuery.add(lQuery, Occur.SHOULD);
+        final Map<String, Set<String>> lFields = getLanguageFields(inReader);
+        for (final Map.Entry<String, Set<String>> lLanguage : lFields.entrySet()) {
+            outQuery.add(new LanguageQueryParser(lLanguage.getKey(), lLanguage.getValue()).parse(inQueryTerm),
+                    Occur.SHOULD);
+        }
+        return outQuery;
+    }
+
+    /**
+     * @return Map&lt;String, Set&lt;String>> the names of the language
+     *         specific fields in the index, mapped to the language
+     */
+    private Map<String, Set<String>> getLanguageFields(final IndexReader inReader) {
+        final Map<String, Set<String>> outFields = new HashMap<>();
+        for (final FieldInfo lField : MultiFields.getMergedFieldInfos(inReader)) {
+            final int lPosition = lField.name.lastIndexOf(LANGUAGE_SEPARATOR);
+            if (lPosition > 0) {
+                final String lLanguage = lField.name.substring(lPosition + 1);
+                Set<String> lNames = outFields.get(lLanguage);
+                if (lNames == null) {
+                    lNames = new HashSet<>();
+                    outFields.put(lLanguage, lNames);
+                }
+                lNames.add(lField.name.substring(0, lPosition));
+            }
+        }
+        return outFields;
     }
 
     // --- inner classes ---
@@ -305,6 +506,67 @@ public class LuceneIndexer implements IIndexer {
 
     // ---
 
+    /**
+     * Parser for the queries on the documents of one language: the query is
+     * analyzed with the language's analyzer and the fields are mapped to the
+     * language specific fields.
+     */
+    private static class LanguageQueryParser extends QueryParser {
+        private final String language;
+        private final Set<String> fields;
+
+        LanguageQueryParser(final String inLanguage, final Set<String> inFields) {
+            super(AbstractSearching.CONTENT_FULL, getAnalyzer(inLanguage));
+            this.language = inLanguage;
+            this.fields = inFields;
+        }
+
+        private String map(final String inField) {
+            return this.fields.contains(inField) ? getFieldName(inField, this.language) : inField;
+        }
+
+        @Override
+        protected Query getFieldQuery(final String inField, final String inQueryText, final boolean inQuoted)
+                throws ParseException {
+            return super.getFieldQuery(map(inField), inQueryText, inQuoted);
+        }
+
+        @Override
+        protected Query getFieldQuery(final String inField, final String inQueryText, final int inSlop)
+                throws ParseException {
+            return super.getFieldQuery(map(inField), inQueryText, inSlop);
+        }
+
+        @Override
+        protected Query getRangeQuery(final String inField, final String inPart1, final String inPart2,
+                final boolean inStartInclusive, final boolean inEndInclusive) throws ParseException {
+            return super.getRangeQuery(map(inField), inPart1, inPart2, inStartInclusive, inEndInclusive);
+        }
+
+        @Override
+        protected Query getPrefixQuery(final String inField, final String inTermStr) throws ParseException {
+            return super.getPrefixQuery(map(inField), inTermStr);
+        }
+
+        @Override
+        protected Query getWildcardQuery(final String inField, final String inTermStr) throws ParseException {
+            return super.getWildcardQuery(map(inField), inTermStr);
+        }
+
+        @Override
+        protected Query getRegexpQuery(final String inField, final String inTermStr) throws ParseException {
+            return super.getRegexpQuery(map(inField), inTermStr);
+        }
+
+        @Override
+        protected Query getFuzzyQuery(final String inField, final String inTermStr, final float inMinSimilarity)
+                throws ParseException {
+            return super.getFuzzyQuery(map(inField), inTermStr, inMinSimilarity);
+        }
+    }
+
+    // ---
+
     private static interface IFieldFactory {
         Field createField(String inName, String inValue, Field.Store inStored);
     }
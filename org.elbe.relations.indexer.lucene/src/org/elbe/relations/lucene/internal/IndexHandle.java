@@ -0,0 +1,218 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2016, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.lucene.internal;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.lucene.index.IndexCommit;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SnapshotDeletionPolicy;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+
+/**
+ * Holds the long living <code>IndexWriter</code> of an index directory
+ * together with the near real time <code>SearcherManager</code> opened on this
+ * writer.
+ * <p>
+ * Changes are not committed on each call. Instead, the handle commits as soon
+ * as the number of pending changes exceeds <code>COMMIT_THRESHOLD</code>.
+ * Time based commits are triggered by the {@link IndexHandleRegistry}.
+ * </p>
+ * <p>
+ * The writer's deletion policy allows to take snapshots, i.e. to keep the
+ * files of a commit while they are copied.
+ * </p>
+ *
+ * @author lbenno
+ */
+public class IndexHandle {
+    private static final int COMMIT_THRESHOLD = 1000;
+    // shared by all handles, i.e. a reopened index never repeats a generation
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final SnapshotDeletionPolicy snapshotPolicy;
+    private final Deque<IndexCommit> snapshots = new ArrayDeque<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile long generation = GENERATIONS.incrementAndGet();
+
+    /**
+     * IndexHandle constructor.
+     *
+     * @param inDirectory
+     *            {@link Directory} the index directory
+     * @param inConfig
+     *            {@link IndexWriterConfig} the configuration of the writer
+     * @throws IOException
+     */
+    IndexHandle(final Directory inDirectory, final IndexWriterConfig inConfig) throws IOException {
+        this.directory = inDirectory;
+        this.snapshotPolicy = new SnapshotDeletionPolicy(inConfig.getIndexDeletionPolicy());
+        inConfig.setIndexDeletionPolicy(this.snapshotPolicy);
+        this.writer = new IndexWriter(inDirectory, inConfig);
+        this.searcherManager = new SearcherManager(this.writer, true, null);
+    }
+
+    /**
+     * @return {@link IndexWriter} the writer of this index directory
+     */
+    public IndexWriter getWriter() {
+        return this.writer;
+    }
+
+    /**
+     * Notifies the handle about changes made using the writer. If the number
+     * of uncommitted changes exceeds the threshold, the changes are committed.
+     * Each call starts a new generation of the index.
+     *
+     * @param inNumberOfChanges
+     *            int
+     * @throws IOException
+     */
+    public void changed(final int inNumberOfChanges) throws IOException {
+        this.generation = GENERATIONS.incrementAndGet();
+        if (this.pending.addAndGet(inNumberOfChanges) >= COMMIT_THRESHOLD) {
+            commit();
+        }
+    }
+
+    /**
+     * Commits the pending changes, if there are any.
+     *
+     * @throws IOException
+     */
+    public synchronized void commit() throws IOException {
+        if (this.writer.hasUncommittedChanges()) {
+            this.writer.commit();
+        }
+        this.pending.set(0);
+    }
+
+    /**
+     * Sets the specified user data and commits the pending changes together
+     * with this data.
+     *
+     * @param inCommitData
+     *            Map&lt;String, String> the user data to store with the commit
+     * @throws IOException
+     */
+    public synchronized void commit(final Map<String, String> inCommitData) throws IOException {
+        this.writer.setCommitData(new HashMap<>(inCommitData));
+        this.writer.commit();
+        this.pending.set(0);
+    }
+
+    /**
+     * Commits the pending changes and protects the files of this commit from
+     * deletion until the snapshot is released.
+     *
+     * @return Collection&lt;String> the names of the files of the snapshot
+     * @throws IOException
+     * @see #releaseSnapshot()
+     */
+    public synchronized Collection<String> snapshot() throws IOException {
+        commit();
+        final IndexCommit lCommit = this.snapshotPolicy.snapshot();
+        this.snapshots.add(lCommit);
+        return lCommit.getFileNames();
+    }
+
+    /**
+     * Releases the oldest snapshot and deletes the files not referenced
+     * anymore.
+     *
+     * @throws IOException
+     */
+    public synchronized void releaseSnapshot() throws IOException {
+        final IndexCommit lCommit = this.snapshots.poll();
+        if (lCommit != null) {
+            this.snapshotPolicy.release(lCommit);
+            this.writer.deleteUnusedFiles();
+        }
+    }
+
+    /**
+     * @return long the generation of the index, changing with every
+     *         modification made through this handle
+     * @see #changed(int)
+     */
+    public long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * @return Map&lt;String, String> the user data stored with the last commit
+     */
+    public Map<String, String> getCommitData() {
+        return this.writer.getCommitData();
+    }
+
+    /**
+     * Returns a searcher reflecting the actual (i.e. possibly uncommitted)
+     * state of the index. The searcher has to be released after use.
+     *
+     * @return {@link IndexSearcher}
+     * @throws IOException
+     * @see #release(IndexSearcher)
+     */
+    public IndexSearcher acquire() throws IOException {
+        this.searcherManager.maybeRefresh();
+        return this.searcherManager.acquire();
+    }
+
+    /**
+     * Releases a searcher acquired with {@link #acquire()}.
+     *
+     * @param inSearcher
+     *            {@link IndexSearcher}
+     * @throws IOException
+     */
+    public void release(final IndexSearcher inSearcher) throws IOException {
+        this.searcherManager.release(inSearcher);
+    }
+
+    /**
+     * Commits the pending changes and closes the writer, the searcher manager
+     * and the directory.
+     *
+     * @throws IOException
+     */
+    synchronized void close() throws IOException {
+        try {
+            this.searcherManager.close();
+            commit();
+        } finally {
+            this.writer.close();
+            this.directory.close();
+        }
+    }
+
+}
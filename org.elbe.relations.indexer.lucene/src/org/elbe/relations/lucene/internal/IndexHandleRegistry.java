@@ -0,0 +1,189 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2016, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.lucene.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexNotFoundException;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the open index handles, one per index directory. The registry
+ * commits pending changes of all open handles periodically.
+ *
+ * @author lbenno
+ */
+public enum IndexHandleRegistry {
+    INSTANCE;
+
+    private static final Logger LOG = LoggerFactory.getLogger(IndexHandleRegistry.class);
+    private static final long COMMIT_INTERVAL = 5; // seconds
+
+    private final Map<File, IndexHandle> handles = new HashMap<>();
+    private ScheduledExecutorService committer;
+
+    /**
+     * Returns the handle for the specified index directory. If there's no open
+     * handle yet, a new one is created.
+     *
+     * @param inIndexDir
+     *            {@link File} the directory where the search index is stored
+     * @param inFactory
+     *            {@link DirectoryFactory}
+     * @param inConfig
+     *            {@link IndexWriterConfig} the configuration used in case a
+     *            new writer has to be opened
+     * @param inCreateIfMissing
+     *            boolean <code>false</code> if an
+     *            <code>IndexNotFoundException</code> has to be thrown in case
+     *            the directory does not contain an index yet
+     * @return {@link IndexHandle}
+     * @throws IOException
+     */
+    public synchronized IndexHandle getHandle(final File inIndexDir, final DirectoryFactory inFactory,
+            final IndexWriterConfig inConfig, final boolean inCreateIfMissing) throws IOException {
+        final File lKey = inIndexDir.getCanonicalFile();
+        IndexHandle outHandle = this.handles.get(lKey);
+        if (outHandle == null) {
+            final Directory lDirectory = inFactory.getDirectory(lKey);
+            if (!inCreateIfMissing && !DirectoryReader.indexExists(lDirectory)) {
+                lDirectory.close();
+                throw new IndexNotFoundException("No index found in " + lKey); //$NON-NLS-1$
+            }
+            outHandle = new IndexHandle(lDirectory, inConfig);
+            this.handles.put(lKey, outHandle);
+            startCommitter();
+        }
+        return outHandle;
+    }
+
+    /**
+     * Commits the pending changes of the specified index directory.
+     *
+     * @param inIndexDir
+     *            {@link File}
+     * @throws IOException
+     */
+    public void commit(final File inIndexDir) throws IOException {
+        final IndexHandle lHandle = getOpenHandle(inIndexDir.getCanonicalFile());
+        if (lHandle != null) {
+            lHandle.commit();
+        }
+    }
+
+    /**
+     * Commits the pending changes of the specified index directory and closes
+     * the writer. This method has to be called before the index directory is
+     * deleted or the application switches to a different catalog.
+     *
+     * @param inIndexDir
+     *            {@link File}
+     * @throws IOException
+     */
+    public void release(final File inIndexDir) throws IOException {
+        IndexHandle lHandle = null;
+        synchronized (this) {
+            lHandle = this.handles.remove(inIndexDir.getCanonicalFile());
+            if (this.handles.isEmpty()) {
+                stopCommitter();
+            }
+        }
+        if (lHandle != null) {
+            lHandle.close();
+        }
+    }
+
+    /**
+     * Commits and closes all open handles.
+     */
+    public void releaseAll() {
+        Collection<IndexHandle> lHandles = null;
+        synchronized (this) {
+            lHandles = new ArrayList<>(this.handles.values());
+            this.handles.clear();
+            stopCommitter();
+        }
+        for (final IndexHandle lHandle : lHandles) {
+            try {
+                lHandle.close();
+            } catch (final IOException exc) {
+                LOG.error("Unable to close the Lucene index!", exc); //$NON-NLS-1$
+            }
+        }
+    }
+
+    private synchronized IndexHandle getOpenHandle(final File inKey) {
+        return this.handles.get(inKey);
+    }
+
+    private void commitAll() {
+        Collection<IndexHandle> lHandles = null;
+        synchronized (this) {
+            lHandles = new ArrayList<>(this.handles.values());
+        }
+        for (final IndexHandle lHandle : lHandles) {
+            try {
+                lHandle.commit();
+            } catch (final IOException | IllegalStateException exc) {
+                LOG.error("Unable to commit changes to the Lucene index!", exc); //$NON-NLS-1$
+            }
+        }
+    }
+
+    private void startCommitter() {
+        if (this.committer != null) {
+            return;
+        }
+        this.committer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable inRunnable) {
+                final Thread outThread = new Thread(inRunnable, "Relations index committer"); //$NON-NLS-1$
+                outThread.setDaemon(true);
+                return outThread;
+            }
+        });
+        this.committer.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                commitAll();
+            }
+        }, COMMIT_INTERVAL, COMMIT_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    private void stopCommitter() {
+        if (this.committer != null) {
+            this.committer.shutdown();
+            this.committer = null;
+        }
+    }
+
+}
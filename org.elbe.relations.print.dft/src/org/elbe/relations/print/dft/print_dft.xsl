@@ -5,10 +5,13 @@
     <!-- global parameter -->
     <xsl:param name="RelatedWithLbl" />
     
-    <!-- entry point: write item and related -->
+    <!-- entry point: write item and related, either of a single item or of a batch of items -->
     <xsl:template match="/">
-        <xsl:apply-templates select="Item//propertySet" />        
-        <xsl:apply-templates select="Item/related" />
+        <xsl:for-each select="Item | Items/Item">
+            <xsl:apply-templates select=".//propertySet" />
+            <xsl:apply-templates select="related" />
+            <xsl:if test="position() != last()"><xsl:text>&#10;&#10;</xsl:text></xsl:if>
+        </xsl:for-each>
     </xsl:template>
     
     <!-- write item's title and text, found in the item's property set -->
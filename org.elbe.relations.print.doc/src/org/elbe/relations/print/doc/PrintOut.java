@@ -23,22 +23,11 @@ import java.io.IOException;
 import java.text.Format;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Source;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.TransformerFactoryConfigurationError;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.namespace.QName;
 
 import org.elbe.relations.utility.AbstractJarPrintOut;
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 /**
  * Print out in a MS Word document.
@@ -52,12 +41,13 @@ public class PrintOut extends AbstractJarPrintOut {
 	private static final String CONTENT_TYPES = "[Content_Types].xml";
 	private static final String _RELS = ".rels";
 	private final static String CONTENT = "word/document.xml"; //$NON-NLS-1$
-	private static final String FOOTER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><footer><w:sectPr><w:pgSz w:w=\"11906\" w:h=\"16838\"/><w:pgMar w:top=\"1417\" w:right=\"1417\" w:bottom=\"1134\" w:left=\"1417\" w:header=\"708\" w:footer=\"708\" w:gutter=\"0\"/><w:cols w:space=\"708\"/><w:docGrid w:linePitch=\"360\"/></w:sectPr></footer>";
+	private static final String NS_MAIN = "http://schemas.openxmlformats.org/wordprocessingml/2006/main"; //$NON-NLS-1$
+	private static final QName BODY = new QName(NS_MAIN, "body"); //$NON-NLS-1$
+	private static final String FOOTER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><footer xmlns:w=\"" + NS_MAIN + "\"><w:sectPr><w:pgSz w:w=\"11906\" w:h=\"16838\"/><w:pgMar w:top=\"1417\" w:right=\"1417\" w:bottom=\"1134\" w:left=\"1417\" w:header=\"708\" w:footer=\"708\" w:gutter=\"0\"/><w:cols w:space=\"708\"/><w:docGrid w:linePitch=\"360\"/></w:sectPr></footer>";
 	private static final Format SDF = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");;
 
 	private File outputFile;
 	private JarOutputStream outputJar;
-	private Document content = null;
 
 	@Override
 	protected String getXSLNameBody() {
@@ -87,7 +77,6 @@ public class PrintOut extends AbstractJarPrintOut {
 	@Override
 	protected void manageAfterReopen(File inPrintOut) throws IOException {
 		final OutputObj outObj = manageAfterReopen(inPrintOut, CONTENT, outputFile);
-		content = outObj.getDoc();
 		outputJar = outObj.getJar();
 	}
 
@@ -96,70 +85,19 @@ public class PrintOut extends AbstractJarPrintOut {
 		if (outputJar == null) {
 			return;
 		}
-		writeContent(outputJar, content);
+		appendSection(FOOTER); // add footer
+		writeContent(outputJar, CONTENT, BODY);
 		outputJar.close();
 	}
 
-	/**
-	 * Serialize content into JarEntry <code>word/document.xml</code>.
-	 *
-	 * @param inOutputJar
-	 *            {@link JarOutputStream} the docx zip stream
-	 * @param inContent
-	 *            {@link Document} the content of <code>word/document.xml</code>
-	 * @throws IOException
-	 */
-	private void writeContent(JarOutputStream inOutputJar, Document inContent) throws IOException {
-		if (inContent == null) {
-			return;
-		}
-
-		try {
-			insertSection(FOOTER, inContent); // add footer
-			final JarEntry entry = new JarEntry(CONTENT);
-			inOutputJar.putNextEntry(entry);
-
-			final StreamResult result = new StreamResult(inOutputJar);
-			final Source source = new DOMSource(inContent);
-			TransformerFactory.newInstance().newTransformer().transform(source, result);
-		} catch (TransformerException | TransformerFactoryConfigurationError exc) {
-			new IOException(exc.getMessage());
-		}
-	}
-
-	private void insertSection(String inSection, Document inContent) throws IOException {
-		if (inContent == null) {
-			return;
-		}
-
-		try {
-			final String sectionText = inSection.replaceAll("&amp;lt;", "&lt;"); // $NON-NLS-1$ //$NON-NLS-2$
-			final Node section = inContent.importNode(createDoc(sectionText).getDocumentElement(), true);
-			final NodeList children = section.getChildNodes();
-			final NodeList targetElements = inContent.getElementsByTagName("w:body"); //$NON-NLS-1$
-			if (targetElements.getLength() > 0) {
-				final Node targetNode = targetElements.item(0);
-				for (int i = 0; i < children.getLength(); i++) {
-					targetNode.appendChild(children.item(i).cloneNode(true));
-				}
-			}
-		} catch (SAXException | ParserConfigurationException exc) {
-			new IOException(exc.getMessage());
-		}
-	}
-
 	@Override
 	protected void insertSection(String inSection) throws IOException {
-		insertSection(inSection, content);
+		appendSection(inSection.replaceAll("&amp;lt;", "&lt;")); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
 	@Override
 	protected void insertDocBody(String inXML) throws IOException {
-		try {
-			content = createDoc(inXML);
-		} catch (SAXException | ParserConfigurationException exc) {
-			new IOException(exc.getMessage());
-		}
+		setContentBody(inXML);
 	}
 
 }
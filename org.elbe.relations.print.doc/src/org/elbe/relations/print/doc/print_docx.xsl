@@ -20,11 +20,13 @@
     <!-- global parameter -->
     <xsl:param name="RelatedWithLbl" />
 
-    <!-- entry point: write item and related -->
+    <!-- entry point: write item and related, either of a single item or of a batch of items -->
     <xsl:template match="/">
         <section>
-            <xsl:apply-templates select="Item//propertySet" />        
-            <xsl:apply-templates select="Item/related" />
+            <xsl:for-each select="Item | Items/Item">
+                <xsl:apply-templates select=".//propertySet" />
+                <xsl:apply-templates select="related" />
+            </xsl:for-each>
         </section>            
     </xsl:template>
     
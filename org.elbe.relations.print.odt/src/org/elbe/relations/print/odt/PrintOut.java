@@ -26,20 +26,10 @@ import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 import java.util.zip.ZipEntry;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Source;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.TransformerFactoryConfigurationError;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.namespace.QName;
 
 import org.elbe.relations.services.IPrintOut;
 import org.elbe.relations.utility.AbstractJarPrintOut;
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 /**
  * Print out in a OpenOffice.org text document.
@@ -56,10 +46,10 @@ public class PrintOut extends AbstractJarPrintOut implements IPrintOut {
 	private final static String META = "meta.xml"; //$NON-NLS-1$
 	private final static String CONTENT = "content.xml"; //$NON-NLS-1$
 	private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss";
+	private static final QName BODY = new QName("urn:oasis:names:tc:opendocument:xmlns:office:1.0", "text"); //$NON-NLS-1$ //$NON-NLS-2$
 
 	private File outputFile = null;
 	private JarOutputStream outputJar;
-	private Document content = null;
 	private boolean isNew = true;
 
 	@Override
@@ -74,33 +64,12 @@ public class PrintOut extends AbstractJarPrintOut implements IPrintOut {
 
 	@Override
 	protected void insertDocBody(final String inXML) throws IOException {
-		try {
-			content = createDoc(inXML);
-		} catch (SAXException | ParserConfigurationException exc) {
-			new IOException(exc.getMessage());
-		}
+		setContentBody(inXML);
 	}
 
 	@Override
 	protected void insertSection(final String inSection) throws IOException {
-		if (content == null) {
-			return;
-		}
-
-		try {
-			final String lSectionText = inSection.replaceAll("&amp;lt;", "&lt;"); //$NON-NLS-1$ //$NON-NLS-2$
-			final Node lSection = content.importNode(createDoc(lSectionText).getDocumentElement(), true);
-			final NodeList lChilds = lSection.getChildNodes();
-			final NodeList lTargetElements = content.getElementsByTagName("office:text"); //$NON-NLS-1$
-			if (lTargetElements.getLength() > 0) {
-				final Node lTargetNode = lTargetElements.item(0);
-				for (int i = 0; i < lChilds.getLength(); i++) {
-					lTargetNode.appendChild(lChilds.item(i).cloneNode(true));
-				}
-			}
-		} catch (SAXException | ParserConfigurationException exc) {
-			new IOException(exc.getMessage());
-		}
+		appendSection(inSection.replaceAll("&amp;lt;", "&lt;")); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
 	@Override
@@ -127,7 +96,7 @@ public class PrintOut extends AbstractJarPrintOut implements IPrintOut {
 			return;
 		}
 
-		writeContent(outputJar, content);
+		writeContent(outputJar, CONTENT, BODY);
 		if (isNew) {
 			final String dateTime = new SimpleDateFormat(DATE_FORMAT).format(new Date());
 			final String metaContent = formatPart(META, getDocTitle(), getMetaDescription(), getMetaSubject(), dateTime,
@@ -137,37 +106,10 @@ public class PrintOut extends AbstractJarPrintOut implements IPrintOut {
 		outputJar.close();
 	}
 
-	/**
-	 * Serialize content into JarEntry content.xml
-	 *
-	 * @param inOutputJar
-	 *            JarOutputStream
-	 * @param inContent
-	 *            Document
-	 * @throws IOException
-	 */
-	private void writeContent(final JarOutputStream inOutputJar, final Document inContent) throws IOException {
-		if (inContent == null) {
-			return;
-		}
-
-		final JarEntry lEntry = new JarEntry(CONTENT);
-		inOutputJar.putNextEntry(lEntry);
-
-		final StreamResult lResult = new StreamResult(inOutputJar);
-		final Source lSource = new DOMSource(inContent);
-		try {
-			TransformerFactory.newInstance().newTransformer().transform(lSource, lResult);
-		} catch (TransformerException | TransformerFactoryConfigurationError exc) {
-			new IOException(exc.getMessage());
-		}
-	}
-
 	@Override
 	protected void manageAfterReopen(final File inPrintOut) throws IOException {
 		isNew = false;
 		final OutputObj outObj = manageAfterReopen(inPrintOut, CONTENT, outputFile);
-		content = outObj.getDoc();
 		outputJar = outObj.getJar();
 	}
 
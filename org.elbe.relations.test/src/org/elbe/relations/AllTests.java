@@ -36,6 +36,7 @@ import org.junit.runners.Suite.SuiteClasses;
         org.elbe.relations.internal.style.AllTests.class,
         org.elbe.relations.internal.utility.AllTests.class,
         org.elbe.relations.parsing.AllTests.class,
+        org.elbe.relations.utility.ChunkedUploadTest.class,
         org.elbe.relations.utility.DialogSettingHandlerTest.class })
 public class AllTests {
 
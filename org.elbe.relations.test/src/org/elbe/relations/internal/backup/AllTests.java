@@ -28,7 +28,7 @@ import org.junit.runners.Suite.SuiteClasses;
  * @author lbenno
  */
 @RunWith(Suite.class)
-@SuiteClasses({ XMLExportTest.class,
+@SuiteClasses({ ChunkedBackupTest.class, XMLExportTest.class,
     XMLImportTest.class, ZipBackupTest.class })
 public class AllTests {
 
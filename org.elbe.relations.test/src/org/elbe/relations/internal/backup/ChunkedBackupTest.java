@@ -0,0 +1,155 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.internal.backup;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test
+ *
+ * @author lbenno
+ */
+public class ChunkedBackupTest {
+    private static final String CATALOG = "catalog";
+    // the files of the index snapshot
+    private static final List<String> INDEX_FILES = Arrays.asList("segments_2", "_0.cfs");
+
+    private File root;
+    private File database;
+    private File index;
+    private File backupDir;
+
+    @Before
+    public void setUp() throws Exception {
+        this.root = Files.createTempDirectory("chunkedBackupTest").toFile();
+        this.database = new File(this.root, "db");
+        this.index = new File(this.root, "index");
+        this.backupDir = new File(this.root, "backup");
+        this.backupDir.mkdir();
+
+        createFile(new File(this.database, "seg0/c10.dat"), 3 * ChunkedBackup.CHUNK_SIZE + 17, 1);
+        createFile(new File(this.database, "log/log1.dat"), 1000, 2);
+        createFile(new File(this.database, "service.properties"), 0, 3);
+        createFile(new File(this.index, "segments_2"), 200, 4);
+        createFile(new File(this.index, "_0.cfs"), ChunkedBackup.CHUNK_SIZE, 5);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        delete(this.root);
+    }
+
+    @Test
+    public void testIncremental() throws Exception {
+        final ChunkedBackup backup1 = createBackup("backup1.zip");
+        backup1.write(this.database, this.index, INDEX_FILES, new NullProgressMonitor());
+        assertEquals("all chunks written", 7, backup1.getWrittenChunks());
+
+        // unchanged content is not written again
+        final ChunkedBackup backup2 = createBackup("backup2.zip");
+        backup2.write(this.database, this.index, INDEX_FILES, new NullProgressMonitor());
+        assertEquals(0, backup2.getWrittenChunks());
+
+        // one page changed
+        try (RandomAccessFile file = new RandomAccessFile(new File(this.database, "seg0/c10.dat"), "rw")) {
+            file.seek(ChunkedBackup.CHUNK_SIZE + 5);
+            file.write(new byte[] { 1, 2, 3 });
+        }
+        final ChunkedBackup backup3 = createBackup("backup3.zip");
+        backup3.write(this.database, this.index, INDEX_FILES, new NullProgressMonitor());
+        assertEquals(1, backup3.getWrittenChunks());
+    }
+
+    @Test
+    public void testRestore() throws Exception {
+        final String archive = new File(this.backupDir, "backup.zip").getAbsolutePath();
+        createBackup("backup.zip").write(this.database, this.index, INDEX_FILES, new NullProgressMonitor());
+        assertTrue(ChunkedRestore.isChunked(archive));
+
+        final File dataStore = new File(this.root, "restoredDB");
+        final File indexStore = new File(this.root, "restoredIndex");
+        // stale files of the catalog are removed by the restore
+        createFile(new File(indexStore, CATALOG + "/segments_3"), 10, 6);
+        createFile(new File(indexStore, CATALOG + "/.reindex"), 0, 7);
+
+        final ChunkedRestore restore = new ChunkedRestore(dataStore, indexStore, archive);
+        assertTrue(restore.checkArchive(CATALOG));
+        assertFalse(restore.checkArchive("other"));
+        restore.restore();
+
+        assertSameContent(new File(this.database, "seg0/c10.dat"), new File(dataStore, CATALOG + "/seg0/c10.dat"));
+        assertSameContent(new File(this.database, "log/log1.dat"), new File(dataStore, CATALOG + "/log/log1.dat"));
+        assertTrue(new File(dataStore, CATALOG + "/service.properties").exists());
+        assertSameContent(new File(this.index, "segments_2"), new File(indexStore, CATALOG + "/segments_2"));
+        assertSameContent(new File(this.index, "_0.cfs"), new File(indexStore, CATALOG + "/_0.cfs"));
+        assertFalse(new File(indexStore, CATALOG + "/segments_3").exists());
+        assertTrue(new File(indexStore, CATALOG + "/.reindex").exists());
+    }
+
+    @Test
+    public void testLegacyArchive() throws Exception {
+        final File archive = new File(this.backupDir, "legacy.zip");
+        @SuppressWarnings("deprecation")
+        final ZipBackup backup = new ZipBackup(this.database.getAbsolutePath(), archive.getAbsolutePath());
+        backup.backup();
+        assertFalse(ChunkedRestore.isChunked(archive.getAbsolutePath()));
+    }
+
+    private ChunkedBackup createBackup(final String name) {
+        return new ChunkedBackup(CATALOG, null, this.index, new File(this.backupDir, name).getAbsolutePath());
+    }
+
+    private void createFile(final File file, final int size, final long seed) throws IOException {
+        file.getParentFile().mkdirs();
+        final byte[] content = new byte[size];
+        new Random(seed).nextBytes(content);
+        Files.write(file.toPath(), content);
+    }
+
+    private void assertSameContent(final File expected, final File actual) throws IOException {
+        assertArrayEquals(actual.getName(), Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+    }
+
+    private void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+}
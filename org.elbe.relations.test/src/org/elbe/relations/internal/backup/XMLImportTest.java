@@ -20,11 +20,23 @@
 package org.elbe.relations.internal.backup;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.bom.RelationHome;
 import org.elbe.relations.data.test.DataHouseKeeper;
+import org.elbe.relations.data.utility.UniqueID;
+import org.elbe.relations.internal.backup.XMLImport.RelationReplaceHelper;
+import org.hip.kernel.bom.DomainObject;
+import org.hip.kernel.bom.QueryResult;
 import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -40,6 +52,16 @@ import org.mockito.runners.MockitoJUnitRunner;
 @RunWith(MockitoJUnitRunner.class)
 public class XMLImportTest {
 	private static final String IMPORT_NAME = "/resources/export.xml";
+	private static final String TIMESTAMP = "2013-12-25 23:19:42.0";
+
+	// batches of 3 rows: two full batches and a partial last one
+	private static final int BATCH_SIZE = 3;
+	private static final int NUMBER_OF_TERMS = 7;
+	private static final int NUMBER_OF_PERSONS = 4;
+	// ids in the export, different from the ids generated by the database
+	private static final long TERM_ID = 100001;
+	private static final long PERSON_ID = 200001;
+	private static final long RELATION_ID = 300001;
 
 	private static DataHouseKeeper data;
 
@@ -77,6 +99,157 @@ public class XMLImportTest {
 		assertEquals(1, data.getRelationHome().getCount());
 	}
 
+	@Test
+	public void testImportSingle() throws Exception {
+		importer = new XMLImport(getPath());
+		importer.setBatchSize(1);
+		final int lImported = importer.processFile(monitor, false);
+		assertEquals(4, lImported);
+
+		assertEquals(1, data.getTextHome().getCount());
+		assertEquals(1, data.getTermHome().getCount());
+		assertEquals(1, data.getPersonHome().getCount());
+		assertEquals(1, data.getRelationHome().getCount());
+	}
+
+	@Test
+	public void testImportBatches() throws Exception {
+		importer = createImporter(createExport());
+		importer.setBatchSize(BATCH_SIZE);
+		final int lImported = importer.processFile(monitor, true);
+		assertEquals(2 * NUMBER_OF_TERMS + NUMBER_OF_PERSONS, lImported);
+
+		assertEquals(NUMBER_OF_TERMS, data.getTermHome().getCount());
+		assertEquals(NUMBER_OF_PERSONS, data.getPersonHome().getCount());
+		assertEquals(NUMBER_OF_TERMS, data.getRelationHome().getCount());
+
+		// the items are inserted with the ids of the export
+		assertTrue(importer.getRelationsToRebind().isEmpty());
+		assertRelations(new HashMap<UniqueID, UniqueID>());
+	}
+
+	@Test
+	public void testImportBatchesRebind() throws Exception {
+		importer = createImporter(createExport());
+		importer.setBatchSize(BATCH_SIZE);
+		final int lImported = importer.processFile(monitor, false);
+		assertEquals(2 * NUMBER_OF_TERMS + NUMBER_OF_PERSONS, lImported);
+
+		assertEquals(NUMBER_OF_TERMS, data.getTermHome().getCount());
+		assertEquals(NUMBER_OF_PERSONS, data.getPersonHome().getCount());
+		assertEquals(NUMBER_OF_TERMS, data.getRelationHome().getCount());
+
+		// the database generates the ids, every item has to be rebound
+		final Map<UniqueID, UniqueID> lRebind = new HashMap<UniqueID, UniqueID>();
+		for (final RelationReplaceHelper lHelper : importer
+		        .getRelationsToRebind()) {
+			lRebind.put(lHelper.oldID, lHelper.newID);
+		}
+		assertEquals(NUMBER_OF_TERMS + NUMBER_OF_PERSONS, lRebind.size());
+		assertRelations(lRebind);
+	}
+
+	/**
+	 * Asserts that every relation connects the term and the person it
+	 * connects in the export, i.e. term <code>i</code> with person
+	 * <code>i % NUMBER_OF_PERSONS</code>.
+	 */
+	private void assertRelations(final Map<UniqueID, UniqueID> inRebind)
+	        throws Exception {
+		final QueryResult lResult = data.getRelationHome().select();
+		int lCount = 0;
+		while (lResult.hasMoreElements()) {
+			final DomainObject lRelation = (DomainObject) lResult.next();
+			final long lTermID = ((Number) lRelation
+			        .get(RelationHome.KEY_ITEM1)).longValue();
+			final long lPersonID = ((Number) lRelation
+			        .get(RelationHome.KEY_ITEM2)).longValue();
+			final int i = (int) (lTermID - TERM_ID);
+			assertEquals(i % NUMBER_OF_PERSONS, lPersonID - PERSON_ID);
+
+			assertEquals("Term " + i, data.getTermHome()
+			        .getTerm(rebind(IItem.TERM, lTermID, inRebind))
+			        .getTitle());
+			assertEquals(String.format("Person %s, Jane", i
+			        % NUMBER_OF_PERSONS), data.getPersonHome()
+			        .getPerson(rebind(IItem.PERSON, lPersonID, inRebind))
+			        .getTitle());
+			lCount++;
+		}
+		assertEquals(NUMBER_OF_TERMS, lCount);
+	}
+
+	private long rebind(final int inType, final long inID,
+	        final Map<UniqueID, UniqueID> inRebind) {
+		final UniqueID outID = inRebind.get(new UniqueID(inType, inID));
+		return outID == null ? inID : outID.itemID;
+	}
+
+	private String createExport() {
+		final StringBuilder outXML = new StringBuilder(
+		        "<?xml version=\"1.0\" encoding=\"UTF-8\"?><RelationsExport>");
+		outXML.append("<TermEntries>");
+		for (int i = 0; i < NUMBER_OF_TERMS; i++) {
+			outXML.append("<TermEntry>")
+			        .append(createField("ID", "TERMID", "Long", TERM_ID + i))
+			        .append(createField("Title", "STITLE", "String", "Term "
+			                + i))
+			        .append(createField("Text", "STEXT", "String", ""))
+			        .append(createField("Created", "DTCREATION", "Timestamp",
+			                TIMESTAMP))
+			        .append(createField("Modified", "DTMUTATION", "Timestamp",
+			                TIMESTAMP)).append("</TermEntry>");
+		}
+		outXML.append("</TermEntries><PersonEntries>");
+		for (int i = 0; i < NUMBER_OF_PERSONS; i++) {
+			outXML.append("<PersonEntry>")
+			        .append(createField("ID", "PERSONID", "Long", PERSON_ID
+			                + i))
+			        .append(createField("Name", "SNAME", "String", "Person "
+			                + i))
+			        .append(createField("Firstname", "SFIRSTNAME", "String",
+			                "Jane"))
+			        .append(createField("Text", "STEXT", "String", ""))
+			        .append(createField("From", "SFROM", "String", ""))
+			        .append(createField("To", "STO", "String", ""))
+			        .append(createField("Created", "DTCREATION", "Timestamp",
+			                TIMESTAMP))
+			        .append(createField("Modified", "DTMUTATION", "Timestamp",
+			                TIMESTAMP)).append("</PersonEntry>");
+		}
+		outXML.append("</PersonEntries><RelationEntries>");
+		for (int i = 0; i < NUMBER_OF_TERMS; i++) {
+			outXML.append("<RelationEntry>")
+			        .append(createField("ID", "RELATIONID", "Long",
+			                RELATION_ID + i))
+			        .append(createField("Type1", "NTYPE1", "Integer",
+			                IItem.TERM))
+			        .append(createField("Item1", "NITEM1", "Long", TERM_ID + i))
+			        .append(createField("Type2", "NTYPE2", "Integer",
+			                IItem.PERSON))
+			        .append(createField("Item2", "NITEM2", "Long", PERSON_ID
+			                + i % NUMBER_OF_PERSONS))
+			        .append("</RelationEntry>");
+		}
+		outXML.append("</RelationEntries></RelationsExport>");
+		return new String(outXML);
+	}
+
+	private String createField(final String inName, final String inColumn,
+	        final String inType, final Object inValue) {
+		return String.format("<%s field=\"%s\" type=\"%s\">%s</%s>", inName,
+		        inColumn, inType, inValue, inName);
+	}
+
+	private XMLImport createImporter(final String inXML) {
+		return new XMLImport(IMPORT_NAME) {
+			@Override
+			protected Reader getReader() throws IOException {
+				return new StringReader(inXML);
+			}
+		};
+	}
+
 	private String getPath() {
 		final URL lUrl = XMLImportTest.class.getResource(IMPORT_NAME);
 		return lUrl.getPath();
@@ -29,7 +29,8 @@ import org.junit.runners.Suite.SuiteClasses;
  * @author lbenno
  */
 @RunWith(Suite.class)
-@SuiteClasses({ DCHtmlExtractorTest.class, GenericHtmlExtractorTest.class })
+@SuiteClasses({ DCHtmlExtractorTest.class, GenericHtmlExtractorTest.class,
+        MetadataExtractorTest.class })
 public class AllTests {
 
 }
@@ -0,0 +1,181 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+
+package org.elbe.relations.internal.parsing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.e4.core.contexts.ContextInjectionFactory;
+import org.eclipse.e4.core.contexts.EclipseContextFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.services.log.Logger;
+import org.elbe.relations.data.bom.AbstractTerm;
+import org.elbe.relations.data.bom.LightWeightTerm;
+import org.elbe.relations.data.bom.TermHome;
+import org.elbe.relations.data.test.DataHouseKeeper;
+import org.elbe.relations.data.utility.UniqueID;
+import org.elbe.relations.db.IDataService;
+import org.elbe.relations.parsing.ExtractedData;
+import org.elbe.relations.services.IExtractorAdapter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * JUnit Plug-in test
+ *
+ * @author lbenno
+ */
+@SuppressWarnings("restriction")
+@RunWith(MockitoJUnitRunner.class)
+public class MetadataExtractorTest {
+	private static DataHouseKeeper data;
+
+	@Mock
+	private Logger log;
+	@Mock
+	private IDataService dataService;
+
+	private IEclipseContext context;
+	private File root;
+
+	@BeforeClass
+	public static void before() {
+		data = DataHouseKeeper.INSTANCE;
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		context = EclipseContextFactory.create("test context");
+		context.set(Logger.class, log);
+		context.set(IDataService.class, dataService);
+		root = Files.createTempDirectory("metadataExtractorTest").toFile();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		data.deleteAllInAll();
+		delete(root);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testExtractBatch() throws Exception {
+		final File lFile = createFile(root, "first.txt", "first");
+		final File lFolder = new File(root, "folder");
+		createFile(lFolder, "second.txt", "second");
+		createFile(new File(lFolder, "sub"), "third.txt", "third");
+		createFile(lFolder, "other.dat", "other");
+
+		final MetadataExtractor lExtractor = ContextInjectionFactory
+		        .make(MetadataExtractor.class, context);
+		lExtractor.registerAdapter(new TextAdapter());
+
+		final List<UniqueID> lIDs = lExtractor.extract(
+		        Arrays.asList(lFile, lFolder), new NullProgressMonitor());
+		assertEquals(4, lIDs.size());
+
+		final TermHome lHome = data.getTermHome();
+		assertEquals(4, lHome.getCount());
+		final Set<String> lTitles = new HashSet<String>();
+		for (final UniqueID lID : lIDs) {
+			final AbstractTerm lTerm = lHome.getTerm(lID.itemID);
+			lTitles.add(lTerm.getTitle());
+		}
+		// the adapter's title for the text files, the file name for the others
+		assertEquals(new HashSet<String>(Arrays.asList("Title first",
+		        "Title second", "Title third", "other.dat")), lTitles);
+
+		// the data service is updated once for the whole batch
+		final ArgumentCaptor<Collection> lLoaded = ArgumentCaptor
+		        .forClass(Collection.class);
+		verify(dataService).loadNewTerms(lLoaded.capture());
+		assertEquals(4, lLoaded.getValue().size());
+		assertTrue(lLoaded.getValue().iterator()
+		        .next() instanceof LightWeightTerm);
+	}
+
+	@Test
+	public void testExtractEmpty() throws Exception {
+		final MetadataExtractor lExtractor = ContextInjectionFactory
+		        .make(MetadataExtractor.class, context);
+		lExtractor.registerAdapter(new TextAdapter());
+
+		assertTrue(lExtractor.extract(Arrays.asList(new File(root, "empty")),
+		        new NullProgressMonitor()).isEmpty());
+		assertEquals(0, data.getTermHome().getCount());
+	}
+
+	// ---
+
+	private File createFile(final File inParent, final String inName,
+	        final String inContent) throws IOException {
+		inParent.mkdirs();
+		final File outFile = new File(inParent, inName);
+		try (Writer lWriter = new FileWriter(outFile)) {
+			lWriter.write(inContent);
+		}
+		return outFile;
+	}
+
+	private void delete(final File inFile) {
+		final File[] lChildren = inFile.listFiles();
+		if (lChildren != null) {
+			for (final File lChild : lChildren) {
+				delete(lChild);
+			}
+		}
+		inFile.delete();
+	}
+
+	private static class TextAdapter implements IExtractorAdapter {
+		@Override
+		public boolean acceptsFile(final File inFile) {
+			return inFile.getName().endsWith(".txt");
+		}
+
+		@Override
+		public ExtractedData process(final File inFile) throws IOException {
+			final ExtractedData outData = new ExtractedData();
+			outData.setTitle("Title "
+			        + new String(Files.readAllBytes(inFile.toPath())));
+			return outData;
+		}
+	}
+
+}
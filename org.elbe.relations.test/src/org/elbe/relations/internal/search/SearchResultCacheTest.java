@@ -0,0 +1,86 @@
+package org.elbe.relations.internal.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.search.RetrievedItem;
+import org.elbe.relations.data.utility.UniqueID;
+import org.junit.Test;
+
+/**
+ * JUnit test
+ *
+ * @author lbenno
+ */
+public class SearchResultCacheTest {
+	private static final String LANGUAGE = "en";
+
+	@Test
+	public void testGet() throws Exception {
+		final SearchResultCache lCache = new SearchResultCache(10);
+		assertNull("not cached yet", lCache.get("term", LANGUAGE, 100, 1));
+
+		lCache.put("term", LANGUAGE, 100, 1, createResult(3));
+		assertEquals("cached", 3, lCache.get("term", LANGUAGE, 100, 1).size());
+		assertEquals("normalized query", 3,
+		        lCache.get("  term ", LANGUAGE, 100, 1).size());
+		assertNull("different language", lCache.get("term", "de", 100, 1));
+		assertNull("different number of hits",
+		        lCache.get("term", LANGUAGE, 50, 1));
+		assertNull("case sensitive", lCache.get("Term", LANGUAGE, 100, 1));
+
+		// the cache returns copies
+		lCache.get("term", LANGUAGE, 100, 1).clear();
+		assertEquals("unchanged", 3,
+		        lCache.get("term", LANGUAGE, 100, 1).size());
+	}
+
+	@Test
+	public void testGeneration() throws Exception {
+		final SearchResultCache lCache = new SearchResultCache(10);
+		lCache.put("term", LANGUAGE, 100, 1, createResult(3));
+		assertNotNull("same generation", lCache.get("term", LANGUAGE, 100, 1));
+		assertNull("index changed", lCache.get("term", LANGUAGE, 100, 2));
+		assertEquals("discarded", 0, lCache.size());
+
+		// a result retrieved before the index changed is not cached
+		lCache.put("term", LANGUAGE, 100, 1, createResult(3));
+		assertEquals("outdated", 0, lCache.size());
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		final SearchResultCache lCache = new SearchResultCache(2);
+		lCache.put("one", LANGUAGE, 100, 1, createResult(1));
+		lCache.put("two", LANGUAGE, 100, 1, createResult(2));
+		lCache.get("one", LANGUAGE, 100, 1);
+		lCache.put("three", LANGUAGE, 100, 1, createResult(3));
+
+		assertEquals("capacity", 2, lCache.size());
+		assertNotNull("recently used", lCache.get("one", LANGUAGE, 100, 1));
+		assertNull("evicted", lCache.get("two", LANGUAGE, 100, 1));
+
+		lCache.clear();
+		assertEquals("cleared", 0, lCache.size());
+	}
+
+	@Test
+	public void testNormalize() throws Exception {
+		assertEquals("a AND b", SearchResultCache.normalize(" a \t AND\nb "));
+	}
+
+	private List<RetrievedItem> createResult(final int inSize) {
+		final List<RetrievedItem> outResult = new ArrayList<RetrievedItem>();
+		for (int i = 0; i < inSize; i++) {
+			outResult.add(new RetrievedItem(new UniqueID(IItem.TERM, i),
+			        "Item " + i));
+		}
+		return outResult;
+	}
+
+}
@@ -1,9 +1,19 @@
 package org.elbe.relations.internal.style;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.Bullet;
 import org.eclipse.swt.custom.ST;
@@ -12,6 +22,10 @@ import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
+import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.utility.UniqueID;
+import org.elbe.relations.internal.style.ParsedText.InlineStyle;
+import org.elbe.relations.internal.style.ParsedText.LineBullet;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -230,6 +244,66 @@ public class StyleParserTest {
 		                && inExpected.style.metrics.width == inActual.style.metrics.width);
 	}
 
+	@Test
+	public void testParse() throws Exception {
+		final ParsedText lParsed = StyleParser.getInstance().parse(
+		        "A <b>bold</b> list:\n<ul indent=\"0\"><li>one</li><li>two</li></ul>");
+		assertEquals("text", "A bold list:" + NL + "one" + NL + "two" + NL,
+		        lParsed.getText());
+		assertEquals("styles", 1, lParsed.getStyles().size());
+		final InlineStyle lStyle = lParsed.getStyles().get(0);
+		assertEquals("style start", 2, lStyle.start);
+		assertEquals("style length", 4, lStyle.length);
+		assertEquals("style", SWT.BOLD, lStyle.fontStyle);
+		assertEquals("bullets", 1, lParsed.getBullets().size());
+		final LineBullet lBullet = lParsed.getBullets().get(0);
+		assertEquals("bullet start", 1, lBullet.startLine);
+		assertEquals("bullet lines", 2, lBullet.lineCount);
+		assertEquals("bullet type", ST.BULLET_DOT, lBullet.bulletStyle);
+	}
+
+	@Test
+	public void testParseCached() throws Exception {
+		final StyleParser lParser = StyleParser.getInstance();
+		final UniqueID lID = new UniqueID(IItem.TERM, 77);
+		final Timestamp lModified = new Timestamp(1000);
+		final String lText = "This is a <b>Test</b>.";
+
+		final ParsedText lParsed = lParser.parse(lID, lModified, lText);
+		assertSame("cached", lParsed, lParser.parse(lID, lModified, lText));
+		assertNotSame("modified", lParsed,
+		        lParser.parse(lID, new Timestamp(2000), lText));
+		final ParsedText lOther = lParser.parse(lID, lModified, "other text");
+		assertEquals("other text", "other text", lOther.getText());
+		lParser.clearCache();
+		assertNotSame("cleared", lOther,
+		        lParser.parse(lID, lModified, "other text"));
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		final String lTagged = "<i>Parsed</i> in <b>parallel</b>.";
+		final ExecutorService lExecutor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<String>> lResults = new ArrayList<Future<String>>();
+			for (int i = 0; i < 200; i++) {
+				lResults.add(lExecutor.submit(new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						return StyleParser.getInstance()
+						        .getUntaggedText(lTagged);
+					}
+				}));
+			}
+			for (final Future<String> lResult : lResults) {
+				assertEquals("untagged", "Parsed in parallel.", lResult.get());
+			}
+		}
+		finally {
+			lExecutor.shutdown();
+		}
+	}
+
 	@Test
 	public void testGetUntaggedText() throws Exception {
 		final String lExpected = "This is a Test, is'n it.";
@@ -30,7 +30,7 @@ import org.junit.runners.Suite.SuiteClasses;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ InspectorViewVisitorTest.class, RelatedItemHelperTest.class,
-        ZipImportTest.class })
+        StartupPipelineTest.class, ZipImportTest.class })
 public class AllTests {
 
 }
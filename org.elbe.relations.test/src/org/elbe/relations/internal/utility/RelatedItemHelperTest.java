@@ -1,12 +1,18 @@
 package org.elbe.relations.internal.utility;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
 
 import org.elbe.relations.data.bom.AbstractItem;
 import org.elbe.relations.data.bom.AbstractPerson;
 import org.elbe.relations.data.bom.AbstractTerm;
+import org.elbe.relations.data.bom.AbstractText;
+import org.elbe.relations.data.bom.IItem;
 import org.elbe.relations.data.bom.RelationHome;
 import org.elbe.relations.data.test.DataHouseKeeper;
+import org.elbe.relations.internal.models.ItemWithIcon;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -95,13 +101,33 @@ public class RelatedItemHelperTest {
 
 		final Object[] lSorted = RelatedItemHelper.getRelatedItems(lTerm3)
 		        .toArray();
-		final String[] lExpected = new String[] { "Item 'Pan, Peter'",
-		        "Item 'Term 1'", "Item 'Term 2'", "Item 'Term 5'",
-		        "Item 'Term 6'", "Item 'The Book'" };
+		final String[] lExpected = new String[] { "Pan, Peter", "Term 1",
+		        "Term 2", "Term 5", "Term 6", "The Book" };
 		for (int i = 0; i < lSorted.length; i++) {
 			assertEquals("sorted item " + i, lExpected[i],
 			        lSorted[i].toString());
 		}
 	}
 
+	@Test
+	public void testLoadItem() throws Exception {
+		final AbstractTerm lTerm = data.createTerm("Term 1");
+		final AbstractText lText = data.createText("The Book", "Smith");
+		final long lRelationID = data.getRelationHome()
+		        .newRelation(lTerm, lText).getID();
+
+		final List<ItemWithIcon> lRelated = RelatedItemHelper
+		        .loadRelated(lTerm);
+		assertEquals(1, lRelated.size());
+		final ItemWithIcon lItemIcon = lRelated.get(0);
+		assertEquals(lRelationID, lItemIcon.getRelationID());
+		assertEquals("The Book", lItemIcon.getLightWeight().title);
+
+		// the full item is loaded on demand
+		final IItem lItem = lItemIcon.getItem();
+		assertTrue(lItem instanceof AbstractText);
+		assertEquals(lText.getID(), lItem.getID());
+		assertEquals("Smith", ((AbstractText) lItem).getAuthor());
+	}
+
 }
@@ -0,0 +1,102 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.internal.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * @author lbenno
+ */
+public class StartupPipelineTest {
+
+	@Test
+	public void testDependencies() throws Exception {
+		final List<String> lDone = new CopyOnWriteArrayList<>();
+		final StartupPipeline lPipeline = new StartupPipeline(null);
+		lPipeline.stage("a", () -> lDone.add("a"))
+		.stage("b", () -> {
+			assertTrue("a before b", lDone.contains("a"));
+			lDone.add("b");
+		}, "a").stage("c", () -> {
+			assertTrue("a and b before c",
+					lDone.contains("a") && lDone.contains("b"));
+			lDone.add("c");
+		}, "a", "b");
+		assertTrue("not started yet", lDone.isEmpty());
+
+		lPipeline.start().get(5, TimeUnit.SECONDS);
+		assertEquals("all done", 3, lDone.size());
+		assertEquals("c last", "c", lDone.get(2));
+		assertEquals("timings", 3, lPipeline.getElapsed().size());
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		// both stages wait for each other, thus, have to run concurrently
+		final CountDownLatch lLatch = new CountDownLatch(2);
+		final StartupPipeline lPipeline = new StartupPipeline(null);
+		final StartupPipeline.Step lStep = () -> {
+			lLatch.countDown();
+			if (!lLatch.await(5, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("not concurrent");
+			}
+		};
+		lPipeline.stage("a", lStep).stage("b", lStep);
+		lPipeline.start().get(10, TimeUnit.SECONDS);
+		assertEquals("concurrent", 0, lLatch.getCount());
+	}
+
+	@Test
+	public void testFailure() throws Exception {
+		final List<String> lDone = new CopyOnWriteArrayList<>();
+		final StartupPipeline lPipeline = new StartupPipeline(null);
+		lPipeline.stage("a", () -> {
+			throw new IllegalStateException("failed");
+		}).stage("b", () -> lDone.add("b"), "a");
+		lPipeline.start().get(5, TimeUnit.SECONDS);
+		assertEquals("dependent stage done", 1, lDone.size());
+		assertEquals("failed stage timed", 2, lPipeline.getElapsed().size());
+
+		lPipeline.runNow("c", () -> lDone.add("c"));
+		assertEquals("run on the calling thread", 2, lDone.size());
+	}
+
+	@Test
+	public void testUnknownDependency() {
+		final StartupPipeline lPipeline = new StartupPipeline(null);
+		try {
+			lPipeline.stage("a", () -> {
+			}, "b");
+			fail("shouldn't get here");
+		}
+		catch (final IllegalArgumentException exc) {
+			// expected
+		}
+	}
+
+}
@@ -449,7 +449,7 @@ public class CentralAssociationsModelTest {
 	        final Collection<ItemWithIcon> inRelated) {
 		final List<IItemModel> out = new ArrayList<IItemModel>();
 		for (final ItemWithIcon lRelated : inRelated) {
-			out.add(new ItemAdapter(lRelated.getItem(), image, context));
+			out.add(new ItemAdapter(lRelated, context));
 		}
 		return out;
 	}
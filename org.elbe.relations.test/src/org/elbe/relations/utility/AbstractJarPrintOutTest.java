@@ -0,0 +1,165 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2016, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.utility;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * @author lbenno
+ *
+ */
+public class AbstractJarPrintOutTest {
+	private static final String ENTRY = "content.xml";
+	private static final String CONTENT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><doc><body><p>head</p></body><foot><p>foot</p></foot></doc>";
+
+	@Test
+	public void testSpliceSections() throws Exception {
+		final TestPrintOut printOut = new TestPrintOut();
+		printOut.setContentBody(CONTENT);
+		printOut.appendSection("<section><p>1</p><p>2</p></section>");
+		printOut.appendSection("<section><p>3</p>text<p>4</p></section>");
+
+		final Document document = parse(printOut.write());
+		assertEquals(Arrays.asList("head", "1", "2", "3", "4"),
+		        getParagraphs(document, "body"));
+		// text directly in the section element is kept
+		assertEquals("head123text4", getText(document, "body"));
+		assertEquals(Arrays.asList("foot"), getParagraphs(document, "foot"));
+	}
+
+	@Test
+	public void testSpliceEmptySection() throws Exception {
+		TestPrintOut printOut = new TestPrintOut();
+		printOut.setContentBody(CONTENT);
+		printOut.appendSection("<section><p>1</p></section>");
+		printOut.appendSection("<section/>");
+		printOut.appendSection("<section></section>");
+		printOut.appendSection("<section><p>2</p></section>");
+
+		Document document = parse(printOut.write());
+		assertEquals(Arrays.asList("head", "1", "2"),
+		        getParagraphs(document, "body"));
+
+		// no section at all
+		printOut = new TestPrintOut();
+		printOut.setContentBody(CONTENT);
+		printOut.appendSection("<section/>");
+
+		document = parse(printOut.write());
+		assertEquals(Arrays.asList("head"), getParagraphs(document, "body"));
+		assertEquals(Arrays.asList("foot"), getParagraphs(document, "foot"));
+	}
+
+	private Document parse(final byte[] inJar) throws Exception {
+		try (JarInputStream jar = new JarInputStream(
+		        new ByteArrayInputStream(inJar))) {
+			assertEquals(ENTRY, jar.getNextJarEntry().getName());
+			final ByteArrayOutputStream content = new ByteArrayOutputStream();
+			final byte[] buffer = new byte[1024];
+			int read;
+			while ((read = jar.read(buffer)) != -1) {
+				content.write(buffer, 0, read);
+			}
+			// fails if the spliced content isn't well-formed
+			return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+			        .parse(new ByteArrayInputStream(content.toByteArray()));
+		}
+	}
+
+	private List<String> getParagraphs(final Document inDocument,
+	        final String inParent) {
+		final Element parent = (Element) inDocument
+		        .getElementsByTagName(inParent).item(0);
+		final NodeList paragraphs = parent.getElementsByTagName("p");
+		final List<String> out = new ArrayList<String>();
+		for (int i = 0; i < paragraphs.getLength(); i++) {
+			out.add(paragraphs.item(i).getTextContent());
+		}
+		return out;
+	}
+
+	private String getText(final Document inDocument, final String inParent) {
+		return inDocument.getElementsByTagName(inParent).item(0)
+		        .getTextContent();
+	}
+
+	//
+	private class TestPrintOut extends AbstractJarPrintOut {
+
+		byte[] write() throws IOException {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (JarOutputStream jar = new JarOutputStream(out)) {
+				writeContent(jar, ENTRY, new QName("body"));
+			}
+			return out.toByteArray();
+		}
+
+		@Override
+		protected String getXSLNameBody() {
+			return null;
+		}
+
+		@Override
+		protected String getXSLNameContent() {
+			return null;
+		}
+
+		@Override
+		protected void manageAfterOpenNew(File inPrintOut) throws IOException {
+		}
+
+		@Override
+		protected void manageAfterReopen(File inPrintOut) throws IOException {
+		}
+
+		@Override
+		protected void manageBeforeClose(File inPrintOut) throws IOException {
+		}
+
+		@Override
+		protected void insertSection(String inSection) throws IOException {
+			appendSection(inSection);
+		}
+
+		@Override
+		protected void insertDocBody(String inXML) throws IOException {
+			setContentBody(inXML);
+		}
+
+	}
+
+}
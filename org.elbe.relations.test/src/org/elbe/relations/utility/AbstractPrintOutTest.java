@@ -19,9 +19,17 @@
 package org.elbe.relations.utility;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.transform.TransformerException;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -75,8 +83,53 @@ public class AbstractPrintOutTest {
 		assertEquals(expected4, printOut.prepareItemXML(XML4));
 	}
 
+	@Test
+	public void testPrintItems() throws Exception {
+		final TestPrintOut printOut = new TestPrintOut();
+		printOut.printItems(Arrays.asList(item("Term 1"), item("Text 2"),
+		        item("Person 3")));
+		// the batch is transformed in one pass and keeps the items' order
+		assertEquals(1, printOut.sections.size());
+		assertEquals("[Term 1][Text 2][Person 3]", printOut.sections.get(0));
+
+		printOut.printItems(Arrays.asList(item("Term 4")));
+		assertEquals(2, printOut.sections.size());
+		assertEquals("[Term 4]", printOut.sections.get(1));
+	}
+
+	@Test
+	public void testPrintItemsEmpty() throws Exception {
+		final TestPrintOut printOut = new TestPrintOut();
+		printOut.printItems(Collections.<String> emptyList());
+		assertTrue(printOut.sections.isEmpty());
+	}
+
+	@Test
+	public void testPrintItemsFailure() throws Exception {
+		final TestPrintOut printOut = new TestPrintOut();
+		try {
+			printOut.printItems(Arrays.asList(item("Term 1"),
+			        "<Item><title>Text 2</Item>", item("Person 3")));
+			fail("malformed item");
+		}
+		catch (final TransformerException exc) {
+			// expected
+		}
+		// no part of the failed batch is inserted
+		assertTrue(printOut.sections.isEmpty());
+
+		printOut.printItems(Arrays.asList(item("Term 1")));
+		assertEquals(1, printOut.sections.size());
+		assertEquals("[Term 1]", printOut.sections.get(0));
+	}
+
+	private String item(final String inTitle) {
+		return String.format("<Item><title>%s</title></Item>", inTitle);
+	}
+
 	//
 	private class TestPrintOut extends AbstractPrintOut {
+		private final List<String> sections = new ArrayList<String>();
 
 		@Override
 		protected String prepareItemXML(String itemXML) {
@@ -97,8 +150,7 @@ public class AbstractPrintOutTest {
 
 		@Override
 		protected String getXSLNameContent() {
-			// TODO Auto-generated method stub
-			return null;
+			return "/resources/print_items.xsl";
 		}
 
 		@Override
@@ -121,8 +173,7 @@ public class AbstractPrintOutTest {
 
 		@Override
 		protected void insertSection(String inSection) throws IOException {
-			// TODO Auto-generated method stub
-
+			sections.add(inSection);
 		}
 
 		@Override
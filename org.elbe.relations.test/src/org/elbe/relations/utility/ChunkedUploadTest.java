@@ -0,0 +1,258 @@
+package org.elbe.relations.utility;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * JUnit test, uploads to a mock HTTP endpoint on localhost.
+ *
+ * @author lbenno
+ */
+@SuppressWarnings("restriction")
+public class ChunkedUploadTest {
+	private static final int CHUNK_SIZE = 1024;
+
+	private HttpServer server;
+	private MockEndpoint endpoint;
+
+	@Before
+	public void setUp() throws Exception {
+		this.endpoint = new MockEndpoint();
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/upload", this.endpoint::handle);
+		this.server.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.server.stop(0);
+	}
+
+	@Test
+	public void testUpload() throws Exception {
+		final byte[] lContent = createContent(5 * CHUNK_SIZE + 17);
+		final ChunkedUpload lUpload = new ChunkedUpload(CHUNK_SIZE, 3, 0);
+		assertEquals(lContent.length, lUpload
+		        .upload(new ByteArrayInputStream(lContent), new HttpSession()));
+
+		assertArrayEquals(lContent, this.endpoint.getReceived());
+		assertTrue("finished", this.endpoint.finished);
+		assertEquals("number of requests", 7, this.endpoint.requests);
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		final ChunkedUpload lUpload = new ChunkedUpload(CHUNK_SIZE, 3, 0);
+		assertEquals(0, lUpload.upload(new ByteArrayInputStream(new byte[0]),
+		        new HttpSession()));
+		assertEquals(0, this.endpoint.getReceived().length);
+		assertTrue("finished", this.endpoint.finished);
+	}
+
+	@Test
+	public void testResume() throws Exception {
+		final byte[] lContent = createContent(4 * CHUNK_SIZE);
+		// the endpoint receives half of the third chunk and fails
+		this.endpoint.failAt = 2 * CHUNK_SIZE;
+		this.endpoint.failures = 1;
+
+		final HttpSession lSession = new HttpSession();
+		final ChunkedUpload lUpload = new ChunkedUpload(CHUNK_SIZE, 3, 0);
+		assertEquals(lContent.length,
+		        lUpload.upload(new ByteArrayInputStream(lContent), lSession));
+
+		assertArrayEquals(lContent, this.endpoint.getReceived());
+		assertEquals("resumed after partial chunk",
+		        2 * CHUNK_SIZE + CHUNK_SIZE / 2, lSession.resumedAt);
+	}
+
+	@Test
+	public void testStreaming() throws Exception {
+		// the content is read in small portions, as from a pipe
+		final byte[] lContent = createContent(3 * CHUNK_SIZE + 5);
+		final InputStream lSlow = new ByteArrayInputStream(lContent) {
+			@Override
+			public synchronized int read(final byte[] inBuffer,
+			        final int inOffset, final int inLength) {
+				return super.read(inBuffer, inOffset, Math.min(inLength, 100));
+			}
+		};
+		final ChunkedUpload lUpload = new ChunkedUpload(CHUNK_SIZE, 3, 0);
+		lUpload.upload(lSlow, new HttpSession());
+
+		assertArrayEquals(lContent, this.endpoint.getReceived());
+		assertEquals("one request per chunk", 5, this.endpoint.requests);
+	}
+
+	@Test
+	public void testRetriesExhausted() throws Exception {
+		final byte[] lContent = createContent(2 * CHUNK_SIZE);
+		this.endpoint.failAt = CHUNK_SIZE;
+		this.endpoint.failures = 10;
+
+		final ChunkedUpload lUpload = new ChunkedUpload(CHUNK_SIZE, 2, 0);
+		try {
+			lUpload.upload(new ByteArrayInputStream(lContent),
+			        new HttpSession());
+			fail("IOException expected");
+		}
+		catch (final IOException exc) {
+			// expected
+		}
+		assertTrue("not finished", !this.endpoint.finished);
+	}
+
+	private byte[] createContent(final int inLength) {
+		final byte[] outContent = new byte[inLength];
+		new Random(inLength).nextBytes(outContent);
+		return outContent;
+	}
+
+	// ---
+
+	/**
+	 * Client side of the mock protocol: <code>PUT</code> with
+	 * <code>Content-Range: bytes start-end/*</code> to append,
+	 * <code>bytes * /*</code> to query the received bytes and
+	 * <code>bytes * /length</code> to finish.
+	 */
+	private class HttpSession implements ChunkedUpload.IUploadSession {
+		long resumedAt = -1;
+
+		@Override
+		public void append(final byte[] inData, final int inStart,
+		        final int inLength, final long inOffset) throws IOException {
+			final HttpURLConnection lConnection = open(String.format(
+			        "bytes %s-%s/*", inOffset, inOffset + inLength - 1));
+			lConnection.setFixedLengthStreamingMode(inLength);
+			try (OutputStream lOut = lConnection.getOutputStream()) {
+				lOut.write(inData, inStart, inLength);
+			}
+			check(lConnection);
+		}
+
+		@Override
+		public long resume(final long inOffset) throws IOException {
+			final HttpURLConnection lConnection = open("bytes */*");
+			lConnection.setFixedLengthStreamingMode(0);
+			check(lConnection);
+			this.resumedAt = Long.parseLong(lConnection.getHeaderField("Range"));
+			return this.resumedAt;
+		}
+
+		@Override
+		public void finish(final long inLength) throws IOException {
+			final HttpURLConnection lConnection = open(
+			        String.format("bytes */%s", inLength));
+			lConnection.setFixedLengthStreamingMode(0);
+			check(lConnection);
+		}
+
+		private HttpURLConnection open(final String inRange)
+		        throws IOException {
+			final URL lURL = new URL(String.format("http://localhost:%s/upload",
+			        ChunkedUploadTest.this.server.getAddress().getPort()));
+			final HttpURLConnection outConnection = (HttpURLConnection) lURL
+			        .openConnection();
+			outConnection.setRequestMethod("PUT");
+			outConnection.setDoOutput(true);
+			outConnection.setRequestProperty("Content-Range", inRange);
+			return outConnection;
+		}
+
+		private void check(final HttpURLConnection inConnection)
+		        throws IOException {
+			final int lStatus = inConnection.getResponseCode();
+			if (lStatus >= 400) {
+				throw new IOException("HTTP status " + lStatus);
+			}
+		}
+	}
+
+	/**
+	 * The mock endpoint: stores the bytes received and fails on demand after
+	 * having received half of the chunk.
+	 */
+	private static class MockEndpoint {
+		private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+		long failAt = -1;
+		int failures = 0;
+		int requests = 0;
+		boolean finished = false;
+
+		synchronized void handle(final HttpExchange inExchange)
+		        throws IOException {
+			this.requests++;
+			final String lRange = inExchange.getRequestHeaders()
+			        .getFirst("Content-Range").substring("bytes ".length());
+			final byte[] lBody = readBody(inExchange.getRequestBody());
+			if (lRange.startsWith("*/")) {
+				final String lLength = lRange.substring(2);
+				if ("*".equals(lLength)) {
+					inExchange.getResponseHeaders().set("Range",
+					        String.valueOf(this.received.size()));
+				} else {
+					this.finished = Long.parseLong(lLength) == this.received
+					        .size();
+				}
+				respond(inExchange, this.finished || "*".equals(lLength) ? 200 : 400);
+				return;
+			}
+			final long lStart = Long
+			        .parseLong(lRange.substring(0, lRange.indexOf('-')));
+			if (lStart != this.received.size()) {
+				respond(inExchange, 416);
+				return;
+			}
+			if (lStart == this.failAt && this.failures > 0) {
+				this.failures--;
+				this.received.write(lBody, 0, lBody.length / 2);
+				this.failAt = this.received.size();
+				respond(inExchange, 503);
+				return;
+			}
+			this.received.write(lBody, 0, lBody.length);
+			respond(inExchange, 200);
+		}
+
+		synchronized byte[] getReceived() {
+			return this.received.toByteArray();
+		}
+
+		private byte[] readBody(final InputStream inBody) throws IOException {
+			final ByteArrayOutputStream outBody = new ByteArrayOutputStream();
+			final byte[] lBuffer = new byte[512];
+			int lRead;
+			while ((lRead = inBody.read(lBuffer)) > 0) {
+				outBody.write(lBuffer, 0, lRead);
+			}
+			return outBody.toByteArray();
+		}
+
+		private void respond(final HttpExchange inExchange, final int inStatus)
+		        throws IOException {
+			inExchange.sendResponseHeaders(inStatus, -1);
+			inExchange.close();
+		}
+	}
+
+}
@@ -46,6 +46,8 @@ public final class RelationsConstants {
 	public final static String KEY_MAX_SEARCH_HITS = "maxSearchHits"; //$NON-NLS-1$
 	public final static String KEY_MAX_LAST_CHANGED = "maxLastChangedEntries"; //$NON-NLS-1$
 	public final static String KEY_DB_EMBEDDED_CATALOG = "dbEmbeddedCatalog"; //$NON-NLS-1$
+	public final static String KEY_EVENT_STORE_DURABILITY = "eventStoreDurability"; //$NON-NLS-1$
+	public final static String KEY_INDEX_MULTILINGUAL = "indexMultilingual"; //$NON-NLS-1$
 
 	public final static String KEY_PRINT_OUT_PLUGIN_ID = "activePrintOutPluginID"; //$NON-NLS-1$
 
@@ -69,6 +71,8 @@ public final class RelationsConstants {
 	public static final String DFT_PRINT_OUT_PLUGIN_ID = "org.elbe.relations.print.dft"; //$NON-NLS-1$
 	public static final int DFT_MAX_SEARCH_HITS = 100;
 	public static final int DFT_MAX_LAST_CHANGED = 20;
+	public static final String DFT_EVENT_STORE_DURABILITY = "sync"; //$NON-NLS-1$
+	public static final boolean DFT_INDEX_MULTILINGUAL = false;
 
 	// ids of model elements
 	public static final String TRIM_STACK_TOOLS = "tool.views(null)"; //$NON-NLS-1$
@@ -67,6 +67,16 @@ public interface IDataService {
 	 */
 	void loadNew(final LightWeightTerm inTerm);
 
+	/**
+	 * Adds the newly created term items to the relevant collections and sends
+	 * one reload notification for the whole batch. May be called from a
+	 * worker thread, the collections are updated on the UI thread.
+	 *
+	 * @param inTerms
+	 *            Collection&lt;LightWeightTerm>
+	 */
+	void loadNewTerms(final Collection<LightWeightTerm> inTerms);
+
 	/**
 	 * Adds the newly created text item to the relevant collections and sends a
 	 * notification.
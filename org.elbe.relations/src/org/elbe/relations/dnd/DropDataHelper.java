@@ -19,7 +19,10 @@
 package org.elbe.relations.dnd;
 
 import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
@@ -27,6 +30,7 @@ import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.swt.dnd.DropTargetEvent;
 import org.eclipse.swt.dnd.FileTransfer;
 import org.eclipse.swt.dnd.Transfer;
@@ -36,6 +40,7 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.elbe.relations.RelationsMessages;
 import org.elbe.relations.data.bom.AbstractText;
+import org.elbe.relations.data.bom.BOMException;
 import org.elbe.relations.data.bom.IItem;
 import org.elbe.relations.data.utility.UniqueID;
 import org.elbe.relations.handlers.ShowTextItemForm;
@@ -166,12 +171,39 @@ public final class DropDataHelper {
 		public void handleDrop(final Object eventData,
 				final IAssociationsModel model, final IEclipseContext context) {
 			try {
-				final String fileName = ((String[]) eventData)[0];
+				final String[] fileNames = (String[]) eventData;
 				final IMetadataExtractor metadataExtractor = context
 						.get(IMetadataExtractor.class);
-				final UniqueID id = metadataExtractor
-						.extract(new File(fileName));
-				addAsRelations(new UniqueID[] { id }, model, context);
+				final File first = new File(fileNames[0]);
+				if (fileNames.length == 1 && first.isFile()) {
+					final UniqueID id = metadataExtractor.extract(first);
+					addAsRelations(new UniqueID[] { id }, model, context);
+					return;
+				}
+
+				// a batch of files or folders: we process them in parallel
+				// with feedback
+				final List<File> files = new ArrayList<>(fileNames.length);
+				for (final String fileName : fileNames) {
+					files.add(new File(fileName));
+				}
+				final List<UniqueID> ids = new ArrayList<>();
+				new ProgressMonitorDialog(Display.getCurrent().getActiveShell())
+				.run(true, true, monitor -> {
+					monitor.setTaskName(RelationsMessages
+							.getString("DropDataHelper.msg.extracting")); //$NON-NLS-1$
+					try {
+						ids.addAll(metadataExtractor.extract(files, monitor));
+					}
+					catch (VException | BOMException exc) {
+						throw new InvocationTargetException(exc);
+					}
+					finally {
+						monitor.done();
+					}
+				});
+				addAsRelations(ids.toArray(new UniqueID[ids.size()]), model,
+						context);
 			}
 			catch (final Exception exc) {
 				final Logger log = context.get(Logger.class);
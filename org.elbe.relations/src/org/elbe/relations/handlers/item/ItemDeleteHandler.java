@@ -65,11 +65,9 @@ public class ItemDeleteHandler extends AbstractSelectionHandler {
 			if (isVerified(
 					RelationsMessages
 							.getString("AbstractDeleteAction.delete.title"), lItem.getTitle())) { //$NON-NLS-1$
-				// Delegate the deletion to the selected item.
+				// Delegate the deletion to the selected item, the item's home
+				// deletes the item's relations in the same transaction.
 				lItem.getItemDeleteAction(log).run();
-				// Delete the item's relations.
-				org.elbe.relations.data.bom.BOMHelper.getRelationHome()
-						.deleteRelations(lItem);
 				// Notify browsers - we need this to check whether we have to
 				// refresh the center model.
 				browserManager.checkAfterDeletion(lItem);
@@ -27,6 +27,7 @@ import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.xml.transform.TransformerException;
 
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
@@ -50,6 +51,8 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.elbe.relations.RelationsConstants;
 import org.elbe.relations.RelationsMessages;
+import org.elbe.relations.data.bom.BOMException;
+import org.elbe.relations.data.search.RelationsIndexer;
 import org.elbe.relations.data.utility.EventStoreChecker;
 import org.elbe.relations.db.IDataService;
 import org.elbe.relations.handlers.DbEmbeddedCreateHandler;
@@ -59,12 +62,16 @@ import org.elbe.relations.internal.data.DBSettings;
 import org.elbe.relations.internal.data.DataService;
 import org.elbe.relations.internal.e4.keys.model.DuplicateFixer;
 import org.elbe.relations.internal.preferences.LanguageService;
+import org.elbe.relations.internal.search.RelationsIndexerWithLanguage;
 import org.elbe.relations.internal.services.IDBController;
 import org.elbe.relations.internal.utility.ActionHelper;
 import org.elbe.relations.internal.utility.EmbeddedCatalogHelper;
+import org.elbe.relations.internal.utility.EventStorePruner;
+import org.elbe.relations.internal.utility.StartupPipeline;
 import org.elbe.relations.services.IBrowserManager;
 import org.hip.kernel.dbaccess.DBAccessConfiguration;
 import org.hip.kernel.dbaccess.DataSourceRegistry;
+import org.hip.kernel.exc.VException;
 import org.osgi.service.prefs.BackingStoreException;
 
 /**
@@ -81,6 +88,11 @@ import org.osgi.service.prefs.BackingStoreException;
  */
 @SuppressWarnings("restriction")
 public class RelationsLifeCycle {
+	private static final String STAGE_CLEANUP = "cleanup"; //$NON-NLS-1$
+	private static final String STAGE_DATABASE = "database"; //$NON-NLS-1$
+	private static final String STAGE_SCHEMA = "schema"; //$NON-NLS-1$
+	private static final String STAGE_CATALOG = "catalog"; //$NON-NLS-1$
+	private static final String STAGE_INDEX = "index"; //$NON-NLS-1$
 
 	private RelationsBrowserManager browserManager;
 
@@ -112,8 +124,10 @@ public class RelationsLifeCycle {
 		final DataSourceRegistry dbAccess = DataSourceRegistry.INSTANCE;
 		context.set(RelationsConstants.DB_ACCESS_HANDLER, dbAccess);
 
-		// do some cleanup of former sessions
-		EmbeddedCatalogHelper.cleanUp();
+		// do some cleanup of former sessions (the catalogs marked deleted are
+		// never the active one)
+		final StartupPipeline pipeline = new StartupPipeline(this.log);
+		pipeline.stage(STAGE_CLEANUP, EmbeddedCatalogHelper::cleanUp);
 
 		// set language service to the context
 		context.set(LanguageService.class,
@@ -132,6 +146,22 @@ public class RelationsLifeCycle {
 		// register a special event handler
 		eventBroker.subscribe(ShowTextItemForm.TOPIC, new ShowTextItemForm());
 
+		// the database configuration may open dialogs, therefore, it's done
+		// on the UI thread
+		pipeline.runNow(STAGE_DATABASE,
+				() -> configureDB(context, dbAccess));
+
+		// the remaining stages are done in the background, the views are
+		// filled when the data is loaded
+		pipeline.stage(STAGE_SCHEMA, this::checkSchema)
+		.stage(STAGE_CATALOG, () -> dataService
+				.load(RelationsConstants.TOPIC_DB_CHANGED_RELOAD))
+		.stage(STAGE_INDEX, () -> verifyIndex(context), STAGE_SCHEMA);
+		pipeline.start();
+	}
+
+	private void configureDB(final IEclipseContext context,
+			final DataSourceRegistry dbAccess) {
 		boolean isDBConfigured = false;
 		if (this.dbSettings != null && this.dbSettings.getDBConnectionConfig() != null
 				&& this.dbSettings.getDBConnectionConfig().isEmbedded()
@@ -160,7 +190,12 @@ public class RelationsLifeCycle {
 			dbAccess.setActiveConfiguration(
 					ActionHelper.createDBConfiguration(this.dbSettings));
 		}
-		// schema upgrade: checked creation of EventStore table
+	}
+
+	/**
+	 * Schema upgrade: checked creation of EventStore table.
+	 */
+	private void checkSchema() {
 		try {
 			new EventStoreChecker().createEventStoreChecked(
 					this.dbSettings.getDBConnectionConfig().getCreator());
@@ -168,11 +203,41 @@ public class RelationsLifeCycle {
 		catch (IOException | TransformerException | SQLException exc) {
 			this.log.error(exc, "Unable to create the EventStore table!"); //$NON-NLS-1$
 		}
+	}
 
-		dataService.loadData(RelationsConstants.TOPIC_DB_CHANGED_RELOAD);
-
+	/**
+	 * Reindexes the catalog, if it's marked to, applies the changes missing in
+	 * the search index and deletes the event store entries no longer needed.
+	 */
+	private void verifyIndex(final IEclipseContext context) {
 		if (this.dbSettings != null) {
 			EmbeddedCatalogHelper.reindexChecked(this.dbSettings, context);
+			catchUpIndex(context);
+			EventStorePruner.prune(context, this.log);
+		}
+	}
+
+	/**
+	 * Applies the changes stored in the event store after the last update of
+	 * the search index, e.g. after a crash.
+	 */
+	private void catchUpIndex(final IEclipseContext context) {
+		final RelationsIndexer indexer = RelationsIndexerWithLanguage
+				.createRelationsIndexer(context);
+		if (!indexer.isIndexAvailable()) {
+			return;
+		}
+		try {
+			final int processed = indexer.catchUp(new NullProgressMonitor());
+			if (processed > 0) {
+				this.log.info(String.format(
+						"Search index updated with %s changed items.", //$NON-NLS-1$
+						processed));
+			}
+		}
+		catch (IOException | VException | SQLException
+				| BOMException exc) {
+			this.log.error(exc, "Unable to update the search index!"); //$NON-NLS-1$
 		}
 	}
 
@@ -234,7 +299,8 @@ public class RelationsLifeCycle {
 	}
 
 	/**
-	 * Save db settings and browser state to preferences.
+	 * Save db settings and browser state to preferences and commit the search
+	 * index.
 	 *
 	 * @param application
 	 *            {@link MApplication}
@@ -252,6 +318,17 @@ public class RelationsLifeCycle {
 
 		// save browser model
 		this.browserManager.saveState(this.preferences);
+		// write pending index changes to the disk
+		if (this.dbSettings != null) {
+			try {
+				new RelationsIndexerWithLanguage(this.dbSettings.getCatalog(),
+						LanguageService.getContentLocale().getLanguage())
+				.commit();
+			}
+			catch (final IOException exc) {
+				this.log.error(exc, exc.getMessage());
+			}
+		}
 		// flush preferences
 		try {
 			this.preferences.flush();
@@ -32,10 +32,13 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.elbe.relations.RelationsConstants;
 import org.elbe.relations.RelationsMessages;
+import org.elbe.relations.data.bom.BOMHelper;
 import org.elbe.relations.data.utility.EventStoreChecker;
 import org.elbe.relations.internal.data.DBSettings;
 import org.elbe.relations.internal.data.IDBSettings;
 import org.elbe.relations.internal.data.TempSettings;
+import org.elbe.relations.internal.preferences.LanguageService;
+import org.elbe.relations.internal.search.RelationsIndexerWithLanguage;
 import org.elbe.relations.internal.utility.ActionHelper;
 import org.elbe.relations.internal.utility.DBPreconditionException;
 import org.elbe.relations.internal.utility.DBStructureChecker;
@@ -127,6 +130,9 @@ public abstract class AbstractChangeDB implements IDBChange {
 				this.origDbSettings.getPassword(),
 				this.origDbSettings.getDBConnectionConfig());
 
+		// write pending index changes of the actual catalog to the disk
+		releaseIndex(this.origDbSettings.getCatalog());
+
 		// persist temporary settings
 		((TempSettings) this.dbSettings).saveToPreferences();
 
@@ -143,6 +149,16 @@ public abstract class AbstractChangeDB implements IDBChange {
 		this.eventBroker.post(RelationsConstants.TOPIC_DB_CHANGED_DB, "changeDB"); //$NON-NLS-1$
 	}
 
+	private void releaseIndex(final String catalog) {
+		try {
+			new RelationsIndexerWithLanguage(catalog,
+					LanguageService.getContentLocale().getLanguage()).release();
+		}
+		catch (final IOException exc) {
+			this.log.error(exc, "Unable to release the search index!"); //$NON-NLS-1$
+		}
+	}
+
 	@Override
 	public void restore() {
 		if (this.restoreSettings == null) {
@@ -150,6 +166,7 @@ public abstract class AbstractChangeDB implements IDBChange {
 		}
 
 		((TempSettings) this.restoreSettings).saveToPreferences();
+		flushEventStore();
 		this.dbAccess.setActiveConfiguration(ActionHelper
 				.createDBConfiguration(this.restoreSettings));
 	}
@@ -158,15 +175,30 @@ public abstract class AbstractChangeDB implements IDBChange {
 	 * Activate temporary DB settings.
 	 */
 	protected void setTempDBSettings() {
+		flushEventStore();
 		this.dbAccess.setActiveConfiguration(ActionHelper
 				.createDBConfiguration(this.dbSettings));
 	}
 
 	protected void setOrigDBSettings() {
+		flushEventStore();
 		this.dbAccess.setActiveConfiguration(ActionHelper
 				.createDBConfiguration(this.origDbSettings));
 	}
 
+	/**
+	 * Writes the pending event store entries, i.e. the entries belonging to the
+	 * actual catalog.
+	 */
+	private void flushEventStore() {
+		try {
+			BOMHelper.getEventStoreHome().flush();
+		}
+		catch (final org.hip.kernel.bom.BOMException exc) {
+			this.log.error(exc, exc.getMessage());
+		}
+	}
+
 	protected Logger getLog() {
 		return this.log;
 	}
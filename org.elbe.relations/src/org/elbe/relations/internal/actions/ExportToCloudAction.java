@@ -18,8 +18,8 @@
  ***************************************************************************/
 package org.elbe.relations.internal.actions;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.SQLException;
 import java.text.DateFormat;
@@ -50,6 +50,8 @@ import org.elbe.relations.internal.preferences.CloudConfigPrefPage;
 import org.elbe.relations.internal.preferences.CloudConfigRegistry;
 import org.elbe.relations.internal.preferences.LanguageService;
 import org.elbe.relations.internal.utility.AbstractExportToCloudJob;
+import org.elbe.relations.internal.utility.CloudWatermark;
+import org.elbe.relations.internal.utility.EventStorePruner;
 import org.elbe.relations.internal.utility.ExportToCloudDialog;
 import org.elbe.relations.services.ICloudProvider;
 import org.elbe.relations.services.ICloudProviderConfig;
@@ -71,6 +73,7 @@ import com.google.gson.JsonObject;
 @SuppressWarnings("restriction")
 public class ExportToCloudAction implements ICommand {
 
+	private IEclipseContext context;
 	private LanguageService languageService;
 	private Logger log;
 	private RelationsStatusLineManager statusLine;
@@ -92,6 +95,7 @@ public class ExportToCloudAction implements ICommand {
 	 * @return {@link ExportToCloudAction}
 	 */
 	public ExportToCloudAction initialize(final IEclipseContext context) {
+		this.context = context;
 		this.languageService = context.get(LanguageService.class);
 		this.log = context.get(Logger.class);
 		this.statusLine = context.get(RelationsStatusLineManager.class);
@@ -111,26 +115,34 @@ public class ExportToCloudAction implements ICommand {
 			return;
 		}
 
+		final String key = CloudConfigPrefPage
+				.getKey(cloudProviderConfig.getName());
+		final CloudWatermark watermark = new CloudWatermark(store, key);
 		final ExportToCloudDialog dialog = new ExportToCloudDialog(
-				cloudProviderConfig, this.dataService.getNumberOfEvents() > 0);
+				cloudProviderConfig, hasEventsAfter(watermark));
 		if (dialog.open() == Window.OK) {
 			final IRunnableWithProgress operation = dialog.isIncremental()
 					? new ExportToCloudIncremental(
 							cloudProviderConfig.getProvider(),
-							createJson(
-									CloudConfigPrefPage.getKey(
-											cloudProviderConfig.getName()),
-									store),
+							createJson(key, store), watermark,
 							this.languageService, this.log, this.statusLine)
 							: new ExportToCloudFull(cloudProviderConfig.getProvider(),
-									createJson(
-											CloudConfigPrefPage.getKey(
-													cloudProviderConfig.getName()),
-											store),
+									createJson(key, store), watermark,
 									this.languageService, this.log, this.statusLine,
 									this.dataService.getNumberOfItems()
 									+ this.dataService.getNumberOfRelations());
 
+							// make sure the pending entries are part of the export
+							try {
+								BOMHelper.getEventStoreHome().flush();
+							}
+							catch (final org.hip.kernel.bom.BOMException exc) {
+								this.log.error(exc, exc.getMessage());
+								MessageDialog.openError(Display.getDefault().getActiveShell(),
+										RelationsMessages.getString("ExportToCloudAction.problem.title"), //$NON-NLS-1$
+										exc.getMessage());
+								return;
+							}
 							try {
 								new ProgressMonitorDialog(Display.getDefault().getActiveShell())
 								.run(true, true, operation);
@@ -138,7 +150,29 @@ public class ExportToCloudAction implements ICommand {
 							catch (InvocationTargetException | InterruptedException exc) {
 								this.log.error(exc, "Error during export to cloud!"); //$NON-NLS-1$
 							}
+							// the watermark may have moved
+							EventStorePruner.prune(this.context, this.log);
+		}
+	}
+
+	/**
+	 * An incremental export is possible only if the configuration has been
+	 * exported before: the event store entries before its watermark may have
+	 * been deleted.
+	 */
+	private boolean hasEventsAfter(final CloudWatermark watermark) {
+		if (!watermark.isSet()) {
+			return false;
+		}
+		try {
+			final EventStoreHome home = BOMHelper.getEventStoreHome();
+			return home.getCountAfter(watermark.getEventID(),
+					home.getLastEventID()) > 0;
+		}
+		catch (final org.hip.kernel.bom.BOMException exc) {
+			this.log.error(exc, exc.getMessage());
 		}
+		return false;
 	}
 
 	private JsonObject createJson(final String key,
@@ -167,13 +201,17 @@ public class ExportToCloudAction implements ICommand {
 	// ---
 
 	private static class ExportToCloudFull extends AbstractExportToCloudJob {
+		private final CloudWatermark watermark;
+		private long lastEventID;
+
 		protected ExportToCloudFull(final ICloudProvider cloudProvider,
-				final JsonObject jsonObject,
+				final JsonObject jsonObject, final CloudWatermark watermark,
 				final LanguageService languageService, final Logger log,
 				final RelationsStatusLineManager statusLine,
 				final int numberOfItems) {
 			super(cloudProvider, jsonObject, languageService, log, statusLine,
 					numberOfItems);
+			this.watermark = watermark;
 			setFullExport(true);
 		}
 
@@ -183,16 +221,21 @@ public class ExportToCloudAction implements ICommand {
 		}
 
 		@Override
-		protected void prepareContentForExport(final File tempExport,
-				final IProgressMonitor monitor) throws IOException {
-			try (XMLExport exporter = new ZippedXMLExport(
-					tempExport.getAbsolutePath(),
+		protected void prepareContentForExport(final OutputStream target,
+				final String fileName, final IProgressMonitor monitor)
+						throws IOException, VException, SQLException {
+			// taken before the export starts: the export contains at least
+			// the changes up to this event
+			this.lastEventID = BOMHelper.getEventStoreHome().getLastEventID();
+			try (XMLExport exporter = new ZippedXMLExport(target, fileName,
 					getAppLocale(), getNumberOfItems())) {
 				exporter.export(monitor);
 			}
-			catch (VException | SQLException exc) {
-				getLog().error(exc, exc.getMessage());
-			}
+		}
+
+		@Override
+		protected void afterUpload() throws SQLException {
+			this.watermark.save(this.lastEventID, getLog());
 		}
 
 	}
@@ -201,12 +244,16 @@ public class ExportToCloudAction implements ICommand {
 	extends AbstractExportToCloudJob {
 		private static final String PATTERN = "yyyy-MM-dd-HHmmss"; //$NON-NLS-1$
 
+		private final CloudWatermark watermark;
+		private long lastEventID;
+
 		protected ExportToCloudIncremental(final ICloudProvider cloudProvider,
-				final JsonObject jsonObject,
+				final JsonObject jsonObject, final CloudWatermark watermark,
 				final LanguageService languageService, final Logger log,
 				final RelationsStatusLineManager statusLine) {
 			super(cloudProvider, jsonObject, languageService, log, statusLine,
 					0);
+			this.watermark = watermark;
 		}
 
 		@Override
@@ -216,14 +263,23 @@ public class ExportToCloudAction implements ICommand {
 		}
 
 		@Override
-		protected void prepareContentForExport(final File tempExport,
-				final IProgressMonitor monitor) throws IOException {
-			try (XMLExport exporter = new EventStoreExport(
-					tempExport.getAbsolutePath(), getAppLocale())) {
+		protected void prepareContentForExport(final OutputStream target,
+				final String fileName, final IProgressMonitor monitor)
+						throws IOException, VException, SQLException {
+			// taken before the export starts: the delta contains the events
+			// up to this one
+			this.lastEventID = BOMHelper.getEventStoreHome().getLastEventID();
+			try (EventStoreExport exporter = new EventStoreExport(target,
+					fileName, getAppLocale(), this.watermark.getEventID(),
+					this.lastEventID)) {
 				exporter.export(monitor);
 			}
-			catch (VException | SQLException exc) {
-				getLog().error(exc, exc.getMessage());
+		}
+
+		@Override
+		protected void afterUpload() throws SQLException {
+			if (this.lastEventID > this.watermark.getEventID()) {
+				this.watermark.save(this.lastEventID, getLog());
 			}
 		}
 
@@ -237,18 +293,25 @@ public class ExportToCloudAction implements ICommand {
 		private static final String NODE_EVENT_STORE = "EventStoreEntries"; //$NON-NLS-1$
 
 		private final Locale appLocale;
-
-		protected EventStoreExport(final String exportFileName,
-				final Locale appLocale) throws IOException {
-			super(exportFileName, appLocale, 0);
+		private final long watermarkID;
+		private final long lastEventID;
+
+		protected EventStoreExport(final OutputStream target,
+				final String fileName, final Locale appLocale,
+				final long watermarkID, final long lastEventID)
+						throws IOException {
+			super(target, fileName, appLocale, 0);
 			this.appLocale = appLocale;
+			this.watermarkID = watermarkID;
+			this.lastEventID = lastEventID;
 		}
 
 		@Override
 		public int export(final IProgressMonitor monitor)
 				throws VException, SQLException, IOException {
 			final EventStoreHome home = BOMHelper.getEventStoreHome();
-			final int numberOfItems = home.getCount();
+			final int numberOfItems = home.getCountAfter(this.watermarkID,
+					this.lastEventID);
 
 			final SubMonitor progress = SubMonitor.convert(monitor);
 			int outExported = 0;
@@ -260,9 +323,12 @@ public class ExportToCloudAction implements ICommand {
 					NODE_ROOT, format.format(Calendar.getInstance().getTime()),
 					numberOfItems));
 
+			// only the events after the watermark
 			outExported += processTable(
 					RelationsMessages.getString("XMLExport.export.events"), //$NON-NLS-1$
-					NODE_EVENT_STORE, home, progress);
+					NODE_EVENT_STORE,
+					home.selectAfter(this.watermarkID, this.lastEventID),
+					numberOfItems, progress);
 			if (monitor.isCanceled()) {
 				return outExported;
 			}
@@ -143,7 +143,7 @@ public class IndexerAction extends Action {
 				final RelationsIndexer lIndexer = RelationsIndexerWithLanguage
 						.createRelationsIndexer(IndexerAction.this.context);
 				try {
-					lIndexer.refreshIndex(new NullProgressMonitor());
+					lIndexer.refreshIndexParallel(new NullProgressMonitor());
 				}
 				catch (final IOException exc) {
 					IndexerAction.this.log.error(exc, exc.getMessage());
@@ -212,7 +212,7 @@ public class IndexerAction extends Action {
 			final RelationsIndexer lIndexer = RelationsIndexerWithLanguage
 					.createRelationsIndexer(this.context);
 			try {
-				this.indexed = lIndexer.refreshIndex(lProgress);
+				this.indexed = lIndexer.refreshIndexParallel(lProgress);
 			}
 			catch (final IOException exc) {
 				this.log.error(exc, exc.getMessage());
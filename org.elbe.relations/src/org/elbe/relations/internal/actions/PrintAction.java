@@ -41,6 +41,7 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.elbe.relations.RelationsMessages;
 import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.db.IDataService;
 import org.elbe.relations.internal.controller.PrintOutManager;
 import org.elbe.relations.internal.wizards.PrintOutWizard;
 import org.elbe.relations.services.IBrowserManager;
@@ -66,6 +67,9 @@ public class PrintAction implements ICommand {
 	@Inject
 	private IBrowserManager browserManager;
 
+	@Inject
+	private IDataService dataService;
+
 	@Inject
 	private Logger log;
 
@@ -125,6 +129,10 @@ public class PrintAction implements ICommand {
 
 		@Override
 		public void run(final IProgressMonitor inMonitor) {
+			if (printManager.isWholeDB()) {
+				runWholeDB(inMonitor);
+				return;
+			}
 			Collection<IItem> lItems;
 			try {
 				lItems = printManager.getItemSet(selectedItem);
@@ -157,6 +165,31 @@ public class PrintAction implements ICommand {
 			}
 		}
 
+		private void runWholeDB(final IProgressMonitor inMonitor) {
+			try {
+				final int lNumberOf = dataService.getNumberOfItems();
+				final SubMonitor lProgress = SubMonitor.convert(inMonitor,
+				        lNumberOf);
+				lProgress.beginTask(
+				        RelationsMessages.getString("PrintAction.job.start"), //$NON-NLS-1$
+				        lNumberOf);
+				giveFeedback(getPrintCompleteAction(
+				        printManager.printAll(lProgress)));
+			}
+			catch (final Exception exc) {
+				giveFeedback(getErrorMsgAction(exc.getMessage()));
+				log.error(exc, exc.getMessage());
+			}
+			finally {
+				try {
+					printManager.close();
+				}
+				catch (final IOException exc) {
+					// intentionally left empty
+				}
+			}
+		}
+
 		private void giveFeedback(final Action inAction) {
 			Display.getDefault().asyncExec(new Runnable() {
 				@Override
@@ -28,6 +28,7 @@ import javax.inject.Inject;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.contexts.RunAndTrack;
 import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
 import org.eclipse.e4.ui.workbench.UIEvents;
@@ -36,6 +37,8 @@ import org.eclipse.e4.ui.workbench.modeling.IWindowCloseHandler;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.elbe.relations.RelationsConstants;
+import org.elbe.relations.data.bom.BOMHelper;
+import org.hip.kernel.bom.BOMException;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventHandler;
 
@@ -44,6 +47,7 @@ import org.osgi.service.event.EventHandler;
  * 
  * @author Luthiger
  */
+@SuppressWarnings("restriction")
 public class QuitHandlerAddon {
 	@Inject
 	EModelService modelService;
@@ -51,6 +55,9 @@ public class QuitHandlerAddon {
 	@Inject
 	MApplication app;
 
+	@Inject
+	Logger log;
+
 	private final IWindowCloseHandler quitHandler = new IWindowCloseHandler() {
 		@Override
 		public boolean close(final MWindow inWindow) {
@@ -64,6 +71,13 @@ public class QuitHandlerAddon {
 				lHelpWindow.setToBeRendered(false);
 				EcoreUtil.delete((EObject) lHelp, true);
 			}
+			// write the pending entries before shutdown
+			try {
+				BOMHelper.getEventStoreHome().flush();
+			}
+			catch (final BOMException exc) {
+				log.error(exc, exc.getMessage());
+			}
 			return true;
 		}
 	};
@@ -0,0 +1,298 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2016, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.internal.backup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.elbe.relations.data.utility.UniqueID;
+import org.elbe.relations.internal.backup.XMLImport.RelationReplaceHelper;
+import org.hip.kernel.bom.impl.AbstractQueryStatement;
+import org.hip.kernel.exc.VException;
+
+/**
+ * Helper class for the bulk import: inserts the rows using JDBC batches, one
+ * transaction per batch.
+ * <p>
+ * If the database can't set the identity field, the ids generated for the
+ * inserted items are retrieved after each batch with one query and compared
+ * with the ids expected by the relations.
+ * </p>
+ *
+ * @author lbenno
+ */
+class BatchInsert extends AbstractQueryStatement {
+	private static final long serialVersionUID = 1L;
+	private static final String SQL_INSERT = "INSERT INTO %s (%s) VALUES (%s)"; //$NON-NLS-1$
+	private static final String SQL_MAX = "SELECT MAX(%s) FROM %s"; //$NON-NLS-1$
+	private static final String SQL_GENERATED = "SELECT %s FROM %s WHERE %s > ? ORDER BY %s"; //$NON-NLS-1$
+
+	private final int batchSize;
+	private final Collection<RelationReplaceHelper> relationsToRebind;
+	private final RebindFactory rebindFactory;
+
+	private Connection connection;
+	private PreparedStatement statement;
+	private ImportTable table;
+	private List<String> columns;
+	private final List<Long> expectedIDs = new ArrayList<>();
+	private long maxBefore;
+
+	/**
+	 * BatchInsert constructor.
+	 *
+	 * @param inBatchSize
+	 *            int the number of rows inserted per batch and transaction
+	 * @param inRelationsToRebind
+	 *            Collection&lt;RelationReplaceHelper> the collection to add
+	 *            the items whose generated id differs from the expected one
+	 * @param inRebindFactory
+	 *            {@link RebindFactory}
+	 */
+	BatchInsert(final int inBatchSize, final Collection<RelationReplaceHelper> inRelationsToRebind,
+			final RebindFactory inRebindFactory) {
+		super();
+		this.batchSize = inBatchSize;
+		this.relationsToRebind = inRelationsToRebind;
+		this.rebindFactory = inRebindFactory;
+	}
+
+	/**
+	 * Opens the connection used for the bulk import.
+	 *
+	 * @throws SQLException
+	 */
+	void open() throws SQLException {
+		try {
+			this.connection = getConnection();
+			this.connection.setAutoCommit(false);
+		}
+		catch (final VException exc) {
+			throw new SQLException(exc);
+		}
+	}
+
+	/**
+	 * Adds the specified row to the actual batch. The batch is executed and
+	 * committed if it's full or if the row belongs to a different table.
+	 *
+	 * @param inTable
+	 *            {@link ImportTable}
+	 * @param inRow
+	 *            Map&lt;String, Object> the row's values, keyed by column name
+	 * @param inExpectedID
+	 *            Long the item's id in the import file, needed only if the
+	 *            identity field is generated by the database
+	 * @throws SQLException
+	 */
+	void add(final ImportTable inTable, final Map<String, Object> inRow, final Long inExpectedID)
+			throws SQLException {
+		final List<String> lColumns = new ArrayList<>(inRow.keySet());
+		if (this.table != inTable || !lColumns.equals(this.columns)) {
+			flush();
+			prepare(inTable, lColumns);
+		}
+		if (this.expectedIDs.isEmpty() && needsRebind()) {
+			this.maxBefore = getMax(inTable);
+		}
+		int i = 1;
+		for (final String lColumn : lColumns) {
+			this.statement.setObject(i++, inRow.get(lColumn));
+		}
+		this.statement.addBatch();
+		this.expectedIDs.add(inExpectedID);
+		if (this.expectedIDs.size() >= this.batchSize) {
+			flush();
+		}
+	}
+
+	private void prepare(final ImportTable inTable, final List<String> inColumns) throws SQLException {
+		closeStatement();
+		final StringBuilder lColumns = new StringBuilder();
+		final StringBuilder lValues = new StringBuilder();
+		for (final String lColumn : inColumns) {
+			if (lColumns.length() > 0) {
+				lColumns.append(", "); //$NON-NLS-1$
+				lValues.append(", "); //$NON-NLS-1$
+			}
+			lColumns.append(lColumn);
+			lValues.append("?"); //$NON-NLS-1$
+		}
+		this.statement = this.connection.prepareStatement(
+				String.format(SQL_INSERT, inTable.tableName, lColumns, lValues));
+		this.table = inTable;
+		this.columns = inColumns;
+	}
+
+	/**
+	 * Executes and commits the pending batch.
+	 *
+	 * @throws SQLException
+	 */
+	void flush() throws SQLException {
+		if (this.expectedIDs.isEmpty()) {
+			return;
+		}
+		this.statement.executeBatch();
+		if (needsRebind()) {
+			collectRebinds();
+		}
+		this.connection.commit();
+		this.expectedIDs.clear();
+	}
+
+	/**
+	 * @return boolean <code>true</code> if the database generates the ids of
+	 *         the items inserted by the actual statement
+	 */
+	private boolean needsRebind() {
+		return this.table.isItem() && !this.columns.contains(this.table.keyColumn);
+	}
+
+	private long getMax(final ImportTable inTable) throws SQLException {
+		try (Statement lStatement = this.connection.createStatement();
+				ResultSet lResult = lStatement
+						.executeQuery(String.format(SQL_MAX, inTable.keyColumn, inTable.tableName))) {
+			return lResult.next() ? lResult.getLong(1) : 0;
+		}
+	}
+
+	private void collectRebinds() throws SQLException {
+		final String lKey = this.table.keyColumn;
+		try (PreparedStatement lStatement = this.connection
+				.prepareStatement(String.format(SQL_GENERATED, lKey, this.table.tableName, lKey, lKey))) {
+			lStatement.setLong(1, this.maxBefore);
+			try (ResultSet lResult = lStatement.executeQuery()) {
+				final Iterator<Long> lExpected = this.expectedIDs.iterator();
+				while (lResult.next() && lExpected.hasNext()) {
+					final long lGenerated = lResult.getLong(1);
+					final Long lExpectedID = lExpected.next();
+					if (lExpectedID.longValue() != lGenerated) {
+						this.relationsToRebind.add(this.rebindFactory.create(
+								new UniqueID(this.table.itemType, lExpectedID.longValue()),
+								new UniqueID(this.table.itemType, lGenerated)));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Executes the pending batch and closes the connection.
+	 *
+	 * @throws SQLException
+	 */
+	void close() throws SQLException {
+		try {
+			flush();
+		}
+		finally {
+			release();
+		}
+	}
+
+	/**
+	 * Discards the pending batch and closes the connection.
+	 */
+	void abort() {
+		try {
+			if (this.connection != null) {
+				this.connection.rollback();
+			}
+		}
+		catch (final SQLException exc) {
+			// intentionally left empty
+		}
+		finally {
+			try {
+				release();
+			}
+			catch (final SQLException exc) {
+				// intentionally left empty
+			}
+		}
+	}
+
+	private void release() throws SQLException {
+		closeStatement();
+		if (this.connection != null) {
+			this.connection.setAutoCommit(true);
+			this.connection.close();
+			this.connection = null;
+		}
+	}
+
+	private void closeStatement() throws SQLException {
+		if (this.statement != null) {
+			this.statement.close();
+			this.statement = null;
+		}
+	}
+
+	// --- inner classes ---
+
+	/**
+	 * The tables filled by the import.
+	 */
+	enum ImportTable {
+		TERM(1, "tblTerm", "TERMID"), //$NON-NLS-1$ //$NON-NLS-2$
+		TEXT(2, "tblText", "TEXTID"), //$NON-NLS-1$ //$NON-NLS-2$
+		PERSON(3, "tblPerson", "PERSONID"), //$NON-NLS-1$ //$NON-NLS-2$
+		RELATION(0, "tblRelation", "RELATIONID"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		final int itemType;
+		final String tableName;
+		final String keyColumn;
+
+		ImportTable(final int inItemType, final String inTableName, final String inKeyColumn) {
+			this.itemType = inItemType;
+			this.tableName = inTableName;
+			this.keyColumn = inKeyColumn;
+		}
+
+		boolean isItem() {
+			return this.itemType != 0;
+		}
+
+		static ImportTable forType(final int inItemType) {
+			for (final ImportTable lTable : values()) {
+				if (lTable.itemType == inItemType) {
+					return lTable;
+				}
+			}
+			throw new IllegalArgumentException("Unknown item type " + inItemType); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Factory for the (non static) <code>RelationReplaceHelper</code>.
+	 */
+	interface RebindFactory {
+		RelationReplaceHelper create(UniqueID inOld, UniqueID inNew);
+	}
+
+}
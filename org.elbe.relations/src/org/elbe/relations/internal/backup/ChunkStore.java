@@ -0,0 +1,165 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.internal.backup;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content addressed store of compressed chunks.
+ * <p>
+ * Each chunk is stored once in a file named after the SHA-256 hash of its
+ * (uncompressed) content, in a sub directory named after the first two
+ * characters of the hash. A chunk already in the store is not written again,
+ * i.e. repeated backups only add the chunks that changed. The store can be
+ * used by several threads concurrently.
+ * </p>
+ *
+ * @author lbenno
+ */
+class ChunkStore {
+	private static final String ALGORITHM = "SHA-256"; //$NON-NLS-1$
+	private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+	private static final char[] HEX = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+	private static final int LEN = 8192;
+
+	private final File root;
+	private final AtomicInteger written = new AtomicInteger();
+
+	/**
+	 * ChunkStore constructor.
+	 *
+	 * @param inRoot
+	 *            File the store's directory, created if needed
+	 */
+	ChunkStore(final File inRoot) {
+		this.root = inRoot;
+	}
+
+	/**
+	 * Stores the specified chunk if it's not in the store yet.
+	 *
+	 * @param inData
+	 *            byte[]
+	 * @param inLength
+	 *            int the number of bytes to store
+	 * @return String the chunk's hash
+	 * @throws IOException
+	 */
+	String put(final byte[] inData, final int inLength) throws IOException {
+		final MessageDigest lDigest = createDigest();
+		lDigest.update(inData, 0, inLength);
+		final String outHash = toHex(lDigest.digest());
+		final File lChunk = getFile(outHash);
+		if (lChunk.exists()) {
+			return outHash;
+		}
+
+		final File lParent = lChunk.getParentFile();
+		if (!lParent.exists() && !lParent.mkdirs() && !lParent.isDirectory()) {
+			throw new IOException("Unable to create directory " + lParent); //$NON-NLS-1$
+		}
+		// write to a temporary file first, a chunk file is either complete or missing
+		final File lTemp = File.createTempFile(outHash, TEMP_SUFFIX, lParent);
+		try {
+			final Deflater lDeflater = new Deflater(Deflater.BEST_SPEED);
+			try (OutputStream lOut = new DeflaterOutputStream(new FileOutputStream(lTemp), lDeflater, LEN)) {
+				lOut.write(inData, 0, inLength);
+			}
+			finally {
+				lDeflater.end();
+			}
+			Files.move(lTemp.toPath(), lChunk.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			lTemp.delete();
+		}
+		this.written.incrementAndGet();
+		return outHash;
+	}
+
+	/**
+	 * Writes the content of the specified chunk to the specified stream.
+	 *
+	 * @param inHash
+	 *            String the chunk's hash
+	 * @param inOut
+	 *            {@link OutputStream}
+	 * @throws IOException
+	 *             if the chunk is missing or corrupt
+	 */
+	void copy(final String inHash, final OutputStream inOut) throws IOException {
+		final MessageDigest lDigest = createDigest();
+		final byte[] lTransfer = new byte[LEN];
+		try (InputStream lIn = new InflaterInputStream(
+				new BufferedInputStream(new FileInputStream(getFile(inHash)), LEN))) {
+			int lRead = 0;
+			while ((lRead = lIn.read(lTransfer)) != -1) {
+				lDigest.update(lTransfer, 0, lRead);
+				inOut.write(lTransfer, 0, lRead);
+			}
+		}
+		if (!inHash.equals(toHex(lDigest.digest()))) {
+			throw new IOException("Corrupt chunk " + inHash); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * @return int the number of chunks written to the store by this instance
+	 */
+	int getWritten() {
+		return this.written.get();
+	}
+
+	private File getFile(final String inHash) {
+		return new File(new File(this.root, inHash.substring(0, 2)), inHash);
+	}
+
+	private static MessageDigest createDigest() throws IOException {
+		try {
+			return MessageDigest.getInstance(ALGORITHM);
+		}
+		catch (final NoSuchAlgorithmException exc) {
+			throw new IOException(exc);
+		}
+	}
+
+	private static String toHex(final byte[] inBytes) {
+		final char[] outHex = new char[inBytes.length * 2];
+		for (int i = 0; i < inBytes.length; i++) {
+			outHex[2 * i] = HEX[(inBytes[i] >> 4) & 0xf];
+			outHex[2 * i + 1] = HEX[inBytes[i] & 0xf];
+		}
+		return new String(outHex);
+	}
+
+}
@@ -0,0 +1,324 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.internal.backup;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.elbe.relations.data.search.RelationsIndexer;
+import org.hip.kernel.bom.impl.AbstractQueryStatement;
+import org.hip.kernel.exc.VException;
+
+/**
+ * Online backup of an embedded database and its search index.
+ * <p>
+ * The database is copied with Derby's online backup procedure, i.e. the
+ * snapshot is consistent and the database stays usable during the backup. The
+ * files of the snapshot and of the search index are split into chunks which
+ * are compressed in parallel and stored in a content addressed repository
+ * next to the backup file (see {@link #REPOSITORY}). Repeated backups to the
+ * same directory only add the chunks that changed since.
+ * </p>
+ * <p>
+ * The files of the search index are taken from a snapshot of the index' last
+ * commit, i.e. the index writer doesn't delete them while they are read.
+ * </p>
+ * <p>
+ * The backup file is a Zip file containing the manifest listing the chunks of
+ * each file. Use {@link ChunkedRestore} to restore the backup.
+ * </p>
+ *
+ * @author lbenno
+ */
+public class ChunkedBackup {
+	/** The name of the chunk repository in the backup file's directory. */
+	public static final String REPOSITORY = "relations-backup.chunks"; //$NON-NLS-1$
+
+	static final String MANIFEST = "relations.manifest"; //$NON-NLS-1$
+	static final String HEADER = "relations-backup 1"; //$NON-NLS-1$
+	static final String KEY_CATALOG = "catalog"; //$NON-NLS-1$
+	static final String KEY_FILE = "file"; //$NON-NLS-1$
+	static final String AREA_DATABASE = "db"; //$NON-NLS-1$
+	static final String AREA_INDEX = "index"; //$NON-NLS-1$
+	static final char SEPARATOR = '\t';
+	static final char HASH_SEPARATOR = ',';
+	static final int CHUNK_SIZE = 64 * 1024;
+
+	private static final String SQL_BACKUP = "CALL SYSCS_UTIL.SYSCS_BACKUP_DATABASE(?)"; //$NON-NLS-1$
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+	private final String catalog;
+	private final RelationsIndexer indexer;
+	private final File indexDirectory;
+	private final File backupFile;
+	private final ChunkStore store;
+	// bounds the number of chunks held in memory
+	private final Semaphore pending = new Semaphore(THREADS * 2);
+
+	/**
+	 * ChunkedBackup constructor.
+	 *
+	 * @param inCatalog
+	 *            String the name of the embedded catalog to backup
+	 * @param inIndexer
+	 *            {@link RelationsIndexer} the indexer of the catalog's search
+	 *            index, used to take the snapshot of the index
+	 * @param inIndexDirectory
+	 *            File the directory of the catalog's search index
+	 * @param inBackupFileName
+	 *            String the fully qualified name of the backup file (Zip file)
+	 */
+	public ChunkedBackup(final String inCatalog, final RelationsIndexer inIndexer, final File inIndexDirectory,
+			final String inBackupFileName) {
+		this.catalog = inCatalog;
+		this.indexer = inIndexer;
+		this.indexDirectory = inIndexDirectory;
+		this.backupFile = new File(inBackupFileName);
+		this.store = new ChunkStore(new File(this.backupFile.getAbsoluteFile().getParentFile(), REPOSITORY));
+	}
+
+	/**
+	 * Executes the backup of the actual embedded database.
+	 *
+	 * @param inMonitor
+	 *            {@link IProgressMonitor}
+	 * @throws IOException
+	 * @throws SQLException
+	 */
+	public void backup(final IProgressMonitor inMonitor) throws IOException, SQLException {
+		final SubMonitor lProgress = SubMonitor.convert(inMonitor, 10);
+		final File lSnapshot = Files.createTempDirectory("relations").toFile(); //$NON-NLS-1$
+		final Collection<String> lIndexFiles = this.indexer.snapshot();
+		try {
+			new OnlineBackup().backup(lSnapshot);
+			lProgress.worked(2);
+			write(new File(lSnapshot, this.catalog), this.indexDirectory, lIndexFiles, lProgress.newChild(8));
+		}
+		finally {
+			this.indexer.releaseSnapshot();
+			delete(lSnapshot);
+		}
+	}
+
+	/**
+	 * Stores the files of the specified directories and writes the manifest.
+	 *
+	 * @param inDatabase
+	 *            File the directory containing the database snapshot
+	 * @param inIndex
+	 *            File the search index directory, may be <code>null</code>
+	 * @param inIndexFiles
+	 *            Collection&lt;String> the names of the index files to store
+	 * @param inMonitor
+	 *            {@link IProgressMonitor}
+	 * @throws IOException
+	 */
+	void write(final File inDatabase, final File inIndex, final Collection<String> inIndexFiles,
+			final IProgressMonitor inMonitor) throws IOException {
+		final ExecutorService lExecutor = Executors.newFixedThreadPool(THREADS);
+		try {
+			final List<Entry> lEntries = new ArrayList<>();
+			final List<File> lDatabaseFiles = list(inDatabase);
+			final SubMonitor lProgress = SubMonitor.convert(inMonitor, lDatabaseFiles.size() + 2);
+			for (final File lFile : lDatabaseFiles) {
+				lEntries.add(store(AREA_DATABASE, inDatabase, lFile, lExecutor));
+				lProgress.worked(1);
+			}
+			if (inIndex != null) {
+				for (final String lName : inIndexFiles) {
+					lEntries.add(store(AREA_INDEX, inIndex, new File(inIndex, lName), lExecutor));
+				}
+			}
+			lProgress.worked(1);
+			writeManifest(lEntries);
+			lProgress.worked(1);
+		}
+		finally {
+			lExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return int the number of chunks added to the repository by this backup
+	 */
+	public int getWrittenChunks() {
+		return this.store.getWritten();
+	}
+
+	private Entry store(final String inArea, final File inRoot, final File inFile, final ExecutorService inExecutor)
+			throws IOException {
+		final Entry outEntry = new Entry(inArea, getRelativePath(inRoot, inFile));
+		try (InputStream lIn = new FileInputStream(inFile)) {
+			while (true) {
+				final byte[] lChunk = new byte[CHUNK_SIZE];
+				final int lLength = readFully(lIn, lChunk);
+				if (lLength == 0) {
+					break;
+				}
+				outEntry.size += lLength;
+				this.pending.acquireUninterruptibly();
+				outEntry.chunks.add(inExecutor.submit(() -> {
+					try {
+						return this.store.put(lChunk, lLength);
+					}
+					finally {
+						this.pending.release();
+					}
+				}));
+			}
+		}
+		return outEntry;
+	}
+
+	private void writeManifest(final List<Entry> inEntries) throws IOException {
+		try (ZipOutputStream lZip = new ZipOutputStream(new FileOutputStream(this.backupFile))) {
+			lZip.putNextEntry(new ZipEntry(MANIFEST));
+			final Writer lOut = new OutputStreamWriter(lZip, StandardCharsets.UTF_8);
+			lOut.write(HEADER);
+			lOut.write('\n');
+			lOut.write(KEY_CATALOG + SEPARATOR + this.catalog);
+			lOut.write('\n');
+			for (final Entry lEntry : inEntries) {
+				lOut.write(KEY_FILE + SEPARATOR + lEntry.area + SEPARATOR + lEntry.path + SEPARATOR + lEntry.size
+						+ SEPARATOR);
+				for (int i = 0; i < lEntry.chunks.size(); i++) {
+					if (i > 0) {
+						lOut.write(HASH_SEPARATOR);
+					}
+					lOut.write(getHash(lEntry.chunks.get(i)));
+				}
+				lOut.write('\n');
+			}
+			lOut.flush();
+			lZip.closeEntry();
+		}
+	}
+
+	private String getHash(final Future<String> inChunk) throws IOException {
+		try {
+			return inChunk.get();
+		}
+		catch (final ExecutionException exc) {
+			if (exc.getCause() instanceof IOException) {
+				throw (IOException) exc.getCause();
+			}
+			throw new IOException(exc.getCause());
+		}
+		catch (final InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			throw new IOException(exc);
+		}
+	}
+
+	private static int readFully(final InputStream inIn, final byte[] inBuffer) throws IOException {
+		int outLength = 0;
+		while (outLength < inBuffer.length) {
+			final int lRead = inIn.read(inBuffer, outLength, inBuffer.length - outLength);
+			if (lRead == -1) {
+				break;
+			}
+			outLength += lRead;
+		}
+		return outLength;
+	}
+
+	private static List<File> list(final File inDirectory) {
+		final List<File> outFiles = new ArrayList<>();
+		final File[] lChildren = inDirectory.listFiles();
+		if (lChildren != null) {
+			for (final File lChild : lChildren) {
+				if (lChild.isDirectory()) {
+					outFiles.addAll(list(lChild));
+				} else {
+					outFiles.add(lChild);
+				}
+			}
+		}
+		return outFiles;
+	}
+
+	static String getRelativePath(final File inRoot, final File inFile) {
+		return inRoot.toPath().relativize(inFile.toPath()).toString().replace(File.separatorChar, '/');
+	}
+
+	private static void delete(final File inFile) {
+		final File[] lChildren = inFile.listFiles();
+		if (lChildren != null) {
+			for (final File lChild : lChildren) {
+				delete(lChild);
+			}
+		}
+		inFile.delete();
+	}
+
+	// --- inner classes ---
+
+	private static class Entry {
+		final String area;
+		final String path;
+		final List<Future<String>> chunks = new ArrayList<>();
+		long size = 0;
+
+		Entry(final String inArea, final String inPath) {
+			this.area = inArea;
+			this.path = inPath;
+		}
+	}
+
+	/**
+	 * Helper class to call Derby's online backup procedure.
+	 */
+	private static class OnlineBackup extends AbstractQueryStatement {
+		private static final long serialVersionUID = 1L;
+
+		protected void backup(final File inDirectory) throws SQLException {
+			try (Connection lConnection = getConnection();
+					CallableStatement lStatement = lConnection.prepareCall(SQL_BACKUP)) {
+				lStatement.setString(1, inDirectory.getAbsolutePath());
+				lStatement.execute();
+			}
+			catch (final VException exc) {
+				throw new SQLException(exc);
+			}
+		}
+	}
+
+}
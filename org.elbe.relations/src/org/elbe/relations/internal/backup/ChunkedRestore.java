@@ -0,0 +1,219 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.internal.backup;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Restores a backup created by {@link ChunkedBackup}.
+ * <p>
+ * The files listed in the backup's manifest are assembled from the chunk
+ * repository next to the backup file. Files of the catalog's database and
+ * search index which are not part of the backup are deleted, e.g. log files
+ * or index segments written after the backup.
+ * </p>
+ *
+ * @author lbenno
+ */
+public class ChunkedRestore {
+	private final File dataStore;
+	private final File indexStore;
+	private final File archive;
+	private final ChunkStore store;
+
+	/**
+	 * ChunkedRestore constructor.
+	 *
+	 * @param inDataStore
+	 *            File the directory containing the embedded databases
+	 * @param inIndexStore
+	 *            File the directory containing the search indexes
+	 * @param inArchiveName
+	 *            String fully qualified name of the backup file
+	 */
+	public ChunkedRestore(final File inDataStore, final File inIndexStore, final String inArchiveName) {
+		this.dataStore = inDataStore;
+		this.indexStore = inIndexStore;
+		this.archive = new File(inArchiveName);
+		this.store = new ChunkStore(
+				new File(this.archive.getAbsoluteFile().getParentFile(), ChunkedBackup.REPOSITORY));
+	}
+
+	/**
+	 * Checks whether the specified file has been created by
+	 * {@link ChunkedBackup}.
+	 *
+	 * @param inArchiveName
+	 *            String fully qualified name of the backup file
+	 * @return boolean <code>true</code> if the file contains a backup manifest
+	 */
+	public static boolean isChunked(final String inArchiveName) {
+		try (ZipFile lZip = new ZipFile(inArchiveName)) {
+			return lZip.getEntry(ChunkedBackup.MANIFEST) != null;
+		}
+		catch (final IOException exc) {
+			return false;
+		}
+	}
+
+	/**
+	 * Checks the archive for the correct catalog name.
+	 *
+	 * @param inCatalog
+	 *            String
+	 * @return boolean <code>true</code> if the archive contains the backup of
+	 *         the specified catalog.
+	 */
+	public boolean checkArchive(final String inCatalog) {
+		try {
+			return inCatalog.equals(readManifest().catalog);
+		}
+		catch (final IOException exc) {
+			return false;
+		}
+	}
+
+	/**
+	 * Starts the data restore.
+	 *
+	 * @throws IOException
+	 */
+	public void restore() throws IOException {
+		final Manifest lManifest = readManifest();
+		final File lDatabase = new File(this.dataStore, lManifest.catalog);
+		final File lIndex = new File(this.indexStore, lManifest.catalog);
+		final Set<File> lRestored = new HashSet<>();
+		for (final Manifest.Entry lEntry : lManifest.entries) {
+			final File lRoot = ChunkedBackup.AREA_INDEX.equals(lEntry.area) ? lIndex : lDatabase;
+			if (lEntry.path.startsWith("/") || lEntry.path.contains("..")) { //$NON-NLS-1$ //$NON-NLS-2$
+				throw new IOException("Invalid path in backup manifest: " + lEntry.path); //$NON-NLS-1$
+			}
+			final File lFile = new File(lRoot, lEntry.path);
+			restore(lEntry, lFile);
+			lRestored.add(lFile.getAbsoluteFile());
+		}
+		deleteOthers(lDatabase, lRestored);
+		deleteOthers(lIndex, lRestored);
+	}
+
+	private void restore(final Manifest.Entry inEntry, final File inFile) throws IOException {
+		final File lParent = inFile.getParentFile();
+		if (!lParent.exists() && !lParent.mkdirs()) {
+			throw new IOException("Unable to create directory " + lParent); //$NON-NLS-1$
+		}
+		try (OutputStream lOut = new BufferedOutputStream(new FileOutputStream(inFile))) {
+			for (final String lHash : inEntry.chunks) {
+				this.store.copy(lHash, lOut);
+			}
+		}
+		if (inFile.length() != inEntry.size) {
+			throw new IOException("Incomplete file " + inFile); //$NON-NLS-1$
+		}
+	}
+
+	private void deleteOthers(final File inDirectory, final Set<File> inRestored) {
+		final File[] lChildren = inDirectory.listFiles();
+		if (lChildren == null) {
+			return;
+		}
+		for (final File lChild : lChildren) {
+			if (lChild.isDirectory()) {
+				deleteOthers(lChild, inRestored);
+			} else if (!lChild.getName().startsWith(".") && !inRestored.contains(lChild.getAbsoluteFile())) { //$NON-NLS-1$
+				// markers (e.g. '.reindex') are kept
+				lChild.delete();
+			}
+		}
+	}
+
+	private Manifest readManifest() throws IOException {
+		try (ZipFile lZip = new ZipFile(this.archive)) {
+			final ZipEntry lEntry = lZip.getEntry(ChunkedBackup.MANIFEST);
+			if (lEntry == null) {
+				throw new IOException("No backup manifest in " + this.archive); //$NON-NLS-1$
+			}
+			try (BufferedReader lReader = new BufferedReader(
+					new InputStreamReader(lZip.getInputStream(lEntry), StandardCharsets.UTF_8))) {
+				return Manifest.parse(lReader);
+			}
+		}
+	}
+
+	// --- inner classes ---
+
+	private static class Manifest {
+		String catalog;
+		final List<Entry> entries = new ArrayList<>();
+
+		static Manifest parse(final BufferedReader inReader) throws IOException {
+			if (!ChunkedBackup.HEADER.equals(inReader.readLine())) {
+				throw new IOException("Unknown backup format"); //$NON-NLS-1$
+			}
+			final Manifest outManifest = new Manifest();
+			String lLine = null;
+			while ((lLine = inReader.readLine()) != null) {
+				final String[] lParts = lLine.split(String.valueOf(ChunkedBackup.SEPARATOR), -1);
+				if (ChunkedBackup.KEY_CATALOG.equals(lParts[0]) && lParts.length == 2) {
+					outManifest.catalog = lParts[1];
+				} else if (ChunkedBackup.KEY_FILE.equals(lParts[0]) && lParts.length == 5) {
+					final Entry lEntry = new Entry(lParts[1], lParts[2], Long.parseLong(lParts[3]));
+					if (!lParts[4].isEmpty()) {
+						for (final String lHash : lParts[4].split(String.valueOf(ChunkedBackup.HASH_SEPARATOR))) {
+							lEntry.chunks.add(lHash);
+						}
+					}
+					outManifest.entries.add(lEntry);
+				} else {
+					throw new IOException("Corrupt backup manifest: " + lLine); //$NON-NLS-1$
+				}
+			}
+			if (outManifest.catalog == null) {
+				throw new IOException("Corrupt backup manifest: no catalog"); //$NON-NLS-1$
+			}
+			return outManifest;
+		}
+
+		static class Entry {
+			final String area;
+			final String path;
+			final long size;
+			final List<String> chunks = new ArrayList<>();
+
+			Entry(final String inArea, final String inPath, final long inSize) {
+				this.area = inArea;
+				this.path = inPath;
+				this.size = inSize;
+			}
+		}
+	}
+
+}
@@ -90,6 +90,25 @@ public class XMLExport implements AutoCloseable {
 		}
 	}
 
+	/**
+	 * XMLExport constructor, writes the export to the specified stream.
+	 *
+	 * @param target
+	 *            {@link OutputStream} the stream to write the export to, is
+	 *            closed when the export is closed
+	 * @param appLocale
+	 *            {@link Locale} the application's locale
+	 * @param numberOfItems
+	 *            int
+	 */
+	public XMLExport(final OutputStream target, final Locale appLocale,
+			final int numberOfItems) {
+		this.numberOfItems = numberOfItems;
+		this.exportFile = null;
+		this.appLocale = appLocale;
+		this.outputStream = target;
+	}
+
 	protected OutputStream createStream(final File exportFile)
 			throws IOException {
 		final FileOutputStream lStream = new FileOutputStream(exportFile);
@@ -167,13 +186,44 @@ public class XMLExport implements AutoCloseable {
 
 		monitor.subTask(taskName);
 		appendStart(nodeName);
-		outExported += processSelection(home, monitor);
+		outExported += processSelection(home.select(), home.getCount(),
+				monitor);
 		appendText(NL);
 		appendEnd(nodeName);
 
 		return outExported;
 	}
 
+	/**
+	 * Exports the entries of the specified selection.
+	 *
+	 * @param taskName
+	 *            String
+	 * @param nodeName
+	 *            String
+	 * @param selection
+	 *            {@link QueryResult} the entries to export
+	 * @param count
+	 *            int the number of entries in the selection
+	 * @param monitor
+	 *            {@link IProgressMonitor}
+	 * @return int the number of exported entries
+	 * @throws IOException
+	 * @throws VException
+	 * @throws SQLException
+	 */
+	protected int processTable(final String taskName, final String nodeName,
+			final QueryResult selection, final int count,
+			final IProgressMonitor monitor)
+					throws IOException, VException, SQLException {
+		monitor.subTask(taskName);
+		appendStart(nodeName);
+		final int outExported = processSelection(selection, count, monitor);
+		appendText(NL);
+		appendEnd(nodeName);
+		return outExported;
+	}
+
 	private void appendStart(final String text) throws IOException {
 		appendText(String.format(TAG_START, text));
 	}
@@ -194,13 +244,11 @@ public class XMLExport implements AutoCloseable {
 		}
 	}
 
-	private int processSelection(final GeneralDomainObjectHome home,
+	private int processSelection(final QueryResult result, final int count,
 			final IProgressMonitor monitor)
 					throws VException, SQLException, IOException {
-		final SubMonitor progress = SubMonitor.convert(monitor,
-				home.getCount());
+		final SubMonitor progress = SubMonitor.convert(monitor, count);
 		int outExported = 0;
-		final QueryResult result = home.select();
 		final AbstractSerializer visitor = new RelationsSerializer();
 		while (result.hasMoreElements()) {
 			final GeneralDomainObject model = result.nextAsDomainObject();
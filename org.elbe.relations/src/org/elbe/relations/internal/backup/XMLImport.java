@@ -27,6 +27,8 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
@@ -38,6 +40,8 @@ import org.elbe.relations.data.bom.BOMHelper;
 import org.elbe.relations.data.bom.IItem;
 import org.elbe.relations.data.utility.RelationsSerializer;
 import org.elbe.relations.data.utility.UniqueID;
+import org.elbe.relations.internal.backup.BatchInsert.ImportTable;
+import org.elbe.relations.internal.backup.BatchInsert.RebindFactory;
 import org.hip.kernel.bom.BOMException;
 import org.hip.kernel.bom.DomainObject;
 import org.hip.kernel.bom.DomainObjectHome;
@@ -50,6 +54,11 @@ import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * Utility class to import the content of an XML export/backup.
+ * <p>
+ * The entries are inserted using JDBC batches, each batch is committed in one
+ * transaction. Neither the event store nor the search index is updated during
+ * the import, the index has to be built once after the import.
+ * </p>
  *
  * @author Luthiger Created on 16.10.2008
  */
@@ -57,9 +66,12 @@ public class XMLImport {
 	// constants
 	private final static String ROOT = "RelationsExport"; //$NON-NLS-1$
 	private final static String OPERATION_CANCELED_ID = "operation_canceled"; //$NON-NLS-1$
+	private final static String ATT_COLUMN = "field"; //$NON-NLS-1$
+	public final static int DFT_BATCH_SIZE = 500;
 
 	private final File importFile;
 	private int numberOfEntries = 0;
+	private int batchSize = DFT_BATCH_SIZE;
 	private final Collection<RelationReplaceHelper> relationsToRebind;
 
 	/**
@@ -91,27 +103,79 @@ public class XMLImport {
 	public int processFile(final IProgressMonitor monitor,
 			final boolean canSetIdentityField) throws SAXException,
 	ParserConfigurationException, IOException, InterruptedException {
+		final BatchInsert batch = createBatch();
 		try (Reader reader = getReader()) {
 			final InputSource source = new InputSource(reader);
 			final XMLReader parser = SAXParserFactory.newInstance()
 					.newSAXParser().getXMLReader();
 			parser.setContentHandler(
-					new XMLHandler(monitor, canSetIdentityField));
+					new XMLHandler(monitor, canSetIdentityField, batch));
 			parser.parse(source);
+			if (batch != null) {
+				batch.close();
+			}
 			return this.numberOfEntries;
 		}
 		catch (final SAXException exc) {
+			abort(batch);
 			if (OPERATION_CANCELED_ID.equals(exc.getMessage())) {
 				throw new InterruptedException();
 			} else {
 				throw exc;
 			}
 		}
+		catch (final SQLException exc) {
+			abort(batch);
+			throw new SAXException(exc);
+		}
+		catch (IOException | ParserConfigurationException | RuntimeException exc) {
+			abort(batch);
+			throw exc;
+		}
 		finally {
 			close();
 		}
 	}
 
+	private BatchInsert createBatch() throws SAXException {
+		if (this.batchSize <= 1) {
+			return null;
+		}
+		final BatchInsert outBatch = new BatchInsert(this.batchSize,
+				this.relationsToRebind, new RebindFactory() {
+					@Override
+					public RelationReplaceHelper create(final UniqueID inOld,
+							final UniqueID inNew) {
+						return new RelationReplaceHelper(inOld, inNew);
+					}
+				});
+		try {
+			outBatch.open();
+		}
+		catch (final SQLException exc) {
+			throw new SAXException(exc);
+		}
+		return outBatch;
+	}
+
+	private void abort(final BatchInsert inBatch) {
+		if (inBatch != null) {
+			inBatch.abort();
+		}
+	}
+
+	/**
+	 * Sets the number of entries inserted in one JDBC batch, default is
+	 * <code>DFT_BATCH_SIZE</code>. With a value of <code>1</code> or less, the
+	 * entries are inserted one by one.
+	 *
+	 * @param inBatchSize
+	 *            int
+	 */
+	public void setBatchSize(final int inBatchSize) {
+		this.batchSize = inBatchSize;
+	}
+
 	protected Reader getReader() throws IOException {
 		return new BufferedReader(new FileReader(this.importFile));
 	}
@@ -147,13 +211,15 @@ public class XMLImport {
 		private final IProgressMonitor mainMonitor;
 
 		public XMLHandler(final IProgressMonitor inMonitor,
-				final boolean inCanSetIdentityField) {
+				final boolean inCanSetIdentityField, final BatchInsert inBatch) {
 			this.mainMonitor = inMonitor;
 			// monitor = SubMonitor.convert(inMonitor,
 			// IProgressMonitor.UNKNOWN);
 			this.canSetIdentityField = inCanSetIdentityField;
-			this.insertBehaviour = this.canSetIdentityField ? new StraightInsertBehaviour()
+			final IInsertBehaviour lSingle = this.canSetIdentityField ? new StraightInsertBehaviour()
 					: new CautiousInsertBehaviour();
+			this.insertBehaviour = inBatch == null ? lSingle
+					: new BatchInsertBehaviour(inBatch, lSingle);
 		}
 
 		@Override
@@ -397,6 +463,8 @@ public class XMLImport {
 		private final DomainObject model;
 		private IInsertField field = null;
 		private StringBuilder value = new StringBuilder();
+		private final Map<String, Object> row = new TreeMap<>();
+		private boolean rowComplete = true;
 		private final IInsertBehaviour insertBehaviour;
 		private final int itemType;
 		private Long expectedID;
@@ -410,7 +478,9 @@ public class XMLImport {
 		}
 
 		public void insert() throws SAXException {
-			this.insertBehaviour.insert(this.model, this.expectedID, this.itemType);
+			this.insertBehaviour.insert(this.model,
+					this.rowComplete ? this.row : null, this.expectedID,
+					this.itemType);
 			XMLImport.this.numberOfEntries++;
 		}
 
@@ -418,26 +488,36 @@ public class XMLImport {
 				final Attributes inAttributes,
 				final boolean inCanSetIdentityField) {
 			final String lType = inAttributes.getValue("type"); //$NON-NLS-1$
+			final String lColumn = getColumn(inAttributes);
 			if ("String".equals(lType)) { //$NON-NLS-1$
-				this.field = new StringField(inName);
+				this.field = new StringField(inName, lColumn);
 			}
 			if ("Number".equals(lType) || "Long".equals(lType)) { //$NON-NLS-1$ //$NON-NLS-2$
 				if (inCanSetIdentityField) {
-					this.field = new NumberField(inName);
+					this.field = new NumberField(inName, lColumn);
 				} else {
-					this.field = new CautiousNumberField(inName);
+					this.field = new CautiousNumberField(inName, lColumn);
 				}
 			}
 			if ("Integer".equals(lType)) { //$NON-NLS-1$
 				if (inCanSetIdentityField) {
-					this.field = new IntegerField(inName);
+					this.field = new IntegerField(inName, lColumn);
 				} else {
-					this.field = new CautiousIntegerField(inName);
+					this.field = new CautiousIntegerField(inName, lColumn);
 				}
 			}
 			if ("Timestamp".equals(lType)) { //$NON-NLS-1$
-				this.field = new TimestampField(inName);
+				this.field = new TimestampField(inName, lColumn);
+			}
+		}
+
+		protected String getColumn(final Attributes inAttributes) {
+			final String outColumn = inAttributes.getValue(ATT_COLUMN);
+			if (outColumn == null) {
+				// old format: the entry has to be inserted one by one
+				this.rowComplete = false;
 			}
+			return outColumn;
 		}
 
 		public boolean testEndField(final String inName) throws SAXException {
@@ -451,7 +531,7 @@ public class XMLImport {
 			// e.g. "</ID>"
 			try {
 				final String lValue = this.value.toString().trim();
-				if (this.field.setValueTo(this.model, lValue)) {
+				if (this.field.setValueTo(this.model, this.row, lValue)) {
 					this.expectedID = new Long(lValue);
 				}
 				this.value = new StringBuilder();
@@ -518,7 +598,6 @@ public class XMLImport {
 	}
 
 	private class RelationInserter extends Inserter implements IEntryInserter {
-		private static final String ATT_NAME = "field"; //$NON-NLS-1$
 		private static final String FIELD_NAME1 = "NTYPE1"; //$NON-NLS-1$
 		private static final String FIELD_NAME2 = "NTYPE2"; //$NON-NLS-1$
 
@@ -534,10 +613,10 @@ public class XMLImport {
 			// this is a workaround needed by the type change:
 			// old <Type1 field="NTYPE1" type="Number"> ->
 			// new <Type1 field="NTYPE1" type="Integer">
-			final String lFieldName = inAttributes.getValue(ATT_NAME);
+			final String lFieldName = inAttributes.getValue(ATT_COLUMN);
 			if (FIELD_NAME1.equals(lFieldName)
 					|| FIELD_NAME2.equals(lFieldName)) {
-				setField(new IntegerField(inName));
+				setField(new IntegerField(inName, getColumn(inAttributes)));
 			} else {
 				super.initializeField(inName, inAttributes,
 						inCanSetIdentityField);
@@ -553,106 +632,141 @@ public class XMLImport {
 	private interface IInsertField {
 		String getFieldName();
 
-		boolean setValueTo(DomainObject inModel, String inValue)
-				throws VException;
+		/**
+		 * Sets the value to the model and to the row used for batch inserts.
+		 *
+		 * @param inModel
+		 *            DomainObject
+		 * @param inRow
+		 *            Map&lt;String, Object> the row's values keyed by column
+		 * @param inValue
+		 *            String
+		 * @return boolean <code>true</code> if the value is the expected id of
+		 *         the entry
+		 * @throws VException
+		 */
+		boolean setValueTo(DomainObject inModel, Map<String, Object> inRow,
+				String inValue) throws VException;
 	}
 
 	abstract class AbstractField implements IInsertField {
 		protected String fieldName;
+		private final String column;
 
-		public AbstractField(final String inFieldName) {
+		public AbstractField(final String inFieldName, final String inColumn) {
 			this.fieldName = inFieldName;
+			this.column = inColumn;
 		}
 
 		@Override
 		public String getFieldName() {
 			return this.fieldName;
 		}
+
+		protected void setValue(final DomainObject inModel,
+				final Map<String, Object> inRow, final Object inValue)
+						throws VException {
+			inModel.set(this.fieldName, inValue);
+			if (this.column != null) {
+				inRow.put(this.column, inValue);
+			}
+		}
+
+		protected boolean isPrimaryKey(final DomainObject inModel) {
+			return this.fieldName.equals(inModel.getObjectDef()
+					.getPrimaryKeyDef().getKeyName(0));
+		}
 	}
 
 	private class StringField extends AbstractField {
-		public StringField(final String inFieldName) {
-			super(inFieldName);
+		public StringField(final String inFieldName, final String inColumn) {
+			super(inFieldName, inColumn);
 		}
 
 		@Override
 		public boolean setValueTo(final DomainObject inModel,
-				final String inValue) throws VException {
-			inModel.set(this.fieldName,
+				final Map<String, Object> inRow, final String inValue)
+						throws VException {
+			setValue(inModel, inRow,
 					RelationsSerializer.prepareForImport(inValue));
 			return false;
 		}
 	}
 
 	private class NumberField extends AbstractField {
-		public NumberField(final String inFieldName) {
-			super(inFieldName);
+		public NumberField(final String inFieldName, final String inColumn) {
+			super(inFieldName, inColumn);
 		}
 
 		@Override
 		public boolean setValueTo(final DomainObject inModel,
-				final String inValue) throws VException {
-			inModel.set(this.fieldName, new Long(inValue));
+				final Map<String, Object> inRow, final String inValue)
+						throws VException {
+			setValue(inModel, inRow, new Long(inValue));
 			return false;
 		}
 	}
 
 	private class CautiousNumberField extends AbstractField {
-		public CautiousNumberField(final String inFieldName) {
-			super(inFieldName);
+		public CautiousNumberField(final String inFieldName,
+				final String inColumn) {
+			super(inFieldName, inColumn);
 		}
 
 		@Override
 		public boolean setValueTo(final DomainObject inModel,
-				final String inValue) throws VException {
-			if (this.fieldName.equals(inModel.getObjectDef().getPrimaryKeyDef()
-					.getKeyName(0))) {
+				final Map<String, Object> inRow, final String inValue)
+						throws VException {
+			if (isPrimaryKey(inModel)) {
 				return true;
 			}
-			inModel.set(this.fieldName, new Long(inValue));
+			setValue(inModel, inRow, new Long(inValue));
 			return false;
 		}
 	}
 
 	private class IntegerField extends AbstractField {
-		public IntegerField(final String inFieldName) {
-			super(inFieldName);
+		public IntegerField(final String inFieldName, final String inColumn) {
+			super(inFieldName, inColumn);
 		}
 
 		@Override
 		public boolean setValueTo(final DomainObject inModel,
-				final String inValue) throws VException {
-			inModel.set(this.fieldName, new Integer(inValue));
+				final Map<String, Object> inRow, final String inValue)
+						throws VException {
+			setValue(inModel, inRow, new Integer(inValue));
 			return false;
 		}
 	}
 
 	private class CautiousIntegerField extends AbstractField {
-		public CautiousIntegerField(final String inFieldName) {
-			super(inFieldName);
+		public CautiousIntegerField(final String inFieldName,
+				final String inColumn) {
+			super(inFieldName, inColumn);
 		}
 
 		@Override
 		public boolean setValueTo(final DomainObject inModel,
-				final String inValue) throws VException {
-			if (this.fieldName.equals(inModel.getObjectDef().getPrimaryKeyDef()
-					.getKeyName(0))) {
+				final Map<String, Object> inRow, final String inValue)
+						throws VException {
+			if (isPrimaryKey(inModel)) {
 				return true;
 			}
-			inModel.set(this.fieldName, new Integer(inValue));
+			setValue(inModel, inRow, new Integer(inValue));
 			return false;
 		}
 	}
 
 	private class TimestampField extends AbstractField {
-		public TimestampField(final String inFieldName) {
-			super(inFieldName);
+		public TimestampField(final String inFieldName, final String inColumn) {
+			super(inFieldName, inColumn);
 		}
 
 		@Override
 		public boolean setValueTo(final DomainObject inModel,
-				final String inValue) throws VException {
-			inModel.set(this.fieldName, Timestamp.valueOf(inValue));
+				final Map<String, Object> inRow, final String inValue)
+						throws VException {
+			setValue(inModel, inRow, Timestamp.valueOf(inValue));
 			return false;
 		}
 	}
@@ -669,19 +783,23 @@ public class XMLImport {
 		 *
 		 * @param inModel
 		 *            DomainObject
+		 * @param inRow
+		 *            Map&lt;String, Object> the entry's values keyed by column,
+		 *            <code>null</code> if the entry can't be inserted in a batch
 		 * @param inExpectedID
 		 *            Long
 		 * @param inItemType
 		 *            int
 		 * @throws SAXException
 		 */
-		void insert(DomainObject inModel, Long inExpectedID, int inItemType)
-				throws SAXException;
+		void insert(DomainObject inModel, Map<String, Object> inRow,
+				Long inExpectedID, int inItemType) throws SAXException;
 	}
 
 	private class StraightInsertBehaviour implements IInsertBehaviour {
 		@Override
-		public void insert(final DomainObject inModel, final Long inExpectedID,
+		public void insert(final DomainObject inModel,
+				final Map<String, Object> inRow, final Long inExpectedID,
 				final int inItemType) throws SAXException {
 			try {
 				inModel.insert(true);
@@ -694,7 +812,8 @@ public class XMLImport {
 
 	private class CautiousInsertBehaviour implements IInsertBehaviour {
 		@Override
-		public void insert(final DomainObject inModel, final Long inExpectedID,
+		public void insert(final DomainObject inModel,
+				final Map<String, Object> inRow, final Long inExpectedID,
 				final int inItemType) throws SAXException {
 			try {
 				final Long lID = inModel.insert(true);
@@ -714,6 +833,39 @@ public class XMLImport {
 		}
 	}
 
+	/**
+	 * Adds the entries to the JDBC batch. Entries that can't be inserted in a
+	 * batch are passed to the single insert behaviour.
+	 */
+	private class BatchInsertBehaviour implements IInsertBehaviour {
+		private final BatchInsert batch;
+		private final IInsertBehaviour single;
+
+		BatchInsertBehaviour(final BatchInsert inBatch,
+				final IInsertBehaviour inSingle) {
+			this.batch = inBatch;
+			this.single = inSingle;
+		}
+
+		@Override
+		public void insert(final DomainObject inModel,
+				final Map<String, Object> inRow, final Long inExpectedID,
+				final int inItemType) throws SAXException {
+			try {
+				if (inRow == null) {
+					this.batch.flush();
+					this.single.insert(inModel, inRow, inExpectedID, inItemType);
+				} else {
+					this.batch.add(ImportTable.forType(inItemType), inRow,
+							inExpectedID);
+				}
+			}
+			catch (final SQLException exc) {
+				throw new SAXException(exc);
+			}
+		}
+	}
+
 	/**
 	 * Parameter object helping to replace an old id with a new one. Used for
 	 * the rebinding of relations.
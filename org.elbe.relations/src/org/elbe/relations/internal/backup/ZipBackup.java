@@ -32,7 +32,10 @@ import java.util.zip.ZipOutputStream;
  * place.
  *
  * @author Luthiger Created on 04.05.2007
+ * @deprecated copies the files of the open database, use
+ *             {@link ChunkedBackup} instead
  */
+@Deprecated
 public class ZipBackup {
 	private final static int LEN = 2048;
 
@@ -51,13 +51,37 @@ public class ZippedXMLExport extends XMLExport {
 		super(exportFileName, appLocale, numberOfItems);
 	}
 
+	/**
+	 * ZippedXMLExport, writes the zipped export to the specified stream.
+	 *
+	 * @param target
+	 *            {@link OutputStream} the stream to write the zipped export
+	 *            to, is closed when the export is closed
+	 * @param fileName
+	 *            String the name of the zip file, must end with
+	 *            <code>.zip</code>.
+	 * @param appLocale
+	 *            {@link Locale} the application's locale
+	 * @param numberOfItems
+	 *            int
+	 * @throws IOException
+	 */
+	public ZippedXMLExport(final OutputStream target, final String fileName,
+			final Locale appLocale, final int numberOfItems)
+					throws IOException {
+		super(zip(target, fileName), appLocale, numberOfItems);
+	}
+
 	@Override
 	protected OutputStream createStream(final File exportFile)
 			throws IOException {
-		final FileOutputStream stream = new FileOutputStream(exportFile);
-		final ZipOutputStream zipped = new ZipOutputStream(stream);
-		final ZipEntry entry = new ZipEntry(exportFile.getName().replaceAll(
-				".zip", ".xml")); //$NON-NLS-1$ //$NON-NLS-2$
+		return zip(new FileOutputStream(exportFile), exportFile.getName());
+	}
+
+	private static OutputStream zip(final OutputStream target,
+			final String fileName) throws IOException {
+		final ZipOutputStream zipped = new ZipOutputStream(target);
+		final ZipEntry entry = new ZipEntry(fileName.replaceAll(".zip", ".xml")); //$NON-NLS-1$ //$NON-NLS-2$
 		zipped.putNextEntry(entry);
 		return new BufferedOutputStream(zipped);
 	}
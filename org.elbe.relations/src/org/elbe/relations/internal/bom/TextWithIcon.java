@@ -18,7 +18,6 @@
  ***************************************************************************/
 package org.elbe.relations.internal.bom;
 
-import java.io.IOException;
 import java.util.List;
 
 import org.eclipse.e4.core.contexts.IEclipseContext;
@@ -127,17 +126,10 @@ public class TextWithIcon extends Text implements IItemModel {
 			public void run() {
 				try {
 					BOMHelper.getTextHome().deleteItem(getID());
-					deleteItemInIndex();
 				}
 				catch (final BOMException exc) {
 					inLog.error(exc, exc.getMessage());
 				}
-				catch (final VException exc) {
-					inLog.error(exc, exc.getMessage());
-				}
-				catch (final IOException exc) {
-					inLog.error(exc, exc.getMessage());
-				}
 			}
 		};
 	}
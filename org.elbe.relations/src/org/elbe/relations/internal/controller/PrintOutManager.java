@@ -20,24 +20,34 @@ package org.elbe.relations.internal.controller;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.text.Collator;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.xml.transform.TransformerException;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.e4.core.di.annotations.Creatable;
 import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.swt.widgets.Display;
 import org.elbe.relations.RelationsMessages;
 import org.elbe.relations.data.bom.BOMException;
+import org.elbe.relations.data.bom.BOMHelper;
 import org.elbe.relations.data.bom.IItem;
 import org.elbe.relations.data.bom.ILightWeightItem;
+import org.elbe.relations.data.bom.TermHome;
+import org.elbe.relations.data.utility.ItemCollator;
+import org.elbe.relations.data.utility.LongIntMap;
+import org.elbe.relations.data.utility.LongSet;
+import org.elbe.relations.data.utility.RelationGraph;
 import org.elbe.relations.data.utility.UniqueID;
 import org.elbe.relations.db.IDataService;
 import org.elbe.relations.internal.bom.XMLSerializerSpecial;
@@ -47,6 +57,11 @@ import org.elbe.relations.internal.utility.RelatedItemHelper;
 import org.elbe.relations.internal.wizards.PrintOutWizardPage;
 import org.elbe.relations.models.ILightWeightModel;
 import org.elbe.relations.services.IPrintOut;
+import org.hip.kernel.bom.DomainObject;
+import org.hip.kernel.bom.GeneralDomainObjectHome;
+import org.hip.kernel.bom.OrderObject;
+import org.hip.kernel.bom.QueryResult;
+import org.hip.kernel.bom.impl.OrderObjectImpl;
 import org.hip.kernel.bom.impl.XMLSerializer;
 import org.hip.kernel.exc.VException;
 
@@ -68,6 +83,7 @@ public class PrintOutManager {
 	private final static String XML_ITEM = "<Item>%s</Item>"; //$NON-NLS-1$
 	private final static String XML_REFERENCE = "<related_item type=\"%s\">%s</related_item>"; //$NON-NLS-1$
 	private final static String XML_REFERENCES = "<related>%s</related>"; //$NON-NLS-1$
+	private final static int BATCH_SIZE = 200;
 
 	private final IItemCollector[] CONTENT_SETS = new IItemCollector[] {
 	        new SimleCollector(), new SelectedAndRelated(),
@@ -75,7 +91,8 @@ public class PrintOutManager {
 	private IItemCollector contentSet;
 
 	private IPrintOut printer;
-	private Collection<UniqueID> uniqueIDs;
+	// the packed unique IDs of the printed items
+	private LongSet uniqueIDs;
 	private int contentScope = PrintOutWizardPage.SELECTED_RELATED;
 	private boolean printOutReferences = true;
 
@@ -96,7 +113,7 @@ public class PrintOutManager {
 	 */
 	public PrintOutManager() {
 		super();
-		uniqueIDs = new ArrayList<UniqueID>();
+		uniqueIDs = new LongSet();
 	}
 
 	/**
@@ -116,7 +133,7 @@ public class PrintOutManager {
 			return false;
 		}
 
-		uniqueIDs = new ArrayList<UniqueID>();
+		uniqueIDs = new LongSet();
 
 		try {
 			printer.setDocTitle(DOC_TITLE);
@@ -210,6 +227,15 @@ public class PrintOutManager {
 		return contentSet.collectItems(inSelected);
 	}
 
+	/**
+	 * @return boolean <code>true</code> if the whole database is printed out,
+	 *         i.e. the items should be printed with
+	 *         {@link #printAll(IProgressMonitor)}.
+	 */
+	public boolean isWholeDB() {
+		return contentScope == PrintOutWizardPage.SELECTED_WHOLE;
+	}
+
 	/**
 	 * Checks whether the specified is printed yet.
 	 *
@@ -219,12 +245,8 @@ public class PrintOutManager {
 	 * @throws VException
 	 */
 	private boolean isNotPrinted(final IItem inItem) throws VException {
-		final UniqueID lID = new UniqueID(inItem.getItemType(), inItem.getID());
-		if (uniqueIDs.contains(lID)) {
-			return false;
-		}
-		uniqueIDs.add(lID);
-		return true;
+		return uniqueIDs.add(UniqueID.pack(inItem.getItemType(),
+		        inItem.getID()));
 	}
 
 	/**
@@ -241,13 +263,11 @@ public class PrintOutManager {
 	public int printItem(final IItem inItem) throws VException, IOException {
 		int outPrinted = 0;
 		if (isNotPrinted(inItem)) {
-			final XMLSerializer lVisitor = new XMLSerializerSpecial(
-			        biblioController, log);
-			inItem.accept(lVisitor);
-			String lXML = lVisitor.toString();
+			String lXML = serialize(inItem);
 			try {
 				if (printOutReferences) {
-					lXML += collectReferences(inItem);
+					lXML += formatReferences(
+					        RelatedItemHelper.getRelatedLightWeights(inItem));
 				}
 				printer.printItem(String.format(XML_ITEM, lXML));
 			}
@@ -262,14 +282,72 @@ public class PrintOutManager {
 		return outPrinted;
 	}
 
-	private String collectReferences(final IItem inItem)
-	        throws VException, SQLException {
-		final StringBuffer outReferences = new StringBuffer();
-		for (final ItemWithIcon lItem : RelatedItemHelper
-		        .getRelatedItems(inItem)) {
+	/**
+	 * Prints all items of the database to the print out document.
+	 * <p>
+	 * The items are read with one ordered cursor per item table. The related
+	 * items are taken from the <code>RelationGraph</code> (which is loaded
+	 * with one pass over the relations table if needed) and their titles from
+	 * the item catalog, i.e. printing an item doesn't need any further query.
+	 * The serialized items are passed to the printer in batches.
+	 * </p>
+	 *
+	 * @param inMonitor
+	 *            {@link IProgressMonitor} worked for each item
+	 * @return int number of printed items
+	 * @throws VException
+	 * @throws SQLException
+	 * @throws IOException
+	 * @throws TransformerException
+	 */
+	public int printAll(final IProgressMonitor inMonitor) throws VException,
+	        SQLException, IOException, TransformerException {
+		final CatalogReferences lReferences = printOutReferences
+		        ? new CatalogReferences(data.getAll()) : null;
+		final List<String> lBatch = new ArrayList<String>(BATCH_SIZE);
+		int outPrinted = 0;
+		for (final GeneralDomainObjectHome lHome : new GeneralDomainObjectHome[] {
+		        BOMHelper.getTermHome(), BOMHelper.getTextHome(),
+		        BOMHelper.getPersonHome() }) {
+			final OrderObject lOrder = new OrderObjectImpl();
+			lOrder.setValue(TermHome.KEY_ID, 1);
+			final QueryResult lResult = lHome.select(lOrder);
+			while (lResult.hasMoreElements() && !inMonitor.isCanceled()) {
+				final DomainObject lObject = lResult.nextAsDomainObject();
+				final IItem lItem = (IItem) lObject;
+				if (isNotPrinted(lItem)) {
+					String lXML = serialize(lItem);
+					if (lReferences != null) {
+						lXML += lReferences.collect(lItem);
+					}
+					lBatch.add(String.format(XML_ITEM, lXML));
+					outPrinted++;
+				}
+				lObject.release();
+				if (lBatch.size() == BATCH_SIZE) {
+					printer.printItems(lBatch);
+					lBatch.clear();
+				}
+				inMonitor.worked(1);
+			}
+		}
+		printer.printItems(lBatch);
+		return outPrinted;
+	}
+
+	private String serialize(final IItem inItem) {
+		final XMLSerializer lVisitor = new XMLSerializerSpecial(
+		        biblioController, log);
+		inItem.accept(lVisitor);
+		return lVisitor.toString();
+	}
+
+	private String formatReferences(
+	        final List<? extends ILightWeightItem> inRelated) {
+		final StringBuilder outReferences = new StringBuilder();
+		for (final ILightWeightItem lItem : inRelated) {
 			outReferences.append(String.format(XML_REFERENCE,
-			        lItem.getItem().getItemType(), lItem.getItem().getTitle()))
-			        .append(NL);
+			        lItem.getItemType(), lItem.toString())).append(NL);
 		}
 		return String.format(XML_REFERENCES, new String(outReferences));
 	}
@@ -281,7 +359,7 @@ public class PrintOutManager {
 	 *         some items have been printed out.
 	 */
 	public boolean isPrinting() {
-		return uniqueIDs.size() > 0;
+		return !uniqueIDs.isEmpty();
 	}
 
 	/**
@@ -316,9 +394,14 @@ public class PrintOutManager {
 		        throws VException, SQLException {
 			final Collection<IItem> outItems = new ArrayList<IItem>();
 			outItems.add(inSelected);
-			for (final ItemWithIcon lItem : RelatedItemHelper
-			        .getRelatedItems(inSelected)) {
-				outItems.add(lItem.getItem());
+			try {
+				for (final ItemWithIcon lItem : RelatedItemHelper
+				        .getRelatedItems(inSelected)) {
+					outItems.add(lItem.getItem());
+				}
+			}
+			catch (final BOMException exc) {
+				throw new VException(exc.getMessage());
 			}
 			return outItems;
 		}
@@ -332,6 +415,47 @@ public class PrintOutManager {
 		}
 	}
 
+	/**
+	 * Helper class to collect the references of the items printed with
+	 * {@link PrintOutManager#printAll(IProgressMonitor)}: the related items
+	 * are looked up in the relation graph, their titles in the item catalog.
+	 */
+	private class CatalogReferences {
+		private final List<ILightWeightModel> items;
+		private final LongIntMap rows;
+		private final Collator collator;
+
+		CatalogReferences(final Collection<ILightWeightModel> inItems)
+		        throws SQLException {
+			if (!RelationGraph.INSTANCE.isLoaded()) {
+				RelationGraph.INSTANCE.load();
+			}
+			items = new ArrayList<ILightWeightModel>(inItems);
+			rows = new LongIntMap();
+			for (int i = 0; i < items.size(); i++) {
+				final ILightWeightModel lItem = items.get(i);
+				rows.putIfAbsent(
+				        UniqueID.pack(lItem.getItemType(), lItem.getID()), i);
+			}
+			collator = new ItemCollator();
+			collator.setStrength(Collator.SECONDARY);
+		}
+
+		String collect(final IItem inItem) throws VException {
+			final List<ILightWeightModel> lRelated = new ArrayList<ILightWeightModel>();
+			for (final RelationGraph.Neighbour lNeighbour : RelationGraph.INSTANCE
+			        .getNeighbours(
+			                new UniqueID(inItem.getItemType(), inItem.getID()))) {
+				final int lRow = rows.get(lNeighbour.item.pack());
+				if (lRow != LongIntMap.NOT_FOUND) {
+					lRelated.add(items.get(lRow));
+				}
+			}
+			Collections.sort(lRelated, collator);
+			return formatReferences(lRelated);
+		}
+	}
+
 	// Two helper classes to get an iterator that returns IItem objects when
 	// calling the next() method.
 	// These are used for the <code>WholeDBCollector</code>
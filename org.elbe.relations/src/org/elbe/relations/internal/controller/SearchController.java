@@ -18,16 +18,21 @@
  ***************************************************************************/
 package org.elbe.relations.internal.controller;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Creatable;
 import org.eclipse.e4.core.services.log.Logger;
+import org.elbe.relations.data.search.TitleSuggester;
+import org.elbe.relations.data.search.TitleSuggester.Suggestion;
 import org.elbe.relations.internal.data.DBSettings;
 import org.elbe.relations.internal.search.RelationsSearcher;
 import org.elbe.relations.search.RetrievedItemWithIcon;
@@ -41,6 +46,8 @@ import org.elbe.relations.search.RetrievedItemWithIcon;
 @Creatable
 @Singleton
 public class SearchController {
+	private static final int MAX_SUGGESTIONS = 12;
+
 	private volatile WritableList searchResults = null;
 	private RelationsSearcher searcher;
 
@@ -92,6 +99,42 @@ public class SearchController {
 		return searchResults;
 	}
 
+	/**
+	 * Returns the items with a title completing the specified text, e.g. while
+	 * the user is typing the search query.
+	 *
+	 * @param inText
+	 *            String the text entered so far
+	 * @return List&lt;RetrievedItemWithIcon> the suggested items, best first
+	 */
+	public List<RetrievedItemWithIcon> suggest(final String inText) {
+		final List<Suggestion> lSuggestions = TitleSuggester.INSTANCE
+		        .suggest(inText, MAX_SUGGESTIONS);
+		final List<RetrievedItemWithIcon> outItems = new ArrayList<RetrievedItemWithIcon>(
+		        lSuggestions.size());
+		for (final Suggestion lSuggestion : lSuggestions) {
+			outItems.add(new RetrievedItemWithIcon(lSuggestion.id,
+			        lSuggestion.title));
+		}
+		return outItems;
+	}
+
+	/**
+	 * Makes the specified item the only search result, e.g. after the user
+	 * accepted a suggestion.
+	 *
+	 * @param inItem
+	 *            {@link RetrievedItemWithIcon}
+	 * @return Collection&lt;RetrievedItemWithIcon>
+	 */
+	@SuppressWarnings("unchecked")
+	public Collection<RetrievedItemWithIcon> show(
+	        final RetrievedItemWithIcon inItem) {
+		searchResults = new WritableList(Collections.singletonList(inItem),
+		        RetrievedItemWithIcon.class);
+		return searchResults;
+	}
+
 	/**
 	 * @return Collection&lt;RetrievedItemWithIcon> an empty list
 	 */
@@ -105,6 +148,10 @@ public class SearchController {
 	 * Reset searcher after DB changed.
 	 */
 	public void reset() {
+		if (searcher != null) {
+			// unsubscribes the searcher's event handlers
+			ContextInjectionFactory.uninject(searcher, context);
+		}
 		searcher = null;
 	}
 
@@ -55,6 +55,7 @@ import org.eclipse.swt.widgets.Text;
 import org.eclipse.swt.widgets.Widget;
 import org.elbe.relations.RelationsConstants;
 import org.elbe.relations.RelationsMessages;
+import org.elbe.relations.data.bom.AbstractItem;
 import org.elbe.relations.data.bom.BOMException;
 import org.elbe.relations.data.bom.IItem;
 import org.elbe.relations.internal.services.ISelectedTextProvider;
@@ -330,12 +331,21 @@ public class InspectorView implements ISelectedTextProvider {
 			return;
 		}
 
-		final InspectorViewVisitor lVisitor = new InspectorViewVisitor();
-		item.visit(lVisitor);
+		final InspectorViewVisitor lVisitor = createVisitor();
 		displayType.refresh(title, styledText, lVisitor);
 		clearDirty();
 	}
 
+	private InspectorViewVisitor createVisitor() throws VException {
+		final InspectorViewVisitor outVisitor = new InspectorViewVisitor();
+		item.visit(outVisitor);
+		final IItem lItem = item.getItem();
+		outVisitor.setItem(item.getUniqueID(),
+		        lItem instanceof AbstractItem
+		                ? ((AbstractItem) lItem).getModified() : null);
+		return outVisitor;
+	}
+
 	private DisplayType getDisplayType(final ItemAdapter inModel) {
 		DisplayType out = DisplayType.NORMAL;
 		if (inModel.getItemType() == IItem.PERSON) {
@@ -373,9 +383,8 @@ public class InspectorView implements ISelectedTextProvider {
 			return;
 		}
 
-		final InspectorViewVisitor lVisitor = new InspectorViewVisitor();
 		try {
-			item.visit(lVisitor);
+			final InspectorViewVisitor lVisitor = createVisitor();
 			displayType.refresh(title, styledText, lVisitor);
 		}
 		catch (VException | IOException | SAXException exc) {
@@ -488,7 +497,8 @@ public class InspectorView implements ISelectedTextProvider {
 		        SAXException {
 			inText.setText(inVisitor.getTitle());
 			inText.setEditable(true);
-			inStyled.setTaggedText(inVisitor.getText());
+			inStyled.setTaggedText(inVisitor.getText(),
+			        inVisitor.getItemID(), inVisitor.getModified());
 			inStyled.setEditable(true);
 		}
 	}
@@ -514,7 +524,8 @@ public class InspectorView implements ISelectedTextProvider {
 		        SAXException {
 			inText.setText(inVisitor.getTitle());
 			inText.setEditable(false);
-			inStyled.setTaggedText(inVisitor.getText());
+			inStyled.setTaggedText(inVisitor.getText(),
+			        inVisitor.getItemID(), inVisitor.getModified());
 			inStyled.setEditable(true);
 		}
 	}
@@ -527,7 +538,8 @@ public class InspectorView implements ISelectedTextProvider {
 		        SAXException {
 			inText.setText(inVisitor.getTitle());
 			inText.setEditable(true);
-			inStyled.setTaggedText(inVisitor.getText());
+			inStyled.setTaggedText(inVisitor.getText(),
+			        inVisitor.getItemID(), inVisitor.getModified());
 			inStyled.setEditable(false);
 		}
 	}
@@ -540,7 +552,8 @@ public class InspectorView implements ISelectedTextProvider {
 		        SAXException {
 			inText.setText(inVisitor.getTitle());
 			inText.setEditable(true);
-			inStyled.setTaggedText(inVisitor.getRealText());
+			inStyled.setTaggedText(inVisitor.getRealText(),
+			        inVisitor.getItemID(), inVisitor.getModified());
 			inStyled.setEditable(true);
 		}
 	}
@@ -36,10 +36,17 @@ import org.eclipse.e4.ui.model.application.ui.basic.MPart;
 import org.eclipse.e4.ui.services.EMenuService;
 import org.eclipse.e4.ui.workbench.modeling.EModelService;
 import org.eclipse.e4.ui.workbench.modeling.ESelectionService;
+import org.eclipse.jface.bindings.keys.KeyStroke;
+import org.eclipse.jface.bindings.keys.ParseException;
 import org.eclipse.jface.databinding.viewers.ObservableListContentProvider;
+import org.eclipse.jface.fieldassist.ComboContentAdapter;
+import org.eclipse.jface.fieldassist.ContentProposalAdapter;
 import org.eclipse.jface.fieldassist.ControlDecoration;
 import org.eclipse.jface.fieldassist.FieldDecoration;
 import org.eclipse.jface.fieldassist.FieldDecorationRegistry;
+import org.eclipse.jface.fieldassist.IContentProposal;
+import org.eclipse.jface.fieldassist.IContentProposalListener;
+import org.eclipse.jface.fieldassist.IContentProposalProvider;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.dnd.DND;
@@ -76,6 +83,8 @@ public class SearchView extends AbstractToolPart {
 	private static final String QUERY_HINT = RelationsMessages
 	        .getString("SearchView.tip.search"); //$NON-NLS-1$
 	private static final String DIALOG_TERM = "relations.search.memory"; //$NON-NLS-1$
+	private static final char[] AUTO_ACTIVATION = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789" //$NON-NLS-1$
+	        .toCharArray();
 
 	@Inject
 	private ESelectionService selectionService;
@@ -181,9 +190,35 @@ public class SearchView extends AbstractToolPart {
 				}
 			}
 		});
+		createProposals();
 		return outIndent;
 	}
 
+	/**
+	 * Proposes the titles of the items matching the text typed so far.
+	 */
+	private void createProposals() {
+		KeyStroke lKeyStroke = null;
+		try {
+			lKeyStroke = KeyStroke.getInstance("Ctrl+Space"); //$NON-NLS-1$
+		}
+		catch (final ParseException exc) {
+			//
+		}
+		final ContentProposalAdapter lAdapter = new ContentProposalAdapter(
+		        input, new ComboContentAdapter(), new TitleProposalProvider(),
+		        lKeyStroke, AUTO_ACTIVATION);
+		lAdapter.setPropagateKeys(true);
+		lAdapter.setProposalAcceptanceStyle(
+		        ContentProposalAdapter.PROPOSAL_REPLACE);
+		lAdapter.addContentProposalListener(new IContentProposalListener() {
+			@Override
+			public void proposalAccepted(final IContentProposal inProposal) {
+				show(((TitleProposal) inProposal).item);
+			}
+		});
+	}
+
 	private void createButtonControl(final Composite inSearch,
 	        final int inIndent) {
 		button = new Button(search, SWT.PUSH);
@@ -228,6 +263,16 @@ public class SearchView extends AbstractToolPart {
 		results.setSelection(results.getSelection());
 	}
 
+	private void show(final RetrievedItemWithIcon inItem) {
+		addUnique(inItem.toString());
+		results.setInput(searchController.show(inItem));
+
+		final Table lTable = results.getTable();
+		lTable.setFocus();
+		lTable.select(0);
+		results.setSelection(results.getSelection());
+	}
+
 	private void addUnique(final String inText) {
 		final List<String> lItems = new ArrayList<String>(
 		        Arrays.asList(input.getItems()));
@@ -301,4 +346,49 @@ public class SearchView extends AbstractToolPart {
 		settings.saveToHistory(input.getItems());
 	}
 
+	// ---
+
+	private class TitleProposalProvider implements IContentProposalProvider {
+		@Override
+		public IContentProposal[] getProposals(final String inContents,
+		        final int inPosition) {
+			final List<RetrievedItemWithIcon> lItems = searchController
+			        .suggest(inContents);
+			final IContentProposal[] outProposals = new IContentProposal[lItems
+			        .size()];
+			for (int i = 0; i < outProposals.length; i++) {
+				outProposals[i] = new TitleProposal(lItems.get(i));
+			}
+			return outProposals;
+		}
+	}
+
+	private static class TitleProposal implements IContentProposal {
+		private final RetrievedItemWithIcon item;
+
+		TitleProposal(final RetrievedItemWithIcon inItem) {
+			item = inItem;
+		}
+
+		@Override
+		public String getContent() {
+			return item.toString();
+		}
+
+		@Override
+		public int getCursorPosition() {
+			return item.toString().length();
+		}
+
+		@Override
+		public String getLabel() {
+			return item.toString();
+		}
+
+		@Override
+		public String getDescription() {
+			return null;
+		}
+	}
+
 }
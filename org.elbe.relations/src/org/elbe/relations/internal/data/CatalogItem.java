@@ -0,0 +1,127 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.internal.data;
+
+import org.eclipse.swt.graphics.Image;
+import org.elbe.relations.RelationsImages;
+import org.elbe.relations.data.bom.AbstractLightWeight;
+import org.elbe.relations.data.bom.BOMException;
+import org.elbe.relations.data.bom.BOMHelper;
+import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.bom.ILightWeightItem;
+import org.elbe.relations.data.utility.ItemCatalog;
+import org.elbe.relations.data.utility.ItemDetailsCache;
+import org.elbe.relations.data.utility.UniqueID;
+import org.elbe.relations.db.IAction;
+import org.elbe.relations.models.ILightWeightModel;
+
+/**
+ * An item in the selection views, pointing to a row in the
+ * {@link ItemCatalog}.
+ * <p>
+ * The catalog contains the item's title and timestamps only. The remaining
+ * fields (e.g. the text) are fetched on demand, see {@link #getDetails()}.
+ * </p>
+ *
+ * @author lbenno
+ */
+public class CatalogItem extends AbstractLightWeight
+		implements ILightWeightModel {
+	private final ItemCatalog catalog;
+	private final int row;
+
+	/**
+	 * CatalogItem constructor.
+	 *
+	 * @param catalog
+	 *            {@link ItemCatalog}
+	 * @param row
+	 *            int the item's row in the catalog
+	 */
+	public CatalogItem(final ItemCatalog catalog, final int row) {
+		super();
+		this.catalog = catalog;
+		this.row = row;
+	}
+
+	@Override
+	public long getID() {
+		return this.catalog.getID(this.row);
+	}
+
+	@Override
+	public int getItemType() {
+		return this.catalog.getItemType(this.row);
+	}
+
+	@Override
+	public String toString() {
+		return this.catalog.getTitle(this.row);
+	}
+
+	@Override
+	protected Object[] getCreatedModified() {
+		return new Object[] { this.catalog.getCreated(this.row),
+				this.catalog.getModified(this.row) };
+	}
+
+	/**
+	 * Returns the item with all fields, i.e. including the text and, in case
+	 * of a text item, the bibliographical fields.
+	 *
+	 * @return {@link ILightWeightItem} e.g. <code>LightWeightText</code>
+	 * @throws BOMException
+	 */
+	public ILightWeightItem getDetails() throws BOMException {
+		return ItemDetailsCache.INSTANCE
+				.get(new UniqueID(getItemType(), getID()));
+	}
+
+	@Override
+	public Image getImage() {
+		switch (getItemType()) {
+		case IItem.TERM:
+			return RelationsImages.TERM.getImage();
+		case IItem.TEXT:
+			return RelationsImages.TEXT.getImage();
+		default:
+			return RelationsImages.PERSON.getImage();
+		}
+	}
+
+	@Override
+	public IAction getItemDeleteAction() {
+		return new IAction() {
+			@Override
+			public void run() throws BOMException {
+				switch (getItemType()) {
+				case IItem.TERM:
+					BOMHelper.getTermHome().deleteItem(getID());
+					break;
+				case IItem.TEXT:
+					BOMHelper.getTextHome().deleteItem(getID());
+					break;
+				default:
+					BOMHelper.getPersonHome().deleteItem(getID());
+				}
+			}
+		};
+	}
+
+}
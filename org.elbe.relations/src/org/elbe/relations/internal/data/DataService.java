@@ -19,15 +19,17 @@
 package org.elbe.relations.internal.data;
 
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
 
 import javax.inject.Inject;
 
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.di.extensions.EventTopic;
+import org.eclipse.e4.core.di.extensions.Preference;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.e4.ui.di.UISynchronize;
@@ -37,25 +39,24 @@ import org.elbe.relations.data.bom.AbstractTerm;
 import org.elbe.relations.data.bom.AbstractText;
 import org.elbe.relations.data.bom.BOMException;
 import org.elbe.relations.data.bom.BOMHelper;
+import org.elbe.relations.data.bom.EventStoreHome;
 import org.elbe.relations.data.bom.IItem;
 import org.elbe.relations.data.bom.ILightWeightItem;
 import org.elbe.relations.data.bom.LightWeightPerson;
 import org.elbe.relations.data.bom.LightWeightTerm;
 import org.elbe.relations.data.bom.LightWeightText;
+import org.elbe.relations.data.search.TitleSuggester;
+import org.elbe.relations.data.utility.ItemCatalog;
+import org.elbe.relations.data.utility.ItemDetailsCache;
+import org.elbe.relations.data.utility.RelationGraph;
 import org.elbe.relations.data.utility.UniqueID;
 import org.elbe.relations.db.IDataService;
-import org.elbe.relations.internal.bom.LightWeightPersonWithIcon;
-import org.elbe.relations.internal.bom.LightWeightTermWithIcon;
-import org.elbe.relations.internal.bom.LightWeightTextWithIcon;
 import org.elbe.relations.internal.bom.PersonWithIcon;
 import org.elbe.relations.internal.bom.TermWithIcon;
 import org.elbe.relations.internal.bom.TextWithIcon;
+import org.elbe.relations.internal.search.IndexerController;
 import org.elbe.relations.models.IItemModel;
 import org.elbe.relations.models.ILightWeightModel;
-import org.hip.kernel.bom.AlternativeModel;
-import org.hip.kernel.bom.AlternativeModelFactory;
-import org.hip.kernel.bom.DomainObjectHome;
-import org.hip.kernel.bom.QueryResult;
 import org.hip.kernel.exc.VException;
 
 /**
@@ -66,15 +67,23 @@ import org.hip.kernel.exc.VException;
  * <code>IDataService</code>), thus giving them the possibility to access
  * information about the actual data access.
  * </p>
+ * <p>
+ * The collections are changed on the UI thread. The data is loaded in the
+ * background and published on the UI thread, the changes made in the
+ * meantime are replayed on the loaded data.
+ * </p>
  *
  * @author Luthiger
  */
 @SuppressWarnings("restriction")
 public class DataService implements IDataService {
-	private static Collection<ILightWeightModel> terms = new ArrayList<>();
-	private static Collection<ILightWeightModel> texts = new ArrayList<>();
-	private static Collection<ILightWeightModel> persons = new ArrayList<>();
-	private static Collection<ILightWeightModel> combined;
+	private static volatile Collection<ILightWeightModel> terms = new ArrayList<>();
+	private static volatile Collection<ILightWeightModel> texts = new ArrayList<>();
+	private static volatile Collection<ILightWeightModel> persons = new ArrayList<>();
+	private static volatile Collection<ILightWeightModel> combined = new ArrayList<>();
+	private static volatile ItemCatalog catalog = new ItemCatalog();
+	// the changes recorded by the loads running, guarded by itself
+	private static final Collection<List<Change>> LOADING = new ArrayList<>();
 
 	@Inject
 	private IEventBroker eventBroker;
@@ -120,13 +129,39 @@ public class DataService implements IDataService {
 	 */
 	@Override
 	public void loadNew(final LightWeightTerm inTerm) {
-		final ILightWeightModel lTerm = (inTerm instanceof ILightWeightModel) ? (ILightWeightModel) inTerm
-				: new LightWeightTermWithIcon(inTerm);
-		terms.add(lTerm);
-		combined.add(lTerm);
+		change(new AddItem(IItem.TERM, inTerm, inTerm.created,
+				inTerm.modified));
 		this.eventBroker.post(RelationsConstants.TOPIC_DB_CHANGED_RELOAD, "reload"); //$NON-NLS-1$
 		this.eventBroker.post(RelationsConstants.TOPIC_DB_CHANGED_CREATED,
-				new UniqueID(IItem.TERM, lTerm.getID()));
+				new UniqueID(IItem.TERM, inTerm.getID()));
+	}
+
+	/**
+	 * Adds the newly created term items to the relevant collections and sends
+	 * one reload notification for the whole batch. The collections are changed
+	 * on the UI thread, the caller might be a worker thread.
+	 *
+	 * @param inTerms
+	 *            Collection&lt;LightWeightTerm>
+	 */
+	@Override
+	public void loadNewTerms(final Collection<LightWeightTerm> inTerms) {
+		if (inTerms.isEmpty()) {
+			return;
+		}
+		this.jobManager.syncExec(() -> addNewTerms(inTerms));
+	}
+
+	private void addNewTerms(final Collection<LightWeightTerm> inTerms) {
+		for (final LightWeightTerm lTerm : inTerms) {
+			change(new AddItem(IItem.TERM, lTerm, lTerm.created,
+					lTerm.modified));
+		}
+		this.eventBroker.post(RelationsConstants.TOPIC_DB_CHANGED_RELOAD, "reload"); //$NON-NLS-1$
+		for (final LightWeightTerm lTerm : inTerms) {
+			this.eventBroker.post(RelationsConstants.TOPIC_DB_CHANGED_CREATED,
+					new UniqueID(IItem.TERM, lTerm.getID()));
+		}
 	}
 
 	/**
@@ -138,13 +173,11 @@ public class DataService implements IDataService {
 	 */
 	@Override
 	public void loadNew(final LightWeightText inText) {
-		final ILightWeightModel lText = (inText instanceof ILightWeightModel) ? (ILightWeightModel) inText
-				: new LightWeightTextWithIcon(inText);
-		texts.add(lText);
-		combined.add(lText);
+		change(new AddItem(IItem.TEXT, inText, inText.created,
+				inText.modified));
 		this.eventBroker.post(RelationsConstants.TOPIC_DB_CHANGED_RELOAD, "reload"); //$NON-NLS-1$
 		this.eventBroker.post(RelationsConstants.TOPIC_DB_CHANGED_CREATED,
-				new UniqueID(IItem.TEXT, lText.getID()));
+				new UniqueID(IItem.TEXT, inText.getID()));
 	}
 
 	/**
@@ -156,13 +189,35 @@ public class DataService implements IDataService {
 	 */
 	@Override
 	public void loadNew(final LightWeightPerson inPerson) {
-		final ILightWeightModel lPerson = (inPerson instanceof ILightWeightModel) ? (ILightWeightModel) inPerson
-				: new LightWeightPersonWithIcon(inPerson);
-		persons.add(lPerson);
-		combined.add(lPerson);
+		change(new AddItem(IItem.PERSON, inPerson, inPerson.created,
+				inPerson.modified));
 		this.eventBroker.post(RelationsConstants.TOPIC_DB_CHANGED_RELOAD, "reload"); //$NON-NLS-1$
 		this.eventBroker.post(RelationsConstants.TOPIC_DB_CHANGED_CREATED,
-				new UniqueID(IItem.PERSON, lPerson.getID()));
+				new UniqueID(IItem.PERSON, inPerson.getID()));
+	}
+
+	/**
+	 * Applies the specified change to the collections and records it for the
+	 * loads running.
+	 */
+	private static void change(final Change inChange) {
+		synchronized (LOADING) {
+			inChange.apply(false);
+			for (final List<Change> lRecorded : LOADING) {
+				lRecorded.add(inChange);
+			}
+		}
+	}
+
+	private static Collection<ILightWeightModel> getItems(final int inType) {
+		switch (inType) {
+		case IItem.TERM:
+			return terms;
+		case IItem.TEXT:
+			return texts;
+		default:
+			return persons;
+		}
 	}
 
 	@Override
@@ -190,6 +245,10 @@ public class DataService implements IDataService {
 
 	/**
 	 * Loads the data from the configured data store.
+	 * <p>
+	 * Only the items' titles and timestamps are loaded (see
+	 * {@link ItemCatalog}), the remaining fields are fetched when needed.
+	 * </p>
 	 *
 	 * @param inEventTopic
 	 *            String the event topic to post after data loading has been
@@ -200,31 +259,107 @@ public class DataService implements IDataService {
 		this.jobManager.asyncExec(new Runnable() {
 			@Override
 			public void run() {
-				try {
-					terms = retrieveData(BOMHelper.getCollectableTermHome(),
-							new AlternativeFactory.TermModelFactory());
-					texts = retrieveData(BOMHelper.getCollectableTextHome(),
-							new AlternativeFactory.TextModelFactory());
-					persons = retrieveData(
-							BOMHelper.getCollectablePersonHome(),
-							new AlternativeFactory.PersonModelFactory());
-					combined = new ArrayList<>();
-					combined.addAll(terms);
-					combined.addAll(texts);
-					combined.addAll(persons);
+				load(inEventTopic);
+			}
+		});
+	}
+
+	/**
+	 * Loads the data from the configured data store on the calling thread.
+	 * <p>
+	 * In contrast to {@link #loadData(String)}, this method may be called from
+	 * a background thread, e.g. during the application's startup. The views
+	 * are notified with the posted event.
+	 * </p>
+	 *
+	 * @param inEventTopic
+	 *            String the event topic to post after data loading has been
+	 *            done
+	 */
+	public void load(final String inEventTopic) {
+		RelationGraph.INSTANCE.clear();
+		ItemDetailsCache.INSTANCE.clear();
+		TitleSuggester.INSTANCE.clear();
+		final List<Change> lRecorded = new ArrayList<>();
+		synchronized (LOADING) {
+			LOADING.add(lRecorded);
+		}
+		TitleSuggester.INSTANCE.beginLoad();
+		try {
+			// the collections are filled before they are published
+			final ItemCatalog lCatalog = ItemCatalog.load();
+			final Collection<ILightWeightModel> lTerms = new ArrayList<>();
+			final Collection<ILightWeightModel> lTexts = new ArrayList<>();
+			final Collection<ILightWeightModel> lPersons = new ArrayList<>();
+			final Collection<ILightWeightModel> lCombined = new ArrayList<>(
+					lCatalog.size());
+			for (int i = 0; i < lCatalog.size(); i++) {
+				final ILightWeightModel lItem = new CatalogItem(lCatalog, i);
+				switch (lItem.getItemType()) {
+				case IItem.TERM:
+					lTerms.add(lItem);
+					break;
+				case IItem.TEXT:
+					lTexts.add(lItem);
+					break;
+				default:
+					lPersons.add(lItem);
 				}
-				catch (final BOMException exc) {
-					terms = Collections.emptyList();
-					texts = Collections.emptyList();
-					persons = Collections.emptyList();
-					combined = Collections.emptyList();
-					DataService.this.log.error(exc, exc.getMessage());
+				lCombined.add(lItem);
+			}
+			TitleSuggester.INSTANCE.load(lCatalog);
+			publish(lRecorded, lCatalog, lTerms, lTexts, lPersons, lCombined);
+		}
+		catch (final SQLException exc) {
+			TitleSuggester.INSTANCE.clear();
+			publish(lRecorded, new ItemCatalog(), new ArrayList<>(),
+					new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+			this.log.error(exc, exc.getMessage());
+		}
+		loadRelations();
+		this.eventBroker.post(inEventTopic, "initialized"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Publishes the loaded collections on the UI thread and replays the
+	 * changes made while loading. The loaded data might contain a change
+	 * already, therefore, the changes are replayed only if missing.
+	 */
+	private void publish(final List<Change> inRecorded,
+			final ItemCatalog inCatalog,
+			final Collection<ILightWeightModel> inTerms,
+			final Collection<ILightWeightModel> inTexts,
+			final Collection<ILightWeightModel> inPersons,
+			final Collection<ILightWeightModel> inCombined) {
+		this.jobManager.syncExec(() -> {
+			synchronized (LOADING) {
+				LOADING.remove(inRecorded);
+				catalog = inCatalog;
+				terms = inTerms;
+				texts = inTexts;
+				persons = inPersons;
+				combined = inCombined;
+				for (final Change lChange : inRecorded) {
+					lChange.apply(true);
 				}
-				DataService.this.eventBroker.post(inEventTopic, "initialized"); //$NON-NLS-1$
 			}
 		});
 	}
 
+	/**
+	 * Loads the in-memory graph of the relations between the items. If the
+	 * graph can't be loaded, the related items are retrieved from the database.
+	 */
+	private void loadRelations() {
+		try {
+			RelationGraph.INSTANCE.load();
+		}
+		catch (final SQLException exc) {
+			RelationGraph.INSTANCE.clear();
+			this.log.error(exc, exc.getMessage());
+		}
+	}
+
 	@Override
 	public int getNumberOfItems() {
 		return combined == null ? 0 : combined.size();
@@ -244,7 +379,9 @@ public class DataService implements IDataService {
 	@Override
 	public int getNumberOfEvents() {
 		try {
-			return BOMHelper.getEventStoreHome().getCount();
+			final EventStoreHome lHome = BOMHelper.getEventStoreHome();
+			lHome.flush();
+			return lHome.getCount();
 		}
 		catch (org.hip.kernel.bom.BOMException | SQLException exc) {
 			DataService.this.log.error(exc, exc.getMessage());
@@ -257,37 +394,9 @@ public class DataService implements IDataService {
 		return this.dbSettings.getDBName();
 	}
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private Collection<ILightWeightModel> retrieveData(
-			final DomainObjectHome inHome,
-			final AlternativeModelFactory inFactory) throws BOMException {
-		try {
-			final QueryResult lResult = inHome.select();
-			final Collection<AlternativeModel> out = lResult.load(inFactory);
-			return (Collection) out;
-		}
-		catch (final VException exc) {
-			throw new BOMException(exc.getMessage());
-		}
-		catch (final SQLException exc) {
-			throw new BOMException(exc.getMessage());
-		}
-	}
-
 	@Override
 	public void removeDeleted(final ILightWeightItem inItem) {
-		combined.remove(inItem);
-		switch (inItem.getItemType()) {
-		case IItem.TERM:
-			terms.remove(inItem);
-			break;
-		case IItem.TEXT:
-			texts.remove(inItem);
-			break;
-		case IItem.PERSON:
-			persons.remove(inItem);
-			break;
-		}
+		change(new RemoveItem(inItem));
 		this.eventBroker.post(RelationsConstants.TOPIC_DB_CHANGED_RELOAD, "reload"); //$NON-NLS-1$
 		this.eventBroker.post(RelationsConstants.TOPIC_DB_CHANGED_DELETED,
 				new UniqueID(inItem.getItemType(), inItem.getID()));
@@ -300,4 +409,81 @@ public class DataService implements IDataService {
 		loadData(RelationsConstants.TOPIC_DB_CHANGED_INITIALZED);
 	}
 
+	@Inject
+	void setEventStoreDurability(
+			@Preference(nodePath = RelationsConstants.PREFERENCE_NODE, value = RelationsConstants.KEY_EVENT_STORE_DURABILITY) final String inDurability) {
+		try {
+			BOMHelper.getEventStoreHome().setDurability(
+					EventStoreHome.Durability.parse(inDurability));
+		}
+		catch (final org.hip.kernel.bom.BOMException exc) {
+			this.log.error(exc, exc.getMessage());
+		}
+	}
+
+	@Inject
+	void setIndexMultilingual(
+			@Preference(nodePath = RelationsConstants.PREFERENCE_NODE, value = RelationsConstants.KEY_INDEX_MULTILINGUAL) final boolean inMultilingual,
+			final IndexerController inIndexer) {
+		inIndexer.setMultilingual(inMultilingual);
+	}
+
+	// ---
+
+	/**
+	 * A change of the collections.
+	 */
+	private interface Change {
+		/**
+		 * @param inReplay
+		 *            boolean <code>true</code> if the change is replayed on
+		 *            loaded data, which might contain the change already
+		 */
+		void apply(boolean inReplay);
+	}
+
+	private static class AddItem implements Change {
+		private final int type;
+		private final ILightWeightItem item;
+		private final Timestamp created;
+		private final Timestamp modified;
+
+		AddItem(final int inType, final ILightWeightItem inItem,
+				final Timestamp inCreated, final Timestamp inModified) {
+			this.type = inType;
+			this.item = inItem;
+			this.created = inCreated;
+			this.modified = inModified;
+		}
+
+		@Override
+		public void apply(final boolean inReplay) {
+			if (inReplay && combined.contains(this.item)) {
+				return;
+			}
+			final ILightWeightModel lModel = (this.item instanceof ILightWeightModel)
+					? (ILightWeightModel) this.item
+					: new CatalogItem(catalog,
+							catalog.add(this.type, this.item.getID(),
+									this.item.toString(), this.created,
+									this.modified));
+			getItems(this.type).add(lModel);
+			combined.add(lModel);
+		}
+	}
+
+	private static class RemoveItem implements Change {
+		private final ILightWeightItem item;
+
+		RemoveItem(final ILightWeightItem inItem) {
+			this.item = inItem;
+		}
+
+		@Override
+		public void apply(final boolean inReplay) {
+			combined.remove(this.item);
+			getItems(this.item.getItemType()).remove(this.item);
+		}
+	}
+
 }
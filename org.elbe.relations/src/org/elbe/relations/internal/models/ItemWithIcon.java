@@ -19,36 +19,60 @@
 package org.elbe.relations.internal.models;
 
 import org.eclipse.swt.graphics.Image;
+import org.elbe.relations.data.bom.BOMException;
+import org.elbe.relations.data.bom.BOMHelper;
 import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.bom.IItemFactory;
+import org.elbe.relations.data.bom.LightWeightRelated;
 
 /**
- * Simple wrapper to pass an item (i.e. an <code>IItem</code> instance) with
- * it's icon.
+ * Simple wrapper to pass a related item with it's icon.
+ * <p>
+ * The wrapper holds the lightweight version of the item, i.e. the item without
+ * it's text. The full item (i.e. an <code>IItem</code> instance) is loaded on
+ * demand, e.g. when the item is opened or inspected.
+ * </p>
  * 
  * @author Luthiger
  */
 public class ItemWithIcon {
 
-	private final IItem item;
+	private final LightWeightRelated lightWeight;
 	private final Image icon;
+	private IItem item;
 
 	/**
 	 * ItemWithIcon constructor.
 	 * 
-	 * @param inItem
-	 *            {@link IItem}
+	 * @param inLightWeight
+	 *            {@link LightWeightRelated} the related item
 	 * @param inIcon
 	 *            {@link Image}
 	 */
-	public ItemWithIcon(final IItem inItem, final Image inIcon) {
-		item = inItem;
+	public ItemWithIcon(final LightWeightRelated inLightWeight,
+	        final Image inIcon) {
+		lightWeight = inLightWeight;
 		icon = inIcon;
 	}
 
 	/**
+	 * @return {@link LightWeightRelated} the lightweight version of the item
+	 */
+	public LightWeightRelated getLightWeight() {
+		return lightWeight;
+	}
+
+	/**
+	 * Returns the full item. The item is loaded from the database on the first
+	 * call.
+	 * 
 	 * @return {@link IItem} the item
+	 * @throws BOMException
 	 */
-	public IItem getItem() {
+	public IItem getItem() throws BOMException {
+		if (item == null) {
+			item = getFactory(lightWeight.itemType).getItem(lightWeight.id);
+		}
 		return item;
 	}
 
@@ -59,9 +83,27 @@ public class ItemWithIcon {
 		return icon;
 	}
 
+	/**
+	 * @return long the id of the relation connecting the item
+	 */
+	public long getRelationID() {
+		return lightWeight.relationID;
+	}
+
+	private static IItemFactory getFactory(final int inType) {
+		switch (inType) {
+		case IItem.TERM:
+			return BOMHelper.getTermHome();
+		case IItem.TEXT:
+			return BOMHelper.getTextHome();
+		default:
+			return BOMHelper.getPersonHome();
+		}
+	}
+
 	@Override
 	public String toString() {
-		return getItem().toString();
+		return lightWeight.title;
 	}
 
 }
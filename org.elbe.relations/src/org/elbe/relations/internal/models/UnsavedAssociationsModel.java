@@ -20,12 +20,12 @@ package org.elbe.relations.internal.models;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashSet;
 
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.swt.graphics.Image;
 import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.utility.LongSet;
 import org.elbe.relations.data.utility.UniqueID;
 import org.elbe.relations.models.AbstractAssociationsModel;
 import org.elbe.relations.models.IAssociationsModel;
@@ -100,15 +100,15 @@ public class UnsavedAssociationsModel extends AbstractAssociationsModel
 	protected void initialize(final ItemAdapter inItem)
 	        throws VException, SQLException {
 		related = new ArrayList<ItemAdapter>();
-		uniqueIDs = new ArrayList<UniqueID>();
+		uniqueIDs = new LongSet();
 
-		added = new HashSet<UniqueID>();
-		removed = new HashSet<UniqueID>();
+		added = new LongSet();
+		removed = new LongSet();
 	}
 
 	private void setSelected(final ItemAdapter inSelected) throws VException {
 		related.add(inSelected);
-		final UniqueID lID = new UniqueID(inSelected.getItemType(),
+		final long lID = UniqueID.pack(inSelected.getItemType(),
 		        inSelected.getID());
 		uniqueIDs.add(lID);
 		added.add(lID);
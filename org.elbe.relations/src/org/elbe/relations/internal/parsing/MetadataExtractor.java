@@ -21,13 +21,32 @@ package org.elbe.relations.internal.parsing;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.services.log.Logger;
+import org.elbe.relations.data.bom.AbstractTerm;
+import org.elbe.relations.data.bom.BOMException;
+import org.elbe.relations.data.bom.BOMHelper;
+import org.elbe.relations.data.bom.BOMTruncationException;
 import org.elbe.relations.data.bom.IItem;
+import org.elbe.relations.data.bom.LightWeightTerm;
+import org.elbe.relations.data.bom.TermHome;
 import org.elbe.relations.data.utility.UniqueID;
+import org.elbe.relations.db.IDataService;
 import org.elbe.relations.internal.actions.NewTermAction;
 import org.elbe.relations.internal.services.IMetadataExtractor;
 import org.elbe.relations.parsing.ExtractedData;
@@ -37,12 +56,24 @@ import org.hip.kernel.exc.VException;
 
 /**
  * Enumeration singleton to extract metadata from dropped files.
+ * <p>
+ * Batches of files (e.g. dropped folders) are processed in parallel: the
+ * header of each file is read once and passed to the adapters, the adapters
+ * run on a pool of worker threads. The term items are created in batches on
+ * the calling thread. The created items are passed to the
+ * {@link IDataService} once at the end of the run, the data service applies
+ * them on the UI thread.
+ * </p>
  *
  * @author Luthiger
  */
+@SuppressWarnings("restriction")
 public class MetadataExtractor implements IMetadataExtractor {
+	private static final int BATCH_SIZE = 50;
+	private static final long POLL_INTERVAL = 100; // ms
 
-	private final List<IExtractorAdapter> extractorAdapters = new ArrayList<IExtractorAdapter>();
+	// the adapters are (un)registered by OSGi DS while workers might iterate
+	private final List<IExtractorAdapter> extractorAdapters = new CopyOnWriteArrayList<IExtractorAdapter>();
 
 	@Inject
 	private IEclipseContext context;
@@ -88,10 +119,9 @@ public class MetadataExtractor implements IMetadataExtractor {
 	@Override
 	public UniqueID extract(final File inDrop) throws VException, IOException {
 		// we first try the specialized adapters for metadata extraction.
-		for (final IExtractorAdapter lAdapter : extractorAdapters) {
-			if (lAdapter.acceptsFile(inDrop)) {
-				return processFile(inDrop, lAdapter);
-			}
+		final IExtractorAdapter lAdapter = getAdapter(inDrop);
+		if (lAdapter != null) {
+			return processFile(inDrop, lAdapter);
 		}
 
 		// if everything failed, we at least have the file name.
@@ -100,6 +130,142 @@ public class MetadataExtractor implements IMetadataExtractor {
 		        .text(inDrop.getAbsolutePath()).build(context));
 	}
 
+	/**
+	 * Extracts the metadata from the dropped files, creates a term item for
+	 * each file and returns the new items' <code>UniqueID</code>s.
+	 *
+	 * @param inDrops
+	 *            Collection&lt;File> the dropped files, directories are
+	 *            processed recursively
+	 * @param inMonitor
+	 *            {@link IProgressMonitor}
+	 * @return List&lt;UniqueID> the newly created items' IDs, in case of
+	 *         cancellation the IDs of the items created so far
+	 * @throws VException
+	 * @throws BOMException
+	 */
+	@Override
+	public List<UniqueID> extract(final Collection<File> inDrops,
+	        final IProgressMonitor inMonitor) throws VException, BOMException {
+		final List<File> lFiles = new ArrayList<File>();
+		for (final File lDrop : inDrops) {
+			collectFiles(lDrop, lFiles);
+		}
+		final SubMonitor lProgress = SubMonitor.convert(inMonitor,
+		        lFiles.size());
+		final List<LightWeightTerm> lCreated = new ArrayList<LightWeightTerm>(
+		        lFiles.size());
+		final List<String> lTitles = new ArrayList<String>(BATCH_SIZE);
+		final List<String> lTexts = new ArrayList<String>(BATCH_SIZE);
+
+		final ExecutorService lExecutor = Executors.newFixedThreadPool(
+		        Math.min(Runtime.getRuntime().availableProcessors(),
+		                Math.max(lFiles.size(), 1)));
+		final CompletionService<String[]> lService = new ExecutorCompletionService<String[]>(
+		        lExecutor);
+		try {
+			for (final File lFile : lFiles) {
+				lService.submit(() -> extractTitleAndText(lFile));
+			}
+			int lDone = 0;
+			while (lDone < lFiles.size() && !lProgress.isCanceled()) {
+				final Future<String[]> lResult = lService.poll(POLL_INTERVAL,
+				        TimeUnit.MILLISECONDS);
+				if (lResult == null) {
+					continue;
+				}
+				final String[] lTerm = lResult.get();
+				lTitles.add(lTerm[0]);
+				lTexts.add(lTerm[1]);
+				if (lTitles.size() == BATCH_SIZE) {
+					lCreated.addAll(createNewTerms(lTitles, lTexts));
+					lTitles.clear();
+					lTexts.clear();
+				}
+				lDone++;
+				lProgress.worked(1);
+			}
+		}
+		catch (final InterruptedException exc) {
+			Thread.currentThread().interrupt();
+		}
+		catch (final ExecutionException exc) {
+			throw new VException(exc.getCause().getMessage());
+		}
+		finally {
+			lExecutor.shutdownNow();
+		}
+		// the files extracted so far are kept, even if cancelled
+		lCreated.addAll(createNewTerms(lTitles, lTexts));
+		context.get(IDataService.class).loadNewTerms(lCreated);
+
+		final List<UniqueID> outIDs = new ArrayList<UniqueID>(lCreated.size());
+		for (final LightWeightTerm lTerm : lCreated) {
+			outIDs.add(new UniqueID(IItem.TERM, lTerm.getID()));
+		}
+		return outIDs;
+	}
+
+	private void collectFiles(final File inFile, final List<File> inFiles) {
+		if (inFile.isDirectory()) {
+			final File[] lChildren = inFile.listFiles();
+			if (lChildren != null) {
+				for (final File lChild : lChildren) {
+					collectFiles(lChild, inFiles);
+				}
+			}
+		} else if (inFile.isFile()) {
+			inFiles.add(inFile);
+		}
+	}
+
+	/**
+	 * Runs on a worker thread.
+	 *
+	 * @param inFile
+	 *            {@link File}
+	 * @return String[] the term's title and text
+	 */
+	private String[] extractTitleAndText(final File inFile) {
+		try {
+			final IExtractorAdapter lAdapter = getAdapter(inFile);
+			if (lAdapter != null) {
+				final ExtractedData lMetadata = lAdapter.process(inFile);
+				return new String[] { lMetadata.getTitle(),
+				        lMetadata.getText() };
+			}
+		}
+		catch (final IOException | RuntimeException exc) {
+			final Logger lLog = context.get(Logger.class);
+			if (lLog != null) {
+				lLog.warn(exc, inFile.getAbsolutePath());
+			}
+		}
+		// if everything failed, we at least have the file name.
+		return new String[] { inFile.getName(), inFile.getAbsolutePath() };
+	}
+
+	/**
+	 * Reads the file's header once and returns the first adapter accepting
+	 * the file.
+	 *
+	 * @param inFile
+	 *            {@link File}
+	 * @return {@link IExtractorAdapter} or <code>null</code>
+	 * @throws IOException
+	 */
+	private IExtractorAdapter getAdapter(final File inFile)
+	        throws IOException {
+		final byte[] lHeader = IExtractorAdapter.readHeader(inFile,
+		        IExtractorAdapter.HEADER_LENGTH);
+		for (final IExtractorAdapter lAdapter : extractorAdapters) {
+			if (lAdapter.acceptsFile(inFile, lHeader)) {
+				return lAdapter;
+			}
+		}
+		return null;
+	}
+
 	private UniqueID processFile(final File inDrop,
 	        final IExtractorAdapter inAdapter) throws VException, IOException {
 		final ExtractedData lMetadata = inAdapter.process(inDrop);
@@ -107,6 +273,41 @@ public class MetadataExtractor implements IMetadataExtractor {
 		        .text(lMetadata.getText()).build(context));
 	}
 
+	/**
+	 * Creates the term items in the database, doesn't touch the data service
+	 * because this method isn't called on the UI thread.
+	 */
+	private List<LightWeightTerm> createNewTerms(final List<String> inTitles,
+	        final List<String> inTexts) throws VException, BOMException {
+		final List<LightWeightTerm> outTerms = new ArrayList<LightWeightTerm>(
+		        inTitles.size());
+		if (inTitles.isEmpty()) {
+			return outTerms;
+		}
+		final TermHome lHome = BOMHelper.getTermHome();
+		try {
+			for (final AbstractTerm lTerm : lHome.newTerms(inTitles,
+			        inTexts)) {
+				outTerms.add((LightWeightTerm) lTerm.getLightWeight());
+			}
+		}
+		catch (final BOMTruncationException exc) {
+			// a title is too long: we create the terms one by one to keep the
+			// others
+			for (int i = 0; i < inTitles.size(); i++) {
+				try {
+					outTerms.add((LightWeightTerm) lHome
+					        .newTerm(inTitles.get(i), inTexts.get(i))
+					        .getLightWeight());
+				}
+				catch (final BOMException exc1) {
+					context.get(Logger.class).error(exc1, exc1.getMessage());
+				}
+			}
+		}
+		return outTerms;
+	}
+
 	/**
 	 * @param lAction
 	 * @return
@@ -116,7 +317,8 @@ public class MetadataExtractor implements IMetadataExtractor {
 	        throws VException {
 		lAction.execute();
 		final IItem lItem = lAction.getNewItem();
-		return new UniqueID(lItem.getItemType(), lItem.getID());
+		return lItem == null ? null
+		        : new UniqueID(lItem.getItemType(), lItem.getID());
 	}
 
 	/**
@@ -56,5 +56,9 @@ public class RelationsPreferenceInitializer extends
 				RelationsConstants.DFT_MAX_SEARCH_HITS);
 		lNode.putInt(RelationsConstants.KEY_MAX_LAST_CHANGED,
 				RelationsConstants.DFT_MAX_LAST_CHANGED);
+		lNode.put(RelationsConstants.KEY_EVENT_STORE_DURABILITY,
+				RelationsConstants.DFT_EVENT_STORE_DURABILITY);
+		lNode.putBoolean(RelationsConstants.KEY_INDEX_MULTILINGUAL,
+				RelationsConstants.DFT_INDEX_MULTILINGUAL);
 	}
 }
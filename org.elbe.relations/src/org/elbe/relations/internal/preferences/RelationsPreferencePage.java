@@ -27,6 +27,8 @@ import javax.inject.Inject;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.e4.core.contexts.ContextInjectionFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.swt.SWT;
@@ -41,6 +43,7 @@ import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Text;
 import org.elbe.relations.RelationsConstants;
 import org.elbe.relations.RelationsMessages;
+import org.elbe.relations.internal.actions.IndexerAction;
 import org.elbe.relations.internal.actions.RelationsPreferences;
 import org.elbe.relations.internal.controller.BibliographyController;
 import org.elbe.relations.internal.controller.BrowserController;
@@ -58,8 +61,12 @@ import org.elbe.relations.services.IRelationsBrowser;
  * @author Luthiger
  */
 public class RelationsPreferencePage extends AbstractPreferencePage {
+	private static final String[] DURABILITIES = { "sync", "group", "async" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
 	private Combo biblioCombo;
+	private Combo durabilityCombo;
 	private Text maxHits;
+	private Button multilingual;
 	private Text maxLastChanged;
 	private BrowserViewsHelper browserFontSizes;
 
@@ -69,6 +76,8 @@ public class RelationsPreferencePage extends AbstractPreferencePage {
 	private BrowserController browserController;
 	@Inject
 	private IEventBroker eventBroker;
+	@Inject
+	private IEclipseContext context;
 
 	/**
 	 * RelationsPreferencePage constructor
@@ -124,6 +133,11 @@ public class RelationsPreferencePage extends AbstractPreferencePage {
 				.getString("RelationsPreferencePage.lbl.fulltext.search")); // Max. //$NON-NLS-1$
 		// Anzahl
 		// Treffer
+		this.multilingual = new Button(outComposite, SWT.CHECK);
+		this.multilingual.setText(RelationsMessages
+				.getString("RelationsPreferencePage.lbl.multilingual")); //$NON-NLS-1$
+		this.multilingual.setLayoutData(
+				new GridData(SWT.FILL, SWT.CENTER, true, false, lColumns, 1));
 
 		// Max number displayed of last changed items
 		final Label lLabel3 = createLabel(outComposite, RelationsMessages
@@ -135,6 +149,16 @@ public class RelationsPreferencePage extends AbstractPreferencePage {
 		// Anzahl
 		// Einträge
 
+		// durability of the event store entries
+		createSeparator(outComposite, lColumns);
+		final Label lLabel4 = createLabel(outComposite, RelationsMessages
+				.getString("RelationsPreferencePage.title.event.store")); //$NON-NLS-1$
+		((GridData) lLabel4.getLayoutData()).horizontalSpan = lColumns;
+		this.durabilityCombo = createLabelCombo(outComposite,
+				RelationsMessages
+				.getString("RelationsPreferencePage.lbl.event.store"), //$NON-NLS-1$
+				getDurabilityLabels());
+
 		initializeValues();
 		return outComposite;
 	}
@@ -150,10 +174,36 @@ public class RelationsPreferencePage extends AbstractPreferencePage {
 		this.maxHits.setText(String
 				.valueOf(lStore.getInt(RelationsConstants.KEY_MAX_SEARCH_HITS,
 						RelationsConstants.DFT_MAX_SEARCH_HITS)));
+		this.multilingual.setSelection(
+				lStore.getBoolean(RelationsConstants.KEY_INDEX_MULTILINGUAL,
+						RelationsConstants.DFT_INDEX_MULTILINGUAL));
 		this.maxLastChanged.setText(String
 				.valueOf(lStore.getInt(RelationsConstants.KEY_MAX_LAST_CHANGED,
 						RelationsConstants.DFT_MAX_LAST_CHANGED)));
 		this.browserFontSizes.initializeValues(lStore);
+		selectDurability(lStore.get(
+				RelationsConstants.KEY_EVENT_STORE_DURABILITY,
+				RelationsConstants.DFT_EVENT_STORE_DURABILITY));
+	}
+
+	private String[] getDurabilityLabels() {
+		final String[] outLabels = new String[DURABILITIES.length];
+		for (int i = 0; i < DURABILITIES.length; i++) {
+			outLabels[i] = RelationsMessages.getString(
+					"RelationsPreferencePage.event.store." + DURABILITIES[i]); //$NON-NLS-1$
+		}
+		return outLabels;
+	}
+
+	private void selectDurability(final String inDurability) {
+		for (int i = 0; i < DURABILITIES.length; i++) {
+			if (DURABILITIES[i].equalsIgnoreCase(inDurability)) {
+				this.durabilityCombo.select(i);
+				return;
+			}
+		}
+		// unknown values are handled as sync
+		this.durabilityCombo.select(0);
 	}
 
 	/**
@@ -165,8 +215,11 @@ public class RelationsPreferencePage extends AbstractPreferencePage {
 		this.biblioCombo.select(this.biblioController.getSelectedIndex());
 		this.browserFontSizes.setDefaults();
 		this.maxHits.setText(String.valueOf(RelationsConstants.DFT_MAX_SEARCH_HITS));
+		this.multilingual
+				.setSelection(RelationsConstants.DFT_INDEX_MULTILINGUAL);
 		this.maxLastChanged.setText(
 				String.valueOf(RelationsConstants.DFT_MAX_LAST_CHANGED));
+		selectDurability(RelationsConstants.DFT_EVENT_STORE_DURABILITY);
 		super.performDefaults();
 	}
 
@@ -193,11 +246,33 @@ public class RelationsPreferencePage extends AbstractPreferencePage {
 					this.maxHits.getText());
 			lStore.put(RelationsConstants.KEY_MAX_LAST_CHANGED,
 					this.maxLastChanged.getText());
+			lStore.put(RelationsConstants.KEY_EVENT_STORE_DURABILITY,
+					DURABILITIES[this.durabilityCombo.getSelectionIndex()]);
 			this.browserFontSizes.savePreferences(lStore);
+			saveMultilingual(lStore);
 		}
 		return true;
 	}
 
+	/**
+	 * The index has to be rebuilt in the new mode, thus, a change of the
+	 * multilingual mode starts the reindexing.
+	 */
+	private void saveMultilingual(final IEclipsePreferences inStore) {
+		final boolean lMultilingual = this.multilingual.getSelection();
+		if (lMultilingual == inStore.getBoolean(
+				RelationsConstants.KEY_INDEX_MULTILINGUAL,
+				RelationsConstants.DFT_INDEX_MULTILINGUAL)) {
+			return;
+		}
+		inStore.putBoolean(RelationsConstants.KEY_INDEX_MULTILINGUAL,
+				lMultilingual);
+		final IndexerAction lAction = ContextInjectionFactory
+				.make(IndexerAction.class, this.context);
+		lAction.setSilent(true);
+		lAction.run();
+	}
+
 	/**
 	 * @see IUpdateListener#onUpdate(IStatus)
 	 */
@@ -52,6 +52,19 @@ public class IndexerController {
 		indexer = null;
 	}
 
+	/**
+	 * Switches the indexer's multilingual mode.
+	 * 
+	 * @param inMultilingual
+	 *            boolean
+	 * @see IIndexer#setMultilingual(boolean)
+	 */
+	public void setMultilingual(final boolean inMultilingual) {
+		if (indexer != null) {
+			indexer.setMultilingual(inMultilingual);
+		}
+	}
+
 	/**
 	 * Returns an array of possible content languages for that the user can
 	 * select one.
@@ -18,6 +18,7 @@
  ***************************************************************************/
 package org.elbe.relations.internal.search;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
@@ -30,6 +31,8 @@ import org.eclipse.e4.core.commands.EHandlerService;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Creatable;
+import org.eclipse.e4.core.di.annotations.Optional;
+import org.eclipse.e4.core.di.extensions.EventTopic;
 import org.eclipse.e4.core.di.extensions.Preference;
 import org.eclipse.e4.ui.services.IServiceConstants;
 import org.eclipse.jface.dialogs.MessageDialog;
@@ -39,6 +42,7 @@ import org.elbe.relations.RelationsConstants;
 import org.elbe.relations.RelationsMessages;
 import org.elbe.relations.data.search.AbstractSearching;
 import org.elbe.relations.data.search.RetrievedItem;
+import org.elbe.relations.data.utility.UniqueID;
 import org.elbe.relations.handlers.ReindexHandler;
 import org.elbe.relations.internal.data.DBSettings;
 import org.elbe.relations.internal.preferences.LanguageService;
@@ -46,13 +50,23 @@ import org.hip.kernel.exc.VException;
 
 /**
  * Class for searching a Lucene index of a Relations database.
+ * <p>
+ * The search results are cached: repeated searches are answered from the
+ * cache as long as the index is unchanged and no items have been created or
+ * deleted.
+ * </p>
  *
  * @author Luthiger
  */
 @SuppressWarnings("restriction")
 @Creatable
 public class RelationsSearcher extends AbstractSearching {
+	private static final int CACHE_SIZE = 50;
+
 	private final String language;
+	private final SearchResultCache cache = new SearchResultCache(CACHE_SIZE);
+	private File indexDir;
+	private volatile boolean indexAvailable = false;
 
 	@Inject
 	@Preference(nodePath = RelationsConstants.PREFERENCE_NODE, value = RelationsConstants.KEY_MAX_SEARCH_HITS)
@@ -110,8 +124,7 @@ public class RelationsSearcher extends AbstractSearching {
 	 */
 	public List<RetrievedItem> search(final String inQueryTerm)
 	        throws IOException, VException {
-		final String[] files = getIndexDir().list();
-		if (files == null || files.length == 0) {
+		if (!checkIndex()) {
 			if (MessageDialog.openQuestion(shell,
 			        RelationsMessages
 			                .getString("RelationsSearcher.warning.title"), //$NON-NLS-1$
@@ -124,8 +137,57 @@ public class RelationsSearcher extends AbstractSearching {
 			}
 			return Collections.emptyList();
 		}
-		return getIndexer().search(inQueryTerm, getIndexDir(), language,
-		        maxSearchHits);
+		final long lGeneration = getIndexer().getGeneration(getIndexDir());
+		List<RetrievedItem> outResult = cache.get(inQueryTerm, language,
+		        maxSearchHits, lGeneration);
+		if (outResult == null) {
+			outResult = getIndexer().search(inQueryTerm, getIndexDir(),
+			        language, maxSearchHits);
+			cache.put(inQueryTerm, language, maxSearchHits, lGeneration,
+			        outResult);
+		}
+		return outResult;
+	}
+
+	/**
+	 * @return boolean <code>true</code> if the index directory contains an
+	 *         index, once found, the directory isn't listed anymore
+	 */
+	private boolean checkIndex() throws IOException {
+		if (!indexAvailable) {
+			final String[] lFiles = getIndexDir().list();
+			indexAvailable = lFiles != null && lFiles.length != 0;
+		}
+		return indexAvailable;
+	}
+
+	@Override
+	protected File getIndexDir() throws IOException {
+		if (indexDir == null) {
+			indexDir = super.getIndexDir();
+		}
+		return indexDir;
+	}
+
+	@Inject
+	@Optional
+	void itemCreated(
+	        @EventTopic(RelationsConstants.TOPIC_DB_CHANGED_CREATED) final UniqueID inCreated) {
+		cache.clear();
+	}
+
+	@Inject
+	@Optional
+	void itemDeleted(
+	        @EventTopic(RelationsConstants.TOPIC_DB_CHANGED_DELETED) final UniqueID inDeleted) {
+		cache.clear();
+	}
+
+	@Inject
+	@Optional
+	void dataReloaded(
+	        @EventTopic(RelationsConstants.TOPIC_DB_CHANGED_RELOAD) final String inEvent) {
+		cache.clear();
 	}
 
 }
@@ -0,0 +1,158 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.internal.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.elbe.relations.data.search.RetrievedItem;
+
+/**
+ * LRU cache for search results.
+ * <p>
+ * The results are cached with the normalized query, the language and the
+ * maximal number of hits as key. All entries belong to the same generation of
+ * the search index: as soon as the index generation changes, the cached
+ * results are discarded. The least recently used entry is evicted when the
+ * cache is full.
+ * </p>
+ *
+ * @author lbenno
+ */
+public class SearchResultCache {
+	private static final char SEPARATOR = '\u0000';
+
+	private final Map<String, List<RetrievedItem>> cache;
+	private long generation = -1;
+
+	/**
+	 * SearchResultCache constructor.
+	 *
+	 * @param inCapacity
+	 *            int the maximal number of cached results
+	 */
+	public SearchResultCache(final int inCapacity) {
+		cache = new LinkedHashMap<String, List<RetrievedItem>>(16, 0.75f,
+				true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					final Map.Entry<String, List<RetrievedItem>> inEldest) {
+				return size() > inCapacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached result of the specified search.
+	 *
+	 * @param inQuery
+	 *            String the query term
+	 * @param inLanguage
+	 *            String the index language
+	 * @param inMaxHits
+	 *            int maximal number of hits
+	 * @param inGeneration
+	 *            long the actual generation of the search index
+	 * @return List&lt;RetrievedItem> a copy of the cached result or
+	 *         <code>null</code> if the search has to be done
+	 */
+	public synchronized List<RetrievedItem> get(final String inQuery,
+			final String inLanguage, final int inMaxHits,
+			final long inGeneration) {
+		checkGeneration(inGeneration);
+		final List<RetrievedItem> lResult = cache
+				.get(createKey(inQuery, inLanguage, inMaxHits));
+		return lResult == null ? null : new ArrayList<RetrievedItem>(lResult);
+	}
+
+	/**
+	 * Caches the result of the specified search.
+	 *
+	 * @param inQuery
+	 *            String the query term
+	 * @param inLanguage
+	 *            String the index language
+	 * @param inMaxHits
+	 *            int maximal number of hits
+	 * @param inGeneration
+	 *            long the generation of the search index the result has been
+	 *            retrieved from
+	 * @param inResult
+	 *            List&lt;RetrievedItem> the search result
+	 */
+	public synchronized void put(final String inQuery, final String inLanguage,
+			final int inMaxHits, final long inGeneration,
+			final List<RetrievedItem> inResult) {
+		checkGeneration(inGeneration);
+		if (inGeneration == generation) {
+			cache.put(createKey(inQuery, inLanguage, inMaxHits),
+					new ArrayList<RetrievedItem>(inResult));
+		}
+	}
+
+	/**
+	 * Discards all cached results, e.g. after items have been created or
+	 * deleted.
+	 */
+	public synchronized void clear() {
+		cache.clear();
+	}
+
+	/**
+	 * @return int the number of cached results
+	 */
+	public synchronized int size() {
+		return cache.size();
+	}
+
+	/**
+	 * A result retrieved from an older index generation is outdated. If the
+	 * index has changed in the meantime, the cache is cleared.
+	 */
+	private void checkGeneration(final long inGeneration) {
+		if (inGeneration > generation) {
+			cache.clear();
+			generation = inGeneration;
+		}
+	}
+
+	private String createKey(final String inQuery, final String inLanguage,
+			final int inMaxHits) {
+		return inLanguage + SEPARATOR + inMaxHits + SEPARATOR
+				+ normalize(inQuery);
+	}
+
+	/**
+	 * Normalizes the query term: leading and trailing white spaces are
+	 * removed, inner white spaces are collapsed. The case is preserved, the
+	 * query operators (e.g. <code>AND</code>) are case sensitive.
+	 *
+	 * @param inQuery
+	 *            String
+	 * @return String the normalized query
+	 */
+	static String normalize(final String inQuery) {
+		return inQuery.trim().replaceAll("\\s+", " "); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+}
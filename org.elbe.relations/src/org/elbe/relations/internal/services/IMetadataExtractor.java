@@ -20,7 +20,11 @@ package org.elbe.relations.internal.services;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.elbe.relations.data.bom.BOMException;
 import org.elbe.relations.data.utility.UniqueID;
 import org.hip.kernel.exc.VException;
 
@@ -44,4 +48,21 @@ public interface IMetadataExtractor {
 	 */
 	UniqueID extract(final File inDrop) throws VException, IOException;
 
+	/**
+	 * Extracts the metadata from the dropped files and folders, creates a term
+	 * item for each file and returns the new items' <code>UniqueID</code>s.
+	 * The files are processed in parallel, the items are created in batches.
+	 * 
+	 * @param inDrops
+	 *            Collection&lt;File> the dropped files, directories are
+	 *            processed recursively
+	 * @param inMonitor
+	 *            {@link IProgressMonitor} for progress and cancellation
+	 * @return List&lt;UniqueID> the newly created items' IDs
+	 * @throws VException
+	 * @throws BOMException
+	 */
+	List<UniqueID> extract(final Collection<File> inDrops,
+			final IProgressMonitor inMonitor) throws VException, BOMException;
+
 }
@@ -0,0 +1,180 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.internal.style;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.swt.custom.Bullet;
+import org.eclipse.swt.custom.ST;
+import org.eclipse.swt.custom.StyleRange;
+import org.eclipse.swt.custom.StyledText;
+
+/**
+ * The immutable result of parsing a tagged text (see
+ * {@link StyleParser#parse(String)}): the plain text, the inline styles and the
+ * line bullets.
+ * <p>
+ * Instances don't hold any widget or SWT resource and can be shared between
+ * threads and widgets. {@link #applyTo(StyledText)} creates the
+ * <code>StyleRange</code>s and <code>Bullet</code>s for each widget anew.
+ * </p>
+ *
+ * @author lbenno
+ */
+public final class ParsedText {
+	private final String source;
+	private final String text;
+	private final List<InlineStyle> styles;
+	private final List<LineBullet> bullets;
+
+	ParsedText(final String inSource, final String inText,
+	        final List<InlineStyle> inStyles, final List<LineBullet> inBullets) {
+		source = inSource;
+		text = inText;
+		styles = Collections
+		        .unmodifiableList(new ArrayList<InlineStyle>(inStyles));
+		bullets = Collections
+		        .unmodifiableList(new ArrayList<LineBullet>(inBullets));
+	}
+
+	/**
+	 * @return String the text without style information
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * @return List&lt;InlineStyle> the inline styles in the order of their
+	 *         closing tags
+	 */
+	public List<InlineStyle> getStyles() {
+		return styles;
+	}
+
+	/**
+	 * @return List&lt;LineBullet> the bullets of consecutive list lines
+	 */
+	public List<LineBullet> getBullets() {
+		return bullets;
+	}
+
+	/**
+	 * @param inTagged
+	 *            String
+	 * @return boolean <code>true</code> if this instance is the result of
+	 *         parsing the specified tagged text
+	 */
+	boolean isParsedFrom(final String inTagged) {
+		return source == null ? inTagged == null : source.equals(inTagged);
+	}
+
+	/**
+	 * Sets the text and its styles to the specified widget.
+	 *
+	 * @param inWidget
+	 *            {@link StyledText}
+	 */
+	public void applyTo(final StyledText inWidget) {
+		inWidget.setText(text);
+		for (final InlineStyle lStyle : styles) {
+			lStyle.applyTo(inWidget);
+		}
+		// the lines of a list share the same bullet instance
+		final Map<Integer, Bullet> lBullets = new HashMap<Integer, Bullet>();
+		for (final LineBullet lLineBullet : bullets) {
+			Bullet lBullet = lBullets.get(lLineBullet.list);
+			if (lBullet == null) {
+				lBullet = Styles.getBullet(lLineBullet.bulletStyle,
+				        lLineBullet.width);
+				lBullets.put(lLineBullet.list, lBullet);
+			}
+			inWidget.setLineBullet(lLineBullet.startLine,
+			        lLineBullet.lineCount, lBullet);
+			if (lLineBullet.bulletStyle == ST.BULLET_CUSTOM) {
+				inWidget.addPaintObjectListener(
+				        Styles.getPaintObjectListener(inWidget));
+			}
+		}
+	}
+
+	// --- inner classes ---
+
+	/**
+	 * An inline style (bold, italic or underline) of a part of the text.
+	 */
+	public static final class InlineStyle {
+		public final int start;
+		public final int length;
+		public final int fontStyle;
+		public final boolean underline;
+
+		InlineStyle(final int inStart, final int inLength,
+		        final int inFontStyle, final boolean inUnderline) {
+			start = inStart;
+			length = inLength;
+			fontStyle = inFontStyle;
+			underline = inUnderline;
+		}
+
+		void applyTo(final StyledText inWidget) {
+			final StyleRange[] lRanges = inWidget.getStyleRanges(start, length);
+			if (lRanges == null || lRanges.length == 0) {
+				final StyleRange lRange = new StyleRange();
+				lRange.start = start;
+				lRange.length = length;
+				lRange.fontStyle = fontStyle;
+				lRange.underline = underline;
+				inWidget.setStyleRange(lRange);
+			} else {
+				for (final StyleRange lRange : lRanges) {
+					lRange.fontStyle |= fontStyle;
+					lRange.underline = underline;
+					inWidget.setStyleRange(lRange);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The bullet of consecutive lines of a list.
+	 */
+	public static final class LineBullet {
+		public final int startLine;
+		public final int lineCount;
+		public final int bulletStyle;
+		public final int width;
+		/** the number of the list the lines belong to */
+		public final int list;
+
+		LineBullet(final int inStartLine, final int inLineCount,
+		        final int inBulletStyle, final int inWidth, final int inList) {
+			startLine = inStartLine;
+			lineCount = inLineCount;
+			bulletStyle = inBulletStyle;
+			width = inWidth;
+			list = inList;
+		}
+	}
+
+}
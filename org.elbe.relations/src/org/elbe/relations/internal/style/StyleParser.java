@@ -20,12 +20,16 @@ package org.elbe.relations.internal.style;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Stack;
 
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
 
 import org.eclipse.swt.SWT;
@@ -34,13 +38,16 @@ import org.eclipse.swt.custom.ST;
 import org.eclipse.swt.custom.StyleRange;
 import org.eclipse.swt.custom.StyledText;
 import org.elbe.relations.data.bom.IStyleParser;
-import org.hip.kernel.exc.DefaultExceptionWriter;
+import org.elbe.relations.data.utility.UniqueID;
+import org.elbe.relations.internal.style.ParsedText.InlineStyle;
+import org.elbe.relations.internal.style.ParsedText.LineBullet;
 import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.DefaultHandler;
 
+
 /**
  * Singleton class to parse tagged text (stored in the item's text field) and
  * transformes it to styled text to be displayed in a <code>StyledText</code>
@@ -57,11 +64,21 @@ import org.xml.sax.helpers.DefaultHandler;
  * <pre>
  * String toStore = StyleParser.getInstance().getTagged(styled_text_widget);
  * </pre>
+ * </p>
+ * <p>
+ * The parser is thread-safe: each parse uses its own handler and the SAX
+ * parser of the calling thread. The result of parsing an item's text is cached
+ * (see {@link #parse(UniqueID, Timestamp, String)}), thus, displaying the same
+ * item again doesn't parse the text again.
+ * </p>
  *
  * @author Luthiger Created on 03.09.2007
  */
-public class StyleParser extends DefaultHandler implements IStyleParser {
-	private static StyleParser singleton = null;
+public class StyleParser implements IStyleParser {
+	private static final StyleParser SINGLETON = new StyleParser();
+	private static final int CACHE_CAPACITY = 100;
+	private static final ThreadLocal<XMLReader> PARSERS = new ThreadLocal<XMLReader>();
+	private static final DefaultHandler NOOP_HANDLER = new DefaultHandler();
 
 	private final static String NL = System.getProperty("line.separator"); //$NON-NLS-1$
 
@@ -125,15 +142,16 @@ public class StyleParser extends DefaultHandler implements IStyleParser {
 	private static final char CR = '\r';
 	private static final char LF = '\n';
 
-	private Collection<StyleRangeHelper> ranges;
-	private Collection<BulletHelper> bullets;
-	private Stack<StyleRangeHelper> styleStack;
-	private Stack<BulletHelperFactory> bulletStack;
-	private XMLReader parser;
+	private final Map<CacheKey, ParsedText> cache = new LinkedHashMap<CacheKey, ParsedText>(
+	        64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
 
-	private StringBuffer text;
-	private boolean inListElement;
-	private int lineCount = 0;
+		@Override
+		protected boolean removeEldestEntry(
+		        final Map.Entry<CacheKey, ParsedText> inEldest) {
+			return size() > CACHE_CAPACITY;
+		}
+	};
 
 	private StyleParser() {
 		super();
@@ -145,187 +163,7 @@ public class StyleParser extends DefaultHandler implements IStyleParser {
 	 * @return StyleParser
 	 */
 	public static StyleParser getInstance() {
-		if (singleton == null) {
-			singleton = new StyleParser();
-		}
-		return singleton;
-	}
-
-	@Override
-	public void startDocument() throws SAXException {
-		text = new StringBuffer();
-		ranges = new ArrayList<StyleRangeHelper>();
-		styleStack = new Stack<StyleRangeHelper>();
-		bullets = new ArrayList<BulletHelper>();
-		bulletStack = new Stack<BulletHelperFactory>();
-		inListElement = false;
-		lineCount = 0;
-	}
-
-	@Override
-	public void startElement(final String inUri, final String inLocalName,
-	        final String inName, final Attributes inAttributes)
-	                throws SAXException {
-		if (inName.equals(TAG_ROOT)) {
-			return;
-		}
-		if (inName.equals(LIST_EL_TAG)) {
-			inListElement = true;
-			final BulletHelperFactory lFactory = bulletStack.peek();
-			bullets.add(lFactory.getBulletHelper(lineCount, 1));
-			if (text.length() > 0) {
-				text.append(NL);
-			}
-			lineCount++;
-			return;
-		}
-
-		if (isInlineTag(inName)) {
-			handleInlineTag(inName);
-		} else {
-			handleListTag(inName, inAttributes);
-		}
-	}
-
-	private void handleListTag(final String inName,
-	        final Attributes inAttributes) {
-		BulletHelperFactory lFactory = null;
-		if (inName.equals(ListTag.Unordered.getName())) {
-			lFactory = new SimpleListFactory(ST.BULLET_DOT,
-			        getBulletWidth(inAttributes));
-		} else if (inName.equals(ListTag.OrderedNumeric.getName())) {
-			lFactory = new CustomListFactory(getBulletWidth(inAttributes));
-		} else if (inName.equals(ListTag.OrderedLetterUpper.getName())) {
-			lFactory = new SimpleListFactory(ST.BULLET_LETTER_UPPER,
-			        getBulletWidth(inAttributes));
-		} else if (inName.equals(ListTag.OrderedLetterLower.getName())) {
-			lFactory = new SimpleListFactory(ST.BULLET_LETTER_LOWER,
-			        getBulletWidth(inAttributes));
-		}
-		bulletStack.push(lFactory);
-
-		final int lLength = text.length();
-		if (lLength == 0) {
-			return;
-		}
-		if (text.substring(lLength - 1).charAt(0) == LF) {
-			text.delete(lLength - 1, lLength);
-		}
-	}
-
-	private void handleInlineTag(final String inName) {
-		StyleRangeHelper lRange = null;
-		if (inName.equals(InlineTag.Bold.getName())) {
-			lRange = new BoldRange();
-		} else if (inName.equals(InlineTag.Italic.getName())) {
-			lRange = new ItalicRange();
-		} else if (inName.equals(InlineTag.Underline.getName())) {
-			lRange = new UnderlineRange();
-		}
-		styleStack.push(lRange);
-	}
-
-	private boolean isInlineTag(final String inName) {
-		final InlineTag[] lTags = InlineTag.values();
-		for (int i = 0; i < lTags.length; i++) {
-			if (lTags[i].getName().equals(inName)) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-	private int getBulletWidth(final Attributes inAttributes) {
-		final int lIndent = Integer
-		        .parseInt(inAttributes.getValue(INDENT_ATTR));
-		return Styles.BULLET_WIDTH + lIndent * Styles.INDENT;
-	}
-
-	@Override
-	public void endElement(final String inUri, final String inLocalName,
-	        final String inName) throws SAXException {
-		if (inName.equals(TAG_ROOT)) {
-			return;
-		}
-		if (inName.equals(LIST_EL_TAG)) {
-			inListElement = false;
-			return;
-		}
-
-		if (isInlineTag(inName)) {
-			ranges.add(styleStack.pop());
-		} else {
-			bulletStack.pop();
-			if (bulletStack.size() == 0) {
-				text.append(NL);
-			}
-		}
-	}
-
-	@Override
-	public void characters(final char[] inCharacters, int inStart, int inLength)
-	        throws SAXException {
-		final int lStartPosition = text.length();
-
-		if (isInList() && startsWithLineFeed(inCharacters, inStart)) {
-			inStart++;
-			inLength--;
-		}
-		if (inLength <= 0) {
-			return;
-		}
-
-		final char[] lTarget = new char[inLength];
-		System.arraycopy(inCharacters, inStart, lTarget, 0, inLength);
-		text.append(lTarget);
-
-		for (final StyleRangeHelper lHelper : styleStack) {
-			if (lHelper.getStart() == 0) {
-				lHelper.setStart(lStartPosition);
-			}
-			lHelper.setLength(lHelper.getLength() + inLength);
-		}
-
-		// if we're in a list, we handle new lines in the startElement() method.
-		if (bulletStack.size() != 0) {
-			return;
-		}
-		final int lNewLines = countNewLines(lTarget);
-		lineCount += lNewLines;
-	}
-
-	private boolean startsWithLineFeed(final char[] inCharacters,
-	        final int inStart) {
-		return inCharacters[inStart] == LF;
-	}
-
-	/**
-	 * @return boolean <code>true</code> if characters are in list but not a
-	 *         list element, e.g. after the list opening tag but before the
-	 *         first list element tag.
-	 */
-	private boolean isInList() {
-		if (bulletStack.size() == 0) {
-			return false;
-		}
-		return !inListElement;
-	}
-
-	private int countNewLines(final char[] inTarget) {
-		int outLines = 0;
-		final int lLength = inTarget.length;
-		for (int i = 0; i < inTarget.length; i++) {
-			final char lChar = inTarget[i];
-			if (lChar == CR) {
-				if (i + 1 < lLength && (inTarget[i + 1] == LF)) {
-					i++;
-				}
-				outLines++;
-			} else if (lChar == LF) {
-				outLines++;
-			}
-		}
-		return outLines;
+		return SINGLETON;
 	}
 
 	/**
@@ -341,9 +179,68 @@ public class StyleParser extends DefaultHandler implements IStyleParser {
 	 */
 	public void parseTagged(final String inTagged, final StyledText inWidget)
 	        throws IOException, SAXException {
-		doParsing(stripNonValidXML(
+		parse(inTagged).applyTo(inWidget);
+	}
+
+	/**
+	 * Parses the specified tagged text.
+	 *
+	 * @param inTagged
+	 *            String
+	 * @return {@link ParsedText} the text and its styles
+	 * @throws IOException
+	 * @throws SAXException
+	 */
+	public ParsedText parse(final String inTagged)
+	        throws IOException, SAXException {
+		return doParsing(inTagged, stripNonValidXML(
 		        handleXMLEntities(unescapeBackSlashes(inTagged))));
-		applyStyles(inWidget);
+	}
+
+	/**
+	 * Parses the specified item's tagged text. The result is cached, the item
+	 * is parsed again only if it has been modified.
+	 *
+	 * @param inItemID
+	 *            {@link UniqueID} the item's id
+	 * @param inModified
+	 *            {@link Timestamp} the item's modification date, may be
+	 *            <code>null</code>
+	 * @param inTagged
+	 *            String the item's text to display
+	 * @return {@link ParsedText} the text and its styles
+	 * @throws IOException
+	 * @throws SAXException
+	 */
+	public ParsedText parse(final UniqueID inItemID, final Timestamp inModified,
+	        final String inTagged) throws IOException, SAXException {
+		if (inItemID == null || inModified == null) {
+			return parse(inTagged);
+		}
+		final CacheKey lKey = new CacheKey(inItemID, inModified);
+		synchronized (cache) {
+			final ParsedText lCached = cache.get(lKey);
+			// the same item may be displayed with different texts
+			if (lCached != null && lCached.isParsedFrom(inTagged)) {
+				return lCached;
+			}
+		}
+		// parse outside the lock, the worst case is that two threads parse the
+		// same text
+		final ParsedText outParsed = parse(inTagged);
+		synchronized (cache) {
+			cache.put(lKey, outParsed);
+		}
+		return outParsed;
+	}
+
+	/**
+	 * Empties the cache of parsed item texts.
+	 */
+	public void clearCache() {
+		synchronized (cache) {
+			cache.clear();
+		}
 	}
 
 	private String handleXMLEntities(final String inTagged) {
@@ -384,16 +281,46 @@ public class StyleParser extends DefaultHandler implements IStyleParser {
 	@Override
 	public String getUntaggedText(final String inTagged)
 	        throws IOException, SAXException {
-		doParsing(stripNonValidXML(handleXMLEntities(inTagged)));
-		return new String(text);
+		return doParsing(inTagged,
+		        stripNonValidXML(handleXMLEntities(inTagged))).getText();
 	}
 
-	private void doParsing(final String inTagged)
+	private ParsedText doParsing(final String inSource, final String inTagged)
 	        throws IOException, SAXException {
 		final String lXML = String.format(XML_TEMPL, inTagged);
 		final StringReader lReader = new StringReader(lXML);
 		final InputSource lInputSource = new InputSource(lReader);
-		parser().parse(lInputSource);
+		final TaggedHandler lHandler = new TaggedHandler();
+		final XMLReader lParser = parser();
+		lParser.setContentHandler(lHandler);
+		lParser.setErrorHandler(lHandler);
+		try {
+			lParser.parse(lInputSource);
+		}
+		finally {
+			// don't keep the parsed text
+			lParser.setContentHandler(NOOP_HANDLER);
+			lParser.setErrorHandler(NOOP_HANDLER);
+		}
+		return lHandler.getParsed(inSource);
+	}
+
+	/**
+	 * @return {@link XMLReader} the SAX parser of the calling thread
+	 */
+	private static XMLReader parser() throws SAXException {
+		XMLReader outParser = PARSERS.get();
+		if (outParser == null) {
+			try {
+				outParser = SAXParserFactory.newInstance().newSAXParser()
+				        .getXMLReader();
+			}
+			catch (final ParserConfigurationException exc) {
+				throw new SAXException(exc);
+			}
+			PARSERS.set(outParser);
+		}
+		return outParser;
 	}
 
 	/**
@@ -521,58 +448,6 @@ public class StyleParser extends DefaultHandler implements IStyleParser {
 		return lRoot.render(inLines);
 	}
 
-	private void applyStyles(final StyledText inWidget) {
-		inWidget.setText(new String(text));
-		for (final StyleRangeHelper lRange : ranges) {
-			lRange.applyStyle(inWidget);
-		}
-		bullets = consolidateBullets(bullets);
-		for (final BulletHelper lBullet : bullets) {
-			lBullet.setLineBullet(inWidget);
-		}
-	}
-
-	private Collection<BulletHelper> consolidateBullets(
-	        final Collection<BulletHelper> inBullets) {
-		if (inBullets.size() == 0) {
-			return inBullets;
-		}
-
-		final Collection<BulletHelper> outBullets = new ArrayList<BulletHelper>();
-		final BulletHelper[] lBullets = inBullets
-		        .toArray(new BulletHelper[] {});
-		int i = 0;
-		BulletHelper lCursor = lBullets[i++];
-		BulletHelper lNext;
-		outBullets.add(lCursor);
-		while (i < lBullets.length) {
-			lNext = lBullets[i++];
-			if (lCursor.bullet == lNext.bullet) {
-				lCursor.lineCount += lNext.lineCount;
-			} else {
-				lCursor = lNext;
-				outBullets.add(lCursor);
-			}
-		}
-		return outBullets;
-	}
-
-	private XMLReader parser() {
-		if (parser == null) {
-			try {
-				parser = SAXParserFactory.newInstance().newSAXParser()
-				        .getXMLReader();
-				parser.setContentHandler(this);
-				parser.setErrorHandler(this);
-			}
-			catch (final Exception exc) {
-				DefaultExceptionWriter.printOut(this, exc, true);
-			}
-
-		}
-		return parser;
-	}
-
 	private TagTemplate getTagTemplate(final Bullet inBullet) {
 		final String template = "<%s %s=\"%%s\">%%s</%s>"; //$NON-NLS-1$
 		final String item_template = "<li>%s</li>"; //$NON-NLS-1$
@@ -613,169 +488,297 @@ public class StyleParser extends DefaultHandler implements IStyleParser {
 
 	// --- private classes ---
 
-	private interface StyleRangeHelper {
-		void setStart(int inStart);
-
-		void setLength(int inLength);
-
-		int getStart();
-
-		int getLength();
-
-		void applyStyle(StyledText inWidget);
-	}
+	/**
+	 * The SAX handler collecting the text and its styles. A new handler is
+	 * used for each parse.
+	 */
+	private static class TaggedHandler extends DefaultHandler {
+		private final StringBuilder text = new StringBuilder();
+		private final List<InlineStyle> styles = new ArrayList<InlineStyle>();
+		private final List<BulletHelper> bullets = new ArrayList<BulletHelper>();
+		private final Stack<RangeHelper> styleStack = new Stack<RangeHelper>();
+		private final Stack<ListHelper> bulletStack = new Stack<ListHelper>();
+		private boolean inListElement = false;
+		private int lineCount = 0;
+		private int listCount = 0;
 
-	private abstract class RangeHelper {
-		private int length;
-		private int start;
+		@Override
+		public void startElement(final String inUri, final String inLocalName,
+		        final String inName, final Attributes inAttributes)
+		                throws SAXException {
+			if (inName.equals(TAG_ROOT)) {
+				return;
+			}
+			if (inName.equals(LIST_EL_TAG)) {
+				inListElement = true;
+				final ListHelper lList = bulletStack.peek();
+				bullets.add(new BulletHelper(lineCount, 1, lList));
+				if (text.length() > 0) {
+					text.append(NL);
+				}
+				lineCount++;
+				return;
+			}
 
-		protected StyleRange getInitialRange() {
-			final StyleRange outRange = new StyleRange();
-			outRange.start = start;
-			outRange.length = length;
-			return outRange;
-		}
-
-		// protected StyleRange getDefaultRange() {
-		// StyleRange outRange = new StyleRange();
-		// outRange.start = 0;
-		// outRange.length = 0;
-		// outRange.metrics = new GlyphMetrics(10, 1, 17);
-		// return outRange;
-		// }
-		protected void applyInlineStyle(final StyledText inWidget,
-		        final int inStyle, final boolean inUnderline) {
-			final StyleRange lInitRange = getInitialRange();
-			final StyleRange[] lRanges = inWidget
-			        .getStyleRanges(lInitRange.start, lInitRange.length);
-			if (lRanges == null || lRanges.length == 0) {
-				lInitRange.fontStyle = inStyle;
-				lInitRange.underline = inUnderline;
-				inWidget.setStyleRange(lInitRange);
+			if (isInlineTag(inName)) {
+				handleInlineTag(inName);
 			} else {
-				for (final StyleRange lRange : lRanges) {
-					lRange.fontStyle |= inStyle;
-					lRange.underline = inUnderline;
-					inWidget.setStyleRange(lRange);
-				}
+				handleListTag(inName, inAttributes);
 			}
 		}
 
-		public int getLength() {
-			return length;
+		private void handleListTag(final String inName,
+		        final Attributes inAttributes) {
+			ListHelper lList = null;
+			if (inName.equals(ListTag.Unordered.getName())) {
+				lList = new ListHelper(ST.BULLET_DOT,
+				        getBulletWidth(inAttributes), listCount++);
+			} else if (inName.equals(ListTag.OrderedNumeric.getName())) {
+				lList = new ListHelper(ST.BULLET_CUSTOM,
+				        getBulletWidth(inAttributes), listCount++);
+			} else if (inName.equals(ListTag.OrderedLetterUpper.getName())) {
+				lList = new ListHelper(ST.BULLET_LETTER_UPPER,
+				        getBulletWidth(inAttributes), listCount++);
+			} else if (inName.equals(ListTag.OrderedLetterLower.getName())) {
+				lList = new ListHelper(ST.BULLET_LETTER_LOWER,
+				        getBulletWidth(inAttributes), listCount++);
+			}
+			bulletStack.push(lList);
+
+			final int lLength = text.length();
+			if (lLength == 0) {
+				return;
+			}
+			if (text.charAt(lLength - 1) == LF) {
+				text.delete(lLength - 1, lLength);
+			}
 		}
 
-		public int getStart() {
-			return start;
+		private void handleInlineTag(final String inName) {
+			RangeHelper lRange = null;
+			if (inName.equals(InlineTag.Bold.getName())) {
+				lRange = new RangeHelper(SWT.BOLD, false);
+			} else if (inName.equals(InlineTag.Italic.getName())) {
+				lRange = new RangeHelper(SWT.ITALIC, false);
+			} else if (inName.equals(InlineTag.Underline.getName())) {
+				lRange = new RangeHelper(SWT.NORMAL, true);
+			}
+			styleStack.push(lRange);
 		}
 
-		public void setLength(final int inLength) {
-			length = inLength;
+		private boolean isInlineTag(final String inName) {
+			final InlineTag[] lTags = InlineTag.values();
+			for (int i = 0; i < lTags.length; i++) {
+				if (lTags[i].getName().equals(inName)) {
+					return true;
+				}
+			}
+			return false;
 		}
 
-		public void setStart(final int inStart) {
-			start = inStart;
+		private int getBulletWidth(final Attributes inAttributes) {
+			final int lIndent = Integer
+			        .parseInt(inAttributes.getValue(INDENT_ATTR));
+			return Styles.BULLET_WIDTH + lIndent * Styles.INDENT;
 		}
-	}
 
-	private class BoldRange extends RangeHelper implements StyleRangeHelper {
 		@Override
-		public void applyStyle(final StyledText inWidget) {
-			applyInlineStyle(inWidget, SWT.BOLD, false);
+		public void endElement(final String inUri, final String inLocalName,
+		        final String inName) throws SAXException {
+			if (inName.equals(TAG_ROOT)) {
+				return;
+			}
+			if (inName.equals(LIST_EL_TAG)) {
+				inListElement = false;
+				return;
+			}
+
+			if (isInlineTag(inName)) {
+				styles.add(styleStack.pop().getStyle());
+			} else {
+				bulletStack.pop();
+				if (bulletStack.size() == 0) {
+					text.append(NL);
+				}
+			}
 		}
-	}
 
-	private class ItalicRange extends RangeHelper implements StyleRangeHelper {
 		@Override
-		public void applyStyle(final StyledText inWidget) {
-			applyInlineStyle(inWidget, SWT.ITALIC, false);
+		public void characters(final char[] inCharacters, int inStart,
+		        int inLength) throws SAXException {
+			final int lStartPosition = text.length();
+
+			if (isInList() && startsWithLineFeed(inCharacters, inStart)) {
+				inStart++;
+				inLength--;
+			}
+			if (inLength <= 0) {
+				return;
+			}
+
+			text.append(inCharacters, inStart, inLength);
+
+			for (final RangeHelper lHelper : styleStack) {
+				if (lHelper.start == 0) {
+					lHelper.start = lStartPosition;
+				}
+				lHelper.length += inLength;
+			}
+
+			// if we're in a list, we handle new lines in the startElement()
+			// method.
+			if (bulletStack.size() != 0) {
+				return;
+			}
+			lineCount += countNewLines(inCharacters, inStart, inLength);
 		}
-	}
 
-	private class UnderlineRange extends RangeHelper
-	        implements StyleRangeHelper {
-		@Override
-		public void applyStyle(final StyledText inWidget) {
-			applyInlineStyle(inWidget, SWT.NORMAL, true);
+		private boolean startsWithLineFeed(final char[] inCharacters,
+		        final int inStart) {
+			return inCharacters[inStart] == LF;
 		}
-	}
 
-	private class BulletHelper {
-		public int startLine;
-		public int lineCount;
-		public Bullet bullet;
+		/**
+		 * @return boolean <code>true</code> if characters are in list but not
+		 *         a list element, e.g. after the list opening tag but before
+		 *         the first list element tag.
+		 */
+		private boolean isInList() {
+			if (bulletStack.size() == 0) {
+				return false;
+			}
+			return !inListElement;
+		}
 
-		public BulletHelper(final int inStart, final int inLength,
-		        final Bullet inBullet) {
-			startLine = inStart;
-			lineCount = inLength;
-			bullet = inBullet;
+		private int countNewLines(final char[] inCharacters, final int inStart,
+		        final int inLength) {
+			int outLines = 0;
+			final int lEnd = inStart + inLength;
+			for (int i = inStart; i < lEnd; i++) {
+				final char lChar = inCharacters[i];
+				if (lChar == CR) {
+					if (i + 1 < lEnd && (inCharacters[i + 1] == LF)) {
+						i++;
+					}
+					outLines++;
+				} else if (lChar == LF) {
+					outLines++;
+				}
+			}
+			return outLines;
 		}
 
-		public void setLineBullet(final StyledText inWidget) {
-			inWidget.setLineBullet(startLine, lineCount, bullet);
+		ParsedText getParsed(final String inSource) {
+			return new ParsedText(inSource, text.toString(), styles,
+			        consolidateBullets());
 		}
 
-		@Override
-		public String toString() {
-			return String.format(
-			        "BulletHelper type: %s, start: %s, line count: %s", //$NON-NLS-1$
-			        bullet.type, startLine, lineCount);
+		private List<LineBullet> consolidateBullets() {
+			final List<LineBullet> outBullets = new ArrayList<LineBullet>();
+			if (bullets.size() == 0) {
+				return outBullets;
+			}
+
+			BulletHelper lCursor = bullets.get(0);
+			for (int i = 1; i < bullets.size(); i++) {
+				final BulletHelper lNext = bullets.get(i);
+				if (lCursor.list == lNext.list) {
+					lCursor.lineCount += lNext.lineCount;
+				} else {
+					outBullets.add(lCursor.getBullet());
+					lCursor = lNext;
+				}
+			}
+			outBullets.add(lCursor.getBullet());
+			return outBullets;
 		}
 	}
 
-	private class CustomBulletHelper extends BulletHelper {
-		public CustomBulletHelper(final int inStart, final int inLength,
-		        final Bullet inBullet) {
-			super(inStart, inLength, inBullet);
+	private static class RangeHelper {
+		private final int fontStyle;
+		private final boolean underline;
+		private int length;
+		private int start;
+
+		RangeHelper(final int inFontStyle, final boolean inUnderline) {
+			fontStyle = inFontStyle;
+			underline = inUnderline;
 		}
 
-		@Override
-		public void setLineBullet(final StyledText inWidget) {
-			inWidget.setLineBullet(startLine, lineCount, bullet);
-			inWidget.addPaintObjectListener(
-			        Styles.getPaintObjectListener(inWidget));
+		InlineStyle getStyle() {
+			return new InlineStyle(start, length, fontStyle, underline);
 		}
 	}
 
-	private interface BulletHelperFactory {
-		BulletHelper getBulletHelper(int inStart, int inLength);
+	private static class ListHelper {
+		private final int bulletStyle;
+		private final int width;
+		private final int number;
+
+		ListHelper(final int inBulletStyle, final int inWidth,
+		        final int inNumber) {
+			bulletStyle = inBulletStyle;
+			width = inWidth;
+			number = inNumber;
+		}
 	}
 
-	private abstract class HelperFactory implements BulletHelperFactory {
-		protected Bullet bullet;
+	private static class BulletHelper {
+		private final int startLine;
+		private int lineCount;
+		private final ListHelper list;
 
-		public HelperFactory(final Bullet inBullet) {
-			bullet = inBullet;
+		BulletHelper(final int inStart, final int inLength,
+		        final ListHelper inList) {
+			startLine = inStart;
+			lineCount = inLength;
+			list = inList;
+		}
+
+		LineBullet getBullet() {
+			return new LineBullet(startLine, lineCount, list.bulletStyle,
+			        list.width, list.number);
 		}
 
 		@Override
-		public BulletHelper getBulletHelper(final int inStart,
-		        final int inLength) {
-			return new BulletHelper(inStart, inLength, bullet);
+		public String toString() {
+			return String.format(
+			        "BulletHelper type: %s, start: %s, line count: %s", //$NON-NLS-1$
+			        list.bulletStyle, startLine, lineCount);
 		}
 	}
 
-	private class SimpleListFactory extends HelperFactory
-	        implements BulletHelperFactory {
-		public SimpleListFactory(final int inBulletStyle, final int inWidth) {
-			super(Styles.getBullet(inBulletStyle, inWidth));
+	/**
+	 * The key of the cache: an item's id and its modification date.
+	 */
+	private static class CacheKey {
+		private final UniqueID itemID;
+		private final long modified;
+
+		CacheKey(final UniqueID inItemID, final Timestamp inModified) {
+			itemID = inItemID;
+			modified = inModified.getTime();
 		}
-	}
 
-	private class CustomListFactory extends HelperFactory
-	        implements BulletHelperFactory {
-		public CustomListFactory(final int inWidth) {
-			super(Styles.getBullet(ST.BULLET_CUSTOM, inWidth));
+		@Override
+		public int hashCode() {
+			return 31 * itemID.hashCode() + (int) (modified ^ (modified >>> 32));
 		}
 
 		@Override
-		public BulletHelper getBulletHelper(final int inStart,
-		        final int inLength) {
-			return new CustomBulletHelper(inStart, inLength, bullet);
+		public boolean equals(final Object inObject) {
+			if (this == inObject) {
+				return true;
+			}
+			if (!(inObject instanceof CacheKey)) {
+				return false;
+			}
+			final CacheKey lKey = (CacheKey) inObject;
+			return modified == lKey.modified && itemID.equals(lKey.itemID);
 		}
 	}
 
+
 	private class Tagger {
 		private final Collection<InlineTag> lStyles = new ArrayList<InlineTag>();
 
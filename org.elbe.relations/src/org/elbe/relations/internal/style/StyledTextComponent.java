@@ -19,6 +19,7 @@
 package org.elbe.relations.internal.style;
 
 import java.io.IOException;
+import java.sql.Timestamp;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Set;
@@ -57,6 +58,7 @@ import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Menu;
 import org.elbe.relations.RelationsConstants;
+import org.elbe.relations.data.utility.UniqueID;
 import org.elbe.relations.internal.style.Styles.StyleParameter;
 import org.xml.sax.SAXException;
 
@@ -303,6 +305,27 @@ public class StyledTextComponent {
 		StyleParser.getInstance().parseTagged(inTextTagged, textWidget);
 	}
 
+	/**
+	 * Sets the specified item's tagged text to the widget. The parsed text is
+	 * cached, thus, displaying the same item again is cheap.
+	 * 
+	 * @param inTextTagged
+	 *            String the text including style information as tags.
+	 * @param inItemID
+	 *            {@link UniqueID} the item's id, may be <code>null</code>
+	 * @param inModified
+	 *            {@link Timestamp} the item's modification date, may be
+	 *            <code>null</code>
+	 * @throws IOException
+	 * @throws SAXException
+	 */
+	public void setTaggedText(final String inTextTagged,
+	        final UniqueID inItemID, final Timestamp inModified)
+	        throws IOException, SAXException {
+		StyleParser.getInstance().parse(inItemID, inModified, inTextTagged)
+		        .applyTo(textWidget);
+	}
+
 	/**
 	 * Returns the widget content including style information as tags.
 	 * 
@@ -18,11 +18,16 @@
  ***************************************************************************/
 package org.elbe.relations.internal.utility;
 
-import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.SQLException;
 import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.e4.core.services.log.Logger;
@@ -30,10 +35,10 @@ import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.swt.widgets.Display;
 import org.elbe.relations.RelationsMessages;
-import org.elbe.relations.data.utility.EventStoreChecker;
 import org.elbe.relations.internal.controls.RelationsStatusLineManager;
 import org.elbe.relations.internal.preferences.LanguageService;
 import org.elbe.relations.services.ICloudProvider;
+import org.hip.kernel.exc.VException;
 
 import com.google.gson.JsonObject;
 
@@ -45,6 +50,8 @@ import com.google.gson.JsonObject;
 @SuppressWarnings("restriction")
 public abstract class AbstractExportToCloudJob
 implements IRunnableWithProgress {
+	private static final int PIPE_SIZE = 64 * 1024;
+
 	private final ICloudProvider cloudProvider;
 	private final JsonObject jsonObject;
 	private final LanguageService languageService;
@@ -88,18 +95,30 @@ implements IRunnableWithProgress {
 	@Override
 	public void run(final IProgressMonitor monitor)
 			throws InvocationTargetException, InterruptedException {
-		File tempExport = null;
-		try {
-			final String fileName = createTempFileName();
-			tempExport = File.createTempFile(fileName, ".zip"); //$NON-NLS-1$
-
-			// 1) export DB content to zipped XML in temporary file
-			prepareContentForExport(tempExport, monitor);
-
-			// 2) upload temporary file to cloud
-			if (this.cloudProvider.upload(tempExport,
-					String.format("%s.zip", fileName), //$NON-NLS-1$
-			        this.jsonObject, this.isFullExport, this.log)) {
+		final String fileName = String.format("%s.zip", createTempFileName()); //$NON-NLS-1$
+		try (PipedInputStream content = new PipedInputStream(PIPE_SIZE)) {
+			final PipedOutputStream target = new PipedOutputStream(content);
+
+			// 1) export DB content to zipped XML, concurrently with the upload
+			final FutureTask<Void> export = new FutureTask<>(() -> {
+				prepareContentForExport(new NonClosingStream(target), fileName,
+						monitor);
+				// after a failure, the pipe is left open: the upload is
+				// aborted because the writing thread (registered by the zip
+				// header written first) is dead
+				target.close();
+				return null;
+			});
+			new Thread(export, "ExportToCloud").start(); //$NON-NLS-1$
+
+			// 2) upload the exported content to the cloud
+			final boolean uploaded = this.cloudProvider.upload(content,
+					fileName, this.jsonObject, this.isFullExport, this.log);
+			// unblock the export if the upload has been aborted
+			content.close();
+			if (uploaded && isExported(export)) {
+				// 3) move the watermark
+				afterUpload();
 				Display.getDefault().asyncExec(() -> {
 					this.statusLine.showStatusLineMessage(
 							RelationsMessages.getString("AbstractExportToCloudJob.status.msg")); //$NON-NLS-1$
@@ -112,24 +131,49 @@ implements IRunnableWithProgress {
 							RelationsMessages.getString("AbstractExportToCloudJob.err.msg")); //$NON-NLS-1$
 				});
 			}
-
-			// 3) clear entries in EventStore
-			new EventStoreChecker().clear();
 		}
 		catch (final IOException | SQLException exc) {
 			this.log.error(exc, exc.getMessage());
 		}
-		finally {
-			if (tempExport != null) {
-				tempExport.delete();
-			}
+	}
+
+	private boolean isExported(final FutureTask<Void> export)
+			throws InterruptedException {
+		try {
+			export.get();
+			return true;
+		}
+		catch (final ExecutionException exc) {
+			this.log.error(exc.getCause(), "Error during export to cloud!"); //$NON-NLS-1$
+			return false;
 		}
 	}
 
 	protected abstract String createTempFileName();
 
-	protected abstract void prepareContentForExport(File tempExport,
-			final IProgressMonitor monitor) throws IOException;
+	/**
+	 * Called after the export has been uploaded successfully.
+	 *
+	 * @throws SQLException
+	 */
+	protected abstract void afterUpload() throws SQLException;
+
+	/**
+	 * Writes the content to export to the specified stream.
+	 *
+	 * @param target
+	 *            {@link OutputStream} the stream the cloud provider uploads
+	 * @param fileName
+	 *            String the name of the export file in the cloud
+	 * @param monitor
+	 *            {@link IProgressMonitor}
+	 * @throws IOException
+	 * @throws VException
+	 * @throws SQLException
+	 */
+	protected abstract void prepareContentForExport(OutputStream target,
+			String fileName, final IProgressMonitor monitor)
+					throws IOException, VException, SQLException;
 
 	protected Locale getAppLocale() {
 		return this.languageService.getAppLocale();
@@ -143,4 +187,26 @@ implements IRunnableWithProgress {
 		return this.numberOfItems;
 	}
 
+	// ---
+
+	/**
+	 * Wrapper preventing the exporter to close the pipe.
+	 */
+	private static class NonClosingStream extends FilterOutputStream {
+		NonClosingStream(final OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(final byte[] data, final int offset,
+				final int length) throws IOException {
+			this.out.write(data, offset, length);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+
 }
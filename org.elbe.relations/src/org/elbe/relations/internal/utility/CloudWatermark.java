@@ -0,0 +1,119 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.internal.utility;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.e4.core.services.log.Logger;
+import org.osgi.service.prefs.BackingStoreException;
+
+/**
+ * The ID of the last event store entry exported to a cloud provider, stored in
+ * the preferences next to the cloud provider's configuration. A configuration
+ * without watermark has not been exported yet and needs a full export.
+ *
+ * @author lbenno
+ */
+@SuppressWarnings("restriction")
+public class CloudWatermark {
+	private static final String SUFFIX_ID = "_lastEventID"; //$NON-NLS-1$
+	private static final String SUFFIX_CREATED = "_lastEventCreated"; //$NON-NLS-1$
+
+	private final IEclipsePreferences store;
+	private final String key;
+	private final long eventID;
+
+	/**
+	 * CloudWatermark constructor.
+	 *
+	 * @param store
+	 *            {@link IEclipsePreferences}
+	 * @param key
+	 *            String the cloud provider configuration's key
+	 */
+	public CloudWatermark(final IEclipsePreferences store, final String key) {
+		this.store = store;
+		this.key = key;
+		this.eventID = store.getLong(key + SUFFIX_ID, 0);
+	}
+
+	/**
+	 * @return long the ID of the last event exported, <code>0</code> if the
+	 *         configuration has not been exported yet
+	 */
+	public long getEventID() {
+		return this.eventID;
+	}
+
+	/**
+	 * @return boolean <code>true</code> if the configuration has been exported
+	 *         before
+	 */
+	public boolean isSet() {
+		return this.eventID > 0;
+	}
+
+	/**
+	 * Moves the watermark to the specified event.
+	 *
+	 * @param lastEventID
+	 *            long the ID of the last event contained in the export
+	 * @param log
+	 *            {@link Logger}
+	 */
+	public void save(final long lastEventID, final Logger log) {
+		this.store.putLong(this.key + SUFFIX_ID, lastEventID);
+		// the creation date isn't part of the watermark anymore
+		this.store.remove(this.key + SUFFIX_CREATED);
+		try {
+			this.store.flush();
+		}
+		catch (final BackingStoreException exc) {
+			log.error(exc, exc.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the watermarks of all cloud provider configurations that have
+	 * been exported, including the ones of cloud providers not installed
+	 * actually.
+	 *
+	 * @param store
+	 *            {@link IEclipsePreferences}
+	 * @return Collection&lt;CloudWatermark>
+	 * @throws BackingStoreException
+	 */
+	public static Collection<CloudWatermark> getAll(
+			final IEclipsePreferences store) throws BackingStoreException {
+		final Collection<CloudWatermark> outWatermarks = new ArrayList<>();
+		for (final String key : store.keys()) {
+			if (key.endsWith(SUFFIX_ID)) {
+				final CloudWatermark watermark = new CloudWatermark(store,
+						key.substring(0, key.length() - SUFFIX_ID.length()));
+				if (watermark.isSet()) {
+					outWatermarks.add(watermark);
+				}
+			}
+		}
+		return outWatermarks;
+	}
+
+}
@@ -0,0 +1,89 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.internal.utility;
+
+import java.io.IOException;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.services.log.Logger;
+import org.elbe.relations.data.bom.BOMHelper;
+import org.elbe.relations.data.bom.EventStoreHome;
+import org.elbe.relations.data.search.RelationsIndexer;
+import org.elbe.relations.internal.actions.RelationsPreferences;
+import org.elbe.relations.internal.search.RelationsIndexerWithLanguage;
+import org.hip.kernel.bom.BOMException;
+import org.osgi.service.prefs.BackingStoreException;
+
+/**
+ * Deletes the event store entries every consumer of the event store has
+ * processed. The consumers are the search index and the cloud provider
+ * configurations exported before, each with its own watermark. The entries
+ * after the lowest watermark are kept.
+ *
+ * @author lbenno
+ */
+@SuppressWarnings("restriction")
+public final class EventStorePruner {
+
+	private EventStorePruner() {
+		// prevent instantiation
+	}
+
+	/**
+	 * Deletes the entries up to the lowest watermark still in use.
+	 *
+	 * @param context
+	 *            {@link IEclipseContext}
+	 * @param log
+	 *            {@link Logger}
+	 */
+	public static void prune(final IEclipseContext context, final Logger log) {
+		try {
+			final EventStoreHome home = BOMHelper.getEventStoreHome();
+			// taken first: entries created in the meantime are kept
+			long lowest = home.getLastEventID();
+
+			// an index without watermark starts with the actual state
+			final RelationsIndexer indexer = RelationsIndexerWithLanguage
+					.createRelationsIndexer(context);
+			if (indexer.isIndexAvailable()) {
+				final long indexed = indexer.getEventWatermark();
+				if (indexed >= 0) {
+					lowest = Math.min(lowest, indexed);
+				}
+			}
+
+			final IEclipsePreferences store = RelationsPreferences
+					.getPreferences();
+			for (final CloudWatermark watermark : CloudWatermark
+					.getAll(store)) {
+				lowest = Math.min(lowest, watermark.getEventID());
+			}
+
+			if (lowest > 0) {
+				home.deleteUpTo(lowest);
+			}
+		}
+		catch (BOMException | IOException | BackingStoreException exc) {
+			log.error(exc, "Unable to prune the event store!"); //$NON-NLS-1$
+		}
+	}
+
+}
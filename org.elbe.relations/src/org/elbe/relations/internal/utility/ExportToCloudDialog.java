@@ -53,6 +53,7 @@ public class ExportToCloudDialog extends Dialog {
 	 *            {@link ICloudProviderConfig}
 	 * @param hasEvents
 	 *            boolean <code>true</code> if the event store contains entries
+	 *            after the configuration's watermark
 	 */
 	public ExportToCloudDialog(final ICloudProviderConfig cloudProviderConfig,
 			final boolean hasEvents) {
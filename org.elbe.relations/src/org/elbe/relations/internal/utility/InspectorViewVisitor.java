@@ -18,6 +18,10 @@
  ***************************************************************************/
 package org.elbe.relations.internal.utility;
 
+import java.sql.Timestamp;
+
+import org.elbe.relations.data.utility.UniqueID;
+
 /**
  * ItemVisitor used in <code>InspectorView</code>.
  * 
@@ -28,6 +32,8 @@ public class InspectorViewVisitor extends AbstractItemVisitor {
 	private boolean isTitleEditable;
 	private boolean isTextEditable;
 	private String realText;
+	private UniqueID itemID;
+	private Timestamp modified;
 
 	@Override
 	public void setSubTitle(final String inSubTitle) {
@@ -70,4 +76,34 @@ public class InspectorViewVisitor extends AbstractItemVisitor {
 		realText = inText;
 	}
 
+	/**
+	 * Sets the visited item's id and modification date, used to cache the
+	 * parsed text.
+	 *
+	 * @param inItemID
+	 *            {@link UniqueID}
+	 * @param inModified
+	 *            {@link Timestamp} may be <code>null</code>
+	 */
+	public void setItem(final UniqueID inItemID, final Timestamp inModified) {
+		itemID = inItemID;
+		modified = inModified;
+	}
+
+	/**
+	 * @return {@link UniqueID} the visited item's id, may be
+	 *         <code>null</code>
+	 */
+	public UniqueID getItemID() {
+		return itemID;
+	}
+
+	/**
+	 * @return {@link Timestamp} the visited item's modification date, may be
+	 *         <code>null</code>
+	 */
+	public Timestamp getModified() {
+		return modified;
+	}
+
 }
@@ -7,27 +7,36 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
+import org.eclipse.swt.graphics.Image;
 import org.elbe.relations.RelationsImages;
-import org.elbe.relations.data.bom.BOMHelper;
 import org.elbe.relations.data.bom.IItem;
-import org.elbe.relations.data.bom.RelationHome;
+import org.elbe.relations.data.bom.LightWeightRelated;
 import org.elbe.relations.data.utility.ItemCollator;
+import org.elbe.relations.data.utility.RelatedItemLoader;
+import org.elbe.relations.data.utility.RelationGraph;
+import org.elbe.relations.data.utility.UniqueID;
 import org.elbe.relations.internal.models.ItemWithIcon;
-import org.hip.kernel.bom.KeyObject;
-import org.hip.kernel.bom.QueryResult;
-import org.hip.kernel.bom.impl.KeyObjectImpl;
 import org.hip.kernel.exc.VException;
 
 /**
  * Helper class to collect all related items.
- * 
+ * <p>
+ * The related items are retrieved with one query (see
+ * {@link RelatedItemLoader}) that doesn't load the items' text. The full items
+ * are loaded on demand only (see {@link ItemWithIcon#getItem()}).
+ * </p>
+ * <p>
+ * If the {@link RelationGraph} is loaded and the item has no related items of
+ * the requested types, the database isn't queried at all.
+ * </p>
+ *
  * @author Benno Luthiger
  */
 public class RelatedItemHelper {
 
 	/**
 	 * Retrieves all related terms.
-	 * 
+	 *
 	 * @param inItem
 	 *            IItem The item the terms are related to.
 	 * @return Collection<ItemWithIcon>
@@ -36,18 +45,12 @@ public class RelatedItemHelper {
 	 */
 	public static Collection<ItemWithIcon> getRelatedTerms(final IItem inItem)
 			throws VException, SQLException {
-		final Collection<ItemWithIcon> outRelated = getItems(BOMHelper
-				.getJoinRelatedTerm1Home().select(getKey1(inItem, IItem.TERM)),
-				new TermWrapper());
-		outRelated.addAll(getItems(
-				BOMHelper.getJoinRelatedTerm2Home().select(
-						getKey2(inItem, IItem.TERM)), new TermWrapper()));
-		return outRelated;
+		return loadRelated(inItem, IItem.TERM);
 	}
 
 	/**
 	 * Retrieves all related texts.
-	 * 
+	 *
 	 * @param inItem
 	 *            IItem The item the texts are related to.
 	 * @return Collection<IItemModel>
@@ -56,18 +59,12 @@ public class RelatedItemHelper {
 	 */
 	public static Collection<ItemWithIcon> getRelatedTexts(final IItem inItem)
 			throws VException, SQLException {
-		final Collection<ItemWithIcon> outRelated = getItems(BOMHelper
-				.getJoinRelatedText1Home().select(getKey1(inItem, IItem.TEXT)),
-				new TextWrapper());
-		outRelated.addAll(getItems(
-				BOMHelper.getJoinRelatedText2Home().select(
-						getKey2(inItem, IItem.TEXT)), new TextWrapper()));
-		return outRelated;
+		return loadRelated(inItem, IItem.TEXT);
 	}
 
 	/**
 	 * Retrieves all related persons.
-	 * 
+	 *
 	 * @param inItem
 	 *            IItem The item the persons are related to.
 	 * @return Collection<IItemModel>
@@ -76,17 +73,12 @@ public class RelatedItemHelper {
 	 */
 	public static Collection<ItemWithIcon> getRelatedPersons(final IItem inItem)
 			throws VException, SQLException {
-		final Collection<ItemWithIcon> outRelated = getItems(
-				BOMHelper.getJoinRelatedPerson1Home().select(
-						getKey1(inItem, IItem.PERSON)), new PersonWrapper());
-		outRelated.addAll(getItems(BOMHelper.getJoinRelatedPerson2Home()
-				.select(getKey2(inItem, IItem.PERSON)), new PersonWrapper()));
-		return outRelated;
+		return loadRelated(inItem, IItem.PERSON);
 	}
 
 	/**
 	 * Retrieves all related items of any type.
-	 * 
+	 *
 	 * @param inItem
 	 *            The item whose related will be retrieved.
 	 * @return Collection<IItem> of <code>IItem</code>
@@ -95,83 +87,93 @@ public class RelatedItemHelper {
 	 */
 	public static Collection<ItemWithIcon> getRelatedItems(final IItem inItem)
 			throws VException, SQLException {
-		// term
-		final List<ItemWithIcon> outRelated = getItems(BOMHelper
-				.getJoinRelatedTerm1Home().select(getKey1(inItem, IItem.TERM)),
-				new TermWrapper());
-		outRelated.addAll(getItems(
-				BOMHelper.getJoinRelatedTerm2Home().select(
-						getKey2(inItem, IItem.TERM)), new TermWrapper()));
-		// text
-		outRelated.addAll(getItems(
-				BOMHelper.getJoinRelatedText1Home().select(
-						getKey1(inItem, IItem.TEXT)), new TextWrapper()));
-		outRelated.addAll(getItems(
-				BOMHelper.getJoinRelatedText2Home().select(
-						getKey2(inItem, IItem.TEXT)), new TextWrapper()));
-		// person
-		outRelated.addAll(getItems(BOMHelper.getJoinRelatedPerson1Home()
-				.select(getKey1(inItem, IItem.PERSON)), new PersonWrapper()));
-		outRelated.addAll(getItems(BOMHelper.getJoinRelatedPerson2Home()
-				.select(getKey2(inItem, IItem.PERSON)), new PersonWrapper()));
+		final List<ItemWithIcon> outRelated = loadRelated(inItem);
 		// sort
-		final Collator lCollator = new ItemCollator();
-		lCollator.setStrength(Collator.SECONDARY);
-		Collections.sort(outRelated, lCollator);
+		Collections.sort(outRelated, createCollator());
 		return outRelated;
 	}
 
-	private static KeyObject getKey1(final IItem inItem, final int inType)
-			throws VException {
-		final KeyObject outKey = new KeyObjectImpl();
-		outKey.setValue(RelationHome.KEY_ITEM2, new Long(inItem.getID()));
-		outKey.setValue(RelationHome.KEY_TYPE2,
-				new Integer(inItem.getItemType()));
-		outKey.setValue(RelationHome.KEY_TYPE1, new Integer(inType));
-		return outKey;
-	}
-
-	private static KeyObject getKey2(final IItem inItem, final int inType)
-			throws VException {
-		final KeyObject outKey = new KeyObjectImpl();
-		outKey.setValue(RelationHome.KEY_ITEM1, new Long(inItem.getID()));
-		outKey.setValue(RelationHome.KEY_TYPE1,
-				new Integer(inItem.getItemType()));
-		outKey.setValue(RelationHome.KEY_TYPE2, new Integer(inType));
-		return outKey;
+	/**
+	 * Retrieves all related items of any type, grouped by item type (terms,
+	 * texts, persons).
+	 *
+	 * @param inItem
+	 *            The item whose related will be retrieved.
+	 * @return List<ItemWithIcon>
+	 * @throws VException
+	 * @throws SQLException
+	 */
+	public static List<ItemWithIcon> loadRelated(final IItem inItem)
+			throws VException, SQLException {
+		return loadRelated(inItem, IItem.TERM, IItem.TEXT, IItem.PERSON);
 	}
 
-	private static List<ItemWithIcon> getItems(final QueryResult inResult,
-			final IWrapper inWrapper) throws SQLException, VException {
-		final List<ItemWithIcon> outItems = new ArrayList<ItemWithIcon>();
-		while (inResult.hasMoreElements()) {
-			outItems.add(inWrapper.wrap((IItem) inResult.next()));
-		}
-		return outItems;
+	/**
+	 * Retrieves the lightweight version of all related items, i.e. the items
+	 * without their text. Use this method if the related items are needed for
+	 * display only.
+	 *
+	 * @param inItem
+	 *            The item whose related will be retrieved.
+	 * @return List<LightWeightRelated> sorted by title
+	 * @throws VException
+	 * @throws SQLException
+	 */
+	public static List<LightWeightRelated> getRelatedLightWeights(
+			final IItem inItem) throws VException, SQLException {
+		final List<LightWeightRelated> outRelated = new RelatedItemLoader()
+				.load(inItem);
+		Collections.sort(outRelated, createCollator());
+		return outRelated;
 	}
 
-	private interface IWrapper {
-		ItemWithIcon wrap(IItem inModel);
+	private static Collator createCollator() {
+		final Collator outCollator = new ItemCollator();
+		outCollator.setStrength(Collator.SECONDARY);
+		return outCollator;
 	}
 
-	private static class TermWrapper implements IWrapper {
-		@Override
-		public ItemWithIcon wrap(final IItem inModel) {
-			return new ItemWithIcon(inModel, RelationsImages.TERM.getImage());
+	private static List<ItemWithIcon> loadRelated(final IItem inItem,
+			final int... inTypes) throws VException, SQLException {
+		if (RelationGraph.INSTANCE.isLoaded()
+				&& !hasNeighbours(inItem, inTypes)) {
+			return new ArrayList<ItemWithIcon>();
+		}
+		final List<LightWeightRelated> lRelated = new RelatedItemLoader().load(
+				inItem, inTypes);
+		final List<ItemWithIcon> outItems = new ArrayList<ItemWithIcon>(
+				lRelated.size());
+		for (final LightWeightRelated lItem : lRelated) {
+			outItems.add(new ItemWithIcon(lItem, getIcon(lItem.itemType)));
 		}
+		return outItems;
 	}
 
-	private static class PersonWrapper implements IWrapper {
-		@Override
-		public ItemWithIcon wrap(final IItem inModel) {
-			return new ItemWithIcon(inModel, RelationsImages.PERSON.getImage());
+	/**
+	 * Checks the in-memory graph for related items of the specified types.
+	 */
+	private static boolean hasNeighbours(final IItem inItem,
+			final int... inTypes) throws VException {
+		for (final RelationGraph.Neighbour lNeighbour : RelationGraph.INSTANCE
+				.getNeighbours(new UniqueID(inItem.getItemType(), inItem
+						.getID()))) {
+			for (final int lType : inTypes) {
+				if (lNeighbour.item.itemType == lType) {
+					return true;
+				}
+			}
 		}
+		return false;
 	}
 
-	private static class TextWrapper implements IWrapper {
-		@Override
-		public ItemWithIcon wrap(final IItem inModel) {
-			return new ItemWithIcon(inModel, RelationsImages.TEXT.getImage());
+	private static Image getIcon(final int inType) {
+		switch (inType) {
+		case IItem.TERM:
+			return RelationsImages.TERM.getImage();
+		case IItem.TEXT:
+			return RelationsImages.TEXT.getImage();
+		default:
+			return RelationsImages.PERSON.getImage();
 		}
 	}
 
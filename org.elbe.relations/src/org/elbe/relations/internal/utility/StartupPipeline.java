@@ -0,0 +1,193 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.internal.utility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.e4.core.services.log.Logger;
+
+/**
+ * Runs the application's startup work as named stages.
+ * <p>
+ * Each stage declares the stages it depends on. Stages are scheduled when the
+ * pipeline is started and run in the background as soon as their dependencies
+ * are done. Therefore, independent stages run concurrently. Dependencies must
+ * be declared before the stage depending on them, which excludes cycles.
+ * </p>
+ * <p>
+ * The elapsed time of every stage is logged, thus, regressions of the startup
+ * time become visible. A failing stage is logged too, but doesn't stop the
+ * stages depending on it.
+ * </p>
+ *
+ * @author lbenno
+ */
+@SuppressWarnings("restriction")
+public class StartupPipeline {
+	private static final String THREAD_NAME = "RelationsStartup"; //$NON-NLS-1$
+
+	private final Logger log;
+	private final CompletableFuture<Void> started = new CompletableFuture<>();
+	private final Map<String, CompletableFuture<Void>> stages = new LinkedHashMap<>();
+	private final Map<String, Long> elapsed = new ConcurrentHashMap<>();
+	private ExecutorService executor;
+	private long startTime;
+
+	/**
+	 * @param log
+	 *            {@link Logger} the logger for the timing of the stages, may be
+	 *            <code>null</code>
+	 */
+	public StartupPipeline(final Logger log) {
+		this.log = log;
+	}
+
+	/**
+	 * Adds a stage to the pipeline.
+	 *
+	 * @param name
+	 *            String the stage's name, must be unique
+	 * @param step
+	 *            {@link Step} the work to do
+	 * @param dependencies
+	 *            String[] the names of the stages that have to be done before
+	 *            this stage can start
+	 * @return {@link StartupPipeline} this pipeline
+	 * @throws IllegalArgumentException
+	 *             if the name is used already or a dependency is unknown
+	 */
+	public StartupPipeline stage(final String name, final Step step,
+			final String... dependencies) {
+		if (this.stages.containsKey(name)) {
+			throw new IllegalArgumentException(
+					String.format("Duplicate startup stage '%s'!", name)); //$NON-NLS-1$
+		}
+		final List<CompletableFuture<Void>> before = new ArrayList<>();
+		before.add(this.started);
+		for (final String dependency : dependencies) {
+			final CompletableFuture<Void> stage = this.stages.get(dependency);
+			if (stage == null) {
+				throw new IllegalArgumentException(String.format(
+						"Startup stage '%s' depends on unknown stage '%s'!", //$NON-NLS-1$
+						name, dependency));
+			}
+			before.add(stage);
+		}
+		this.stages.put(name,
+				CompletableFuture
+				.allOf(before.toArray(new CompletableFuture<?>[before.size()]))
+				.thenRunAsync(() -> runTimed(name, step), task -> this.executor.execute(task)));
+		return this;
+	}
+
+	/**
+	 * Runs the specified work on the calling thread and logs its elapsed time
+	 * like a stage of the pipeline. Use this method for startup work that needs
+	 * the UI thread, e.g. because it may open a dialog.
+	 *
+	 * @param name
+	 *            String
+	 * @param step
+	 *            {@link Step}
+	 */
+	public void runNow(final String name, final Step step) {
+		runTimed(name, step);
+	}
+
+	/**
+	 * Starts the stages of the pipeline.
+	 *
+	 * @return CompletableFuture&lt;Void> completed when all stages are done
+	 */
+	public CompletableFuture<Void> start() {
+		this.executor = Executors.newFixedThreadPool(
+				Math.max(1, Math.min(this.stages.size(),
+						Runtime.getRuntime().availableProcessors())),
+				task -> {
+					final Thread thread = new Thread(task, THREAD_NAME);
+					thread.setDaemon(true);
+					return thread;
+				});
+		final CompletableFuture<Void> out = CompletableFuture
+				.allOf(this.stages.values().toArray(
+						new CompletableFuture<?>[this.stages.size()]))
+				.whenComplete((result, exc) -> {
+					this.executor.shutdown();
+					info(String.format("Startup pipeline finished in %d ms", //$NON-NLS-1$
+							millis(this.startTime)));
+				});
+		this.startTime = System.nanoTime();
+		this.started.complete(null);
+		return out;
+	}
+
+	/**
+	 * @return Map&lt;String, Long> the elapsed time (ms) of the stages done
+	 *         so far
+	 */
+	public Map<String, Long> getElapsed() {
+		return Collections.unmodifiableMap(this.elapsed);
+	}
+
+	private void runTimed(final String name, final Step step) {
+		final long start = System.nanoTime();
+		try {
+			step.run();
+		}
+		catch (final Exception exc) {
+			if (this.log != null) {
+				this.log.error(exc, String.format("Startup stage '%s' failed!", name)); //$NON-NLS-1$
+			}
+		}
+		final long time = millis(start);
+		this.elapsed.put(name, time);
+		info(String.format("Startup stage '%s' finished in %d ms", name, time)); //$NON-NLS-1$
+	}
+
+	private void info(final String message) {
+		if (this.log != null) {
+			this.log.info(message);
+		}
+	}
+
+	private static long millis(final long start) {
+		return (System.nanoTime() - start) / 1000000;
+	}
+
+	// ---
+
+	/**
+	 * The work of a startup stage.
+	 */
+	public interface Step {
+		/**
+		 * @throws Exception
+		 */
+		void run() throws Exception;
+	}
+
+}
@@ -20,18 +20,23 @@ package org.elbe.relations.internal.wizards;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.SQLException;
 import java.text.MessageFormat;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
+import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.wizard.Wizard;
+import org.elbe.relations.RelationsConstants;
 import org.elbe.relations.RelationsMessages;
-import org.elbe.relations.internal.backup.ZipBackup;
+import org.elbe.relations.internal.backup.ChunkedBackup;
 import org.elbe.relations.internal.controls.RelationsStatusLineManager;
 import org.elbe.relations.internal.data.DBSettings;
+import org.elbe.relations.internal.search.RelationsIndexerWithLanguage;
 import org.elbe.relations.internal.utility.EmbeddedCatalogHelper;
 import org.elbe.relations.internal.wizards.interfaces.IExportWizard;
 
@@ -58,12 +63,16 @@ public class BackupEmbedded extends Wizard implements IExportWizard {
 	@Inject
 	private RelationsStatusLineManager statusLine;
 
+	@Inject
+	private IEclipseContext context;
+
 	private BackupEmbeddedPage page;
 
 	@PostConstruct
 	public void init() {
 		setWindowTitle(
 		        RelationsMessages.getString("BackupEmbedded.page.title")); //$NON-NLS-1$
+		setNeedsProgressMonitor(true);
 	}
 
 	@Override
@@ -82,21 +91,36 @@ public class BackupEmbedded extends Wizard implements IExportWizard {
 	@Override
 	public boolean performFinish() {
 		final String lCatalog = dbSettings.getCatalog();
+		final File lIndexDirectory = new File(new File(
+		        EmbeddedCatalogHelper.getDBStorePath().getParentFile(),
+		        RelationsConstants.LUCENE_STORE), lCatalog);
+		// the backup contains a snapshot of the search index' committed state
+		final ChunkedBackup lBackup = new ChunkedBackup(lCatalog,
+		        RelationsIndexerWithLanguage.createRelationsIndexer(context),
+		        lIndexDirectory, page.getFileName());
 		try {
-			final String lDataDirectory = EmbeddedCatalogHelper.getDBStorePath()
-			        .getCanonicalPath() + File.separator + lCatalog;
-			final ZipBackup lBackup = new ZipBackup(lDataDirectory,
-			        page.getFileName());
-			lBackup.backup();
+			// the backup runs in a background thread, the database stays
+			// usable
+			getContainer().run(true, false, inMonitor -> {
+				try {
+					lBackup.backup(inMonitor);
+				}
+				catch (IOException | SQLException exc) {
+					throw new InvocationTargetException(exc);
+				}
+			});
 			statusLine.showStatusLineMessage(
 			        SUCCESS_MSG.format(new String[] { lCatalog }));
 		}
-		catch (final IOException exc) {
+		catch (final InvocationTargetException exc) {
 			MessageDialog.openError(getShell(),
 			        RelationsMessages.getString("BackupEmbedded.error"), //$NON-NLS-1$
 			        PROBLEMS_MSG.format(new String[] { lCatalog }));
 			log.error(exc, exc.getMessage());
 		}
+		catch (final InterruptedException exc) {
+			Thread.currentThread().interrupt();
+		}
 		return true;
 	}
 
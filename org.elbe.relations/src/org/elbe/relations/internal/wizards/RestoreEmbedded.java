@@ -25,6 +25,7 @@ import java.text.MessageFormat;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
+import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.equinox.app.IApplication;
 import org.eclipse.equinox.app.IApplicationContext;
@@ -33,8 +34,10 @@ import org.eclipse.jface.wizard.Wizard;
 import org.eclipse.swt.widgets.Shell;
 import org.elbe.relations.RelationsConstants;
 import org.elbe.relations.RelationsMessages;
+import org.elbe.relations.internal.backup.ChunkedRestore;
 import org.elbe.relations.internal.controls.RelationsStatusLineManager;
 import org.elbe.relations.internal.data.DBSettings;
+import org.elbe.relations.internal.search.RelationsIndexerWithLanguage;
 import org.elbe.relations.internal.utility.EmbeddedCatalogHelper;
 import org.elbe.relations.internal.utility.ZipRestore;
 import org.elbe.relations.internal.wizards.interfaces.IImportWizard;
@@ -68,6 +71,9 @@ public class RestoreEmbedded extends Wizard implements IImportWizard {
 	@Inject
 	private IApplicationContext appContext;
 
+	@Inject
+	private IEclipseContext context;
+
 	private RestoreEmbeddedPage page;
 
 	@PostConstruct
@@ -94,11 +100,19 @@ public class RestoreEmbedded extends Wizard implements IImportWizard {
 	public boolean performFinish() {
 		final Shell lShell = getShell();
 		final String lCatalog = dbSettings.getCatalog();
-		final ZipRestore lRestore = new ZipRestore(
-		        EmbeddedCatalogHelper.getDBStorePath(), page.getFileName(),
-		        log);
-
-		if (!lRestore.checkArchive(lCatalog)) {
+		final File lDataStore = EmbeddedCatalogHelper.getDBStorePath();
+		final String lFileName = page.getFileName();
+		// backups created before the chunked backup are plain Zip files
+		final ChunkedRestore lChunked = ChunkedRestore.isChunked(lFileName)
+		        ? new ChunkedRestore(lDataStore,
+		                new File(lDataStore.getParentFile(),
+		                        RelationsConstants.LUCENE_STORE),
+		                lFileName)
+		        : null;
+		final ZipRestore lRestore = new ZipRestore(lDataStore, lFileName, log);
+
+		if (!(lChunked == null ? lRestore.checkArchive(lCatalog)
+		        : lChunked.checkArchive(lCatalog))) {
 			MessageDialog.openWarning(lShell,
 			        RelationsMessages
 			                .getString("RestoreEmbedded.restore.title"), //$NON-NLS-1$
@@ -109,7 +123,16 @@ public class RestoreEmbedded extends Wizard implements IImportWizard {
 		page.saveToHistory();
 
 		try {
-			lRestore.restore();
+			if (lChunked == null) {
+				lRestore.restore();
+			} else {
+				// the index writer has to be closed before its files are
+				// replaced, else it would delete or overwrite the restored
+				// files
+				RelationsIndexerWithLanguage.createRelationsIndexer(context)
+				        .release();
+				lChunked.restore();
+			}
 
 			if (page.getReindex()) {
 				markToReindex(lCatalog);
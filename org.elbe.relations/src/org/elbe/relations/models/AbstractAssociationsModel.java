@@ -21,25 +21,22 @@ package org.elbe.relations.models;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
 
 import javax.inject.Inject;
 
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.log.Logger;
-import org.elbe.relations.RelationsMessages;
 import org.elbe.relations.data.bom.BOMException;
 import org.elbe.relations.data.bom.BOMHelper;
 import org.elbe.relations.data.bom.IItem;
 import org.elbe.relations.data.bom.ILightWeightItem;
 import org.elbe.relations.data.bom.RelationHome;
-import org.elbe.relations.data.utility.IItemVisitor;
+import org.elbe.relations.data.utility.LongSet;
 import org.elbe.relations.data.utility.UniqueID;
 import org.elbe.relations.db.IDataService;
 import org.elbe.relations.internal.models.ItemWithIcon;
 import org.elbe.relations.internal.utility.RelatedItemHelper;
-import org.hip.kernel.bom.DomainObjectVisitor;
 import org.hip.kernel.exc.VException;
 
 /**
@@ -54,9 +51,10 @@ public abstract class AbstractAssociationsModel implements IAssociationsModel {
 	private ItemAdapter focusItem;
 
 	protected List<ItemAdapter> related;
-	protected Collection<UniqueID> uniqueIDs;
-	protected Collection<UniqueID> added;
-	protected Collection<UniqueID> removed;
+	// packed unique IDs, see UniqueID.pack()
+	protected LongSet uniqueIDs;
+	protected LongSet added;
+	protected LongSet removed;
 
 	@Inject
 	private IDataService data;
@@ -93,34 +91,31 @@ public abstract class AbstractAssociationsModel implements IAssociationsModel {
 	protected void initialize(final ItemAdapter inItem) throws VException,
 	        SQLException {
 		related = new ArrayList<ItemAdapter>();
-		uniqueIDs = new ArrayList<UniqueID>();
+		uniqueIDs = new LongSet();
 
 		// Add the item's ID for that the item is filtered.
-		uniqueIDs.add(inItem.getUniqueID());
-		added = new HashSet<UniqueID>();
-		removed = new HashSet<UniqueID>();
+		uniqueIDs.add(inItem.getUniqueID().pack());
+		added = new LongSet();
+		removed = new LongSet();
 
-		processResult(inItem, RelatedItemHelper.getRelatedTerms(inItem));
-		processResult(inItem, RelatedItemHelper.getRelatedTexts(inItem));
-		processResult(inItem, RelatedItemHelper.getRelatedPersons(inItem));
+		processResult(inItem, RelatedItemHelper.loadRelated(inItem));
 	}
 
 	private void processResult(final ItemAdapter inSource,
 	        final Collection<ItemWithIcon> inItems) throws VException,
 	        SQLException {
 		for (final ItemWithIcon lItemIcon : inItems) {
-			final IItem lItem = lItemIcon.getItem();
+			// create (adapted) item, the full item is loaded on demand
+			final ItemAdapter lAdapted = new ItemAdapter(lItemIcon, context);
 
 			// create and configure relation
-			final IRelation lRelation = createRelation(lItem, inSource);
-
-			// create and configure (adapted) item
-			final ItemAdapter lAdapted = new ItemAdapter(lItem,
-			        lItemIcon.getIcon(), context);
+			final IRelation lRelation = createRelation(lAdapted,
+			        lItemIcon.getRelationID(), inSource);
 			lAdapted.addTarget(lRelation);
 
 			related.add(lAdapted);
-			uniqueIDs.add(new UniqueID(lItem.getItemType(), lItem.getID()));
+			uniqueIDs.add(UniqueID.pack(lAdapted.getItemType(),
+			        lAdapted.getID()));
 		}
 	}
 
@@ -129,13 +124,17 @@ public abstract class AbstractAssociationsModel implements IAssociationsModel {
 	 * 
 	 * @param inItem
 	 *            {@link IItem}
+	 * @param inRelationID
+	 *            long the id of the relation connecting the item with the
+	 *            source
 	 * @param inSource
 	 *            ItemAdapter
 	 * @return IRelation
 	 * @throws VException
 	 */
 	protected IRelation createRelation(final IItem inItem,
-	        final ItemAdapter inSource) throws VException {
+	        final long inRelationID, final ItemAdapter inSource)
+	        throws VException {
 		return null;
 	}
 
@@ -165,8 +164,8 @@ public abstract class AbstractAssociationsModel implements IAssociationsModel {
 	 */
 	@Override
 	public boolean select(final ILightWeightItem inItem) {
-		if (uniqueIDs.contains(new UniqueID(inItem.getItemType(), inItem
-		        .getID()))) {
+		if (uniqueIDs.contains(UniqueID.pack(inItem.getItemType(),
+		        inItem.getID()))) {
 			return false;
 		}
 		return true;
@@ -223,11 +222,10 @@ public abstract class AbstractAssociationsModel implements IAssociationsModel {
 	 *            UniqueID
 	 */
 	private void handleUniqueAdd(final UniqueID inID) {
-		uniqueIDs.add(inID);
-		if (removed.contains(inID)) {
-			removed.remove(inID);
-		} else {
-			added.add(inID);
+		final long lID = inID.pack();
+		uniqueIDs.add(lID);
+		if (!removed.remove(lID)) {
+			added.add(lID);
 		}
 	}
 
@@ -297,11 +295,10 @@ public abstract class AbstractAssociationsModel implements IAssociationsModel {
 	 *            UniqueID
 	 */
 	private void handleUniqueRemove(final UniqueID inID) {
-		uniqueIDs.remove(inID);
-		if (added.contains(inID)) {
-			added.remove(inID);
-		} else {
-			removed.add(inID);
+		final long lID = inID.pack();
+		uniqueIDs.remove(lID);
+		if (!added.remove(lID)) {
+			removed.add(lID);
 		}
 	}
 
@@ -313,17 +310,20 @@ public abstract class AbstractAssociationsModel implements IAssociationsModel {
 	@Override
 	public void saveChanges() throws BOMException {
 		final RelationHome lHome = BOMHelper.getRelationHome();
-		// first add: process added
-		for (final UniqueID lID : added) {
-			lHome.newRelation(focusItem, new UniqueIDWrapper(lID));
+		// first add: process added, all in one batch
+		final List<UniqueID> lAdded = new ArrayList<UniqueID>(added.size());
+		for (final long lID : added.toArray()) {
+			lAdded.add(UniqueID.unpack(lID));
 		}
+		lHome.newRelations(focusItem, lAdded);
 
 		// then remove: process removed
 		final int lType = focusItem.getItemType();
 		long lItemID;
 		try {
 			lItemID = focusItem.getID();
-			for (final UniqueID lID : removed) {
+			for (final long lPacked : removed.toArray()) {
+				final UniqueID lID = UniqueID.unpack(lPacked);
 				lHome.deleteRelation(lType, lItemID, lID.itemType, lID.itemID);
 			}
 			afterSave();
@@ -380,60 +380,7 @@ public abstract class AbstractAssociationsModel implements IAssociationsModel {
 	 */
 	@Override
 	public boolean isAssociated(final UniqueID inID) {
-		return uniqueIDs.contains(inID);
-	}
-
-	// --- private classes ---
-
-	class UniqueIDWrapper implements IItem {
-		private final UniqueID id;
-
-		public UniqueIDWrapper(final UniqueID inID) {
-			id = inID;
-		}
-
-		@Override
-		public long getID() throws VException {
-			return id.itemID;
-		}
-
-		@Override
-		public int getItemType() {
-			return id.itemType;
-		}
-
-		@Override
-		public String getTitle() throws VException {
-			return ""; //$NON-NLS-1$
-		}
-
-		@Override
-		public void visit(final IItemVisitor inVisitor) throws VException {
-			// intentionally left empty
-		}
-
-		@Override
-		public ILightWeightItem getLightWeight() throws BOMException {
-			return null;
-		}
-
-		@Override
-		public void saveTitleText(final String inTitle, final String inText)
-		        throws BOMException {
-			throw new BOMException(
-			        RelationsMessages
-			                .getString("AbstractAssociationsModel.error.msg")); //$NON-NLS-1$
-		}
-
-		@Override
-		public String getCreated() throws VException {
-			return null;
-		}
-
-		@Override
-		public void accept(final DomainObjectVisitor inVisitor) {
-			// intentionally left empty
-		}
+		return uniqueIDs.contains(inID.pack());
 	}
 
 	@Override
@@ -34,7 +34,6 @@ import org.eclipse.e4.core.services.log.Logger;
 import org.elbe.relations.RelationsConstants;
 import org.elbe.relations.data.bom.BOMException;
 import org.elbe.relations.data.bom.IItem;
-import org.elbe.relations.data.bom.IRelated;
 import org.hip.kernel.exc.VException;
 
 /**
@@ -135,10 +134,10 @@ public class CentralAssociationsModel extends AbstractAssociationsModel
 
 	@Override
 	protected IRelation createRelation(final IItem inItem,
-	        final ItemAdapter inSource) throws VException {
+	        final long inRelationID, final ItemAdapter inSource)
+	        throws VException {
 		// create and configure relation
-		final IRelation outRelation = new RelationWrapper(
-		        ((IRelated) inItem).getRelationID());
+		final IRelation outRelation = new RelationWrapper(inRelationID);
 		outRelation.setSourceItem(inSource);
 		outRelation.setTargetItem(inItem);
 		relations.add(outRelation);
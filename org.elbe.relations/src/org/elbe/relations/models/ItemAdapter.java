@@ -36,6 +36,7 @@ import org.elbe.relations.data.utility.IItemVisitor;
 import org.elbe.relations.data.utility.UniqueID;
 import org.elbe.relations.db.IAction;
 import org.elbe.relations.internal.bom.TextWithIcon;
+import org.elbe.relations.internal.models.ItemWithIcon;
 import org.elbe.relations.internal.preferences.LanguageService;
 import org.elbe.relations.internal.services.IItemEditWizard;
 import org.elbe.relations.internal.utility.ItemModelHelper;
@@ -75,6 +76,22 @@ public class ItemAdapter implements IItemModel, Comparable<Object> {
 		initialize(inContext);
 	}
 
+	/**
+	 * ItemAdapter constructor, adapting a related item. The full item is
+	 * loaded only when needed, e.g. when the item is inspected.
+	 *
+	 * @param inItem
+	 *            {@link ItemWithIcon} adaptee
+	 * @param inContext
+	 *            {@link IEclipseContext}
+	 */
+	public ItemAdapter(final ItemWithIcon inItem,
+	        final IEclipseContext inContext) {
+		item = new ItemAdapterDelegate(inItem, inContext);
+		hasDelegate = true;
+		initialize(inContext);
+	}
+
 	/**
 	 * ItemAdapter constructor, adapting an <code>IItemModel</code>.
 	 *
@@ -122,7 +139,7 @@ public class ItemAdapter implements IItemModel, Comparable<Object> {
 	 */
 	@Override
 	public long getID() throws VException {
-		return getItem().getID();
+		return item.getID();
 	}
 
 	/**
@@ -130,12 +147,12 @@ public class ItemAdapter implements IItemModel, Comparable<Object> {
 	 */
 	@Override
 	public int getItemType() {
-		return getItem().getItemType();
+		return item.getItemType();
 	}
 
 	@Override
 	public String getTitle() throws VException {
-		return getItem().getTitle();
+		return item.getTitle();
 	}
 
 	@Override
@@ -165,7 +182,7 @@ public class ItemAdapter implements IItemModel, Comparable<Object> {
 	 * @see IItem#TERM as example.
 	 */
 	public int getIconType() {
-		return getItem().getItemType() - 1;
+		return item.getItemType() - 1;
 	}
 
 	/**
@@ -249,7 +266,7 @@ public class ItemAdapter implements IItemModel, Comparable<Object> {
 	 */
 	public UniqueID getUniqueID() {
 		try {
-			return new UniqueID(getItem().getItemType(), getItem().getID());
+			return new UniqueID(item.getItemType(), item.getID());
 		}
 		catch (final VException exc) {
 			log.error(exc, exc.getMessage());
@@ -277,7 +294,7 @@ public class ItemAdapter implements IItemModel, Comparable<Object> {
 	 */
 	@Override
 	public String getCreated() throws VException {
-		return getItem().getCreated();
+		return item.getCreated();
 	}
 
 	@Override
@@ -289,8 +306,14 @@ public class ItemAdapter implements IItemModel, Comparable<Object> {
 	public int hashCode() {
 		final int lPrime = 31;
 		int outHash = 1;
-		outHash = lPrime * outHash
-		        + ((getItem() == null) ? 0 : getItem().hashCode());
+		outHash = lPrime * outHash + item.getItemType();
+		try {
+			outHash = lPrime * outHash
+			        + (int) (item.getID() ^ (item.getID() >>> 32));
+		}
+		catch (final VException exc) {
+			// intentionally left empty
+		}
 		return outHash;
 	}
 
@@ -309,65 +332,88 @@ public class ItemAdapter implements IItemModel, Comparable<Object> {
 			return false;
 		}
 		final ItemAdapter lOther = (ItemAdapter) inObj;
-		if (getItem() == null) {
-			if (lOther.getItem() != null) {
-				return false;
-			}
-		} else if (!getItem().equals(lOther.getItem())) {
+		try {
+			return getItemType() == lOther.getItemType()
+			        && getID() == lOther.getID();
+		}
+		catch (final VException exc) {
 			return false;
 		}
-		return true;
 	}
 
 	// --- inner class
 
 	/**
-	 * Helper class to adapt an <code>IItem</code> instance.
+	 * Helper class to adapt an <code>IItem</code> instance. If the delegate is
+	 * created for a related item, the values needed for display are taken from
+	 * the lightweight item and the full item is loaded on demand.
 	 */
 	private static class ItemAdapterDelegate implements IItemModel {
-		private final IItem item;
+		private IItem item;
+		private final ItemWithIcon related;
 		private final Image image;
 		private final IEclipseContext context;
 
 		ItemAdapterDelegate(final IItem inItem, final Image inImage,
 		        final IEclipseContext inContext) {
 			item = inItem;
+			related = null;
 			image = inImage;
 			context = inContext;
 		}
 
+		ItemAdapterDelegate(final ItemWithIcon inRelated,
+		        final IEclipseContext inContext) {
+			related = inRelated;
+			image = inRelated.getIcon();
+			context = inContext;
+		}
+
 		IItem getItem() {
+			if (item == null) {
+				try {
+					item = related.getItem();
+				}
+				catch (final BOMException exc) {
+					context.get(Logger.class).error(exc, exc.getMessage());
+					return new LightWeightAdapter(related.getLightWeight());
+				}
+			}
 			return item;
 		}
 
 		@Override
 		public long getID() throws VException {
-			return item.getID();
+			return item == null ? related.getLightWeight().id : item.getID();
 		}
 
 		@Override
 		public int getItemType() {
-			return item.getItemType();
+			return item == null ? related.getLightWeight().itemType : item
+			        .getItemType();
 		}
 
 		@Override
 		public String getTitle() throws VException {
-			return item.getTitle();
+			return item == null ? related.getLightWeight().title : item
+			        .getTitle();
 		}
 
 		@Override
 		public String getCreated() throws VException {
-			return item.getCreated();
+			return item == null ? related.getLightWeight().getCreated() : item
+			        .getCreated();
 		}
 
 		@Override
 		public void visit(final IItemVisitor inVisitor) throws VException {
-			if (getItemType() == IItem.TEXT) {
-				final TextHelper lItem = new TextHelper((AbstractText) item,
+			final IItem lItem = getItem();
+			if (lItem instanceof AbstractText) {
+				final TextHelper lText = new TextHelper((AbstractText) lItem,
 				        context);
-				lItem.visit(inVisitor);
+				lText.visit(inVisitor);
 			} else {
-				item.visit(inVisitor);
+				lItem.visit(inVisitor);
 			}
 		}
 
@@ -417,7 +463,7 @@ public class ItemAdapter implements IItemModel, Comparable<Object> {
 
 		@Override
 		public Class<? extends IItemEditWizard> getItemEditWizard() {
-			return ItemModelHelper.getItem(item.getItemType())
+			return ItemModelHelper.getItem(getItemType())
 			        .getItemEditWizard();
 		}
 
@@ -19,6 +19,10 @@
 package org.elbe.relations.services;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 import org.eclipse.e4.core.services.log.Logger;
 
@@ -53,4 +57,49 @@ public interface ICloudProvider {
 	boolean upload(File toExport, String fileName, JsonObject configuration,
 	        boolean isFullExport, Logger log);
 
+	/**
+	 * Executes the upload of the content read from the specified stream.
+	 * <p>
+	 * Providers supporting upload sessions should override this method and
+	 * upload the content in chunks while it is produced (see
+	 * {@link org.elbe.relations.utility.ChunkedUpload}). The default
+	 * implementation writes the content to a temporary file and uploads this
+	 * file.
+	 * </p>
+	 *
+	 * @param content
+	 *            {@link InputStream} the content to upload to the cloud
+	 * @param fileName
+	 *            String the name of the export file in the cloud
+	 * @param configuration
+	 *            {@link JsonObject} the cloud provider configuration
+	 * @param isFullExport
+	 *            boolean <code>true</code> in case of full export,
+	 *            <code>false</code> in case of incremental export
+	 * @param log
+	 *            {@link Logger}
+	 * @return boolean <code>true</code> if the content has been successfully
+	 *         uploaded
+	 */
+	default boolean upload(final InputStream content, final String fileName,
+	        final JsonObject configuration, final boolean isFullExport,
+	        final Logger log) {
+		File temp = null;
+		try {
+			temp = File.createTempFile(fileName, ".tmp"); //$NON-NLS-1$
+			Files.copy(content, temp.toPath(),
+			        StandardCopyOption.REPLACE_EXISTING);
+			return upload(temp, fileName, configuration, isFullExport, log);
+		}
+		catch (final IOException exc) {
+			log.error(exc, exc.getMessage());
+			return false;
+		}
+		finally {
+			if (temp != null) {
+				temp.delete();
+			}
+		}
+	}
+
 }
@@ -19,7 +19,9 @@
 package org.elbe.relations.services;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.elbe.relations.parsing.ExtractedData;
 
@@ -31,6 +33,12 @@ import org.elbe.relations.parsing.ExtractedData;
  */
 public interface IExtractorAdapter {
 
+	/**
+	 * The number of bytes at the start of a file that are read once and passed
+	 * to {@link #acceptsFile(File, byte[])}.
+	 */
+	int HEADER_LENGTH = 16;
+
 	/**
 	 * Tests whether this extractor can process the specified file.
 	 * 
@@ -41,6 +49,24 @@ public interface IExtractorAdapter {
 	 */
 	boolean acceptsFile(File inFile);
 
+	/**
+	 * Tests whether this extractor can process the specified file, using the
+	 * file's header that has been read before. Adapters that can decide on the
+	 * header's magic number should override this method to avoid opening the
+	 * file again.
+	 * 
+	 * @param inFile
+	 *            File, the file to test.
+	 * @param inHeader
+	 *            byte[] the first {@link #HEADER_LENGTH} bytes of the file (or
+	 *            less, if the file is smaller)
+	 * @return boolean <code>true</code> if the adapter is able to extract
+	 *         metadata from the file.
+	 */
+	default boolean acceptsFile(final File inFile, final byte[] inHeader) {
+		return acceptsFile(inFile);
+	}
+
 	/**
 	 * Processes the file and returns the extracted metadata.
 	 * 
@@ -51,4 +77,30 @@ public interface IExtractorAdapter {
 	 */
 	ExtractedData process(File inFile) throws IOException;
 
+	/**
+	 * Reads the first bytes of the specified file.
+	 * 
+	 * @param inFile
+	 *            File
+	 * @param inLength
+	 *            int the number of bytes to read, e.g. {@link #HEADER_LENGTH}
+	 * @return byte[] the header, shorter than <code>inLength</code> if the
+	 *         file is smaller
+	 * @throws IOException
+	 */
+	static byte[] readHeader(final File inFile, final int inLength)
+	        throws IOException {
+		final byte[] outHeader = new byte[inLength];
+		int lRead = 0;
+		try (FileInputStream lStream = new FileInputStream(inFile)) {
+			int lCount = 0;
+			while (lRead < inLength && (lCount = lStream.read(outHeader,
+			        lRead, inLength - lRead)) > 0) {
+				lRead += lCount;
+			}
+		}
+		return lRead == inLength ? outHeader
+		        : Arrays.copyOf(outHeader, lRead);
+	}
+
 }
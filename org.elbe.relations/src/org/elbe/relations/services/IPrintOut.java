@@ -19,6 +19,7 @@
 package org.elbe.relations.services;
 
 import java.io.IOException;
+import java.util.Collection;
 
 import javax.xml.transform.TransformerException;
 
@@ -85,6 +86,26 @@ public interface IPrintOut {
 	 */
 	void printItem(String inXML) throws TransformerException, IOException;
 
+	/**
+	 * Passes a batch of serialized items to print out.
+	 * <p>
+	 * Default behavior: the items are printed one by one. Implementations
+	 * should override this method to transform the whole batch at once.
+	 * </p>
+	 *
+	 * @param inXML
+	 *            Collection&lt;String> the items, each serialized as
+	 *            <code>&lt;Item></code> element
+	 * @throws TransformerException
+	 * @throws IOException
+	 */
+	default void printItems(final Collection<String> inXML)
+	        throws TransformerException, IOException {
+		for (final String lXML : inXML) {
+			printItem(lXML);
+		}
+	}
+
 	/**
 	 * The plug-in has to notify the system whether it can work or not.
 	 *
@@ -18,12 +18,16 @@
  ***************************************************************************/
 package org.elbe.relations.utility;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.io.StringReader;
 import java.net.URL;
 import java.util.Scanner;
@@ -32,17 +36,27 @@ import java.util.jar.JarInputStream;
 import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
 
 import org.elbe.relations.RelationsMessages;
-import org.w3c.dom.Document;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 
 /**
  * Class providing functionality for print out into zipped structures.
+ * <p>
+ * The document's content part (e.g. <code>content.xml</code>) is never held
+ * in memory: the formatted sections are spooled to a temporary file (see
+ * {@link #appendSection(String)}) and, when the print out is closed, spliced
+ * into the content part while this is streamed to the zip (see
+ * {@link #writeContent(JarOutputStream, String, QName)}). Thus, the memory
+ * needed is independent of the document's size, also when items are appended
+ * to an existing print out.
+ * </p>
  *
  * @author lbenno
  */
@@ -50,8 +64,23 @@ public abstract class AbstractJarPrintOut extends AbstractPrintOut {
 	public final static int BUFFER_LEN = 16384;
 
 	private static final String CHARSET = "UTF-8"; //$NON-NLS-1$
+	private static final String SPOOL_START = "<spool>"; //$NON-NLS-1$
+	private static final String SPOOL_END = "</spool>"; //$NON-NLS-1$
+	// the sections' children are nested in the spool and section elements
+	private static final int SECTION_CHILD_DEPTH = 2;
 
-	private DocumentBuilder docBuilder = null;
+	private final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+	private final XMLOutputFactory outputFactory = XMLOutputFactory
+	        .newInstance();
+
+	// the document's content part, either the formatted document body or the
+	// content part of the reopened print out
+	private String contentBody;
+	private File contentFile;
+	// the spooled sections
+	private File spoolFile;
+	private OutputStream spoolStream;
+	private XMLEventWriter spoolWriter;
 
 	@Override
 	public boolean isAvailable() {
@@ -130,20 +159,171 @@ public abstract class AbstractJarPrintOut extends AbstractPrintOut {
 		return parts[parts.length - 1];
 	}
 
-	protected Document createDoc(final String inXML)
-	        throws SAXException, IOException, ParserConfigurationException {
-		try (final StringReader lReader = new StringReader(inXML)) {
-			return getDocumentBuilder().parse(new InputSource(lReader));
+	/**
+	 * Sets the formatted document body, i.e. the content part of a new print
+	 * out.
+	 *
+	 * @param inXML
+	 *            String
+	 */
+	protected void setContentBody(final String inXML) {
+		contentBody = inXML;
+		contentFile = null;
+	}
+
+	/**
+	 * Appends the formatted section to the spool. The section's root element
+	 * is a container only, its children are inserted into the document's body
+	 * when the content is written.
+	 *
+	 * @param inSection
+	 *            String the formatted section
+	 * @throws IOException
+	 */
+	protected void appendSection(final String inSection) throws IOException {
+		try {
+			if (spoolWriter == null) {
+				spoolFile = File.createTempFile("~$rel", ".xml"); //$NON-NLS-1$ //$NON-NLS-2$
+				spoolStream = new BufferedOutputStream(
+				        new FileOutputStream(spoolFile), BUFFER_LEN);
+				spoolWriter = outputFactory.createXMLEventWriter(spoolStream,
+				        CHARSET);
+			}
+			final XMLEventReader reader = inputFactory
+			        .createXMLEventReader(new StringReader(inSection));
+			try {
+				while (reader.hasNext()) {
+					final XMLEvent event = reader.nextEvent();
+					if (!event.isStartDocument() && !event.isEndDocument()) {
+						spoolWriter.add(event);
+					}
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (final XMLStreamException exc) {
+			throw createIOException(exc);
 		}
 	}
 
-	protected DocumentBuilder getDocumentBuilder()
-	        throws ParserConfigurationException {
-		if (docBuilder == null) {
-			docBuilder = DocumentBuilderFactory.newInstance()
-			        .newDocumentBuilder();
+	/**
+	 * Streams the document's content part to the specified entry of the
+	 * print out. The spooled sections are inserted before the end of the body
+	 * element.
+	 *
+	 * @param inOutputJar
+	 *            {@link JarOutputStream}
+	 * @param inEntryName
+	 *            String the content part's path and name
+	 * @param inBody
+	 *            {@link QName} the body element, i.e. the element the sections
+	 *            are appended to
+	 * @throws IOException
+	 */
+	protected void writeContent(final JarOutputStream inOutputJar,
+	        final String inEntryName, final QName inBody) throws IOException {
+		if (contentBody == null && contentFile == null) {
+			cleanUp();
+			return;
+		}
+
+		try (InputStream content = openContent()) {
+			closeSpool();
+			inOutputJar.putNextEntry(new JarEntry(inEntryName));
+			final XMLEventReader reader = inputFactory
+			        .createXMLEventReader(content, CHARSET);
+			final XMLEventWriter writer = outputFactory
+			        .createXMLEventWriter(inOutputJar, CHARSET);
+			boolean spliced = false;
+			while (reader.hasNext()) {
+				final XMLEvent event = reader.nextEvent();
+				if (!spliced && event.isEndElement()
+				        && inBody.equals(event.asEndElement().getName())) {
+					spliceSections(writer);
+					spliced = true;
+				}
+				writer.add(event);
+			}
+			reader.close();
+			writer.flush();
+		}
+		catch (final XMLStreamException exc) {
+			throw createIOException(exc);
+		}
+		finally {
+			cleanUp();
 		}
-		return docBuilder;
+	}
+
+	private InputStream openContent() throws IOException {
+		if (contentFile != null) {
+			return new BufferedInputStream(new FileInputStream(contentFile),
+			        BUFFER_LEN);
+		}
+		return new ByteArrayInputStream(contentBody.getBytes(CHARSET));
+	}
+
+	private void spliceSections(final XMLEventWriter inWriter)
+	        throws IOException, XMLStreamException {
+		if (spoolFile == null) {
+			return;
+		}
+		try (InputStream spool = new SequenceInputStream(
+		        new ByteArrayInputStream(SPOOL_START.getBytes(CHARSET)),
+		        new SequenceInputStream(
+		                new BufferedInputStream(new FileInputStream(spoolFile),
+		                        BUFFER_LEN),
+		                new ByteArrayInputStream(SPOOL_END.getBytes(CHARSET))))) {
+			final XMLEventReader reader = inputFactory
+			        .createXMLEventReader(spool, CHARSET);
+			int depth = 0;
+			while (reader.hasNext()) {
+				final XMLEvent event = reader.nextEvent();
+				if (event.isStartElement()) {
+					depth++;
+				}
+				if (depth > SECTION_CHILD_DEPTH
+				        || (depth == SECTION_CHILD_DEPTH
+				                && event.isCharacters())) {
+					inWriter.add(event);
+				}
+				if (event.isEndElement()) {
+					depth--;
+				}
+			}
+			reader.close();
+		}
+	}
+
+	private void closeSpool() throws IOException {
+		if (spoolWriter == null) {
+			return;
+		}
+		try {
+			spoolWriter.close();
+		}
+		catch (final XMLStreamException exc) {
+			throw createIOException(exc);
+		}
+		finally {
+			spoolWriter = null;
+			spoolStream.close();
+		}
+	}
+
+	private void cleanUp() throws IOException {
+		closeSpool();
+		if (spoolFile != null) {
+			spoolFile.delete();
+			spoolFile = null;
+		}
+		if (contentFile != null) {
+			contentFile.delete();
+			contentFile = null;
+		}
+		contentBody = null;
 	}
 
 	/**
@@ -180,35 +360,25 @@ public abstract class AbstractJarPrintOut extends AbstractPrintOut {
 			inOutputFile = createChecked(inOutputFile);
 
 			// copy existing jar entries to new version of print out, except
-			// content.xml
-			final JarInputStream inputJar = new JarInputStream(
-			        new FileInputStream(temporary));
-			final Manifest manifest = inputJar.getManifest();
-			if (manifest == null) {
-				out.jar = new JarOutputStream(
-				        new FileOutputStream(inOutputFile));
-			} else {
-				out.jar = new JarOutputStream(
-				        new FileOutputStream(inOutputFile), manifest);
-			}
-			JarEntry entryIn;
-			while ((entryIn = inputJar.getNextJarEntry()) != null) {
-				if (!entryIn.getName().equals(inContentName)) {
-					copyEntry(entryIn, inputJar, out.getJar());
-				}
-			}
-
-			// retrieve content.xml and create a document
-			try (JarInputStream inputJar2 = new JarInputStream(
+			// content.xml which is extracted to be streamed when closing
+			try (JarInputStream inputJar = new JarInputStream(
 			        new FileInputStream(temporary))) {
-				while ((entryIn = inputJar2.getNextJarEntry()) != null
-				        && (!entryIn.getName().equals(inContentName))) {
-					// do nothing, just seek content.xml
+				final Manifest manifest = inputJar.getManifest();
+				if (manifest == null) {
+					out.jar = new JarOutputStream(
+					        new FileOutputStream(inOutputFile));
+				} else {
+					out.jar = new JarOutputStream(
+					        new FileOutputStream(inOutputFile), manifest);
+				}
+				JarEntry entryIn;
+				while ((entryIn = inputJar.getNextJarEntry()) != null) {
+					if (entryIn.getName().equals(inContentName)) {
+						extractContent(inputJar);
+					} else {
+						copyEntry(entryIn, inputJar, out.getJar());
+					}
 				}
-				out.doc = getDocumentBuilder().parse(inputJar2);
-			}
-			catch (SAXException | ParserConfigurationException exc) {
-				new IOException(exc.getMessage());
 			}
 		}
 		finally {
@@ -221,6 +391,20 @@ public abstract class AbstractJarPrintOut extends AbstractPrintOut {
 		return out;
 	}
 
+	private void extractContent(final InputStream inContent)
+	        throws IOException {
+		final File content = File.createTempFile("~$rel", ".xml"); //$NON-NLS-1$ //$NON-NLS-2$
+		try (OutputStream output = new FileOutputStream(content)) {
+			final byte buffer[] = new byte[BUFFER_LEN];
+			int read;
+			while ((read = inContent.read(buffer, 0, BUFFER_LEN)) != -1) {
+				output.write(buffer, 0, read);
+			}
+		}
+		contentFile = content;
+		contentBody = null;
+	}
+
 	private void copyEntry(final JarEntry inEntry,
 	        final JarInputStream inInputJar, final JarOutputStream inOutputJar)
 	                throws IOException {
@@ -273,11 +457,6 @@ public abstract class AbstractJarPrintOut extends AbstractPrintOut {
 	 */
 	protected static class OutputObj {
 		private JarOutputStream jar;
-		private Document doc;
-
-		public Document getDoc() {
-			return doc;
-		}
 
 		public JarOutputStream getJar() {
 			return jar;
@@ -22,6 +22,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.net.URL;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -43,6 +44,8 @@ public abstract class AbstractPrintOut implements IPrintOut {
 	private static final String NL = "\n"; //$NON-NLS-1$
 	private static final String KEY_XSL_PARAMETER_1 = "RelatedWithLbl"; //$NON-NLS-1$
 	private static final String KEY_XSL_PARAMETER_2 = "TocLbl"; //$NON-NLS-1$
+	private static final String XML_ITEMS_START = "<Items>"; //$NON-NLS-1$
+	private static final String XML_ITEMS_END = "</Items>"; //$NON-NLS-1$
 	private static final String XML_TEMPLATE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><docBody><docTitle>%s</docTitle><docSubTitle>%s</docSubTitle></docBody>"; //$NON-NLS-1$
 	private static final String CONTENT_PATTERN = XMLSerializerSpecial.PARA_START
 	        + "(.*?)" + XMLSerializerSpecial.PARA_END; //$NON-NLS-1$
@@ -163,6 +166,32 @@ public abstract class AbstractPrintOut implements IPrintOut {
 		insertSection(result.toString());
 	}
 
+	/**
+	 * Transforms the whole batch of items in one pass: the items are wrapped
+	 * in an <code>&lt;Items></code> element, thus, the stylesheet is applied
+	 * once and the formatted batch is inserted as one section.
+	 *
+	 * @see IPrintOut#printItems(Collection)
+	 */
+	@Override
+	public void printItems(final Collection<String> inXML)
+	        throws TransformerException, IOException {
+		if (inXML.isEmpty()) {
+			return;
+		}
+		final StringBuilder items = new StringBuilder(XML_ITEMS_START);
+		for (final String itemXML : inXML) {
+			items.append(prepareItemXML(itemXML));
+		}
+		items.append(XML_ITEMS_END);
+		final TransformerProxy transformer = new TransformerProxy(
+		        openURL(getXSLNameContent()), items.toString(),
+		        getStylesheetParameters());
+		final StringWriter result = new StringWriter();
+		transformer.renderToStream(result);
+		insertSection(result.toString());
+	}
+
 	/**
 	 * Prepare the item's XML before it is transformed.<br/>
 	 * Default behavior: In the text node, all line breaks are replaced by a
@@ -0,0 +1,202 @@
+/***************************************************************************
+ * This package is part of Relations application.
+ * Copyright (C) 2004-2018, Benno Luthiger
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ ***************************************************************************/
+package org.elbe.relations.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Helper class for cloud providers to upload a stream in chunks of fixed size.
+ * <p>
+ * The content is read from the stream chunk by chunk and passed to the cloud
+ * provider's upload session. Thus, the content doesn't have to be stored
+ * locally before the upload. If the upload of a chunk fails, the session is
+ * asked for the number of bytes the cloud has received and the upload is
+ * resumed from there.
+ * </p>
+ *
+ * @author lbenno
+ */
+public class ChunkedUpload {
+	/**
+	 * The default chunk size, i.e. 4 MB.
+	 */
+	public static final int DFT_CHUNK_SIZE = 4 * 1024 * 1024;
+	private static final int MAX_RETRIES = 3;
+	private static final long RETRY_DELAY = 1000;
+
+	private final int chunkSize;
+	private final int maxRetries;
+	private final long retryDelay;
+
+	/**
+	 * ChunkedUpload constructor with default chunk size.
+	 */
+	public ChunkedUpload() {
+		this(DFT_CHUNK_SIZE, MAX_RETRIES, RETRY_DELAY);
+	}
+
+	/**
+	 * ChunkedUpload constructor.
+	 *
+	 * @param chunkSize
+	 *            int the size of the chunks in bytes
+	 * @param maxRetries
+	 *            int the number of attempts to resume the upload of a chunk
+	 * @param retryDelay
+	 *            long the time to wait before resuming the upload, in
+	 *            milliseconds
+	 */
+	public ChunkedUpload(final int chunkSize, final int maxRetries,
+			final long retryDelay) {
+		this.chunkSize = chunkSize;
+		this.maxRetries = maxRetries;
+		this.retryDelay = retryDelay;
+	}
+
+	/**
+	 * Uploads the content of the specified stream.
+	 *
+	 * @param content
+	 *            {@link InputStream} the content to upload, read until the
+	 *            end of the stream
+	 * @param session
+	 *            {@link IUploadSession} the cloud provider's upload session
+	 * @return long the number of bytes uploaded
+	 * @throws IOException
+	 *             if a chunk can't be uploaded after the configured number of
+	 *             retries
+	 */
+	public long upload(final InputStream content, final IUploadSession session)
+			throws IOException {
+		final byte[] chunk = new byte[this.chunkSize];
+		long outOffset = 0;
+		int length = read(content, chunk);
+		while (length > 0) {
+			uploadChunk(session, chunk, length, outOffset);
+			outOffset += length;
+			length = read(content, chunk);
+		}
+		session.finish(outOffset);
+		return outOffset;
+	}
+
+	private void uploadChunk(final IUploadSession session, final byte[] chunk,
+			final int length, final long chunkOffset) throws IOException {
+		int sent = 0;
+		int retries = 0;
+		while (true) {
+			try {
+				session.append(chunk, sent, length - sent, chunkOffset + sent);
+				return;
+			}
+			catch (final IOException exc) {
+				if (++retries > this.maxRetries) {
+					throw exc;
+				}
+				pause();
+				final long received = session.resume(chunkOffset + sent);
+				if (received < chunkOffset || received > chunkOffset + length) {
+					// the missing bytes aren't available anymore
+					throw new IOException(String.format(
+							"Unable to resume the upload at %s, the chunk starts at %s.", //$NON-NLS-1$
+							received, chunkOffset), exc);
+				}
+				if (received == chunkOffset + length) {
+					return;
+				}
+				sent = (int) (received - chunkOffset);
+			}
+		}
+	}
+
+	private void pause() throws IOException {
+		try {
+			Thread.sleep(this.retryDelay);
+		}
+		catch (final InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			throw new IOException(exc);
+		}
+	}
+
+	/**
+	 * Fills the buffer, i.e. reads until the buffer is full or the stream
+	 * ends.
+	 */
+	private int read(final InputStream content, final byte[] buffer)
+			throws IOException {
+		int outRead = 0;
+		while (outRead < buffer.length) {
+			final int read = content.read(buffer, outRead,
+					buffer.length - outRead);
+			if (read < 0) {
+				break;
+			}
+			outRead += read;
+		}
+		return outRead;
+	}
+
+	// ---
+
+	/**
+	 * Interface for the upload sessions of the cloud providers.
+	 */
+	public interface IUploadSession {
+
+		/**
+		 * Uploads the specified part of the content.
+		 *
+		 * @param data
+		 *            byte[]
+		 * @param start
+		 *            int the start of the part in the data array
+		 * @param length
+		 *            int the length of the part
+		 * @param offset
+		 *            long the position of the part in the uploaded content
+		 * @throws IOException
+		 */
+		void append(byte[] data, int start, int length, long offset)
+				throws IOException;
+
+		/**
+		 * Called after the upload of a part failed.
+		 *
+		 * @param offset
+		 *            long the position of the failed part in the uploaded
+		 *            content
+		 * @return long the number of bytes the cloud has received, i.e. the
+		 *         position to resume the upload
+		 * @throws IOException
+		 */
+		long resume(long offset) throws IOException;
+
+		/**
+		 * Completes the upload.
+		 *
+		 * @param length
+		 *            long the length of the uploaded content
+		 * @throws IOException
+		 */
+		void finish(long length) throws IOException;
+	}
+
+}